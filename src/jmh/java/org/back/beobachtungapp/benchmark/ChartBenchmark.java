@@ -0,0 +1,99 @@
+package org.back.beobachtungapp.benchmark;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.back.beobachtungapp.config.properties.ReportProperties;
+import org.back.beobachtungapp.dto.response.monitoring.MonitoringEntryResponseDto;
+import org.back.beobachtungapp.entity.monitoring.ScaleType;
+import org.back.beobachtungapp.service.ChartService;
+import org.jfree.chart.JFreeChart;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Chart building and rasterisation for a growing number of monitoring entries. {@code entries} is
+ * the size of the whole child for {@link #handleCharts} and {@link #buildCharts}, and the size of
+ * a single parameter for the per-type chart methods.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ChartBenchmark {
+
+  @Param({"100", "10000", "100000"})
+  public int entries;
+
+  private ExecutorService executor;
+  private ChartService chartService;
+  private Set<MonitoringEntryResponseDto> childEntries;
+  private List<MonitoringEntryResponseDto> quantitative;
+  private List<MonitoringEntryResponseDto> binary;
+  private List<MonitoringEntryResponseDto> scale;
+  private JFreeChart lineChart;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ReportProperties properties = new ReportProperties();
+    executor = Executors.newFixedThreadPool(properties.getChartThreads());
+    chartService = ReportFixtures.chartService(executor, properties);
+
+    childEntries = ReportFixtures.entries(entries);
+    quantitative = ReportFixtures.parameterEntries(ScaleType.QUANTITATIVE, entries);
+    binary = ReportFixtures.parameterEntries(ScaleType.BINARY, entries);
+    scale = ReportFixtures.parameterEntries(ScaleType.SCALE, entries);
+    lineChart = chartService.createLineChart(quantitative);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Benchmark
+  public List<BufferedImage> handleCharts() {
+    return chartService.handleCharts(childEntries);
+  }
+
+  @Benchmark
+  public List<JFreeChart> buildCharts() {
+    return chartService.buildCharts(childEntries);
+  }
+
+  @Benchmark
+  public JFreeChart createLineChart() {
+    return chartService.createLineChart(quantitative);
+  }
+
+  @Benchmark
+  public JFreeChart createBinaryChart() {
+    return chartService.createBinaryChart(binary);
+  }
+
+  @Benchmark
+  public JFreeChart createScaleChart() {
+    return chartService.createScaleChart(scale);
+  }
+
+  @Benchmark
+  public BufferedImage rasterizeLineChart() {
+    return chartService.rasterize(lineChart);
+  }
+}
@@ -0,0 +1,110 @@
+package org.back.beobachtungapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Client;
+import feign.Feign;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.back.beobachtungapp.config.HttpClientConfig;
+import org.back.beobachtungapp.config.properties.HttpClientProperties;
+import org.back.beobachtungapp.dto.brevo.BrevoEmailRequest;
+import org.back.beobachtungapp.feign.BrevoClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+/**
+ * Throughput of {@link BrevoClient} calls against the local {@link StubApiServer}, once with
+ * Feign's default {@code HttpURLConnection} client and once with the pooled client of {@link
+ * HttpClientConfig}. The stub speaks plain HTTP, so the TLS handshakes saved against the real APIs
+ * come on top of the measured difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(32)
+@Fork(1)
+public class HttpClientBenchmark {
+
+  @Param({"default", "pooled"})
+  public String client;
+
+  @Param({"20"})
+  public long latencyMillis;
+
+  private StubApiServer server;
+  private CloseableHttpClient httpClient;
+  private BrevoClient brevoClient;
+  private BrevoEmailRequest request;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    server = new StubApiServer(latencyMillis);
+
+    HttpClientProperties properties = new HttpClientProperties();
+    properties.getBrevo().setUrl(server.url());
+    Client feignClient;
+    if ("pooled".equals(client)) {
+      httpClient = new HttpClientConfig(properties, new SimpleMeterRegistry()).brevoHttpClient();
+      feignClient = new ApacheHttp5Client(httpClient);
+    } else {
+      feignClient = new Client.Default(null, null);
+    }
+
+    ObjectMapper objectMapper = new ObjectMapper();
+    brevoClient =
+        Feign.builder()
+            .client(feignClient)
+            .contract(new SpringMvcContract())
+            .encoder(
+                (body, type, template) -> {
+                  try {
+                    template.body(objectMapper.writeValueAsBytes(body), StandardCharsets.UTF_8);
+                  } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                  }
+                })
+            .target(BrevoClient.class, server.url());
+
+    request =
+        new BrevoEmailRequest(
+            new BrevoEmailRequest.Sender("Kinder Compass", "sender@example.org"),
+            List.of(new BrevoEmailRequest.To("companion@example.org", "Companion")),
+            "Event reminder: Parents' evening",
+            "<p>Reminder</p>",
+            "2030-01-01T08:00:00Z",
+            "42");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    if (httpClient != null) {
+      httpClient.close();
+    }
+    server.close();
+  }
+
+  @Benchmark
+  public void sendEmail() {
+    brevoClient.sendEmail(request);
+  }
+}
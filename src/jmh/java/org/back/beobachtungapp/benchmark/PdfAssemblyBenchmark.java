@@ -0,0 +1,83 @@
+package org.back.beobachtungapp.benchmark;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.back.beobachtungapp.config.properties.ReportProperties;
+import org.back.beobachtungapp.dto.response.child.ChildWithAttachments;
+import org.back.beobachtungapp.entity.monitoring.ScaleType;
+import org.back.beobachtungapp.service.ChartService;
+import org.back.beobachtungapp.service.PdfGeneratorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The parts of {@link PdfGeneratorService} that do not depend on the number of entries: assembling
+ * the title and info pages of a child with notes and goals but no charts, and encoding a single
+ * rasterised chart as a lossless image.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PdfAssemblyBenchmark {
+
+  private PdfGeneratorService pdfGeneratorService;
+  private ChildWithAttachments child;
+  private BufferedImage chartImage;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ReportProperties properties = new ReportProperties();
+    ChartService chartService = ReportFixtures.chartService(Runnable::run, properties);
+    pdfGeneratorService = ReportFixtures.pdfGeneratorService(chartService, properties);
+
+    ChildWithAttachments withEntries = ReportFixtures.child(0);
+    child =
+        new ChildWithAttachments(
+            withEntries.id(),
+            withEntries.name(),
+            withEntries.surname(),
+            withEntries.email(),
+            withEntries.phoneNumber(),
+            withEntries.dateOfBirth(),
+            withEntries.active(),
+            withEntries.notes(),
+            withEntries.specialNeeds(),
+            withEntries.goals(),
+            withEntries.events(),
+            Set.of());
+    chartImage =
+        chartService.rasterize(
+            chartService.createLineChart(
+                ReportFixtures.parameterEntries(ScaleType.QUANTITATIVE, 1000)));
+  }
+
+  @Benchmark
+  public void assembleTextPages() throws IOException {
+    pdfGeneratorService.renderPdf(child, ReportFixtures.COMPANION, OutputStream.nullOutputStream());
+  }
+
+  @Benchmark
+  public PDImageXObject encodeRasterChart() throws IOException {
+    try (PDDocument document = new PDDocument()) {
+      return LosslessFactory.createFromImage(document, chartImage);
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package org.back.beobachtungapp.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.back.beobachtungapp.config.properties.ReportProperties;
+import org.back.beobachtungapp.config.properties.ReportProperties.ChartMode;
+import org.back.beobachtungapp.dto.response.child.ChildWithAttachments;
+import org.back.beobachtungapp.service.ChartService;
+import org.back.beobachtungapp.service.PdfGeneratorService;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end report generation, from {@link ChildWithAttachments} to PDF bytes, for a growing
+ * number of entries and both chart modes. The artefact store and the database are not involved.
+ * Besides the time per report, the size of the rendered report is reported as {@code bytes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ReportBenchmark {
+
+  @Param({"100", "10000", "100000"})
+  public int entries;
+
+  @Param({"VECTOR", "RASTER"})
+  public ChartMode chartMode;
+
+  private ExecutorService executor;
+  private PdfGeneratorService pdfGeneratorService;
+  private ChildWithAttachments child;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ReportProperties properties = new ReportProperties();
+    properties.setChartMode(chartMode);
+    executor = Executors.newFixedThreadPool(properties.getChartThreads());
+    ChartService chartService = ReportFixtures.chartService(executor, properties);
+    pdfGeneratorService = ReportFixtures.pdfGeneratorService(chartService, properties);
+    child = ReportFixtures.child(entries);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Benchmark
+  public void renderReport(ReportSize size) throws IOException {
+    CountingOutputStream out = new CountingOutputStream(OutputStream.nullOutputStream());
+    pdfGeneratorService.renderPdf(child, ReportFixtures.COMPANION, out);
+    size.bytes = out.getByteCount();
+  }
+
+  /** Size of the last rendered report; an events counter is reported as is. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class ReportSize {
+    public long bytes;
+  }
+}
@@ -0,0 +1,134 @@
+package org.back.beobachtungapp.benchmark;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import org.back.beobachtungapp.config.properties.ReportProperties;
+import org.back.beobachtungapp.dto.response.child.ChildWithAttachments;
+import org.back.beobachtungapp.dto.response.child.GoalResponseDto;
+import org.back.beobachtungapp.dto.response.companion.CompanionDto;
+import org.back.beobachtungapp.dto.response.monitoring.MonitoringEntryResponseDto;
+import org.back.beobachtungapp.dto.response.note.NoteResponseDto;
+import org.back.beobachtungapp.entity.monitoring.ScaleType;
+import org.back.beobachtungapp.service.ChartService;
+import org.back.beobachtungapp.service.PdfGeneratorService;
+
+/** Deterministic synthetic data and service wiring shared by the benchmarks. */
+final class ReportFixtures {
+
+  /** Monitoring parameters per {@link ScaleType}. */
+  static final int PARAMETERS_PER_TYPE = 2;
+
+  static final CompanionDto COMPANION =
+      new CompanionDto(1L, "Anna", "Muster", "Schule am Park", "anna@example.com", null, null);
+
+  private static final long SEED = 42;
+  private static final Instant START = Instant.parse("2024-08-01T07:30:00Z");
+
+  private ReportFixtures() {}
+
+  /**
+   * Builds a child with {@code entryCount} monitoring entries spread evenly over {@link
+   * #PARAMETERS_PER_TYPE} parameters of every {@link ScaleType}, a few readings per school day.
+   */
+  static ChildWithAttachments child(int entryCount) {
+    return new ChildWithAttachments(
+        1L,
+        "Max",
+        "Mustermann",
+        "max@example.com",
+        "+49 30 1234567",
+        LocalDate.of(2015, 5, 1),
+        true,
+        notes(),
+        Set.of(),
+        goals(),
+        Set.of(),
+        entries(entryCount));
+  }
+
+  /** Entries of a child, see {@link #child(int)}. */
+  static Set<MonitoringEntryResponseDto> entries(int entryCount) {
+    Random random = new Random(SEED);
+    ScaleType[] types = ScaleType.values();
+    int parameters = types.length * PARAMETERS_PER_TYPE;
+    Set<MonitoringEntryResponseDto> entries = new HashSet<>(entryCount * 2);
+
+    for (int i = 0; i < entryCount; i++) {
+      long parameterId = i % parameters + 1;
+      ScaleType type = types[(int) (parameterId - 1) / PARAMETERS_PER_TYPE];
+      entries.add(entry(i, parameterId, type, random));
+    }
+    return entries;
+  }
+
+  /** Entries of a single parameter of the given type, as the chart methods receive them. */
+  static List<MonitoringEntryResponseDto> parameterEntries(ScaleType type, int entryCount) {
+    Random random = new Random(SEED);
+    List<MonitoringEntryResponseDto> entries = new ArrayList<>(entryCount);
+    for (int i = 0; i < entryCount; i++) {
+      entries.add(entry(i, 1L, type, random));
+    }
+    return entries;
+  }
+
+  static ChartService chartService(Executor executor, ReportProperties properties) {
+    return new ChartService(executor, properties);
+  }
+
+  /** The Telegram queue is not touched while rendering, so no message service is needed. */
+  static PdfGeneratorService pdfGeneratorService(
+      ChartService chartService, ReportProperties properties) {
+    return new PdfGeneratorService(chartService, null, null, properties);
+  }
+
+  private static MonitoringEntryResponseDto entry(
+      int index, long parameterId, ScaleType type, Random random) {
+    return new MonitoringEntryResponseDto(
+        (long) index + 1,
+        value(type, random),
+        null,
+        parameterId,
+        type.name().toLowerCase() + " " + parameterId,
+        type.name(),
+        1L,
+        START.plus((long) index * 17, ChronoUnit.MINUTES));
+  }
+
+  private static String value(ScaleType type, Random random) {
+    return switch (type) {
+      case QUANTITATIVE -> String.valueOf(Math.round(random.nextGaussian() * 15 + 60));
+      case BINARY -> random.nextBoolean() ? "Ja" : "Nein";
+      case SCALE -> String.valueOf(random.nextInt(5) + 1);
+      case QUALITATIVE -> random.nextBoolean() ? "ruhig" : "unruhig";
+    };
+  }
+
+  private static Set<NoteResponseDto> notes() {
+    Set<NoteResponseDto> notes = new HashSet<>();
+    for (long i = 1; i <= 20; i++) {
+      notes.add(
+          new NoteResponseDto(
+              i,
+              "Bemerkung "
+                  + i
+                  + ": Das Kind hat heute im Unterricht gut mitgearbeitet, brauchte aber in der"
+                  + " zweiten Stunde mehrere Pausen und Unterstützung beim Lesen der Aufgaben."));
+    }
+    return notes;
+  }
+
+  private static Set<GoalResponseDto> goals() {
+    Set<GoalResponseDto> goals = new HashSet<>();
+    for (long i = 1; i <= 5; i++) {
+      goals.add(new GoalResponseDto(i, "Ziel " + i + ": Selbstständig an Aufgaben arbeiten"));
+    }
+    return goals;
+  }
+}
@@ -0,0 +1,85 @@
+package org.back.beobachtungapp.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for the Brevo, OpenAI and Telegram APIs, answering every request with a small JSON
+ * body after a fixed delay. Used by {@link HttpClientBenchmark}; run {@link #main} to point the
+ * application at it through {@code http-client.<name>.url} for offline load tests.
+ */
+public final class StubApiServer implements AutoCloseable {
+
+  private static final byte[] RESPONSE =
+      "{\"ok\":true,\"messageId\":\"<stub@localhost>\"}".getBytes(StandardCharsets.UTF_8);
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final long latencyMillis;
+
+  /**
+   * Starts the server on a free local port.
+   *
+   * @param latencyMillis time every response is delayed by, simulating the remote API
+   */
+  public StubApiServer(long latencyMillis) throws IOException {
+    this(0, latencyMillis);
+  }
+
+  private StubApiServer(int port, long latencyMillis) throws IOException {
+    this.latencyMillis = latencyMillis;
+    this.executor = Executors.newFixedThreadPool(128);
+    this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 512);
+    server.createContext("/", this::handle);
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  /** Base URL of the server, e.g. {@code http://127.0.0.1:54321}. */
+  public String url() {
+    return "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (InputStream body = exchange.getRequestBody()) {
+      body.transferTo(OutputStream.nullOutputStream());
+    }
+    if (latencyMillis > 0) {
+      try {
+        Thread.sleep(latencyMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, RESPONSE.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(RESPONSE);
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  /**
+   * Runs the stub server until the process is stopped.
+   *
+   * @param args optional port (default 8089) and response delay in milliseconds (default 50)
+   */
+  public static void main(String[] args) throws IOException {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+    long latency = args.length > 1 ? Long.parseLong(args[1]) : 50;
+    StubApiServer server = new StubApiServer(port, latency);
+    System.out.println("Stub API listening on " + server.url() + " with " + latency + " ms delay");
+  }
+}
@@ -13,6 +13,8 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 public class BeobachtungAppApplication {
 
   public static void main(String[] args) {
+    // Charts are rendered with AWT on worker threads; there is never a display.
+    System.setProperty("java.awt.headless", "true");
     SpringApplication.run(BeobachtungAppApplication.class, args);
   }
 }
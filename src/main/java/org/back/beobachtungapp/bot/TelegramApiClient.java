@@ -0,0 +1,153 @@
+package org.back.beobachtungapp.bot;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.entity.mime.MultipartEntityBuilder;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.back.beobachtungapp.config.properties.HttpClientProperties;
+import org.back.beobachtungapp.config.properties.TelegramProperties;
+import org.back.beobachtungapp.exception.IntegrationUnavailableException;
+import org.back.beobachtungapp.service.OutboundGuard;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendDocument;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+/**
+ * Calls the Telegram Bot API through the pooled {@code telegramHttpClient}.
+ *
+ * <p>The HTTP client of {@code TelegramWebhookBot} cannot be configured and opens at most two
+ * connections to Telegram, so outgoing messages and documents are sent here instead. Requests and
+ * responses use the same wire format as the bot library, and error responses are turned into the
+ * same {@code TelegramApiRequestException}s. Latency is recorded per API method as {@code
+ * telegram.api.requests}.
+ *
+ * <p>Calls pass the {@code telegramGuard}; unreachable API and 5xx responses count as failures of
+ * its circuit breaker. Calls are not retried here, {@link TgBot} already handles 429 and the
+ * message queues retry everything else.
+ */
+@SuppressFBWarnings
+@Component
+public class TelegramApiClient {
+
+  /** Same settings as the bot library uses for Bot API methods. */
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private final CloseableHttpClient httpClient;
+  private final OutboundGuard guard;
+  private final MeterRegistry meterRegistry;
+  private final String baseUrl;
+
+  public TelegramApiClient(
+      @Qualifier("telegramHttpClient") CloseableHttpClient httpClient,
+      @Qualifier("telegramGuard") OutboundGuard guard,
+      HttpClientProperties httpClientProperties,
+      TelegramProperties telegramProperties,
+      MeterRegistry meterRegistry) {
+    this.httpClient = httpClient;
+    this.guard = guard;
+    this.meterRegistry = meterRegistry;
+    this.baseUrl =
+        httpClientProperties.getTelegram().getUrl() + "/bot" + telegramProperties.getToken() + "/";
+  }
+
+  /**
+   * Executes a Bot API method sent as JSON, e.g. {@code SendMessage}.
+   *
+   * @param method the method to execute
+   * @return the deserialized result
+   * @throws TelegramApiException if the method is invalid, Telegram rejects it or cannot be reached
+   */
+  public <T extends Serializable> T execute(BotApiMethod<T> method) throws TelegramApiException {
+    method.validate();
+    String json;
+    try {
+      json = OBJECT_MAPPER.writeValueAsString(method);
+    } catch (JsonProcessingException e) {
+      throw new TelegramApiException("Unable to serialize " + method.getMethod(), e);
+    }
+    return post(method, new StringEntity(json, ContentType.APPLICATION_JSON));
+  }
+
+  /**
+   * Sends a document as multipart upload.
+   *
+   * @param chatId the chat to send the document to
+   * @param document the document content; it is read but not closed
+   * @param fileName the file name shown in Telegram
+   * @param caption the caption shown below the document
+   * @return the sent message
+   * @throws TelegramApiException if Telegram rejects the document or cannot be reached
+   */
+  public Message sendDocument(String chatId, InputStream document, String fileName, String caption)
+      throws TelegramApiException {
+    ContentType text = ContentType.TEXT_PLAIN.withCharset(StandardCharsets.UTF_8);
+    HttpEntity entity =
+        MultipartEntityBuilder.create()
+            .setCharset(StandardCharsets.UTF_8)
+            .addTextBody("chat_id", chatId, text)
+            .addTextBody("caption", caption, text)
+            .addBinaryBody("document", document, ContentType.APPLICATION_OCTET_STREAM, fileName)
+            .build();
+    return post(new SendDocument(), entity);
+  }
+
+  private <T extends Serializable> T post(PartialBotApiMethod<T> method, HttpEntity entity)
+      throws TelegramApiException {
+    HttpPost request = new HttpPost(baseUrl + method.getMethod());
+    request.setEntity(entity);
+
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String outcome = "error";
+    try (OutboundGuard.Permit permit = enter()) {
+      try {
+        String response =
+            httpClient.execute(
+                request, r -> EntityUtils.toString(r.getEntity(), StandardCharsets.UTF_8));
+        T result = method.deserializeResponse(response);
+        outcome = "success";
+        return result;
+      } catch (IOException e) {
+        permit.failure();
+        throw new TelegramApiException("Unable to execute " + method.getMethod(), e);
+      } catch (TelegramApiRequestException e) {
+        if (e.getErrorCode() != null && e.getErrorCode() >= 500) {
+          permit.failure();
+        }
+        throw e;
+      }
+    } finally {
+      sample.stop(
+          Timer.builder("telegram.api.requests")
+              .description("Latency of Telegram Bot API calls")
+              .tag("method", method.getMethod())
+              .tag("outcome", outcome)
+              .publishPercentileHistogram()
+              .register(meterRegistry));
+    }
+  }
+
+  private OutboundGuard.Permit enter() throws TelegramApiException {
+    try {
+      return guard.newCall().enter();
+    } catch (IntegrationUnavailableException e) {
+      throw new TelegramApiException(e.getMessage(), e);
+    }
+  }
+}
@@ -0,0 +1,197 @@
+package org.back.beobachtungapp.bot;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.config.properties.TelegramRateLimitProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token-bucket limiter in front of outbound Telegram calls, with one bucket shared by all chats and
+ * one bucket per chat (see {@code telegram.rate-limit.*}).
+ *
+ * <p>{@link #acquire(String)} blocks the caller until both buckets have a token, which throttles
+ * the queue consumers instead of running into Telegram's limits. Buckets are implemented as
+ * reservations (GCRA): a caller reserves the next free slot and sleeps until it, so waiting callers
+ * are served in order without polling. {@link #backOff(String, Duration)} pushes the chat, and only
+ * in some cases all chats, back when Telegram answers with {@code retry_after} anyway.
+ *
+ * <p>Exposes the timer {@code telegram.ratelimit.wait} and the counter {@code
+ * telegram.ratelimit.rejected} counting 429 responses.
+ */
+@SuppressFBWarnings
+@Slf4j
+@Component
+public class TelegramRateLimiter {
+
+  private final TelegramRateLimitProperties properties;
+  private final LongSupplier nanoTime;
+  private final Bucket global;
+  private final Map<String, Bucket> chats = new ConcurrentHashMap<>();
+  private final Map<String, Long> recentRejections = new ConcurrentHashMap<>();
+  private final Timer waitTime;
+  private final Counter rejected;
+
+  @Autowired
+  public TelegramRateLimiter(TelegramRateLimitProperties properties, MeterRegistry meterRegistry) {
+    this(properties, meterRegistry, System::nanoTime);
+  }
+
+  /**
+   * Creates a limiter reading the time from {@code nanoTime}.
+   *
+   * @param nanoTime source of the time in nanoseconds, {@link System#nanoTime()} in production
+   */
+  TelegramRateLimiter(
+      TelegramRateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+    this.properties = properties;
+    this.nanoTime = nanoTime;
+    this.global =
+        new Bucket(
+            properties.getGlobalPerSecond(), properties.getGlobalBurst(), nanoTime.getAsLong());
+    this.waitTime =
+        Timer.builder("telegram.ratelimit.wait")
+            .description("Time outbound Telegram calls waited for the rate limiter")
+            .register(meterRegistry);
+    this.rejected =
+        Counter.builder("telegram.ratelimit.rejected")
+            .description("Telegram calls rejected with 429 Too Many Requests")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Blocks until a call to the given chat is allowed by the chat and the global limit.
+   *
+   * <p>The chat slot is reserved first and waited for; the global token is only taken once the chat
+   * slot is due. A chat that is behind its own limit therefore never reserves global capacity ahead
+   * of time, and calls to other chats are not held up behind it.
+   *
+   * @param chatId the chat the call goes to
+   * @throws InterruptedException if the caller is interrupted while waiting
+   */
+  public void acquire(String chatId) throws InterruptedException {
+    long now = nanoTime.getAsLong();
+    long[] chatSlot = new long[1];
+    chats.compute(
+        chatId,
+        (key, bucket) -> {
+          Bucket chat = bucket != null ? bucket : newChatBucket(now);
+          chatSlot[0] = chat.reserve(now);
+          return chat;
+        });
+    long chatWait = chatSlot[0] - now;
+    if (chatWait > 0) {
+      TimeUnit.NANOSECONDS.sleep(chatWait);
+    }
+
+    long due = Math.max(nanoTime.getAsLong(), chatSlot[0]);
+    long globalWait = global.reserve(due) - due;
+    if (globalWait > 0) {
+      TimeUnit.NANOSECONDS.sleep(globalWait);
+    }
+    waitTime.record(Math.max(0, chatWait) + Math.max(0, globalWait), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Pushes the next slot of the chat back after Telegram answered with 429 Too Many Requests.
+   *
+   * <p>Telegram does not tell which limit was hit. A single rejection is attributed to the chat, so
+   * only the chat is paused and other chats keep going. The global bucket is paused as well if the
+   * {@code retry_after} is at most {@code telegram.rate-limit.global-back-off-max-delay}, which is
+   * cheap for everyone, or if {@code telegram.rate-limit.global-back-off-chats} different chats
+   * were rejected within {@code telegram.rate-limit.global-back-off-window}, which points at the
+   * global limit.
+   *
+   * @param chatId the chat the rejected call went to
+   * @param retryAfter the {@code retry_after} of the response
+   */
+  public void backOff(String chatId, Duration retryAfter) {
+    rejected.increment();
+    long now = nanoTime.getAsLong();
+    long until = now + retryAfter.toNanos();
+    chats.compute(
+        chatId,
+        (key, bucket) -> {
+          Bucket chat = bucket != null ? bucket : newChatBucket(now);
+          chat.pauseUntil(until);
+          return chat;
+        });
+
+    recentRejections.put(chatId, now);
+    long windowStart = now - properties.getGlobalBackOffWindow().toNanos();
+    recentRejections.values().removeIf(rejectedAt -> rejectedAt - windowStart < 0);
+    boolean shortDelay = retryAfter.compareTo(properties.getGlobalBackOffMaxDelay()) <= 0;
+    if (shortDelay || recentRejections.size() >= properties.getGlobalBackOffChats()) {
+      global.pauseUntil(until);
+      log.warn(
+          "Telegram rate limit hit for chat {}, backing off all chats for {}", chatId, retryAfter);
+    } else {
+      log.warn("Telegram rate limit hit for chat {}, backing off for {}", chatId, retryAfter);
+    }
+  }
+
+  /**
+   * Returns the number of retries after a 429 response before the call fails.
+   *
+   * @return {@code telegram.rate-limit.max-retries}
+   */
+  public int getMaxRetries() {
+    return properties.getMaxRetries();
+  }
+
+  /** Drops the buckets of chats that have been idle long enough to be full again. */
+  @Scheduled(fixedRate = 60000)
+  public void evictIdleBuckets() {
+    long now = nanoTime.getAsLong();
+    for (String chatId : chats.keySet()) {
+      chats.computeIfPresent(chatId, (key, bucket) -> bucket.isFull(now) ? null : bucket);
+    }
+  }
+
+  private Bucket newChatBucket(long now) {
+    return new Bucket(properties.getChatPerSecond(), properties.getChatBurst(), now);
+  }
+
+  /**
+   * Generic cell rate algorithm: {@code tat} is the theoretical arrival time of the next call
+   * allowed at the configured rate. A call may go ahead while it is at most {@code burst - 1}
+   * intervals early.
+   */
+  static final class Bucket {
+    private final long interval;
+    private final long tolerance;
+    private long tat;
+
+    /** Creates a full bucket at time {@code now}, in nanoseconds. */
+    Bucket(double perSecond, int burst, long now) {
+      this.interval = (long) (TimeUnit.SECONDS.toNanos(1) / perSecond);
+      this.tolerance = interval * (burst - 1);
+      this.tat = now;
+    }
+
+    /** Reserves the first slot at or after {@code at} and returns it. */
+    synchronized long reserve(long at) {
+      long slot = Math.max(at, tat - tolerance);
+      tat = Math.max(tat, slot) + interval;
+      return slot;
+    }
+
+    /** Lets no call go ahead before {@code until}, and only one per interval from then on. */
+    synchronized void pauseUntil(long until) {
+      tat = Math.max(tat, until + tolerance);
+    }
+
+    synchronized boolean isFull(long now) {
+      return tat - now <= 0;
+    }
+  }
+}
@@ -1,7 +1,8 @@
 package org.back.beobachtungapp.bot;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
@@ -9,16 +10,15 @@ import org.back.beobachtungapp.config.properties.TelegramProperties;
 import org.back.beobachtungapp.dto.request.companion.CompanionAdTgIdDto;
 import org.back.beobachtungapp.service.CompanionService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.bots.DefaultBotOptions;
 import org.telegram.telegrambots.bots.TelegramWebhookBot;
 import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
-import org.telegram.telegrambots.meta.api.methods.send.SendDocument;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
-import org.telegram.telegrambots.meta.api.objects.InputFile;
+import org.telegram.telegrambots.meta.api.objects.ResponseParameters;
 import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
 
 @Slf4j
 @SuppressFBWarnings
@@ -34,14 +34,22 @@ public class TgBot extends TelegramWebhookBot {
   private final String path;
   private final boolean enabled;
   private final CompanionService companionService;
+  private final TelegramRateLimiter rateLimiter;
+  private final TelegramApiClient telegramApiClient;
 
   @Autowired
-  public TgBot(TelegramProperties telegramProperties, CompanionService companionService) {
+  public TgBot(
+      TelegramProperties telegramProperties,
+      CompanionService companionService,
+      TelegramRateLimiter rateLimiter,
+      TelegramApiClient telegramApiClient) {
     super(new DefaultBotOptions(), telegramProperties.getToken());
     this.username = telegramProperties.getUsername();
     this.path = telegramProperties.getPath();
     this.enabled = telegramProperties.isEnabled();
     this.companionService = companionService;
+    this.rateLimiter = rateLimiter;
+    this.telegramApiClient = telegramApiClient;
   }
 
   @Override
@@ -106,23 +114,72 @@ public class TgBot extends TelegramWebhookBot {
     return msg;
   }
 
-  @Async
-  public void sendPdfToUser(String chatId, byte[] pdfBytes, String fileName) {
-    try {
-      SendDocument sendDocumentRequest = new SendDocument();
-      sendDocumentRequest.setChatId(chatId);
+  /**
+   * Sends a text message through the pooled {@link TelegramApiClient}, waiting for the {@link
+   * TelegramRateLimiter} first. Calls rejected with 429 Too Many Requests are retried after the
+   * {@code retry_after} Telegram asked for, up to {@code telegram.rate-limit.max-retries} times.
+   *
+   * @param message the message to send
+   * @throws TelegramApiException if Telegram rejects the message
+   */
+  public void sendMessage(SendMessage message) throws TelegramApiException {
+    rateLimited(message.getChatId(), () -> telegramApiClient.execute(message), true);
+  }
+
+  /**
+   * Sends a PDF document to a chat through the pooled {@link TelegramApiClient}, waiting for the
+   * {@link TelegramRateLimiter} first. The document stream cannot be rewound, so a call rejected
+   * with 429 Too Many Requests only pushes the rate limiter back and fails; the caller's queue
+   * retries it.
+   *
+   * @param chatId the chat to send the document to
+   * @param pdf the document content; it is read but not closed
+   * @param fileName the file name shown in Telegram
+   * @throws TelegramApiException if Telegram rejects the document
+   */
+  public void sendPdfToUser(String chatId, InputStream pdf, String fileName)
+      throws TelegramApiException {
+    rateLimited(
+        chatId,
+        () -> telegramApiClient.sendDocument(chatId, pdf, fileName, "Here's your report 📄"),
+        false);
+  }
 
-      InputFile inputFile = new InputFile();
-      inputFile.setMedia(new ByteArrayInputStream(pdfBytes), fileName);
-      sendDocumentRequest.setDocument(inputFile);
-      sendDocumentRequest.setCaption("Here's your report 📄");
+  private void rateLimited(String chatId, TelegramCall call, boolean retry)
+      throws TelegramApiException {
+    for (int attempt = 0; ; attempt++) {
+      try {
+        rateLimiter.acquire(chatId);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new TelegramApiException("Interrupted while waiting for the rate limiter", e);
+      }
 
-      this.execute(sendDocumentRequest);
-    } catch (TelegramApiException e) {
-      log.error("Telegram API Exception: {}", e.getMessage());
+      try {
+        call.execute();
+        return;
+      } catch (TelegramApiRequestException e) {
+        if (e.getErrorCode() == null || e.getErrorCode() != 429) {
+          throw e;
+        }
+        ResponseParameters parameters = e.getParameters();
+        int retryAfter =
+            parameters != null && parameters.getRetryAfter() != null
+                ? parameters.getRetryAfter()
+                : 1;
+        rateLimiter.backOff(chatId, Duration.ofSeconds(retryAfter));
+        if (!retry || attempt >= rateLimiter.getMaxRetries()) {
+          throw e;
+        }
+      }
     }
   }
 
+  @FunctionalInterface
+  private interface TelegramCall {
+    void execute() throws TelegramApiException;
+  }
+
   @Override
   public String getBotPath() {
     return path;
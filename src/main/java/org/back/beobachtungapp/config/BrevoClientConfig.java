@@ -1,12 +1,22 @@
 package org.back.beobachtungapp.config;
 
+import feign.Client;
+import feign.Request;
 import feign.RequestInterceptor;
+import feign.hc5.ApacheHttp5Client;
 import lombok.RequiredArgsConstructor;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.back.beobachtungapp.config.properties.BrevoProperties;
+import org.back.beobachtungapp.config.properties.HttpClientProperties;
+import org.back.beobachtungapp.feign.GuardedFeignClient;
+import org.back.beobachtungapp.service.OutboundGuard;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
 
-@Configuration
+/**
+ * Configuration of the {@code brevoClient} Feign client. Not a {@code @Configuration}, so its beans
+ * only exist in the client's own context and are not applied to other Feign clients.
+ */
 @RequiredArgsConstructor
 public class BrevoClientConfig {
   private final BrevoProperties properties;
@@ -18,4 +28,17 @@ public class BrevoClientConfig {
       requestTemplate.header("Content-Type", "application/json");
     };
   }
+
+  @Bean
+  public Client brevoFeignClient(
+      @Qualifier("brevoHttpClient") CloseableHttpClient httpClient,
+      @Qualifier("brevoGuard") OutboundGuard guard) {
+    return new GuardedFeignClient(new ApacheHttp5Client(httpClient), guard);
+  }
+
+  @Bean
+  public Request.Options brevoRequestOptions(HttpClientProperties httpClientProperties) {
+    HttpClientProperties.Pool pool = httpClientProperties.getBrevo();
+    return new Request.Options(pool.getConnectTimeout(), pool.getResponseTimeout(), true);
+  }
 }
@@ -10,8 +10,8 @@ import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
@@ -54,21 +54,13 @@ public class CacheConfig {
     return template;
   }
 
-  @Bean(name = "redisPdfTemplate")
-  public RedisTemplate<String, Object> redisObjectTemplate(RedisConnectionFactory factory) {
-    RedisTemplate<String, Object> template = new RedisTemplate<>();
+  @Bean(name = "redisBlobTemplate")
+  public RedisTemplate<String, byte[]> redisBlobTemplate(RedisConnectionFactory factory) {
+    RedisTemplate<String, byte[]> template = new RedisTemplate<>();
     template.setConnectionFactory(factory);
-
-    Jackson2JsonRedisSerializer<Object> serializer =
-        new Jackson2JsonRedisSerializer<>(Object.class);
-
     template.setKeySerializer(new StringRedisSerializer());
-    template.setValueSerializer(serializer);
-    template.setHashKeySerializer(new StringRedisSerializer());
-    template.setHashValueSerializer(serializer);
-
+    template.setValueSerializer(RedisSerializer.byteArray());
     template.afterPropertiesSet();
-
     return template;
   }
 }
@@ -0,0 +1,72 @@
+package org.back.beobachtungapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.RequiredArgsConstructor;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.back.beobachtungapp.config.properties.HttpClientProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Pooled outbound HTTP clients, one per integration, so a slow API can only exhaust its own
+ * connections. Connections are kept alive for {@code http-client.<name>.keep-alive} and reused, so
+ * most calls skip the TCP and TLS handshake. Pool usage is published as {@code
+ * httpcomponents.httpclient.pool.*} tagged with {@code httpclient=<name>}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class HttpClientConfig {
+  private final HttpClientProperties properties;
+  private final MeterRegistry meterRegistry;
+
+  @Bean(destroyMethod = "close")
+  public CloseableHttpClient openAiHttpClient() {
+    return pooledClient("openai", properties.getOpenai());
+  }
+
+  @Bean(destroyMethod = "close")
+  public CloseableHttpClient brevoHttpClient() {
+    return pooledClient("brevo", properties.getBrevo());
+  }
+
+  @Bean(destroyMethod = "close")
+  public CloseableHttpClient telegramHttpClient() {
+    return pooledClient("telegram", properties.getTelegram());
+  }
+
+  private CloseableHttpClient pooledClient(String name, HttpClientProperties.Pool pool) {
+    PoolingHttpClientConnectionManager connectionManager =
+        PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(pool.getMaxConnections())
+            .setMaxConnPerRoute(pool.getMaxConnections())
+            .setDefaultConnectionConfig(
+                ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.of(pool.getConnectTimeout()))
+                    .setSocketTimeout(Timeout.of(pool.getResponseTimeout()))
+                    .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                    .build())
+            .build();
+    new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, name)
+        .bindTo(meterRegistry);
+
+    return HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .setDefaultRequestConfig(
+            RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(pool.getConnectionRequestTimeout()))
+                .setResponseTimeout(Timeout.of(pool.getResponseTimeout()))
+                .setConnectionKeepAlive(TimeValue.of(pool.getKeepAlive()))
+                .build())
+        .evictExpiredConnections()
+        .evictIdleConnections(TimeValue.of(pool.getKeepAlive()))
+        .build();
+  }
+}
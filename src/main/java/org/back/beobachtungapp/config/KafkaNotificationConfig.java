@@ -0,0 +1,79 @@
+package org.back.beobachtungapp.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.util.NoSuchElementException;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.back.beobachtungapp.config.properties.NotificationProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+/**
+ * Topics and listener container of the Kafka notification transport, active with {@code
+ * notification.transport=kafka}.
+ *
+ * <p>Listeners receive records in batches and commit their offsets once per batch. A failing record
+ * is redelivered with exponential backoff, the records before it are committed; after {@code
+ * notification.kafka.max-attempts} deliveries, or right away if it can never succeed, it is
+ * published to {@code <topic>.DLT}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "notification.transport", havingValue = "kafka")
+public class KafkaNotificationConfig {
+
+  private static final String DEAD_LETTER_SUFFIX = ".DLT";
+
+  @Bean
+  public KafkaAdmin.NewTopics notificationTopics(NotificationProperties properties) {
+    NotificationProperties.Kafka kafka = properties.getKafka();
+    return new KafkaAdmin.NewTopics(
+        topic(kafka, kafka.getMessagesTopic()),
+        topic(kafka, kafka.getMessagesTopic() + DEAD_LETTER_SUFFIX),
+        topic(kafka, kafka.getPdfTopic()),
+        topic(kafka, kafka.getPdfTopic() + DEAD_LETTER_SUFFIX));
+  }
+
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, String> notificationListenerFactory(
+      ConsumerFactory<String, String> consumerFactory,
+      KafkaTemplate<String, String> kafkaTemplate,
+      NotificationProperties properties) {
+    NotificationProperties.Kafka kafka = properties.getKafka();
+
+    ExponentialBackOffWithMaxRetries backOff =
+        new ExponentialBackOffWithMaxRetries(kafka.getMaxAttempts() - 1);
+    backOff.setInitialInterval(kafka.getInitialBackoff().toMillis());
+    backOff.setMultiplier(2);
+    backOff.setMaxInterval(kafka.getMaxBackoff().toMillis());
+
+    DefaultErrorHandler errorHandler =
+        new DefaultErrorHandler(new DeadLetterPublishingRecoverer(kafkaTemplate), backOff);
+    errorHandler.addNotRetryableExceptions(
+        JsonProcessingException.class, NoSuchElementException.class);
+
+    ConcurrentKafkaListenerContainerFactory<String, String> factory =
+        new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(consumerFactory);
+    factory.setBatchListener(true);
+    factory.setConcurrency(kafka.getConcurrency());
+    factory.setCommonErrorHandler(errorHandler);
+    factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+    return factory;
+  }
+
+  private NewTopic topic(NotificationProperties.Kafka kafka, String name) {
+    return TopicBuilder.name(name)
+        .partitions(kafka.getPartitions())
+        .replicas(kafka.getReplicas())
+        .build();
+  }
+}
@@ -1,12 +1,22 @@
 package org.back.beobachtungapp.config;
 
+import feign.Client;
+import feign.Request;
 import feign.RequestInterceptor;
+import feign.hc5.ApacheHttp5Client;
 import lombok.RequiredArgsConstructor;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.back.beobachtungapp.config.properties.HttpClientProperties;
 import org.back.beobachtungapp.config.properties.OpenAiProperties;
+import org.back.beobachtungapp.feign.GuardedFeignClient;
+import org.back.beobachtungapp.service.OutboundGuard;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
 
-@Configuration
+/**
+ * Configuration of the {@code openAiAssistantClient} Feign client. Not a {@code @Configuration}, so
+ * its beans only exist in the client's own context and are not applied to other Feign clients.
+ */
 @RequiredArgsConstructor
 public class OpenAiFeignConfig {
 
@@ -20,4 +30,17 @@ public class OpenAiFeignConfig {
       requestTemplate.header("Content-Type", "application/json");
     };
   }
+
+  @Bean
+  public Client openAiFeignClient(
+      @Qualifier("openAiHttpClient") CloseableHttpClient httpClient,
+      @Qualifier("openAiGuard") OutboundGuard guard) {
+    return new GuardedFeignClient(new ApacheHttp5Client(httpClient), guard);
+  }
+
+  @Bean
+  public Request.Options openAiRequestOptions(HttpClientProperties httpClientProperties) {
+    HttpClientProperties.Pool pool = httpClientProperties.getOpenai();
+    return new Request.Options(pool.getConnectTimeout(), pool.getResponseTimeout(), true);
+  }
 }
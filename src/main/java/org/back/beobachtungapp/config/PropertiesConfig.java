@@ -1,9 +1,18 @@
 package org.back.beobachtungapp.config;
 
+import org.back.beobachtungapp.config.properties.BlobProperties;
 import org.back.beobachtungapp.config.properties.BrevoProperties;
+import org.back.beobachtungapp.config.properties.HttpClientProperties;
 import org.back.beobachtungapp.config.properties.JwtProperties;
+import org.back.beobachtungapp.config.properties.NotificationProperties;
 import org.back.beobachtungapp.config.properties.OpenAiProperties;
+import org.back.beobachtungapp.config.properties.QueueProperties;
+import org.back.beobachtungapp.config.properties.ReportProperties;
+import org.back.beobachtungapp.config.properties.ResilienceProperties;
+import org.back.beobachtungapp.config.properties.TelegramMessageQueueProperties;
 import org.back.beobachtungapp.config.properties.TelegramProperties;
+import org.back.beobachtungapp.config.properties.TelegramQueueProperties;
+import org.back.beobachtungapp.config.properties.TelegramRateLimitProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
@@ -12,6 +21,15 @@ import org.springframework.context.annotation.Configuration;
   JwtProperties.class,
   OpenAiProperties.class,
   TelegramProperties.class,
-  BrevoProperties.class
+  BrevoProperties.class,
+  ReportProperties.class,
+  BlobProperties.class,
+  TelegramQueueProperties.class,
+  TelegramMessageQueueProperties.class,
+  QueueProperties.class,
+  TelegramRateLimitProperties.class,
+  NotificationProperties.class,
+  HttpClientProperties.class,
+  ResilienceProperties.class
 })
 public class PropertiesConfig {}
@@ -0,0 +1,104 @@
+package org.back.beobachtungapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.back.beobachtungapp.config.properties.QueueProperties;
+import org.back.beobachtungapp.service.PartitionLeaseManager;
+import org.back.beobachtungapp.service.PartitionedQueue;
+import org.back.beobachtungapp.service.ReliableQueue;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.RedisTemplate;
+
+@Configuration
+public class QueueConfig {
+
+  /**
+   * Redis list of Telegram PDF jobs. Partition {@code n} lives under {@code <key>:<n>}; the list
+   * itself only holds jobs enqueued before the queue was partitioned.
+   */
+  public static final String TELEGRAM_PDF_QUEUE_KEY = "telegram:pdf:queue";
+
+  /** Redis list of delayed Telegram messages that are due for sending, partitioned as above. */
+  public static final String TELEGRAM_MESSAGE_QUEUE_KEY = "telegram:message:queue";
+
+  /**
+   * ID of this application instance in partition leases and the processing lists of all queues.
+   * Random per start, so a restarted instance never picks up the claims of its previous run; those
+   * are recovered through their expiring leases instead.
+   */
+  private final String instanceId = createInstanceId();
+
+  @Bean
+  public PartitionLeaseManager partitionLeaseManager(
+      @Qualifier("redisTemplate") RedisTemplate<String, String> redisTemplate,
+      QueueProperties queueProperties) {
+    return new PartitionLeaseManager(instanceId, redisTemplate, queueProperties);
+  }
+
+  @Bean
+  public PartitionedQueue telegramPdfQueue(
+      @Qualifier("redisTemplate") RedisTemplate<String, String> redisTemplate,
+      QueueProperties queueProperties,
+      ObjectMapper objectMapper,
+      PartitionLeaseManager partitionLeaseManager) {
+    return partitionedQueue(
+        "telegram-pdf",
+        TELEGRAM_PDF_QUEUE_KEY,
+        redisTemplate,
+        queueProperties,
+        objectMapper,
+        partitionLeaseManager);
+  }
+
+  @Bean
+  public PartitionedQueue telegramMessageQueue(
+      @Qualifier("redisTemplate") RedisTemplate<String, String> redisTemplate,
+      QueueProperties queueProperties,
+      ObjectMapper objectMapper,
+      PartitionLeaseManager partitionLeaseManager) {
+    return partitionedQueue(
+        "telegram-message",
+        TELEGRAM_MESSAGE_QUEUE_KEY,
+        redisTemplate,
+        queueProperties,
+        objectMapper,
+        partitionLeaseManager);
+  }
+
+  private PartitionedQueue partitionedQueue(
+      String name,
+      String key,
+      RedisTemplate<String, String> redisTemplate,
+      QueueProperties queueProperties,
+      ObjectMapper objectMapper,
+      PartitionLeaseManager partitionLeaseManager) {
+    List<ReliableQueue> partitions = new ArrayList<>();
+    for (int partition = 0; partition < queueProperties.getPartitions(); partition++) {
+      partitions.add(
+          new ReliableQueue(
+              name + "/" + partition,
+              key + ":" + partition,
+              instanceId,
+              redisTemplate,
+              queueProperties,
+              objectMapper));
+    }
+    return new PartitionedQueue(name, partitionLeaseManager, partitions);
+  }
+
+  private static String createInstanceId() {
+    String host;
+    try {
+      host = InetAddress.getLocalHost().getHostName();
+    } catch (UnknownHostException e) {
+      host = "unknown";
+    }
+    return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+  }
+}
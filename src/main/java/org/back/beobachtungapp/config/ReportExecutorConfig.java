@@ -0,0 +1,49 @@
+package org.back.beobachtungapp.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import lombok.RequiredArgsConstructor;
+import org.back.beobachtungapp.config.properties.ReportProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@RequiredArgsConstructor
+public class ReportExecutorConfig {
+  private final ReportProperties reportProperties;
+
+  /**
+   * Dedicated, bounded pool for report jobs so PDF generation never runs on (or starves) the
+   * servlet worker threads. Submissions beyond the queue capacity are rejected instead of piling
+   * up.
+   */
+  @Bean(name = "reportExecutor")
+  public ThreadPoolTaskExecutor reportExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(reportProperties.getJobThreads());
+    executor.setMaxPoolSize(reportProperties.getJobThreads());
+    executor.setQueueCapacity(reportProperties.getJobQueueCapacity());
+    executor.setThreadNamePrefix("report-");
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(30);
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Dedicated, bounded pool rendering the charts of a report in parallel. When the queue is full
+   * the submitting report thread renders the chart itself, which throttles report generation
+   * instead of failing it.
+   */
+  @Bean(name = "chartExecutor")
+  public ThreadPoolTaskExecutor chartExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(reportProperties.getChartThreads());
+    executor.setMaxPoolSize(reportProperties.getChartThreads());
+    executor.setQueueCapacity(reportProperties.getChartQueueCapacity());
+    executor.setThreadNamePrefix("chart-");
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.initialize();
+    return executor;
+  }
+}
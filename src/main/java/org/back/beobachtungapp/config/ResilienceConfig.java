@@ -0,0 +1,34 @@
+package org.back.beobachtungapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.back.beobachtungapp.config.properties.ResilienceProperties;
+import org.back.beobachtungapp.service.OutboundGuard;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * One {@link OutboundGuard} per external API, so an outage of one integration neither takes the
+ * slots nor opens the circuit of another.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ResilienceConfig {
+  private final ResilienceProperties properties;
+  private final MeterRegistry meterRegistry;
+
+  @Bean
+  public OutboundGuard openAiGuard() {
+    return new OutboundGuard("openai", properties.getOpenai(), meterRegistry);
+  }
+
+  @Bean
+  public OutboundGuard brevoGuard() {
+    return new OutboundGuard("brevo", properties.getBrevo(), meterRegistry);
+  }
+
+  @Bean
+  public OutboundGuard telegramGuard() {
+    return new OutboundGuard("telegram", properties.getTelegram(), meterRegistry);
+  }
+}
@@ -0,0 +1,34 @@
+package org.back.beobachtungapp.config.properties;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "blob")
+public class BlobProperties {
+  /** Where report payloads referenced by queue messages are kept. */
+  @NotNull private Store store = Store.REDIS;
+
+  /** Payloads not consumed within this time are deleted. */
+  @NotNull private Duration ttl = Duration.ofDays(2);
+
+  /** Prefix of the Redis keys holding payloads. */
+  @NotBlank private String redisKeyPrefix = "blob:";
+
+  /** Spool directory of the filesystem store, {@code <tmp>/blob-spool} if not set. */
+  private String spoolDir;
+
+  public enum Store {
+    /** Binary Redis keys with TTL; works across instances. */
+    REDIS,
+    /** Local spool directory; producer and consumer must share the file system. */
+    FILESYSTEM
+  }
+}
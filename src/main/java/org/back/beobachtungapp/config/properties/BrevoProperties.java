@@ -1,6 +1,11 @@
 package org.back.beobachtungapp.config.properties;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -12,4 +17,24 @@ import org.springframework.validation.annotation.Validated;
 @ConfigurationProperties(prefix = "brevo")
 public class BrevoProperties {
   @NotBlank private String api_key;
+
+  @Valid private Batch batch = new Batch();
+
+  @Getter
+  @Setter
+  public static class Batch {
+    /** Emails sent as message versions of one request; a full batch is sent right away. */
+    @Positive
+    @Max(1000)
+    private int maxVersions = 100;
+
+    /** How long an email waits for others scheduled in the same minute before it is sent. */
+    @NotNull private Duration maxDelay = Duration.ofMillis(500);
+
+    /** How long callers wait for the batch of their emails to be sent. */
+    @NotNull private Duration sendTimeout = Duration.ofSeconds(30);
+
+    /** How long message IDs are kept for cancellation after the email was scheduled. */
+    @NotNull private Duration messageIdRetention = Duration.ofDays(1);
+  }
 }
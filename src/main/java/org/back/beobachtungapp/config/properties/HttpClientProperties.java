@@ -0,0 +1,53 @@
+package org.back.beobachtungapp.config.properties;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "http-client")
+public class HttpClientProperties {
+  @Valid private Pool openai = new Pool("https://api.openai.com/v1", 20, Duration.ofSeconds(60));
+
+  @Valid private Pool brevo = new Pool("https://api.brevo.com/v3", 20, Duration.ofSeconds(15));
+
+  @Valid private Pool telegram = new Pool("https://api.telegram.org", 50, Duration.ofSeconds(30));
+
+  @Getter
+  @Setter
+  public static class Pool {
+    /** Base URL of the API; point it to a local stub server for offline benchmarks. */
+    @NotBlank private String url;
+
+    /** Connections kept open to the API at most. */
+    @Positive private int maxConnections;
+
+    /** How long establishing a connection, including the TLS handshake, may take. */
+    @NotNull private Duration connectTimeout = Duration.ofSeconds(5);
+
+    /** How long to wait for the response once the request has been sent. */
+    @NotNull private Duration responseTimeout;
+
+    /** How long a request waits for a free pooled connection before it fails. */
+    @NotNull private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+
+    /** How long idle connections are kept open for reuse. */
+    @NotNull private Duration keepAlive = Duration.ofSeconds(60);
+
+    public Pool() {}
+
+    Pool(String url, int maxConnections, Duration responseTimeout) {
+      this.url = url;
+      this.maxConnections = maxConnections;
+      this.responseTimeout = responseTimeout;
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package org.back.beobachtungapp.config.properties;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "notification")
+public class NotificationProperties {
+  /** Transport carrying due Telegram messages and PDF deliveries to their senders. */
+  @NotNull private Transport transport = Transport.REDIS;
+
+  /** How long the payload of a scheduled message is kept once it is due but not yet dispatched. */
+  @NotNull private Duration delayedPayloadTtl = Duration.ofDays(1);
+
+  @Valid private Kafka kafka = new Kafka();
+
+  @Valid private Streams streams = new Streams();
+
+  @Valid private Outbox outbox = new Outbox();
+
+  public enum Transport {
+    /** Partitioned reliable queues in Redis. */
+    REDIS,
+    /** Kafka topics keyed by companion ID. */
+    KAFKA,
+    /** Redis Streams read by a consumer group. */
+    STREAMS
+  }
+
+  @Getter
+  @Setter
+  public static class Kafka {
+    /** Topic of due Telegram messages. */
+    @NotBlank private String messagesTopic = "notifications.telegram-messages";
+
+    /** Topic of Telegram PDF deliveries. */
+    @NotBlank private String pdfTopic = "notifications.telegram-pdf";
+
+    /** Partitions of both topics when they are created by the application. */
+    @Positive private int partitions = 12;
+
+    /** Replication factor of both topics when they are created by the application. */
+    @Positive private short replicas = 1;
+
+    /** Listener threads per topic; at most one per partition is busy. */
+    @Positive private int concurrency = 3;
+
+    /** Deliveries of a record before it is published to the {@code <topic>.DLT} topic. */
+    @Positive private int maxAttempts = 5;
+
+    /** Delay before the first redelivery; doubled with every further attempt. */
+    @NotNull private Duration initialBackoff = Duration.ofSeconds(1);
+
+    /** Upper bound of the redelivery delay. */
+    @NotNull private Duration maxBackoff = Duration.ofMinutes(1);
+
+    /** How long publishing waits for the broker to acknowledge a record. */
+    @NotNull private Duration sendTimeout = Duration.ofSeconds(10);
+
+    /** How long IDs of processed records are remembered to skip redeliveries. */
+    @NotNull private Duration deduplicationTtl = Duration.ofDays(7);
+  }
+
+  @Getter
+  @Setter
+  public static class Streams {
+    /** Consumer group all instances read both streams in. */
+    @NotBlank private String group = "notification-senders";
+
+    /** Consumers per stream and instance, each reading its own batches. */
+    @Positive private int consumers = 2;
+
+    /** Entries read per {@code XREADGROUP} call. */
+    @Positive private int batchSize = 50;
+
+    /** How long a read waits for new entries before it is repeated. */
+    @NotNull private Duration blockTimeout = Duration.ofSeconds(2);
+
+    /** Approximate number of entries kept per stream; older ones are trimmed on every add. */
+    @Positive private long maxLength = 100000;
+
+    /** Entries older than this are trimmed by the maintenance run, acknowledged or not. */
+    @NotNull private Duration maxAge = Duration.ofDays(7);
+  }
+
+  @Getter
+  @Setter
+  public static class Outbox {
+    /** Entries claimed and relayed per transaction. */
+    @Positive private int batchSize = 100;
+
+    /** How long the relay waits for new entries when it is not woken by a commit. */
+    @NotNull private Duration pollInterval = Duration.ofSeconds(1);
+
+    /** Entries are relayed once their event has not changed for this long. */
+    @NotNull private Duration coalesceWindow = Duration.ofSeconds(2);
+
+    /** Entries of an event changing continuously are relayed at the latest after this long. */
+    @NotNull private Duration coalesceMaxDelay = Duration.ofSeconds(30);
+
+    /** How long claimed entries stay locked before another relay may claim them again. */
+    @NotNull private Duration lease = Duration.ofMinutes(1);
+
+    /** Relay attempts of an entry before it is dropped. */
+    @Positive private int maxAttempts = 10;
+
+    /** Delay before the second attempt; doubled with every further attempt. */
+    @NotNull private Duration initialBackoff = Duration.ofSeconds(5);
+
+    /** Upper bound of the delay between two attempts. */
+    @NotNull private Duration maxBackoff = Duration.ofMinutes(10);
+  }
+}
@@ -1,6 +1,8 @@
 package org.back.beobachtungapp.config.properties;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -16,4 +18,10 @@ public class OpenAiProperties {
 
   @NotBlank private String id;
   @NotBlank private String key;
+
+  /** How long a run may take before it is cancelled and the prompt fails. */
+  @NotNull private Duration runTimeout = Duration.ofSeconds(60);
+
+  /** Delay between two status checks of a run. */
+  @NotNull private Duration runPollInterval = Duration.ofSeconds(1);
 }
@@ -0,0 +1,36 @@
+package org.back.beobachtungapp.config.properties;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "queue")
+public class QueueProperties {
+  /** How long a claimed job may stay unacknowledged before it is retried. */
+  @NotNull private Duration visibilityTimeout = Duration.ofMinutes(5);
+
+  /** Failed deliveries after which a job is moved to the dead-letter list. */
+  @Positive private int maxAttempts = 5;
+
+  /** Delay before the first retry; doubled with every further failed attempt. */
+  @NotNull private Duration initialBackoff = Duration.ofSeconds(30);
+
+  /** Upper bound of the retry delay. */
+  @NotNull private Duration maxBackoff = Duration.ofMinutes(30);
+
+  /** Redis partitions every queue and the delayed messages are sharded into. */
+  @Positive private int partitions = 8;
+
+  /** How long an instance owns a partition without renewing its lease. */
+  @NotNull private Duration partitionLeaseTtl = Duration.ofSeconds(30);
+
+  /** Jobs moved per queue and maintenance run when retrying or recovering expired jobs. */
+  @Positive private int maintenanceBatchSize = 100;
+}
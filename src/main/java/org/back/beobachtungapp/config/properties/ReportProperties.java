@@ -0,0 +1,80 @@
+package org.back.beobachtungapp.config.properties;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "report")
+public class ReportProperties {
+  /** Heap budget per document; PDFBox spills everything beyond it into temp files. */
+  @Positive private long maxMainMemoryBytes = 8 * 1024 * 1024;
+
+  /** Directory for PDFBox scratch files, system temp dir if not set. */
+  private String tempDir;
+
+  /** Number of threads generating reports submitted through the job API. */
+  @Positive private int jobThreads = 2;
+
+  /** Jobs waiting for a free report thread before new submissions are rejected. */
+  @PositiveOrZero private int jobQueueCapacity = 50;
+
+  /** How long the state of a job is kept in Redis after its last change. */
+  @NotNull private Duration jobRetention = Duration.ofHours(1);
+
+  /** Reports of a bulk export rendered at the same time. */
+  @Positive private int bulkParallelism = 2;
+
+  /** Reports rendered at the same time across all endpoints. */
+  @Positive private int maxConcurrentRenders = 2;
+
+  /** Reports waiting for admission before further ones are rejected right away. */
+  @PositiveOrZero private int maxQueuedRenders = 20;
+
+  /** How long a report waits for admission before it is rejected. */
+  @NotNull private Duration admissionTimeout = Duration.ofSeconds(10);
+
+  /** Heap all rendering reports may reserve together, based on their estimated size. */
+  @NotNull private DataSize memoryBudget = DataSize.ofMegabytes(256);
+
+  /** Estimated heap per monitoring entry while a report is rendered. */
+  @Positive private long estimatedBytesPerEntry = 1024;
+
+  /** Number of threads rendering charts; defaults to the number of available processors. */
+  @Positive private int chartThreads = Runtime.getRuntime().availableProcessors();
+
+  /** Charts waiting for a render thread before callers render them on their own thread. */
+  @PositiveOrZero private int chartQueueCapacity = 200;
+
+  /** Directory of the rendered report store, {@code <tmp>/report-cache} if not set. */
+  private String cacheDir;
+
+  /** Stored reports not served for this long are deleted. */
+  @NotNull private Duration cacheTtl = Duration.ofDays(7);
+
+  /** Line charts with more points are reduced to this many with Largest-Triangle-Three-Buckets. */
+  @Min(3)
+  private int chartMaxPoints = 1000;
+
+  /** How charts are embedded into reports. */
+  @NotNull private ChartMode chartMode = ChartMode.VECTOR;
+
+  /** Resolution of rasterised charts when {@code report.chart-mode=raster}. */
+  @Positive private int rasterDpi = 96;
+
+  public enum ChartMode {
+    /** Charts are drawn as PDF vector graphics. */
+    VECTOR,
+    /** Charts are embedded as lossless images rendered at {@code report.raster-dpi}. */
+    RASTER
+  }
+}
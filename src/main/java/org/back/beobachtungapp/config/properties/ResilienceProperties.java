@@ -0,0 +1,78 @@
+package org.back.beobachtungapp.config.properties;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "resilience")
+public class ResilienceProperties {
+  @Valid private Integration openai = new Integration(10, Duration.ofSeconds(60));
+
+  @Valid private Integration brevo = new Integration(10, Duration.ofSeconds(20));
+
+  @Valid private Integration telegram = new Integration(20, Duration.ofSeconds(30));
+
+  @Getter
+  @Setter
+  public static class Integration {
+    /** Calls in flight at the same time; further calls wait for {@code max-wait}. */
+    @Positive private int maxConcurrentCalls;
+
+    /** How long a call waits for a free slot before it is rejected. */
+    @NotNull private Duration maxWait = Duration.ofMillis(500);
+
+    /** Time budget of a call including waiting, retries and their delays. */
+    @NotNull private Duration deadline;
+
+    /** Failure rate in percent over the sliding window that opens the circuit. */
+    @Min(1)
+    @Max(100)
+    private int failureRateThreshold = 50;
+
+    /** Number of most recent calls the failure rate is computed over. */
+    @Positive private int slidingWindowSize = 20;
+
+    /** Calls needed in the window before the failure rate is evaluated. */
+    @Positive private int minimumCalls = 10;
+
+    /** How long an open circuit rejects calls before a single probe call is let through. */
+    @NotNull private Duration openDuration = Duration.ofSeconds(30);
+
+    /** Attempts of a call, including the first one. */
+    @Positive private int maxAttempts = 3;
+
+    /** Delay before the first retry unless the API sent {@code Retry-After}; doubled per retry. */
+    @NotNull private Duration initialBackoff = Duration.ofMillis(200);
+
+    /** Longest {@code Retry-After} honoured; calls asked to wait longer fail right away. */
+    @NotNull private Duration maxRetryAfter = Duration.ofSeconds(10);
+
+    /** Retries earned per call, so retries stay a fraction of the traffic during an outage. */
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private double retryBudgetRatio = 0.2;
+
+    /** Retries that can be spent in a burst before the budget has to be earned by new calls. */
+    @PositiveOrZero private int retryBudgetBurst = 10;
+
+    public Integration() {}
+
+    Integration(int maxConcurrentCalls, Duration deadline) {
+      this.maxConcurrentCalls = maxConcurrentCalls;
+      this.deadline = deadline;
+    }
+  }
+}
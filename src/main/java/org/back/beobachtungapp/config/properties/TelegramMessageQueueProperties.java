@@ -0,0 +1,29 @@
+package org.back.beobachtungapp.config.properties;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "telegram.message-queue")
+public class TelegramMessageQueueProperties {
+  /** Whether this instance consumes the queue of due Telegram messages. */
+  private boolean consumerEnabled = true;
+
+  /**
+   * Number of threads sending messages; also the number of messages taken off the queue at a time.
+   */
+  @Positive private int workers = 4;
+
+  /**
+   * How long the poller blocks on one owned partition after a round over all of them found no
+   * message.
+   */
+  @NotNull private Duration pollTimeout = Duration.ofSeconds(1);
+}
@@ -0,0 +1,26 @@
+package org.back.beobachtungapp.config.properties;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "telegram.pdf-queue")
+public class TelegramQueueProperties {
+  /** Whether this instance consumes the Telegram PDF queue. */
+  private boolean consumerEnabled = true;
+
+  /** Number of threads sending PDFs; also the number of jobs taken off the queue at a time. */
+  @Positive private int workers = 4;
+
+  /**
+   * How long the poller blocks on one owned partition after a round over all of them found no job.
+   */
+  @NotNull private Duration pollTimeout = Duration.ofSeconds(1);
+}
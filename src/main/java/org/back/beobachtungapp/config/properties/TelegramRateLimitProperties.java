@@ -0,0 +1,40 @@
+package org.back.beobachtungapp.config.properties;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "telegram.rate-limit")
+public class TelegramRateLimitProperties {
+  /** Outbound Telegram calls per second across all chats. */
+  @Positive private double globalPerSecond = 30;
+
+  /** Calls the global limit lets through at once after an idle period. */
+  @Positive private int globalBurst = 30;
+
+  /** Outbound Telegram calls per second to a single chat. */
+  @Positive private double chatPerSecond = 1;
+
+  /** Calls the per-chat limit lets through at once after an idle period. */
+  @Positive private int chatBurst = 1;
+
+  /** Times a call rejected with 429 is retried after the {@code retry_after} Telegram asked for. */
+  @PositiveOrZero private int maxRetries = 3;
+
+  /** A {@code retry_after} up to this long pauses all chats, not just the rejected one. */
+  @NotNull private Duration globalBackOffMaxDelay = Duration.ofSeconds(1);
+
+  /** Number of different chats rejected within the window that pauses all chats. */
+  @Positive private int globalBackOffChats = 3;
+
+  /** Window in which rejections of different chats count as happening at the same time. */
+  @NotNull private Duration globalBackOffWindow = Duration.ofSeconds(1);
+}
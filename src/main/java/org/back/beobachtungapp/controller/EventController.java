@@ -5,30 +5,38 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import org.back.beobachtungapp.annotation.CurrentCompanion;
+import org.back.beobachtungapp.dto.request.event.EventImportRowDto;
 import org.back.beobachtungapp.dto.request.event.EventRequestDto;
 import org.back.beobachtungapp.dto.response.companion.CompanionDto;
+import org.back.beobachtungapp.dto.response.event.EventImportReportDto;
 import org.back.beobachtungapp.dto.response.event.EventResponseDto;
 import org.back.beobachtungapp.dto.update.event.EventUpdateDto;
+import org.back.beobachtungapp.service.EventImportService;
 import org.back.beobachtungapp.service.EventService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @SuppressFBWarnings(
     value = "EI_EXPOSE_REP2",
-    justification = "EventService is injected and not externally exposed")
+    justification = "Event services are injected and not externally exposed")
 @Tag(name = "Event controller", description = "Operations related to companion's events management")
 @RestController
 @RequestMapping("event")
 public class EventController {
   private final EventService eventService;
+  private final EventImportService eventImportService;
 
   @Autowired
-  public EventController(EventService eventService) {
+  public EventController(EventService eventService, EventImportService eventImportService) {
     this.eventService = eventService;
+    this.eventImportService = eventImportService;
   }
 
   @Operation(
@@ -49,6 +57,37 @@ public class EventController {
         .body(eventService.save(eventRequestDto, companion, childId));
   }
 
+  @Operation(
+      summary = "Import events",
+      description =
+          "Creates up to 1000 events at once and schedules their reminders in batches. Rows that fail validation are skipped and reported together with the created ones.",
+      responses = {
+        @ApiResponse(responseCode = "200", description = "Import finished, see row results"),
+        @ApiResponse(responseCode = "400", description = "Too many rows"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+      })
+  @PostMapping(value = "import", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<EventImportReportDto> importJson(
+      @Parameter(description = "Events to be imported") @RequestBody List<EventImportRowDto> rows,
+      @CurrentCompanion CompanionDto companion) {
+    return ResponseEntity.ok(eventImportService.importRows(rows, companion));
+  }
+
+  @Operation(
+      summary = "Import events from CSV",
+      description =
+          "Same as the JSON import, but reads a CSV document with the header childId,title,description,startDateTime,endDateTime,location. Timestamps are ISO-8601 instants.",
+      responses = {
+        @ApiResponse(responseCode = "200", description = "Import finished, see row results"),
+        @ApiResponse(responseCode = "400", description = "Too many rows"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+      })
+  @PostMapping(value = "import", consumes = "text/csv")
+  public ResponseEntity<EventImportReportDto> importCsv(
+      InputStream csv, @CurrentCompanion CompanionDto companion) throws IOException {
+    return ResponseEntity.ok(eventImportService.importCsv(csv, companion));
+  }
+
   @Operation(
       summary = "Update event",
       description = "Update event record.",
@@ -5,17 +5,22 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.ws.rs.core.HttpHeaders;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 import org.back.beobachtungapp.annotation.CurrentCompanion;
 import org.back.beobachtungapp.dto.request.monitoring.MonitoringEntryRequestDto;
 import org.back.beobachtungapp.dto.response.companion.CompanionDto;
 import org.back.beobachtungapp.dto.response.monitoring.MonitoringEntryResponseDto;
+import org.back.beobachtungapp.dto.response.monitoring.TimeSeriesResponseDto;
 import org.back.beobachtungapp.dto.update.monitoring.MonitoringEntryUpdateDto;
 import org.back.beobachtungapp.service.MonitoringEntryService;
 import org.back.beobachtungapp.service.PdfGeneratorService;
+import org.back.beobachtungapp.service.ReportCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -32,12 +37,16 @@ import org.springframework.web.bind.annotation.*;
 public class MonitoringEntryController {
   private final MonitoringEntryService entryService;
   private final PdfGeneratorService pdfGeneratorService;
+  private final ReportCacheService reportCacheService;
 
   @Autowired
   public MonitoringEntryController(
-      MonitoringEntryService entryService, PdfGeneratorService pdfGeneratorService) {
+      MonitoringEntryService entryService,
+      PdfGeneratorService pdfGeneratorService,
+      ReportCacheService reportCacheService) {
     this.entryService = entryService;
     this.pdfGeneratorService = pdfGeneratorService;
+    this.reportCacheService = reportCacheService;
   }
 
   @Operation(
@@ -121,6 +130,33 @@ public class MonitoringEntryController {
     return ResponseEntity.status(HttpStatus.OK).body(entryService.findAllByChildId(childId));
   }
 
+  @Operation(
+      summary = "Get downsampled time series of a Monitoring parameter",
+      description =
+          "Retrieve the numeric values of a child's Monitoring parameter ordered by time, reduced on the server to the requested number of points with Largest-Triangle-Three-Buckets. Non-numeric values are skipped.",
+      parameters = {
+        @Parameter(
+            name = "points",
+            description = "Maximum number of points to return, between 3 and 5000",
+            example = "500")
+      },
+      responses = {
+        @ApiResponse(responseCode = "200", description = "Time series retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Point budget out of range"),
+        @ApiResponse(
+            responseCode = "404",
+            description = "No Monitoring param found with provided ID"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+      })
+  @GetMapping("child/{childId}/param/{paramId}/series")
+  public ResponseEntity<TimeSeriesResponseDto> getSeries(
+      @PathVariable("childId") Long childId,
+      @PathVariable("paramId") Long paramId,
+      @RequestParam(defaultValue = "500") int points) {
+    return ResponseEntity.status(HttpStatus.OK)
+        .body(entryService.findSeries(childId, paramId, points));
+  }
+
   @Operation(
       summary = "Get all Monitoring entries",
       description = "Retrieve all Monitoring entries.",
@@ -138,32 +174,46 @@ public class MonitoringEntryController {
   @Operation(
       summary = "Generate and download PDF report for a child",
       description =
-          "Generates a PDF report for the specified child and returns it as a downloadable file. Requires authenticated companion context.",
+          "Returns the PDF report for the specified child as a downloadable file, rendering it only if the child's data changed since the last render. Supports HTTP range requests. Sends the report to the companion's Telegram chat only if requested. Requires authenticated companion context.",
       parameters = {
         @Parameter(
             name = "childId",
             description = "ID of the child for whom the PDF report should be generated",
             required = true,
-            example = "123")
+            example = "123"),
+        @Parameter(
+            name = "telegram",
+            description =
+                "Whether to also send the report to the companion's Telegram chat; ignored for range requests",
+            example = "false")
       },
       responses = {
         @ApiResponse(
             responseCode = "200",
             description = "PDF report generated and returned successfully"),
+        @ApiResponse(responseCode = "206", description = "Requested range of the PDF report"),
         @ApiResponse(responseCode = "401", description = "Unauthorized access"),
         @ApiResponse(responseCode = "404", description = "Child not found"),
+        @ApiResponse(responseCode = "429", description = "Report generation is saturated"),
         @ApiResponse(
             responseCode = "500",
             description = "Internal server error while generating the PDF")
       })
   @PostMapping("/download/child/{childId}")
-  public ResponseEntity<byte[]> download(
-      @PathVariable Long childId, @CurrentCompanion CompanionDto companionDto) throws IOException {
-    byte[] pdfBytes = pdfGeneratorService.generatePdf(childId, companionDto);
+  public ResponseEntity<Resource> download(
+      @PathVariable Long childId,
+      @CurrentCompanion CompanionDto companionDto,
+      @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+      @RequestParam(defaultValue = "false") boolean telegram)
+      throws IOException {
+    Path report = reportCacheService.getReport(childId, companionDto);
+    if (telegram && range == null) {
+      pdfGeneratorService.deliverToTelegram(companionDto, report);
+    }
 
     return ResponseEntity.ok()
         .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"document.pdf\"")
         .contentType(MediaType.APPLICATION_PDF)
-        .body(pdfBytes);
+        .body(new FileSystemResource(report));
   }
 }
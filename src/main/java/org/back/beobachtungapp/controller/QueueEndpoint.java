@@ -0,0 +1,82 @@
+package org.back.beobachtungapp.controller;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.back.beobachtungapp.dto.queue.DeadLetter;
+import org.back.beobachtungapp.dto.queue.QueueStats;
+import org.back.beobachtungapp.service.PartitionedQueue;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint {@code queues} for operators to inspect the {@link PartitionedQueue}s and
+ * replay or purge their dead letters.
+ *
+ * <p>The endpoint is not exposed over HTTP by default and is read-only unless {@code
+ * management.endpoint.queues.access=unrestricted} is set. Since {@code /actuator/**} is not
+ * authenticated, only expose it where the management port is not publicly reachable.
+ */
+@SuppressFBWarnings
+@Component
+@Endpoint(id = "queues")
+public class QueueEndpoint {
+
+  private static final int DEFAULT_LIMIT = 50;
+
+  private final Map<String, PartitionedQueue> queues = new LinkedHashMap<>();
+
+  public QueueEndpoint(List<PartitionedQueue> queues) {
+    queues.forEach(queue -> this.queues.put(queue.getName(), queue));
+  }
+
+  /** Lists all queues with the number of jobs in each state. */
+  @ReadOperation
+  public Map<String, QueueStats> queues() {
+    Map<String, QueueStats> stats = new LinkedHashMap<>();
+    queues.forEach((name, queue) -> stats.put(name, queue.stats()));
+    return stats;
+  }
+
+  /** Lists the dead letters of a queue, newest first. Unknown queues result in a 404. */
+  @ReadOperation
+  public List<DeadLetter> deadLetters(
+      @Selector String queue, @Nullable Integer offset, @Nullable Integer limit) {
+    PartitionedQueue partitionedQueue = queues.get(queue);
+    if (partitionedQueue == null) {
+      return null;
+    }
+    return partitionedQueue.deadLetters(
+        offset == null ? 0 : offset, limit == null ? DEFAULT_LIMIT : limit);
+  }
+
+  /**
+   * Moves the oldest dead letters of a queue back to their partitions; all of them if no count is
+   * set.
+   */
+  @WriteOperation
+  public Map<String, Long> replay(@Selector String queue, @Nullable Integer count) {
+    PartitionedQueue partitionedQueue = queues.get(queue);
+    if (partitionedQueue == null) {
+      return null;
+    }
+    int limit = count == null ? (int) partitionedQueue.deadLetterCount() : count;
+    return Map.of("replayed", partitionedQueue.replay(limit));
+  }
+
+  /** Deletes all dead letters of a queue. */
+  @DeleteOperation
+  public Map<String, Long> purge(@Selector String queue) {
+    PartitionedQueue partitionedQueue = queues.get(queue);
+    if (partitionedQueue == null) {
+      return null;
+    }
+    return Map.of("purged", partitionedQueue.purgeDeadLetters());
+  }
+}
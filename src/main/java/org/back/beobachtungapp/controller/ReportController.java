@@ -0,0 +1,127 @@
+package org.back.beobachtungapp.controller;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+import org.back.beobachtungapp.annotation.CurrentCompanion;
+import org.back.beobachtungapp.dto.response.companion.CompanionDto;
+import org.back.beobachtungapp.dto.response.report.ReportJobResponseDto;
+import org.back.beobachtungapp.entity.child.Child;
+import org.back.beobachtungapp.service.BulkReportService;
+import org.back.beobachtungapp.service.ReportJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@SuppressFBWarnings(
+    value = "EI_EXPOSE_REP2",
+    justification = "Report services are injected and not externally exposed")
+@Tag(name = "Report controller", description = "Asynchronous generation of PDF reports")
+@RestController
+@RequestMapping("report")
+public class ReportController {
+  private final ReportJobService reportJobService;
+  private final BulkReportService bulkReportService;
+
+  @Autowired
+  public ReportController(ReportJobService reportJobService, BulkReportService bulkReportService) {
+    this.reportJobService = reportJobService;
+    this.bulkReportService = bulkReportService;
+  }
+
+  @Operation(
+      summary = "Submit a report job",
+      description =
+          "Queues PDF report generation for the specified child and returns the job immediately.",
+      parameters = {
+        @Parameter(
+            name = "childId",
+            description = "ID of the child for whom the PDF report should be generated",
+            required = true,
+            example = "123")
+      },
+      responses = {
+        @ApiResponse(responseCode = "202", description = "Report job accepted"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+        @ApiResponse(responseCode = "503", description = "Report generation is saturated")
+      })
+  @PostMapping("job/child/{childId}")
+  public ResponseEntity<ReportJobResponseDto> submit(
+      @PathVariable Long childId, @CurrentCompanion CompanionDto companionDto) {
+    ReportJobResponseDto job = reportJobService.submit(childId, companionDto);
+    return ResponseEntity.accepted().location(URI.create("/report/job/" + job.id())).body(job);
+  }
+
+  @Operation(
+      summary = "Get report job status",
+      description = "Retrieve the current state of a report job.",
+      responses = {
+        @ApiResponse(responseCode = "200", description = "Job state retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "No report job found with provided ID"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+      })
+  @GetMapping("job/{jobId}")
+  public ResponseEntity<ReportJobResponseDto> getJob(
+      @PathVariable String jobId, @CurrentCompanion CompanionDto companionDto) {
+    return ResponseEntity.status(HttpStatus.OK).body(reportJobService.getJob(jobId, companionDto));
+  }
+
+  @Operation(
+      summary = "Download report of a finished job",
+      description =
+          "Returns the generated PDF once the job has completed. Supports HTTP range requests.",
+      responses = {
+        @ApiResponse(responseCode = "200", description = "PDF report returned successfully"),
+        @ApiResponse(responseCode = "206", description = "Requested range of the PDF report"),
+        @ApiResponse(responseCode = "409", description = "Job has not completed yet"),
+        @ApiResponse(responseCode = "404", description = "No report job found with provided ID"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+      })
+  @GetMapping("job/{jobId}/file")
+  public ResponseEntity<?> download(
+      @PathVariable String jobId, @CurrentCompanion CompanionDto companionDto) throws IOException {
+    Path artifact = reportJobService.getArtifact(jobId, companionDto);
+    if (artifact == null) {
+      return ResponseEntity.status(HttpStatus.CONFLICT)
+          .body(reportJobService.getJob(jobId, companionDto));
+    }
+
+    Resource resource = new FileSystemResource(artifact);
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"document.pdf\"")
+        .contentType(MediaType.APPLICATION_PDF)
+        .body(resource);
+  }
+
+  @Operation(
+      summary = "Export reports of all children",
+      description =
+          "Streams a ZIP archive with the PDF reports of all children of the current companion. Reports are rendered in parallel and reused if the child's data has not changed. Each report is also sent via Telegram if the companion has linked Telegram.",
+      responses = {
+        @ApiResponse(responseCode = "200", description = "ZIP archive streamed successfully"),
+        @ApiResponse(responseCode = "404", description = "Companion has no children"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+      })
+  @PostMapping("bulk")
+  public ResponseEntity<StreamingResponseBody> bulk(@CurrentCompanion CompanionDto companionDto) {
+    List<Child> children = bulkReportService.findChildren(companionDto);
+    StreamingResponseBody body = out -> bulkReportService.writeArchive(children, companionDto, out);
+
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"berichte.zip\"")
+        .contentType(MediaType.parseMediaType("application/zip"))
+        .body(body);
+  }
+}
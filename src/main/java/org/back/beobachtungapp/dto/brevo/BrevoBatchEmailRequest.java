@@ -0,0 +1,18 @@
+package org.back.beobachtungapp.dto.brevo;
+
+import java.util.List;
+
+/**
+ * Transactional email sent in several versions with one request. Each version has its own
+ * recipients and content; the top level content is Brevo's fallback and is set to the first
+ * version's.
+ */
+public record BrevoBatchEmailRequest(
+    BrevoEmailRequest.Sender sender,
+    String subject,
+    String htmlContent,
+    String scheduledAt,
+    List<MessageVersion> messageVersions) {
+
+  public record MessageVersion(List<BrevoEmailRequest.To> to, String subject, String htmlContent) {}
+}
@@ -0,0 +1,24 @@
+package org.back.beobachtungapp.dto.brevo;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.util.List;
+
+/**
+ * Response of Brevo's send endpoint: {@code messageId} for a single email, {@code messageIds} in
+ * the order of the message versions of a batch.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record BrevoEmailResponse(String messageId, List<String> messageIds) {
+
+  /**
+   * Returns the IDs of all sent messages.
+   *
+   * @return the message IDs, empty if Brevo returned none
+   */
+  public List<String> ids() {
+    if (messageIds != null) {
+      return messageIds;
+    }
+    return messageId != null ? List.of(messageId) : List.of();
+  }
+}
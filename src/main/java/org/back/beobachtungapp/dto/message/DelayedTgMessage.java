@@ -1,3 +1,3 @@
 package org.back.beobachtungapp.dto.message;
 
-public record DelayedTgMessage(String chatId, String message, Long eventId) {}
+public record DelayedTgMessage(String chatId, String message, Long eventId, Long companionId) {}
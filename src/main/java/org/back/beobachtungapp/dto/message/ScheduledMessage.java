@@ -0,0 +1,10 @@
+package org.back.beobachtungapp.dto.message;
+
+/**
+ * Telegram message as stored by the {@code DelayedMessageStore}.
+ *
+ * @param eventId the ID of the event the message belongs to
+ * @param dueAt epoch millisecond the message is scheduled for
+ * @param payload the message as serialized {@link DelayedTgMessage}
+ */
+public record ScheduledMessage(String eventId, long dueAt, String payload) {}
@@ -3,4 +3,8 @@ package org.back.beobachtungapp.dto.openai;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
-public record RunResponse(String id, String status) {}
+public record RunResponse(String id, String status, LastError last_error) {
+
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  public record LastError(String code, String message) {}
+}
@@ -0,0 +1,13 @@
+package org.back.beobachtungapp.dto.queue;
+
+import java.time.Instant;
+
+/**
+ * Job that has been moved to the dead-letter list of a {@code ReliableQueue}.
+ *
+ * @param payload the job as it was enqueued
+ * @param attempts failed deliveries before the job was given up
+ * @param failedAt time of the last failed delivery
+ * @param error reason of the last failure
+ */
+public record DeadLetter(String payload, int attempts, Instant failedAt, String error) {}
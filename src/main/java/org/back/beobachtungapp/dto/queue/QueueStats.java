@@ -0,0 +1,11 @@
+package org.back.beobachtungapp.dto.queue;
+
+/**
+ * Number of jobs in each state of a {@code ReliableQueue}.
+ *
+ * @param ready jobs waiting to be claimed
+ * @param processing jobs claimed and not yet acknowledged
+ * @param retrying failed jobs waiting for their next attempt
+ * @param deadLetters jobs given up after the maximum number of attempts
+ */
+public record QueueStats(long ready, long processing, long retrying, long deadLetters) {}
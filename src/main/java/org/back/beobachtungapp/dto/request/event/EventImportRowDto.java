@@ -0,0 +1,29 @@
+package org.back.beobachtungapp.dto.request.event;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.time.Instant;
+
+@Schema(description = "Single event of a bulk import, one CSV row or JSON array element")
+public record EventImportRowDto(
+    @Schema(description = "ID of the child the event belongs to", example = "5")
+        @NotNull(message = "Child ID is required")
+        Long childId,
+    @Schema(description = "Title of the event", example = "Parents' evening") String title,
+    @Schema(description = "Detailed description of the event", example = "Term review.")
+        String description,
+    @Schema(description = "Start date and time of the event", example = "2025-09-15T16:00:00Z")
+        Instant startDateTime,
+    @Schema(description = "End date and time of the event", example = "2025-09-15T18:00:00Z")
+        Instant endDateTime,
+    @Schema(description = "Location of the event", example = "Assembly hall") String location) {
+
+  /**
+   * Returns the event fields of the row, validated with the rules of a single event.
+   *
+   * @return the event request
+   */
+  public EventRequestDto toEventRequestDto() {
+    return new EventRequestDto(title, description, startDateTime, endDateTime, location);
+  }
+}
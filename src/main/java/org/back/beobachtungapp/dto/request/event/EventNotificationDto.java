@@ -13,6 +13,7 @@ public record EventNotificationDto(
     String end,
     String location,
     String companionName,
+    Long companionId,
     String tgId,
     String companionEmail,
     String childEmail,
@@ -24,6 +25,12 @@ public record EventNotificationDto(
             .map(Child::getSchoolCompanion)
             .map(Companion::getName)
             .orElse("N/A");
+    Long companionId =
+        Optional.ofNullable(event)
+            .map(Event::getChild)
+            .map(Child::getSchoolCompanion)
+            .map(Companion::getId)
+            .orElse(null);
     String tgId =
         Optional.ofNullable(event)
             .map(Event::getChild)
@@ -51,6 +58,7 @@ public record EventNotificationDto(
         Optional.ofNullable(event.getEndDateTime()).map(Instant::toString).orElse("No end date"),
         Optional.ofNullable(event.getLocation()).orElse("Не указано"),
         companionName,
+        companionId,
         tgId,
         companionEmail,
         childEmail,
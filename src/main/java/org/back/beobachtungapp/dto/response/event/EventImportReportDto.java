@@ -0,0 +1,11 @@
+package org.back.beobachtungapp.dto.response.event;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Result report of a bulk event import")
+public record EventImportReportDto(
+    @Schema(description = "Number of rows received", example = "120") int total,
+    @Schema(description = "Number of events created", example = "118") int created,
+    @Schema(description = "Number of rows rejected", example = "2") int failed,
+    @Schema(description = "Outcome per row, in input order") List<EventImportRowResultDto> rows) {}
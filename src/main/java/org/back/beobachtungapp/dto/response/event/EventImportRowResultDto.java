@@ -0,0 +1,13 @@
+package org.back.beobachtungapp.dto.response.event;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Outcome of a single row of a bulk event import")
+public record EventImportRowResultDto(
+    @Schema(description = "Row number, starting at 1 with the first event", example = "3") int row,
+    @Schema(description = "Whether the event was created", example = "CREATED")
+        EventImportStatus status,
+    @Schema(description = "ID of the created event", example = "42") Long eventId,
+    @Schema(description = "Validation errors, or notifications that could not be scheduled")
+        List<String> messages) {}
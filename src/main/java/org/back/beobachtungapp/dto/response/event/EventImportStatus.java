@@ -0,0 +1,6 @@
+package org.back.beobachtungapp.dto.response.event;
+
+public enum EventImportStatus {
+  CREATED,
+  FAILED;
+}
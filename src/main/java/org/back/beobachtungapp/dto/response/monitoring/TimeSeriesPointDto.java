@@ -0,0 +1,10 @@
+package org.back.beobachtungapp.dto.response.monitoring;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+
+@Schema(description = "Single point of a monitoring parameter's time series")
+public record TimeSeriesPointDto(
+    @Schema(description = "Time the value was recorded") Instant timestamp,
+    @Schema(description = "Numeric value of the monitoring entry", example = "42.0")
+        double value) {}
@@ -0,0 +1,15 @@
+package org.back.beobachtungapp.dto.response.monitoring;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Downsampled time series of a child's monitoring parameter")
+public record TimeSeriesResponseDto(
+    @Schema(description = "ID of the child", example = "5") Long childId,
+    @Schema(description = "ID of the monitoring parameter", example = "10") Long parameterId,
+    @Schema(description = "Name of the monitoring parameter", example = "Concentration")
+        String parameterName,
+    @Schema(description = "Number of numeric entries the series was reduced from", example = "2400")
+        int totalPoints,
+    @Schema(description = "Points of the series ordered by time")
+        List<TimeSeriesPointDto> points) {}
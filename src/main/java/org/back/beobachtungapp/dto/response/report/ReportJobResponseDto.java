@@ -0,0 +1,17 @@
+package org.back.beobachtungapp.dto.response.report;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+
+@Schema(description = "Response payload describing an asynchronous report job")
+public record ReportJobResponseDto(
+    @Schema(
+            description = "Unique identifier of the job",
+            example = "3f1c2a9e-6f0d-4a4b-9a55-2f5d1c7b8e10")
+        String id,
+    @Schema(description = "ID of the child the report is generated for", example = "5")
+        Long childId,
+    @Schema(description = "Current state of the job", example = "RUNNING") ReportJobStatus status,
+    @Schema(description = "Date & time when the job was submitted") Instant createdAt,
+    @Schema(description = "Date & time when the job completed or failed") Instant finishedAt,
+    @Schema(description = "Failure reason if the job failed") String error) {}
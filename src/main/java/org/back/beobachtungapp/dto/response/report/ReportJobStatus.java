@@ -0,0 +1,8 @@
+package org.back.beobachtungapp.dto.response.report;
+
+public enum ReportJobStatus {
+  QUEUED,
+  RUNNING,
+  COMPLETED,
+  FAILED;
+}
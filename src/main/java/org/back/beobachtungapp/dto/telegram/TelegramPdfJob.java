@@ -1,3 +1,10 @@
 package org.back.beobachtungapp.dto.telegram;
 
-public record TelegramPdfJob(String telegramId, byte[] pdfData, String fileName) {}
+/**
+ * Queued request to send a PDF via Telegram. The PDF itself lives in the {@code BlobStore} under
+ * {@code blobKey}, so the message stays small whatever the size of the report. {@code enqueuedAt}
+ * is the epoch millisecond the job was queued at, used to measure queue latency. {@code
+ * companionId} is the owner of the report and the partition key of the Kafka transport.
+ */
+public record TelegramPdfJob(
+    String telegramId, String blobKey, String fileName, long enqueuedAt, Long companionId) {}
@@ -0,0 +1,11 @@
+package org.back.beobachtungapp.entity.outbox;
+
+/** Change of an event that its notifications have to follow. */
+public enum NotificationOutboxAction {
+  /** Event was created; its reminders are scheduled. */
+  CREATED,
+  /** Event was updated; its reminders are replaced. */
+  UPDATED,
+  /** Event was deleted; its reminders are cancelled. */
+  DELETED
+}
@@ -0,0 +1,59 @@
+package org.back.beobachtungapp.entity.outbox;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import jakarta.persistence.*;
+import java.time.Instant;
+import lombok.Data;
+
+/**
+ * Notification intent of an event, written in the transaction that changed the event and relayed to
+ * Redis and Brevo once that transaction has committed.
+ *
+ * <p>The Telegram message and the email are stored as JSON, built from the event when it was
+ * written, so the relay never has to load the event again.
+ */
+@SuppressFBWarnings
+@Entity
+@Table(
+    name = "notification_outbox",
+    indexes = {@Index(name = "idx_notification_outbox_event_id", columnList = "event_id")})
+@Data
+public class NotificationOutboxEntry {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "event_id", nullable = false)
+  private long eventId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private NotificationOutboxAction action;
+
+  /** {@code DelayedTgMessage} as JSON, {@code null} if the recipient has no Telegram ID. */
+  @Column(columnDefinition = "text")
+  private String telegramMessage;
+
+  /** Epoch millisecond the Telegram message is due at. */
+  private Long telegramDueAt;
+
+  /** {@code BrevoEmailRequest} as JSON, {@code null} if the companion has no email address. */
+  @Column(columnDefinition = "text")
+  private String email;
+
+  @Column(nullable = false)
+  private int attempts;
+
+  @Column(length = 1000)
+  private String lastError;
+
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt;
+
+  /** The entry is not relayed before this time; pushed back after a failed attempt. */
+  @Column(nullable = false)
+  private Instant nextAttemptAt;
+
+  /** Set while a relay processes the entry; expired leases are claimed again. */
+  private Instant lockedUntil;
+}
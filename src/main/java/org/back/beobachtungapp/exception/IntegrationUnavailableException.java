@@ -0,0 +1,28 @@
+package org.back.beobachtungapp.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a call to an external API is not made or given up because the integration is
+ * saturated, its circuit is open or the call ran out of time.
+ */
+public class IntegrationUnavailableException extends RuntimeException {
+  private final String integration;
+  private final Duration retryAfter;
+
+  public IntegrationUnavailableException(String integration, String message, Duration retryAfter) {
+    super(integration + ": " + message);
+    this.integration = integration;
+    this.retryAfter = retryAfter;
+  }
+
+  /** Name of the unavailable integration, e.g. {@code openai}. */
+  public String getIntegration() {
+    return integration;
+  }
+
+  /** Suggested delay before the client retries. */
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
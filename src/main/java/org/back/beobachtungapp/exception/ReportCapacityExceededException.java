@@ -0,0 +1,18 @@
+package org.back.beobachtungapp.exception;
+
+import java.time.Duration;
+
+/** Thrown when report generation is saturated and a render could not be admitted in time. */
+public class ReportCapacityExceededException extends RuntimeException {
+  private final Duration retryAfter;
+
+  public ReportCapacityExceededException(String message, Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+
+  /** Suggested delay before the client retries. */
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
@@ -3,6 +3,8 @@ package org.back.beobachtungapp.exception;
 import jakarta.persistence.EntityNotFoundException;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -22,6 +24,27 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
     return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
   }
 
+  @ExceptionHandler(TaskRejectedException.class)
+  public ResponseEntity<?> handleRejected(TaskRejectedException ex) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "30")
+        .body(Map.of("error", "Server is busy, please retry later"));
+  }
+
+  @ExceptionHandler(ReportCapacityExceededException.class)
+  public ResponseEntity<?> handleReportCapacity(ReportCapacityExceededException ex) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+        .body(Map.of("error", ex.getMessage()));
+  }
+
+  @ExceptionHandler(IntegrationUnavailableException.class)
+  public ResponseEntity<?> handleIntegrationUnavailable(IntegrationUnavailableException ex) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+        .body(Map.of("error", ex.getMessage()));
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<?> handleOtherErrors(Exception ex) {
     return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
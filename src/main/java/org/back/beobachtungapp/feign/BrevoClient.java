@@ -1,7 +1,9 @@
 package org.back.beobachtungapp.feign;
 
 import org.back.beobachtungapp.config.BrevoClientConfig;
+import org.back.beobachtungapp.dto.brevo.BrevoBatchEmailRequest;
 import org.back.beobachtungapp.dto.brevo.BrevoEmailRequest;
+import org.back.beobachtungapp.dto.brevo.BrevoEmailResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,13 +12,16 @@ import org.springframework.web.bind.annotation.RequestBody;
 
 @FeignClient(
     name = "brevoClient",
-    url = "https://api.brevo.com/v3",
+    url = "${http-client.brevo.url:https://api.brevo.com/v3}",
     configuration = BrevoClientConfig.class)
 public interface BrevoClient {
 
   @PostMapping("/smtp/email")
   void sendEmail(@RequestBody BrevoEmailRequest request);
 
+  @PostMapping("/smtp/email")
+  BrevoEmailResponse sendBatch(@RequestBody BrevoBatchEmailRequest request);
+
   @DeleteMapping("/smtp/email/{identifier}")
   void cancelEmail(@PathVariable("identifier") String identifier);
 }
@@ -0,0 +1,154 @@
+package org.back.beobachtungapp.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.back.beobachtungapp.service.OutboundGuard;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Feign {@link Client} running every request through an {@link OutboundGuard}.
+ *
+ * <p>Each attempt is admitted by the guard, and its read timeout is cut down to what is left of the
+ * call's deadline. Connection failures and 5xx responses count as failures for the circuit breaker.
+ * Retried are:
+ *
+ * <ul>
+ *   <li>429 and 503 responses of any request, after the {@code Retry-After} the API sent, or after
+ *       a backoff if it sent none;
+ *   <li>requests that never reached the API because no connection could be established;
+ *   <li>other I/O errors, 502 and 504 responses of idempotent requests only, since a POST may have
+ *       been processed before the connection broke.
+ * </ul>
+ *
+ * <p>When a call gives up, the last response is returned, so Feign's error decoding is unchanged.
+ */
+@Slf4j
+public class GuardedFeignClient implements Client {
+
+  private static final Set<Request.HttpMethod> IDEMPOTENT =
+      EnumSet.of(
+          Request.HttpMethod.GET,
+          Request.HttpMethod.HEAD,
+          Request.HttpMethod.PUT,
+          Request.HttpMethod.DELETE,
+          Request.HttpMethod.OPTIONS);
+
+  private final Client delegate;
+  private final OutboundGuard guard;
+
+  public GuardedFeignClient(Client delegate, OutboundGuard guard) {
+    this.delegate = delegate;
+    this.guard = guard;
+  }
+
+  @Override
+  public Response execute(Request request, Request.Options options) throws IOException {
+    OutboundGuard.Call call = guard.newCall();
+    while (true) {
+      Response response = null;
+      IOException error = null;
+      try (OutboundGuard.Permit permit = call.enter()) {
+        try {
+          response = delegate.execute(request, withDeadline(options, call.remaining()));
+          if (response.status() >= 500) {
+            permit.failure();
+          }
+        } catch (IOException e) {
+          permit.failure();
+          error = e;
+        }
+      }
+
+      if (error != null) {
+        if (!isRetryable(request, error) || !call.retry(null)) {
+          throw error;
+        }
+        log.warn(
+            "Retrying {} {} to {}: {}",
+            request.httpMethod(),
+            request.url(),
+            guard.getName(),
+            error.getMessage());
+        continue;
+      }
+
+      if (!isRetryable(request, response.status())) {
+        return response;
+      }
+      if (!call.retry(retryAfter(response))) {
+        return response;
+      }
+      log.warn(
+          "Retrying {} {} to {} after status {}",
+          request.httpMethod(),
+          request.url(),
+          guard.getName(),
+          response.status());
+      response.close();
+    }
+  }
+
+  private boolean isRetryable(Request request, IOException error) {
+    return error instanceof ConnectException
+        || error instanceof ConnectTimeoutException
+        || IDEMPOTENT.contains(request.httpMethod());
+  }
+
+  private boolean isRetryable(Request request, int status) {
+    return switch (status) {
+      case 429, 503 -> true;
+      case 502, 504 -> IDEMPOTENT.contains(request.httpMethod());
+      default -> false;
+    };
+  }
+
+  private Request.Options withDeadline(Request.Options options, Duration remaining) {
+    long readTimeout =
+        Math.min(
+            options.readTimeoutUnit().toMillis(options.readTimeout()),
+            Math.max(remaining.toMillis(), 1));
+    return new Request.Options(
+        options.connectTimeout(),
+        options.connectTimeoutUnit(),
+        readTimeout,
+        TimeUnit.MILLISECONDS,
+        options.isFollowRedirects());
+  }
+
+  /**
+   * Reads the {@code Retry-After} header, given either in seconds or as HTTP date.
+   *
+   * @return the requested delay, or {@code null} if the header is missing or malformed
+   */
+  private Duration retryAfter(Response response) {
+    Collection<String> values = response.headers().get(HttpHeaders.RETRY_AFTER);
+    if (values == null || values.isEmpty()) {
+      return null;
+    }
+    String value = values.iterator().next().trim();
+    try {
+      if (value.chars().allMatch(Character::isDigit)) {
+        return Duration.ofSeconds(Long.parseLong(value));
+      }
+      ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+      Duration delay = Duration.between(ZonedDateTime.now(), date);
+      return delay.isNegative() ? Duration.ZERO : delay;
+    } catch (NumberFormatException | DateTimeParseException e) {
+      log.debug("Ignoring malformed Retry-After '{}' from {}", value, guard.getName());
+      return null;
+    }
+  }
+}
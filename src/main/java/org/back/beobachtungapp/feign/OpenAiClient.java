@@ -10,7 +10,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 
 @FeignClient(
     name = "openAiAssistantClient",
-    url = "https://api.openai.com/v1",
+    url = "${http-client.openai.url:https://api.openai.com/v1}",
     configuration = OpenAiFeignConfig.class)
 public interface OpenAiClient {
 
@@ -31,6 +31,10 @@ public interface OpenAiClient {
   RunResponse getRunStatus(
       @PathVariable("threadId") String threadId, @PathVariable("runId") String runId);
 
+  @PostMapping("/threads/{threadId}/runs/{runId}/cancel")
+  RunResponse cancelRun(
+      @PathVariable("threadId") String threadId, @PathVariable("runId") String runId);
+
   @GetMapping("/threads/{threadId}/messages")
   RootDTO listMessages(@PathVariable("threadId") String threadId);
 }
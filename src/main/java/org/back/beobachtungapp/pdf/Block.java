@@ -0,0 +1,29 @@
+package org.back.beobachtungapp.pdf;
+
+import java.io.IOException;
+
+/**
+ * Composable section of a report. A block renders itself at the current position of a {@link
+ * ReportLayout} and leaves the cursor below its content; it never deals with page coordinates of
+ * its own, page breaks are handled by the layout.
+ */
+@FunctionalInterface
+public interface Block {
+
+  /**
+   * Renders this block.
+   *
+   * @param layout the layout to render into
+   * @throws IOException if there is an error while writing to the PDF content stream
+   */
+  void render(ReportLayout layout) throws IOException;
+
+  /**
+   * Returns a block continuing the report on a new page.
+   *
+   * @return the page break block
+   */
+  static Block pageBreak() {
+    return ReportLayout::newPage;
+  }
+}
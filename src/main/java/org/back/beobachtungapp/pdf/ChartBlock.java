@@ -0,0 +1,46 @@
+package org.back.beobachtungapp.pdf;
+
+import java.io.IOException;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.util.Matrix;
+
+/**
+ * Chart scaled into a box while keeping its aspect ratio, centred horizontally at the cursor. A
+ * chart that does not fit on the rest of the page starts on a new one; the cursor is left below it.
+ * Accepts vector charts drawn into a form XObject as well as rasterised images.
+ *
+ * @param chart a {@link PDFormXObject} or {@link PDImageXObject}
+ * @param width the width of the chart in its own units (form units or pixels)
+ * @param height the height of the chart in its own units
+ * @param maxWidth the width of the box on the page in points
+ * @param maxHeight the height of the box on the page in points
+ */
+public record ChartBlock(
+    PDXObject chart, float width, float height, float maxWidth, float maxHeight) implements Block {
+
+  @Override
+  public void render(ReportLayout layout) throws IOException {
+    float scale = Math.min(maxWidth / width, maxHeight / height);
+    float chartWidth = width * scale;
+    float chartHeight = height * scale;
+
+    float top = layout.reserve(chartHeight);
+    PDPageContentStream stream = layout.stream();
+    float x = (layout.pageSize().getWidth() - chartWidth) / 2;
+    float y = top - chartHeight;
+
+    if (chart instanceof PDFormXObject form) {
+      stream.saveGraphicsState();
+      stream.transform(new Matrix(scale, 0, 0, scale, x, y));
+      stream.drawForm(form);
+      stream.restoreGraphicsState();
+    } else if (chart instanceof PDImageXObject image) {
+      stream.drawImage(image, x, y, chartWidth, chartHeight);
+    } else {
+      throw new IllegalArgumentException("Unsupported chart type " + chart.getClass().getName());
+    }
+  }
+}
@@ -0,0 +1,170 @@
+package org.back.beobachtungapp.pdf;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+/**
+ * Fonts of a single report document together with cached glyph metrics.
+ *
+ * <p>One instance is created per document, so every page references the same font resources instead
+ * of embedding a new font dictionary per text call. Glyph widths of the standard fonts never change
+ * and are cached across documents; measuring a string costs one map lookup per character instead of
+ * encoding it on every call.
+ */
+public class ReportFonts {
+
+  /** Printed instead of characters the standard fonts cannot encode. */
+  private static final String REPLACEMENT = "?";
+
+  /** Marks characters the font cannot encode. */
+  private static final float UNSUPPORTED = -1;
+
+  private static final Map<String, Map<Integer, Float>> GLYPH_WIDTHS = new ConcurrentHashMap<>();
+
+  private final PDFont regular = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+  private final PDFont bold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+
+  public PDFont regular() {
+    return regular;
+  }
+
+  public PDFont bold() {
+    return bold;
+  }
+
+  /**
+   * Replaces characters the font cannot encode, so the text can be measured and shown safely. Tabs
+   * become spaces and carriage returns are dropped.
+   *
+   * @param font the font the text is shown with
+   * @param text the text to sanitize, may be null
+   * @return the printable text, empty for null
+   * @throws IOException if the font metrics cannot be read
+   */
+  public String sanitize(PDFont font, String text) throws IOException {
+    if (text == null) {
+      return "";
+    }
+    StringBuilder sb = new StringBuilder(text.length());
+    for (int i = 0; i < text.length(); ) {
+      int codePoint = text.codePointAt(i);
+      i += Character.charCount(codePoint);
+      if (codePoint == '\n') {
+        sb.append('\n');
+      } else if (codePoint == '\t') {
+        sb.append(' ');
+      } else if (codePoint == '\r') {
+        continue;
+      } else if (glyphWidth(font, codePoint) == UNSUPPORTED) {
+        sb.append(REPLACEMENT);
+      } else {
+        sb.appendCodePoint(codePoint);
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Measures sanitized text.
+   *
+   * @param font the font the text is shown with
+   * @param size the font size in points
+   * @param text the sanitized text
+   * @return the width of the text in points
+   * @throws IOException if the font metrics cannot be read
+   */
+  public float width(PDFont font, float size, String text) throws IOException {
+    float width = 0;
+    for (int i = 0; i < text.length(); ) {
+      int codePoint = text.codePointAt(i);
+      i += Character.charCount(codePoint);
+      width += Math.max(glyphWidth(font, codePoint), 0);
+    }
+    return width / 1000 * size;
+  }
+
+  /**
+   * Breaks a single line of sanitized text into lines no wider than {@code maxWidth}. Lines are
+   * broken at spaces; words wider than a whole line are broken between characters.
+   *
+   * @param text the sanitized text without line breaks
+   * @param font the font the text is shown with
+   * @param size the font size in points
+   * @param maxWidth the available width in points
+   * @return the wrapped lines, at least one
+   * @throws IOException if the font metrics cannot be read
+   */
+  public List<String> wrap(String text, PDFont font, float size, float maxWidth)
+      throws IOException {
+    List<String> lines = new ArrayList<>();
+    StringBuilder line = new StringBuilder();
+    float lineWidth = 0;
+    float spaceWidth = width(font, size, " ");
+
+    for (String word : text.split(" ")) {
+      float wordWidth = width(font, size, word);
+      if (!line.isEmpty() && lineWidth + spaceWidth + wordWidth <= maxWidth) {
+        line.append(' ').append(word);
+        lineWidth += spaceWidth + wordWidth;
+        continue;
+      }
+      if (!line.isEmpty()) {
+        lines.add(line.toString());
+        line.setLength(0);
+      }
+
+      while (wordWidth > maxWidth) {
+        int end = fittingPrefix(word, font, size, maxWidth);
+        if (end == word.length()) {
+          break;
+        }
+        lines.add(word.substring(0, end));
+        word = word.substring(end);
+        wordWidth = width(font, size, word);
+      }
+      line.append(word);
+      lineWidth = wordWidth;
+    }
+
+    lines.add(line.toString());
+    return lines;
+  }
+
+  /** Length of the longest prefix of {@code word} fitting into {@code maxWidth}, at least 1. */
+  private int fittingPrefix(String word, PDFont font, float size, float maxWidth)
+      throws IOException {
+    float width = 0;
+    int end = 0;
+    while (end < word.length()) {
+      int codePoint = word.codePointAt(end);
+      float glyph = Math.max(glyphWidth(font, codePoint), 0) / 1000 * size;
+      if (end > 0 && width + glyph > maxWidth) {
+        break;
+      }
+      width += glyph;
+      end += Character.charCount(codePoint);
+    }
+    return end;
+  }
+
+  private float glyphWidth(PDFont font, int codePoint) throws IOException {
+    Map<Integer, Float> widths =
+        GLYPH_WIDTHS.computeIfAbsent(font.getName(), name -> new ConcurrentHashMap<>());
+    Float width = widths.get(codePoint);
+    if (width == null) {
+      try {
+        width = font.getStringWidth(new String(Character.toChars(codePoint)));
+      } catch (IllegalArgumentException e) {
+        width = UNSUPPORTED;
+      }
+      widths.put(codePoint, width);
+    }
+    return width;
+  }
+}
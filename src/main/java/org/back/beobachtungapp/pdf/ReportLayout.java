@@ -0,0 +1,200 @@
+package org.back.beobachtungapp.pdf;
+
+import java.io.IOException;
+import java.util.List;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+/**
+ * Flow layout for report documents. Blocks are rendered top to bottom within the page margins; the
+ * layout keeps track of the current page, its content stream and the baseline of the next line, and
+ * starts a new page whenever a line would reach into the bottom margin.
+ *
+ * <p>A layout owns the content stream of the page it is currently writing to and must be closed
+ * before the document is saved.
+ */
+public class ReportLayout implements AutoCloseable {
+
+  private static final float DEFAULT_MARGIN = 70;
+
+  private final PDDocument document;
+  private final ReportFonts fonts = new ReportFonts();
+  private final PDRectangle pageSize;
+  private final float margin;
+
+  private PDPageContentStream stream;
+  private float cursor;
+
+  /**
+   * Creates a layout writing A4 pages with 70pt margins.
+   *
+   * @param document the document pages are added to
+   */
+  public ReportLayout(PDDocument document) {
+    this(document, PDRectangle.A4, DEFAULT_MARGIN);
+  }
+
+  public ReportLayout(PDDocument document, PDRectangle pageSize, float margin) {
+    this.document = document;
+    this.pageSize = pageSize;
+    this.margin = margin;
+  }
+
+  /**
+   * Renders blocks in order.
+   *
+   * @param blocks the blocks to render
+   * @throws IOException if there is an error while writing to the PDF content stream
+   */
+  public void add(List<? extends Block> blocks) throws IOException {
+    for (Block block : blocks) {
+      block.render(this);
+    }
+  }
+
+  /**
+   * Finishes the current page and continues on a new one, with the cursor at the top margin.
+   *
+   * @throws IOException if the content stream of the current page cannot be closed
+   */
+  public void newPage() throws IOException {
+    closeStream();
+    PDPage page = new PDPage(pageSize);
+    document.addPage(page);
+    stream = new PDPageContentStream(document, page);
+    cursor = top();
+  }
+
+  /**
+   * Moves the cursor down, continuing on a new page if the bottom margin is passed.
+   *
+   * @param height the distance in points
+   * @throws IOException if a new page cannot be started
+   */
+  public void space(float height) throws IOException {
+    ensurePage();
+    cursor -= height;
+    if (cursor < margin) {
+      newPage();
+    }
+  }
+
+  /**
+   * Reserves vertical space for a block drawing graphics itself and moves the cursor below it. A
+   * block that does not fit between the cursor and the bottom margin starts on a new page; a block
+   * taller than a whole page is placed at the top of a page and reaches into the bottom margin.
+   *
+   * @param height the height of the block in points
+   * @return the y coordinate of the top edge of the reserved space
+   * @throws IOException if a new page cannot be started
+   */
+  public float reserve(float height) throws IOException {
+    ensurePage();
+    if (cursor - height < margin && cursor < top()) {
+      newPage();
+    }
+    float blockTop = cursor;
+    cursor -= height;
+    return blockTop;
+  }
+
+  /**
+   * Writes a single line of sanitized text at the cursor and moves the cursor down by {@code
+   * leading}.
+   *
+   * @param text the text, already sanitized and wrapped
+   * @param font the font, one of {@link #fonts()}
+   * @param size the font size in points
+   * @param leading distance to the baseline of the next line in points
+   * @param alignment horizontal alignment within the content area
+   * @throws IOException if there is an error while writing to the PDF content stream
+   */
+  public void writeLine(
+      String text, PDFont font, float size, float leading, TextBlock.Alignment alignment)
+      throws IOException {
+    ensurePage();
+    if (cursor < margin) {
+      newPage();
+    }
+
+    if (!text.isEmpty()) {
+      float x = margin;
+      if (alignment == TextBlock.Alignment.CENTER) {
+        x = (pageSize.getWidth() - fonts.width(font, size, text)) / 2;
+      }
+      stream.beginText();
+      stream.setFont(font, size);
+      stream.newLineAtOffset(x, cursor);
+      stream.showText(text);
+      stream.endText();
+    }
+
+    cursor -= leading;
+  }
+
+  /**
+   * Returns the content stream of the current page for blocks drawing graphics themselves.
+   *
+   * @return the content stream of the current page
+   * @throws IOException if a first page has to be started and cannot be
+   */
+  public PDPageContentStream stream() throws IOException {
+    ensurePage();
+    return stream;
+  }
+
+  /**
+   * Returns the position the next block is rendered at.
+   *
+   * @return the y coordinate of the cursor in points
+   */
+  public float cursor() {
+    return cursor;
+  }
+
+  public PDDocument document() {
+    return document;
+  }
+
+  public ReportFonts fonts() {
+    return fonts;
+  }
+
+  public PDRectangle pageSize() {
+    return pageSize;
+  }
+
+  /**
+   * Width available to content between the left and right margin.
+   *
+   * @return the content width in points
+   */
+  public float contentWidth() {
+    return pageSize.getWidth() - 2 * margin;
+  }
+
+  @Override
+  public void close() throws IOException {
+    closeStream();
+  }
+
+  private float top() {
+    return pageSize.getHeight() - margin;
+  }
+
+  private void ensurePage() throws IOException {
+    if (stream == null) {
+      newPage();
+    }
+  }
+
+  private void closeStream() throws IOException {
+    if (stream != null) {
+      stream.close();
+      stream = null;
+    }
+  }
+}
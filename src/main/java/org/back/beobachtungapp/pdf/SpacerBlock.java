@@ -0,0 +1,16 @@
+package org.back.beobachtungapp.pdf;
+
+import java.io.IOException;
+
+/**
+ * Vertical gap between two blocks. A gap reaching past the bottom margin starts a new page.
+ *
+ * @param height the height of the gap in points
+ */
+public record SpacerBlock(float height) implements Block {
+
+  @Override
+  public void render(ReportLayout layout) throws IOException {
+    layout.space(height);
+  }
+}
@@ -0,0 +1,39 @@
+package org.back.beobachtungapp.pdf;
+
+import java.io.IOException;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+/**
+ * Multi-line text. Lines are separated by {@code '\n'}, empty lines are kept as blank lines, and
+ * lines wider than the content area are wrapped at word boundaries. Lines continue on the next page
+ * once the bottom margin is reached.
+ *
+ * @param text the text to render
+ * @param style the font and line spacing
+ * @param alignment the horizontal alignment of every line
+ */
+public record TextBlock(String text, TextStyle style, Alignment alignment) implements Block {
+
+  /** Horizontal alignment of text within the content area. */
+  public enum Alignment {
+    LEFT,
+    CENTER
+  }
+
+  public TextBlock(String text, TextStyle style) {
+    this(text, style, Alignment.LEFT);
+  }
+
+  @Override
+  public void render(ReportLayout layout) throws IOException {
+    ReportFonts fonts = layout.fonts();
+    PDFont font = style.bold() ? fonts.bold() : fonts.regular();
+    String printable = fonts.sanitize(font, text);
+
+    for (String paragraph : printable.split("\n", -1)) {
+      for (String line : fonts.wrap(paragraph, font, style.size(), layout.contentWidth())) {
+        layout.writeLine(line, font, style.size(), style.leading(), alignment);
+      }
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package org.back.beobachtungapp.pdf;
+
+/**
+ * Font and line spacing of a text block.
+ *
+ * @param bold whether the bold font is used
+ * @param size the font size in points
+ * @param leading distance between the baselines of two lines in points
+ */
+public record TextStyle(boolean bold, float size, float leading) {}
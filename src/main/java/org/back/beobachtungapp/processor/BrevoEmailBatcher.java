@@ -0,0 +1,375 @@
+package org.back.beobachtungapp.processor;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.config.properties.BrevoProperties;
+import org.back.beobachtungapp.dto.brevo.BrevoBatchEmailRequest;
+import org.back.beobachtungapp.dto.brevo.BrevoEmailRequest;
+import org.back.beobachtungapp.dto.brevo.BrevoEmailResponse;
+import org.back.beobachtungapp.feign.BrevoClient;
+import org.back.beobachtungapp.service.ScheduledEmailStore;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends emails to Brevo in batches, as message versions of one request.
+ *
+ * <p>Emails are grouped by sender and scheduled minute; their scheduled time is truncated to the
+ * minute, since a request has a single one. A group is sent once it holds {@code
+ * brevo.batch.max-versions} emails, or {@code brevo.batch.max-delay} after its first email was
+ * submitted. Every version carries the content rendered for its event, so emails of different
+ * events share a batch.
+ *
+ * <p>Brevo rejects the whole request with 400 if one recipient is invalid. A rejected batch is
+ * therefore split in halves until the rejected versions are isolated, and a rejected version is
+ * sent once per recipient, so only the invalid recipients fail. Addresses that are obviously
+ * invalid are dropped before sending. Other errors fail every email of the batch. The outcome per
+ * recipient is counted as {@code notification.email.recipients}, batch sizes are recorded as {@code
+ * notification.email.batch.size}.
+ *
+ * <p>Message IDs of sent emails are recorded in the {@link ScheduledEmailStore}, so they can be
+ * cancelled by their batch ID as before.
+ */
+@SuppressFBWarnings
+@Slf4j
+@Component
+public class BrevoEmailBatcher implements SmartLifecycle {
+
+  private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+\\.[^@\\s]+");
+
+  private final BrevoClient brevoClient;
+  private final ScheduledEmailStore scheduledEmailStore;
+  private final BrevoProperties.Batch properties;
+  private final Counter scheduledRecipients;
+  private final Counter invalidRecipients;
+  private final Counter failedRecipients;
+  private final DistributionSummary batchSize;
+
+  // groups of pending emails by sender and scheduled minute, guarded by monitor
+  private final Map<GroupKey, Group> groups = new LinkedHashMap<>();
+  private final Object monitor = new Object();
+
+  private volatile boolean running;
+  private Thread thread;
+
+  public BrevoEmailBatcher(
+      BrevoClient brevoClient,
+      ScheduledEmailStore scheduledEmailStore,
+      BrevoProperties brevoProperties,
+      MeterRegistry meterRegistry) {
+    this.brevoClient = brevoClient;
+    this.scheduledEmailStore = scheduledEmailStore;
+    this.properties = brevoProperties.getBatch();
+    this.scheduledRecipients = recipientCounter(meterRegistry, "scheduled");
+    this.invalidRecipients = recipientCounter(meterRegistry, "invalid");
+    this.failedRecipients = recipientCounter(meterRegistry, "failed");
+    this.batchSize =
+        DistributionSummary.builder("notification.email.batch.size")
+            .description("Emails sent with one Brevo request")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Queues an email for the next batch of its sender and scheduled minute.
+   *
+   * @param email the email to send
+   * @return completes once the email is scheduled for at least one recipient, or exceptionally if
+   *     it could not be scheduled for any
+   */
+  public CompletableFuture<Delivery> submit(BrevoEmailRequest email) {
+    PendingEmail pending = new PendingEmail(email);
+    List<BrevoEmailRequest.To> recipients = new ArrayList<>();
+    for (BrevoEmailRequest.To to : email.to()) {
+      if (to.email() != null && EMAIL.matcher(to.email()).matches()) {
+        recipients.add(to);
+      } else {
+        pending.failedRecipients.put(String.valueOf(to.email()), "invalid address");
+        invalidRecipients.increment();
+        log.warn("Dropping invalid recipient '{}' of email {}", to.email(), email.batchId());
+      }
+    }
+    if (recipients.isEmpty()) {
+      pending.result.completeExceptionally(
+          new IllegalArgumentException("No valid recipient " + pending.failedRecipients.keySet()));
+      return pending.result;
+    }
+    pending.recipients = recipients;
+
+    GroupKey key = new GroupKey(email.sender(), scheduledMinute(email));
+    if (!running) {
+      sendGroup(key, List.of(pending));
+      return pending.result;
+    }
+    synchronized (monitor) {
+      Group group = groups.computeIfAbsent(key, k -> new Group(System.nanoTime()));
+      group.emails.add(pending);
+      if (group.emails.size() == 1 || group.emails.size() >= properties.getMaxVersions()) {
+        monitor.notifyAll();
+      }
+    }
+    return pending.result;
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    thread = new Thread(this::run, "brevo-email-batcher");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Override
+  public void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    synchronized (monitor) {
+      monitor.notifyAll();
+    }
+    try {
+      thread.join(30000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /** Starts before and stops after the outbox relay submitting emails. */
+  @Override
+  public int getPhase() {
+    return SmartLifecycle.DEFAULT_PHASE - 1;
+  }
+
+  private void run() {
+    while (running) {
+      takeReady(false).forEach(this::sendGroup);
+      awaitNextGroup();
+    }
+    takeReady(true).forEach(this::sendGroup);
+  }
+
+  /** Removes the groups that are full or have waited for {@code brevo.batch.max-delay}. */
+  private Map<GroupKey, List<PendingEmail>> takeReady(boolean all) {
+    Map<GroupKey, List<PendingEmail>> ready = new LinkedHashMap<>();
+    long now = System.nanoTime();
+    long maxDelay = properties.getMaxDelay().toNanos();
+    synchronized (monitor) {
+      groups
+          .entrySet()
+          .removeIf(
+              entry -> {
+                Group group = entry.getValue();
+                boolean due =
+                    all
+                        || group.emails.size() >= properties.getMaxVersions()
+                        || now - group.createdAt >= maxDelay;
+                if (due) {
+                  ready.put(entry.getKey(), group.emails);
+                }
+                return due;
+              });
+    }
+    return ready;
+  }
+
+  private void awaitNextGroup() {
+    synchronized (monitor) {
+      long wait = Long.MAX_VALUE;
+      long now = System.nanoTime();
+      for (Group group : groups.values()) {
+        if (group.emails.size() >= properties.getMaxVersions()) {
+          return;
+        }
+        wait = Math.min(wait, group.createdAt + properties.getMaxDelay().toNanos() - now);
+      }
+      if (wait <= 0 || !running) {
+        return;
+      }
+      try {
+        TimeUnit.NANOSECONDS.timedWait(monitor, wait == Long.MAX_VALUE ? 0 : wait);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        running = false;
+      }
+    }
+  }
+
+  private void sendGroup(GroupKey key, List<PendingEmail> emails) {
+    for (int from = 0; from < emails.size(); from += properties.getMaxVersions()) {
+      List<PendingEmail> chunk =
+          emails.subList(from, Math.min(from + properties.getMaxVersions(), emails.size()));
+      List<Version> versions = new ArrayList<>();
+      for (PendingEmail email : chunk) {
+        email.outstanding = 1;
+        versions.add(new Version(email, email.recipients));
+      }
+      batchSize.record(versions.size());
+      send(key, versions);
+    }
+  }
+
+  /** Sends versions as one request, splitting it up to isolate the ones Brevo rejects. */
+  private void send(GroupKey key, List<Version> versions) {
+    try {
+      BrevoEmailResponse response = brevoClient.sendBatch(request(key, versions));
+      List<String> ids = response != null ? response.ids() : List.of();
+      if (ids.size() != versions.size()) {
+        log.warn("Brevo returned {} message IDs for {} versions", ids.size(), versions.size());
+      }
+      for (int i = 0; i < versions.size(); i++) {
+        Version version = versions.get(i);
+        if (ids.size() == versions.size()) {
+          version.email.messageIds.add(ids.get(i));
+        }
+        version.email.scheduled = true;
+        scheduledRecipients.increment(version.to.size());
+        resolve(key, version.email);
+      }
+    } catch (FeignException e) {
+      if (e.status() == 400 && versions.size() > 1) {
+        log.debug("Brevo rejected a batch of {} versions, splitting it", versions.size());
+        int half = versions.size() / 2;
+        send(key, versions.subList(0, half));
+        send(key, versions.subList(half, versions.size()));
+      } else if (e.status() == 400 && versions.get(0).to.size() > 1) {
+        Version version = versions.get(0);
+        version.email.outstanding += version.to.size() - 1;
+        send(key, version.to.stream().map(to -> new Version(version.email, List.of(to))).toList());
+      } else {
+        fail(key, versions, e.status() + " " + e.getMessage());
+      }
+    } catch (Exception e) {
+      fail(key, versions, e.getMessage());
+    }
+  }
+
+  private void fail(GroupKey key, List<Version> versions, String reason) {
+    log.warn("Failed to send {} email versions to Brevo: {}", versions.size(), reason);
+    for (Version version : versions) {
+      version.to.forEach(to -> version.email.failedRecipients.put(to.email(), reason));
+      failedRecipients.increment(version.to.size());
+      resolve(key, version.email);
+    }
+  }
+
+  /** Completes an email once all its versions have been answered. */
+  private void resolve(GroupKey key, PendingEmail email) {
+    if (--email.outstanding > 0) {
+      return;
+    }
+    if (!email.scheduled) {
+      email.result.completeExceptionally(
+          new IllegalStateException("Email not scheduled: " + email.failedRecipients));
+      return;
+    }
+    try {
+      scheduledEmailStore.save(email.request.batchId(), email.messageIds, key.scheduledAt());
+    } catch (Exception e) {
+      log.warn(
+          "Failed to record message IDs of email {}: {}", email.request.batchId(), e.getMessage());
+    }
+    email.failedRecipients.forEach(
+        (recipient, reason) ->
+            log.warn(
+                "Email {} not scheduled for {}: {}", email.request.batchId(), recipient, reason));
+    email.result.complete(
+        new Delivery(email.request.batchId(), email.messageIds, email.failedRecipients));
+  }
+
+  private BrevoBatchEmailRequest request(GroupKey key, List<Version> versions) {
+    BrevoEmailRequest first = versions.get(0).email.request;
+    return new BrevoBatchEmailRequest(
+        key.sender(),
+        first.subject(),
+        first.htmlContent(),
+        key.scheduledAt() != null ? key.scheduledAt().toString() : null,
+        versions.stream()
+            .map(
+                version ->
+                    new BrevoBatchEmailRequest.MessageVersion(
+                        version.to,
+                        version.email.request.subject(),
+                        version.email.request.htmlContent()))
+            .toList());
+  }
+
+  private Instant scheduledMinute(BrevoEmailRequest email) {
+    if (email.scheduledAt() == null) {
+      return null;
+    }
+    try {
+      return Instant.parse(email.scheduledAt()).truncatedTo(ChronoUnit.MINUTES);
+    } catch (DateTimeParseException e) {
+      log.warn(
+          "Sending email {} right away, invalid scheduledAt {}",
+          email.batchId(),
+          email.scheduledAt());
+      return null;
+    }
+  }
+
+  private static Counter recipientCounter(MeterRegistry meterRegistry, String outcome) {
+    return Counter.builder("notification.email.recipients")
+        .description("Recipients of emails handed to Brevo")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Outcome of an email that was scheduled for at least one recipient.
+   *
+   * @param batchId the batch ID of the email
+   * @param messageIds the IDs of the messages Brevo created
+   * @param failedRecipients the failure reason per recipient the email was not scheduled for
+   */
+  public record Delivery(
+      String batchId, List<String> messageIds, Map<String, String> failedRecipients) {}
+
+  private record GroupKey(BrevoEmailRequest.Sender sender, Instant scheduledAt) {}
+
+  private record Version(PendingEmail email, List<BrevoEmailRequest.To> to) {}
+
+  private static final class Group {
+    private final long createdAt;
+    private final List<PendingEmail> emails = new ArrayList<>();
+
+    private Group(long createdAt) {
+      this.createdAt = createdAt;
+    }
+  }
+
+  /** State of a submitted email; only touched by the sending thread once it is taken. */
+  private static final class PendingEmail {
+    private final BrevoEmailRequest request;
+    private final CompletableFuture<Delivery> result = new CompletableFuture<>();
+    private final List<String> messageIds = new ArrayList<>();
+    private final Map<String, String> failedRecipients = new LinkedHashMap<>();
+    private List<BrevoEmailRequest.To> recipients;
+    private int outstanding;
+    private boolean scheduled;
+
+    private PendingEmail(BrevoEmailRequest request) {
+      this.request = Objects.requireNonNull(request);
+    }
+  }
+}
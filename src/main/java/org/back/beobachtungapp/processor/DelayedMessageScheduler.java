@@ -0,0 +1,151 @@
+package org.back.beobachtungapp.processor;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.service.DelayedMessageStore;
+import org.back.beobachtungapp.service.NotificationTransport;
+import org.back.beobachtungapp.service.PartitionLeaseManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands delayed Telegram messages over to the {@link NotificationTransport} as soon as they are
+ * due.
+ *
+ * <p>Delayed messages are sharded by event ID into the partitions of the {@link
+ * DelayedMessageStore}. A dedicated thread sleeps until the earliest score in the partitions this
+ * instance owns. On waking it hands up to {@link #BATCH_SIZE} due messages per partition over to
+ * the transport, which also reports the next due score. The transport only moves or publishes them;
+ * sending happens on the consumers of the transport, so the scheduler thread is never held up by
+ * Telegram. {@link #wakeUp(long)} shortens the sleep when a message is scheduled sooner than the
+ * current wake-up time. The sleep is capped at {@link #MAX_IDLE_MS}, so messages scheduled by other
+ * instances, partitions taken over from them and requeued retries are picked up as well.
+ */
+@SuppressFBWarnings
+@Slf4j
+@Component
+public class DelayedMessageScheduler implements SmartLifecycle {
+
+  /** Due messages moved per script call. */
+  private static final int BATCH_SIZE = 200;
+
+  /** Longest sleep between two looks at the sorted sets. */
+  private static final long MAX_IDLE_MS = 1000;
+
+  /** Sleep after Redis could not be reached. */
+  private static final long ERROR_BACKOFF_MS = 1000;
+
+  private final DelayedMessageStore delayedMessageStore;
+  private final NotificationTransport notificationTransport;
+  private final PartitionLeaseManager partitionLeaseManager;
+
+  private final Object monitor = new Object();
+  private long wakeAt = Long.MAX_VALUE;
+
+  private volatile boolean running;
+  private Thread thread;
+
+  public DelayedMessageScheduler(
+      DelayedMessageStore delayedMessageStore,
+      NotificationTransport notificationTransport,
+      PartitionLeaseManager partitionLeaseManager) {
+    this.delayedMessageStore = delayedMessageStore;
+    this.notificationTransport = notificationTransport;
+    this.partitionLeaseManager = partitionLeaseManager;
+  }
+
+  /**
+   * Wakes the scheduler early if a message is due before its current wake-up time.
+   *
+   * @param executionTime epoch millisecond the new message is due at
+   */
+  public void wakeUp(long executionTime) {
+    synchronized (monitor) {
+      if (executionTime < wakeAt) {
+        wakeAt = executionTime;
+        monitor.notifyAll();
+      }
+    }
+  }
+
+  @Override
+  public void start() {
+    delayedMessageStore.migrateLegacyMessages();
+    running = true;
+    thread = new Thread(this::run, "tg-delayed-scheduler");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Override
+  public void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    synchronized (monitor) {
+      monitor.notifyAll();
+    }
+    try {
+      thread.join(10000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void run() {
+    while (running) {
+      synchronized (monitor) {
+        wakeAt = Long.MAX_VALUE;
+      }
+
+      long now = System.currentTimeMillis();
+      long next;
+      try {
+        next = dispatchDue(now);
+      } catch (Exception e) {
+        log.warn("Failed to schedule delayed Telegram messages: {}", e.getMessage());
+        next = now + ERROR_BACKOFF_MS;
+      }
+
+      long until = next < 0 ? now + MAX_IDLE_MS : Math.min(next, now + MAX_IDLE_MS);
+      sleepUntil(until);
+    }
+  }
+
+  /**
+   * Hands the due messages of all owned partitions over to the {@link NotificationTransport}.
+   *
+   * @return the earliest remaining due time, or -1 if the owned partitions are empty
+   */
+  private long dispatchDue(long now) {
+    long next = -1;
+    for (int partition : partitionLeaseManager.ownedPartitions()) {
+      long partitionNext = notificationTransport.dispatchDue(partition, now, BATCH_SIZE);
+      if (partitionNext >= 0 && (next < 0 || partitionNext < next)) {
+        next = partitionNext;
+      }
+    }
+    return next;
+  }
+
+  private void sleepUntil(long until) {
+    synchronized (monitor) {
+      wakeAt = Math.min(wakeAt, until);
+      long remaining;
+      while (running && (remaining = wakeAt - System.currentTimeMillis()) > 0) {
+        try {
+          monitor.wait(remaining);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          running = false;
+        }
+      }
+    }
+  }
+}
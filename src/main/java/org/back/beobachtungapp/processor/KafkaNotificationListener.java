@@ -0,0 +1,108 @@
+package org.back.beobachtungapp.processor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.back.beobachtungapp.dto.message.DelayedTgMessage;
+import org.back.beobachtungapp.dto.telegram.TelegramPdfJob;
+import org.back.beobachtungapp.service.KafkaNotificationTransport;
+import org.back.beobachtungapp.service.NotificationDeduplicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends the notifications published by the {@link KafkaNotificationTransport}.
+ *
+ * <p>Records arrive in batches of up to {@code spring.kafka.consumer.max-poll-records} per
+ * partition and are sent in order. Records whose {@link
+ * KafkaNotificationTransport#NOTIFICATION_ID_HEADER} has been sent before are skipped, so
+ * redeliveries do not reach the user twice. If a record fails, the records before it are committed
+ * and the rest of the batch is redelivered, see {@code KafkaNotificationConfig}.
+ */
+@SuppressFBWarnings
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notification.transport", havingValue = "kafka")
+public class KafkaNotificationListener {
+
+  private final MessageProcessor messageProcessor;
+  private final TelegramPdfSender telegramPdfSender;
+  private final NotificationDeduplicator notificationDeduplicator;
+  private final ObjectMapper objectMapper;
+
+  public KafkaNotificationListener(
+      MessageProcessor messageProcessor,
+      TelegramPdfSender telegramPdfSender,
+      NotificationDeduplicator notificationDeduplicator,
+      ObjectMapper objectMapper) {
+    this.messageProcessor = messageProcessor;
+    this.telegramPdfSender = telegramPdfSender;
+    this.notificationDeduplicator = notificationDeduplicator;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Sends a batch of due Telegram messages.
+   *
+   * @param records the records of the batch
+   */
+  @KafkaListener(
+      topics = "${notification.kafka.messages-topic:notifications.telegram-messages}",
+      containerFactory = "notificationListenerFactory")
+  public void onMessages(List<ConsumerRecord<String, String>> records) {
+    for (int i = 0; i < records.size(); i++) {
+      ConsumerRecord<String, String> record = records.get(i);
+      String notificationId = notificationId(record);
+      if (notificationDeduplicator.isProcessed(notificationId)) {
+        log.debug("Skipping Telegram message {} sent before", notificationId);
+        continue;
+      }
+      try {
+        DelayedTgMessage msg = objectMapper.readValue(record.value(), DelayedTgMessage.class);
+        messageProcessor.send(msg);
+        notificationDeduplicator.markProcessed(notificationId);
+        log.info("Processed message for chatId {}: {}", msg.chatId(), notificationId);
+      } catch (Exception e) {
+        throw new BatchListenerFailedException("Failed to send Telegram message", e, i);
+      }
+    }
+  }
+
+  /**
+   * Sends a batch of PDF reports. The payload of a report is deleted once it has been sent.
+   *
+   * @param records the records of the batch
+   */
+  @KafkaListener(
+      topics = "${notification.kafka.pdf-topic:notifications.telegram-pdf}",
+      containerFactory = "notificationListenerFactory")
+  public void onPdfJobs(List<ConsumerRecord<String, String>> records) {
+    for (int i = 0; i < records.size(); i++) {
+      ConsumerRecord<String, String> record = records.get(i);
+      String notificationId = notificationId(record);
+      if (notificationDeduplicator.isProcessed(notificationId)) {
+        log.debug("Skipping PDF job {} sent before", notificationId);
+        continue;
+      }
+      try {
+        TelegramPdfJob job = objectMapper.readValue(record.value(), TelegramPdfJob.class);
+        telegramPdfSender.send(job);
+        notificationDeduplicator.markProcessed(notificationId);
+        telegramPdfSender.discardPayload(job);
+      } catch (Exception e) {
+        throw new BatchListenerFailedException("Failed to send PDF job", e, i);
+      }
+    }
+  }
+
+  private String notificationId(ConsumerRecord<String, String> record) {
+    Header header = record.headers().lastHeader(KafkaNotificationTransport.NOTIFICATION_ID_HEADER);
+    return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+  }
+}
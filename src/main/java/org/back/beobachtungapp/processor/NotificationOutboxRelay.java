@@ -0,0 +1,294 @@
+package org.back.beobachtungapp.processor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.config.properties.NotificationProperties;
+import org.back.beobachtungapp.dto.brevo.BrevoEmailRequest;
+import org.back.beobachtungapp.dto.message.DelayedTgMessage;
+import org.back.beobachtungapp.entity.outbox.NotificationOutboxAction;
+import org.back.beobachtungapp.entity.outbox.NotificationOutboxEntry;
+import org.back.beobachtungapp.repository.NotificationOutboxRepository;
+import org.back.beobachtungapp.service.MessageQueueService;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Relays the notification outbox to Redis and Brevo.
+ *
+ * <p>Changes of an event are coalesced: an entry is only claimed once its event has not changed for
+ * {@code notification.outbox.coalesce-window}, or at the latest {@code
+ * notification.outbox.coalesce-max-delay} after the first pending change, and then replaces all
+ * pending changes with one schedule. The {@code notification.outbox.coalescing} summary records how
+ * many changes each relayed entry stood for; its mean is the coalescing ratio.
+ *
+ * <p>A dedicated thread claims up to {@code notification.outbox.batch-size} entries with {@code FOR
+ * UPDATE SKIP LOCKED}, leases them and commits, so several instances can relay side by side and no
+ * database connection is held while Redis or Brevo are called. The Telegram messages of a batch are
+ * scheduled with one call to {@link MessageQueueService#scheduleEventTelegramMessages}, the emails
+ * are sent after all messages are scheduled. Relayed entries are deleted together with the older
+ * entries of their event they superseded. Failed entries are retried with exponential backoff and
+ * dropped after {@code notification.outbox.max-attempts}.
+ *
+ * <p>The thread runs again right away while full batches are claimed, otherwise it sleeps for
+ * {@code notification.outbox.poll-interval} or until {@link #wakeUp()} is called after a commit.
+ */
+@SuppressFBWarnings
+@Slf4j
+@Component
+public class NotificationOutboxRelay implements SmartLifecycle {
+
+  /** Sleep after the database could not be reached. */
+  private static final long ERROR_BACKOFF_MS = 5000;
+
+  private final NotificationOutboxRepository repository;
+  private final MessageQueueService messageQueueService;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+  private final NotificationProperties.Outbox properties;
+  private final Timer lag;
+  private final Counter relayed;
+  private final Counter retried;
+  private final Counter dropped;
+  private final DistributionSummary coalescing;
+
+  private final Object monitor = new Object();
+  private boolean wakeRequested;
+
+  private volatile boolean running;
+  private Thread thread;
+
+  public NotificationOutboxRelay(
+      NotificationOutboxRepository repository,
+      MessageQueueService messageQueueService,
+      TransactionTemplate transactionTemplate,
+      ObjectMapper objectMapper,
+      NotificationProperties notificationProperties,
+      MeterRegistry meterRegistry) {
+    this.repository = repository;
+    this.messageQueueService = messageQueueService;
+    this.transactionTemplate = transactionTemplate;
+    this.objectMapper = objectMapper;
+    this.properties = notificationProperties.getOutbox();
+    this.lag =
+        Timer.builder("notification.outbox.lag")
+            .description("Time from writing an outbox entry until it was relayed")
+            .register(meterRegistry);
+    this.relayed = entryCounter(meterRegistry, "relayed");
+    this.retried = entryCounter(meterRegistry, "retried");
+    this.dropped = entryCounter(meterRegistry, "dropped");
+    this.coalescing =
+        DistributionSummary.builder("notification.outbox.coalescing")
+            .description("Event changes replaced by one relayed outbox entry")
+            .register(meterRegistry);
+  }
+
+  /** Makes the relay look for new entries right away instead of after its poll interval. */
+  public void wakeUp() {
+    synchronized (monitor) {
+      wakeRequested = true;
+      monitor.notifyAll();
+    }
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    thread = new Thread(this::run, "notification-outbox-relay");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Override
+  public void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    wakeUp();
+    try {
+      thread.join(10000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void run() {
+    while (running) {
+      synchronized (monitor) {
+        wakeRequested = false;
+      }
+
+      long sleepMs;
+      try {
+        boolean full = relayBatch() >= properties.getBatchSize();
+        sleepMs = full ? 0 : properties.getPollInterval().toMillis();
+      } catch (Exception e) {
+        log.warn("Failed to relay notification outbox: {}", e.getMessage());
+        sleepMs = ERROR_BACKOFF_MS;
+      }
+      sleep(sleepMs);
+    }
+  }
+
+  /**
+   * Claims and relays one batch of entries.
+   *
+   * @return the number of claimed entries
+   */
+  private int relayBatch() {
+    Instant now = Instant.now();
+    List<NotificationOutboxEntry> entries =
+        transactionTemplate.execute(
+            status -> {
+              List<NotificationOutboxEntry> claimed =
+                  repository.claim(
+                      now,
+                      now.minus(properties.getCoalesceWindow()),
+                      now.minus(properties.getCoalesceMaxDelay()),
+                      properties.getBatchSize());
+              Instant lockedUntil = now.plus(properties.getLease());
+              claimed.forEach(entry -> entry.setLockedUntil(lockedUntil));
+              return claimed;
+            });
+    if (entries == null || entries.isEmpty()) {
+      return 0;
+    }
+
+    Map<Long, String> failures = relay(entries);
+
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          for (NotificationOutboxEntry entry : entries) {
+            String error = failures.get(entry.getId());
+            if (error == null) {
+              coalescing.record(repository.deleteRelayed(entry.getEventId(), entry.getId()));
+              lag.record(Duration.between(entry.getCreatedAt(), Instant.now()));
+              relayed.increment();
+            } else if (entry.getAttempts() + 1 >= properties.getMaxAttempts()) {
+              log.error(
+                  "Dropping notifications of event {} after {} attempts: {}",
+                  entry.getEventId(),
+                  entry.getAttempts() + 1,
+                  error);
+              repository.deleteRelayed(entry.getEventId(), entry.getId());
+              dropped.increment();
+            } else {
+              repository.markFailed(entry.getId(), truncate(error), nextAttemptAt(entry));
+              retried.increment();
+            }
+          }
+        });
+    log.debug("Relayed {} outbox entries, {} failed", entries.size(), failures.size());
+    return entries.size();
+  }
+
+  /**
+   * Applies the entries to Redis and Brevo.
+   *
+   * @return the failure reason per ID of the entries that could not be relayed
+   */
+  private Map<Long, String> relay(List<NotificationOutboxEntry> entries) {
+    Map<Long, String> failures = new LinkedHashMap<>();
+    long now = System.currentTimeMillis();
+
+    Map<DelayedTgMessage, Long> messages = new LinkedHashMap<>();
+    List<NotificationOutboxEntry> messageEntries = new ArrayList<>();
+    for (NotificationOutboxEntry entry : entries) {
+      try {
+        if (entry.getAction() != NotificationOutboxAction.DELETED
+            && entry.getTelegramMessage() != null) {
+          DelayedTgMessage message =
+              objectMapper.readValue(entry.getTelegramMessage(), DelayedTgMessage.class);
+          messages.put(message, Math.max(0, entry.getTelegramDueAt() - now));
+          messageEntries.add(entry);
+        } else if (entry.getAction() != NotificationOutboxAction.CREATED) {
+          messageQueueService.cancelScheduledEventTelegramMessage(
+              String.valueOf(entry.getEventId()));
+        }
+      } catch (Exception e) {
+        failures.put(entry.getId(), "Telegram: " + e.getMessage());
+      }
+    }
+    try {
+      messageQueueService.scheduleEventTelegramMessages(messages);
+    } catch (Exception e) {
+      log.warn("Failed to schedule {} Telegram messages: {}", messages.size(), e.getMessage());
+      messageEntries.forEach(entry -> failures.put(entry.getId(), "Telegram: " + e.getMessage()));
+    }
+
+    List<BrevoEmailRequest> emails = new ArrayList<>();
+    Map<String, Long> emailEntries = new LinkedHashMap<>();
+    for (NotificationOutboxEntry entry : entries) {
+      // A retried entry may have sent its email before, so it is cancelled like an update.
+      if (entry.getAction() != NotificationOutboxAction.CREATED || entry.getAttempts() > 0) {
+        messageQueueService.cancelScheduledEventEmail(String.valueOf(entry.getEventId()));
+      }
+      if (entry.getAction() == NotificationOutboxAction.DELETED || entry.getEmail() == null) {
+        continue;
+      }
+      try {
+        BrevoEmailRequest email = objectMapper.readValue(entry.getEmail(), BrevoEmailRequest.class);
+        emails.add(email);
+        emailEntries.put(email.batchId(), entry.getId());
+      } catch (IOException e) {
+        failures.put(entry.getId(), "Email: " + e.getMessage());
+      }
+    }
+    messageQueueService
+        .scheduleEventEmails(emails)
+        .forEach((batchId, error) -> failures.put(emailEntries.get(batchId), "Email: " + error));
+    return failures;
+  }
+
+  private Instant nextAttemptAt(NotificationOutboxEntry entry) {
+    long backoff = properties.getInitialBackoff().toMillis() << Math.min(entry.getAttempts(), 20);
+    return Instant.now().plusMillis(Math.min(backoff, properties.getMaxBackoff().toMillis()));
+  }
+
+  private String truncate(String error) {
+    return error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+  }
+
+  private void sleep(long millis) {
+    if (millis <= 0) {
+      return;
+    }
+    long until = System.currentTimeMillis() + millis;
+    synchronized (monitor) {
+      long remaining;
+      while (running && !wakeRequested && (remaining = until - System.currentTimeMillis()) > 0) {
+        try {
+          monitor.wait(remaining);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          running = false;
+        }
+      }
+    }
+  }
+
+  private static Counter entryCounter(MeterRegistry meterRegistry, String outcome) {
+    return Counter.builder("notification.outbox.entries")
+        .description("Processed notification outbox entries")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,206 @@
+package org.back.beobachtungapp.processor;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.service.PartitionedQueue;
+import org.back.beobachtungapp.service.ReliableQueue;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Continuous consumer of a {@link PartitionedQueue}.
+ *
+ * <p>A dedicated poller thread claims payloads round-robin from the partitions this instance owns,
+ * blocking on one of them once a full round found nothing, and hands every payload to a pool of
+ * worker threads. The poller only claims a payload once a worker is free, so payloads wait in Redis
+ * rather than in memory and a backlog is drained as fast as the workers can send. Subclasses
+ * acknowledge, retry or dead-letter every payload in {@link #process}, see {@link ReliableQueue}.
+ */
+@SuppressFBWarnings
+@Slf4j
+public abstract class PartitionedQueueConsumer implements SmartLifecycle {
+
+  private static final Duration ERROR_BACKOFF = Duration.ofSeconds(1);
+
+  private final String name;
+  private final String threadPrefix;
+  private final PartitionedQueue queue;
+  private final boolean enabled;
+  private final int workerCount;
+  private final Duration pollTimeout;
+
+  private final Semaphore freeWorkers;
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private volatile boolean running;
+  private int cursor;
+  private ExecutorService workers;
+  private Thread poller;
+
+  /**
+   * Creates a consumer.
+   *
+   * @param name name of the queue in log messages, e.g. {@code Telegram PDF}
+   * @param threadPrefix prefix of the worker and poller thread names
+   * @param queue the queue to consume
+   * @param enabled whether this instance consumes the queue at all
+   * @param workerCount number of worker threads; also the number of payloads claimed at a time
+   * @param pollTimeout how long the poller blocks on one partition after a round found nothing
+   */
+  protected PartitionedQueueConsumer(
+      String name,
+      String threadPrefix,
+      PartitionedQueue queue,
+      boolean enabled,
+      int workerCount,
+      Duration pollTimeout) {
+    this.name = name;
+    this.threadPrefix = threadPrefix;
+    this.queue = queue;
+    this.enabled = enabled;
+    this.workerCount = workerCount;
+    this.pollTimeout = pollTimeout;
+    this.freeWorkers = new Semaphore(workerCount);
+  }
+
+  /**
+   * Handles a single claimed payload on a worker thread. Implementations acknowledge, fail or
+   * reject it in its partition and must not throw.
+   *
+   * @param partition the partition the payload was claimed from
+   * @param payload the claimed payload
+   */
+  protected abstract void process(ReliableQueue partition, String payload);
+
+  /** Called once before the poller starts, e.g. to migrate payloads from an older key layout. */
+  protected void beforeStart() {}
+
+  @Override
+  public void start() {
+    if (!enabled) {
+      log.info("{} queue consumer is disabled", name);
+      return;
+    }
+    beforeStart();
+    running = true;
+    workers = Executors.newFixedThreadPool(workerCount, threadFactory(threadPrefix + "-"));
+    poller = threadFactory(threadPrefix + "-poller").newThread(this::poll);
+    poller.start();
+    log.info("Started {} queue consumer with {} workers", name, workerCount);
+  }
+
+  @Override
+  public void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    poller.interrupt();
+    workers.shutdown();
+    try {
+      if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+        log.warn("{} workers did not finish within 30 seconds", name);
+        workers.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      workers.shutdownNow();
+    }
+    log.info("Stopped {} queue consumer", name);
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Returns the number of payloads currently being processed.
+   *
+   * @return payloads handed to a worker and not finished yet
+   */
+  protected int inFlight() {
+    return inFlight.get();
+  }
+
+  private void poll() {
+    while (running) {
+      try {
+        freeWorkers.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+
+      ReliableQueue partition;
+      String payload;
+      try {
+        List<ReliableQueue> owned = queue.ownedPartitions();
+        if (owned.isEmpty()) {
+          freeWorkers.release();
+          pause();
+          continue;
+        }
+        partition = null;
+        payload = null;
+        for (int i = 0; i < owned.size() && payload == null; i++) {
+          partition = owned.get(Math.floorMod(cursor++, owned.size()));
+          payload = partition.claim();
+        }
+        if (payload == null) {
+          partition = owned.get(Math.floorMod(cursor++, owned.size()));
+          payload = partition.claim(pollTimeout);
+        }
+      } catch (Exception e) {
+        freeWorkers.release();
+        if (running) {
+          log.warn("Failed to poll {} queue: {}", name, e.getMessage());
+          pause();
+        }
+        continue;
+      }
+
+      if (payload == null) {
+        freeWorkers.release();
+        continue;
+      }
+
+      ReliableQueue claimedFrom = partition;
+      String claimed = payload;
+      inFlight.incrementAndGet();
+      workers.execute(
+          () -> {
+            try {
+              process(claimedFrom, claimed);
+            } finally {
+              inFlight.decrementAndGet();
+              freeWorkers.release();
+            }
+          });
+    }
+  }
+
+  private void pause() {
+    try {
+      Thread.sleep(ERROR_BACKOFF.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static ThreadFactory threadFactory(String prefix) {
+    AtomicInteger counter = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
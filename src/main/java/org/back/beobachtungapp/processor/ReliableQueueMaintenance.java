@@ -0,0 +1,71 @@
+package org.back.beobachtungapp.processor;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.dto.queue.QueueStats;
+import org.back.beobachtungapp.service.PartitionedQueue;
+import org.back.beobachtungapp.service.ReliableQueue;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Drives recovery of all {@link PartitionedQueue}s: leases orphaned jobs, retries jobs whose
+ * visibility timeout has expired and requeues failed jobs once their backoff has elapsed. Each
+ * instance only recovers the partitions it owns.
+ *
+ * <p>Registers the gauges {@code queue.ready}, {@code queue.processing}, {@code queue.retrying} and
+ * {@code queue.dead_letters}, tagged with the queue name.
+ */
+@SuppressFBWarnings
+@Slf4j
+@Service
+public class ReliableQueueMaintenance {
+
+  private final List<PartitionedQueue> queues;
+
+  public ReliableQueueMaintenance(List<PartitionedQueue> queues, MeterRegistry meterRegistry) {
+    this.queues = queues;
+    for (PartitionedQueue queue : queues) {
+      gauge(meterRegistry, "queue.ready", queue, QueueStats::ready);
+      gauge(meterRegistry, "queue.processing", queue, QueueStats::processing);
+      gauge(meterRegistry, "queue.retrying", queue, QueueStats::retrying);
+      gauge(meterRegistry, "queue.dead_letters", queue, QueueStats::deadLetters);
+    }
+  }
+
+  /** Runs every 10 seconds on every instance for the partitions it owns. */
+  @Scheduled(fixedDelay = 10000)
+  public void recover() {
+    for (PartitionedQueue queue : queues) {
+      for (ReliableQueue partition : queue.ownedPartitions()) {
+        try {
+          partition.recover();
+        } catch (Exception e) {
+          log.warn("Failed to recover queue {}: {}", partition.getName(), e.getMessage());
+        }
+      }
+    }
+  }
+
+  private static void gauge(
+      MeterRegistry meterRegistry,
+      String name,
+      PartitionedQueue queue,
+      ToLongFunction<QueueStats> value) {
+    Gauge.builder(name, queue, q -> read(q, value))
+        .tag("queue", queue.getName())
+        .register(meterRegistry);
+  }
+
+  private static double read(PartitionedQueue queue, ToLongFunction<QueueStats> value) {
+    try {
+      return value.applyAsLong(queue.stats());
+    } catch (Exception e) {
+      return Double.NaN;
+    }
+  }
+}
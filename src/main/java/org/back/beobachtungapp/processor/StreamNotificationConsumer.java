@@ -0,0 +1,341 @@
+package org.back.beobachtungapp.processor;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.config.properties.NotificationProperties;
+import org.back.beobachtungapp.config.properties.QueueProperties;
+import org.back.beobachtungapp.dto.message.DelayedTgMessage;
+import org.back.beobachtungapp.dto.telegram.TelegramPdfJob;
+import org.back.beobachtungapp.service.PartitionLeaseManager;
+import org.back.beobachtungapp.service.StreamNotificationTransport;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamInfo;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumes the streams of the {@link StreamNotificationTransport} in the consumer group {@code
+ * notification.streams.group}.
+ *
+ * <p>Every instance runs {@code notification.streams.consumers} threads per stream, each reading
+ * batches of up to {@code notification.streams.batch-size} new entries with {@code XREADGROUP}. The
+ * group hands every entry to exactly one consumer, so throughput grows with the number of consumers
+ * across all instances. Entries are acknowledged once sent. Failed entries stay pending and are
+ * claimed again after {@code queue.visibility-timeout} by the maintenance run of any instance,
+ * which also covers entries of crashed consumers. After {@code queue.max-attempts} deliveries, or
+ * right away if they can never succeed, entries are moved to the dead-letter list {@code
+ * <stream>:dead} in the format of the {@code ReliableQueue}.
+ *
+ * <p>The maintenance run also trims entries older than {@code notification.streams.max-age} and
+ * removes consumers of stopped instances once nothing is pending for them.
+ */
+@SuppressFBWarnings
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notification.transport", havingValue = "streams")
+public class StreamNotificationConsumer implements SmartLifecycle {
+
+  private static final long ERROR_BACKOFF_MS = 1000;
+
+  /** KEYS: stream; ARGV: lowest entry ID kept. */
+  private static final RedisScript<Long> TRIM_OLDER =
+      new DefaultRedisScript<>(
+          "return redis.call('XTRIM', KEYS[1], 'MINID', '~', ARGV[1])", Long.class);
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final MessageProcessor messageProcessor;
+  private final TelegramPdfSender telegramPdfSender;
+  private final PartitionLeaseManager partitionLeaseManager;
+  private final NotificationProperties.Streams properties;
+  private final QueueProperties queueProperties;
+  private final ObjectMapper objectMapper;
+
+  private final Map<String, Handler> handlers = new LinkedHashMap<>();
+  private final List<Thread> threads = new ArrayList<>();
+
+  private volatile boolean running;
+
+  public StreamNotificationConsumer(
+      StringRedisTemplate stringRedisTemplate,
+      MessageProcessor messageProcessor,
+      TelegramPdfSender telegramPdfSender,
+      PartitionLeaseManager partitionLeaseManager,
+      NotificationProperties notificationProperties,
+      QueueProperties queueProperties,
+      ObjectMapper objectMapper) {
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.messageProcessor = messageProcessor;
+    this.telegramPdfSender = telegramPdfSender;
+    this.partitionLeaseManager = partitionLeaseManager;
+    this.properties = notificationProperties.getStreams();
+    this.queueProperties = queueProperties;
+    this.objectMapper = objectMapper;
+
+    handlers.put(StreamNotificationTransport.MESSAGE_STREAM_KEY, this::sendMessage);
+    handlers.put(StreamNotificationTransport.PDF_STREAM_KEY, this::sendPdf);
+  }
+
+  @Override
+  public void start() {
+    handlers.keySet().forEach(this::createGroup);
+    running = true;
+    for (String stream : handlers.keySet()) {
+      for (int i = 0; i < properties.getConsumers(); i++) {
+        String consumer = consumerName(i);
+        Thread thread = new Thread(() -> consume(stream, consumer), "tg-stream-" + threads.size());
+        thread.setDaemon(true);
+        threads.add(thread);
+        thread.start();
+      }
+    }
+    log.info(
+        "Started {} Redis Stream consumers per stream in group {}",
+        properties.getConsumers(),
+        properties.getGroup());
+  }
+
+  @Override
+  public void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    for (Thread thread : threads) {
+      try {
+        thread.join(properties.getBlockTimeout().toMillis() + 10000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+    threads.clear();
+    log.info("Stopped Redis Stream consumers");
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Claims entries pending longer than {@code queue.visibility-timeout}, trims old entries and
+   * removes consumers of stopped instances.
+   */
+  @Scheduled(fixedDelay = 10000)
+  public void maintain() {
+    if (!running) {
+      return;
+    }
+    for (String stream : handlers.keySet()) {
+      try {
+        reclaim(stream);
+        trim(stream);
+        removeIdleConsumers(stream);
+      } catch (Exception e) {
+        log.warn("Failed to maintain stream {}: {}", stream, e.getMessage());
+      }
+    }
+  }
+
+  private void consume(String stream, String consumer) {
+    StreamReadOptions options =
+        StreamReadOptions.empty()
+            .count(properties.getBatchSize())
+            .block(properties.getBlockTimeout());
+    while (running) {
+      try {
+        // read only has generic varargs overloads; the single offset array is never stored
+        @SuppressWarnings("unchecked")
+        List<MapRecord<String, Object, Object>> records =
+            streams()
+                .read(
+                    Consumer.from(properties.getGroup(), consumer),
+                    options,
+                    StreamOffset.create(stream, ReadOffset.lastConsumed()));
+        if (records == null) {
+          continue;
+        }
+        for (MapRecord<String, Object, Object> record : records) {
+          handle(stream, record, 1);
+        }
+      } catch (Exception e) {
+        if (running) {
+          log.warn("Failed to read stream {}: {}", stream, e.getMessage());
+          pause();
+        }
+      }
+    }
+  }
+
+  /**
+   * Sends a single entry and acknowledges it. Failed entries are left pending for {@link #reclaim}.
+   */
+  private void handle(String stream, MapRecord<String, Object, Object> record, long deliveries) {
+    String payload = (String) record.getValue().get(StreamNotificationTransport.PAYLOAD_FIELD);
+    try {
+      handlers.get(stream).send(payload);
+      streams().acknowledge(stream, properties.getGroup(), record.getId());
+    } catch (JsonProcessingException | NoSuchElementException e) {
+      deadLetter(stream, record.getId(), payload, deliveries, e.getMessage());
+    } catch (Exception e) {
+      log.error("Failed to send entry {} of stream {}", record.getId(), stream, e);
+      if (deliveries >= queueProperties.getMaxAttempts()) {
+        deadLetter(stream, record.getId(), payload, deliveries, e.toString());
+      }
+    }
+  }
+
+  private void sendMessage(String payload) throws Exception {
+    DelayedTgMessage msg = objectMapper.readValue(payload, DelayedTgMessage.class);
+    messageProcessor.send(msg);
+    log.info("Processed message for chatId {}", msg.chatId());
+  }
+
+  private void sendPdf(String payload) throws Exception {
+    TelegramPdfJob job = objectMapper.readValue(payload, TelegramPdfJob.class);
+    telegramPdfSender.send(job);
+    telegramPdfSender.discardPayload(job);
+  }
+
+  private void reclaim(String stream) {
+    PendingMessages pending =
+        streams()
+            .pending(
+                stream,
+                properties.getGroup(),
+                Range.unbounded(),
+                queueProperties.getMaintenanceBatchSize());
+
+    Map<RecordId, Long> deliveries = new HashMap<>();
+    for (PendingMessage message : pending) {
+      Duration idle = message.getElapsedTimeSinceLastDelivery();
+      if (idle.compareTo(queueProperties.getVisibilityTimeout()) >= 0) {
+        deliveries.put(message.getId(), message.getTotalDeliveryCount());
+      }
+    }
+    if (deliveries.isEmpty()) {
+      return;
+    }
+
+    List<MapRecord<String, Object, Object>> claimed =
+        streams()
+            .claim(
+                stream,
+                properties.getGroup(),
+                consumerName(0),
+                queueProperties.getVisibilityTimeout(),
+                deliveries.keySet().toArray(RecordId[]::new));
+    log.info("Claimed {} stalled entries of stream {}", claimed.size(), stream);
+    for (MapRecord<String, Object, Object> record : claimed) {
+      long previous = deliveries.getOrDefault(record.getId(), 0L);
+      if (previous >= queueProperties.getMaxAttempts()) {
+        Object payload = record.getValue().get(StreamNotificationTransport.PAYLOAD_FIELD);
+        deadLetter(stream, record.getId(), (String) payload, previous, "Delivery timed out");
+      } else {
+        handle(stream, record, previous + 1);
+      }
+    }
+  }
+
+  private void trim(String stream) {
+    long minId = System.currentTimeMillis() - properties.getMaxAge().toMillis();
+    Long trimmed = stringRedisTemplate.execute(TRIM_OLDER, List.of(stream), minId + "-0");
+    if (trimmed != null && trimmed > 0) {
+      log.info("Trimmed {} entries from stream {}", trimmed, stream);
+    }
+  }
+
+  private void removeIdleConsumers(String stream) {
+    StreamInfo.XInfoConsumers consumers = streams().consumers(stream, properties.getGroup());
+    String ownPrefix = partitionLeaseManager.getInstanceId() + "-";
+    consumers.forEach(
+        consumer -> {
+          if (consumer.pendingCount() == 0
+              && !consumer.consumerName().startsWith(ownPrefix)
+              && consumer.idleTime().compareTo(queueProperties.getVisibilityTimeout()) > 0) {
+            streams()
+                .deleteConsumer(
+                    stream, Consumer.from(properties.getGroup(), consumer.consumerName()));
+            log.info("Removed idle consumer {} from stream {}", consumer.consumerName(), stream);
+          }
+        });
+  }
+
+  /** Moves an entry to {@code <stream>:dead} and acknowledges it. */
+  private void deadLetter(String stream, RecordId id, String payload, long attempts, String error) {
+    try {
+      String deadLetter =
+          objectMapper
+              .createObjectNode()
+              .put("payload", payload)
+              .put("attempts", attempts)
+              .put("failedAt", System.currentTimeMillis())
+              .put("error", error)
+              .toString();
+      stringRedisTemplate.opsForList().leftPush(stream + ":dead", deadLetter);
+      streams().acknowledge(stream, properties.getGroup(), id);
+      log.warn("Dead-lettered entry {} of stream {}: {}", id, stream, error);
+    } catch (Exception e) {
+      log.error("Failed to dead-letter entry {} of stream {}", id, stream, e);
+    }
+  }
+
+  private void createGroup(String stream) {
+    try {
+      streams().createGroup(stream, ReadOffset.from("0"), properties.getGroup());
+      log.info("Created consumer group {} on stream {}", properties.getGroup(), stream);
+    } catch (DataAccessException e) {
+      String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+      if (message == null || !message.contains("BUSYGROUP")) {
+        throw e;
+      }
+    }
+  }
+
+  private String consumerName(int index) {
+    return partitionLeaseManager.getInstanceId() + "-" + index;
+  }
+
+  private StreamOperations<String, Object, Object> streams() {
+    return stringRedisTemplate.opsForStream();
+  }
+
+  private void pause() {
+    try {
+      Thread.sleep(ERROR_BACKOFF_MS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+
+  @FunctionalInterface
+  private interface Handler {
+    void send(String payload) throws Exception;
+  }
+}
@@ -0,0 +1,57 @@
+package org.back.beobachtungapp.processor;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.back.beobachtungapp.config.properties.TelegramMessageQueueProperties;
+import org.back.beobachtungapp.service.PartitionedQueue;
+import org.back.beobachtungapp.service.ReliableQueue;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Continuous consumer of the queue of due Telegram messages.
+ *
+ * <p>The {@link DelayedMessageScheduler} only moves due messages into the partitions of the {@code
+ * telegramMessageQueue}. This consumer claims them from the partitions this instance owns and sends
+ * them through the {@link MessageProcessor} on a pool of {@code telegram.message-queue.workers}
+ * threads, see {@link PartitionedQueueConsumer}.
+ *
+ * <p>Only active with {@code notification.transport=redis}. Exposes the gauge {@code
+ * telegram.message.queue.in_flight}.
+ */
+@SuppressFBWarnings
+@Component
+@ConditionalOnProperty(
+    name = "notification.transport",
+    havingValue = "redis",
+    matchIfMissing = true)
+public class TelegramMessageQueueConsumer extends PartitionedQueueConsumer {
+
+  private final MessageProcessor messageProcessor;
+
+  public TelegramMessageQueueConsumer(
+      @Qualifier("telegramMessageQueue") PartitionedQueue telegramMessageQueue,
+      MessageProcessor messageProcessor,
+      TelegramMessageQueueProperties properties,
+      MeterRegistry meterRegistry) {
+    super(
+        "Telegram message",
+        "tg-message",
+        telegramMessageQueue,
+        properties.isConsumerEnabled(),
+        properties.getWorkers(),
+        properties.getPollTimeout());
+    this.messageProcessor = messageProcessor;
+
+    Gauge.builder("telegram.message.queue.in_flight", this, TelegramMessageQueueConsumer::inFlight)
+        .description("Due Telegram messages currently being sent")
+        .register(meterRegistry);
+  }
+
+  @Override
+  protected void process(ReliableQueue partition, String payload) {
+    messageProcessor.process(partition, payload);
+  }
+}
@@ -0,0 +1,131 @@
+package org.back.beobachtungapp.processor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.NoSuchElementException;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.config.QueueConfig;
+import org.back.beobachtungapp.config.properties.TelegramQueueProperties;
+import org.back.beobachtungapp.dto.telegram.TelegramPdfJob;
+import org.back.beobachtungapp.service.PartitionedQueue;
+import org.back.beobachtungapp.service.ReliableQueue;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Continuous consumer of the Telegram PDF queue.
+ *
+ * <p>Claims jobs from the partitions of the {@code telegramPdfQueue} this instance owns and sends
+ * them on a pool of {@code telegram.pdf-queue.workers} threads, see {@link
+ * PartitionedQueueConsumer}. Jobs are acknowledged once sent; failed sends are retried with backoff
+ * and dead-lettered eventually, see {@link ReliableQueue}.
+ *
+ * <p>Only active with {@code notification.transport=redis}; with Kafka, jobs are consumed by the
+ * {@link KafkaNotificationListener}.
+ *
+ * <p>Exposes the gauges {@code telegram.pdf.queue.depth} and {@code telegram.pdf.queue.in_flight}
+ * and the counter {@code telegram.pdf.jobs} with the outcomes {@code retried} and {@code dead}.
+ */
+@SuppressFBWarnings
+@Slf4j
+@Component
+@ConditionalOnProperty(
+    name = "notification.transport",
+    havingValue = "redis",
+    matchIfMissing = true)
+public class TelegramPdfQueueConsumer extends PartitionedQueueConsumer {
+
+  private final PartitionedQueue telegramPdfQueue;
+  private final TelegramPdfSender telegramPdfSender;
+  private final ObjectMapper objectMapper;
+
+  private final Counter retried;
+  private final Counter dead;
+
+  public TelegramPdfQueueConsumer(
+      @Qualifier("telegramPdfQueue") PartitionedQueue telegramPdfQueue,
+      TelegramPdfSender telegramPdfSender,
+      ObjectMapper objectMapper,
+      TelegramQueueProperties properties,
+      MeterRegistry meterRegistry) {
+    super(
+        "Telegram PDF",
+        "tg-pdf",
+        telegramPdfQueue,
+        properties.isConsumerEnabled(),
+        properties.getWorkers(),
+        properties.getPollTimeout());
+    this.telegramPdfQueue = telegramPdfQueue;
+    this.telegramPdfSender = telegramPdfSender;
+    this.objectMapper = objectMapper;
+
+    Gauge.builder("telegram.pdf.queue.depth", this, TelegramPdfQueueConsumer::queueDepth)
+        .description("Telegram PDF jobs waiting in Redis")
+        .register(meterRegistry);
+    Gauge.builder("telegram.pdf.queue.in_flight", this, TelegramPdfQueueConsumer::inFlight)
+        .description("Telegram PDF jobs currently being sent")
+        .register(meterRegistry);
+    this.retried = TelegramPdfSender.jobCounter(meterRegistry, "retried");
+    this.dead = TelegramPdfSender.jobCounter(meterRegistry, "dead");
+  }
+
+  /**
+   * Sends a single job through the {@link TelegramPdfSender} and acknowledges it. The payload is
+   * deleted once the job is acknowledged. Jobs that can never succeed are dead-lettered right away.
+   */
+  @Override
+  protected void process(ReliableQueue partition, String payload) {
+    TelegramPdfJob job;
+    try {
+      job = objectMapper.readValue(payload, TelegramPdfJob.class);
+    } catch (Exception e) {
+      reject(partition, payload, "Unreadable job: " + e.getMessage());
+      return;
+    }
+
+    try {
+      telegramPdfSender.send(job);
+      partition.ack(payload);
+      telegramPdfSender.discardPayload(job);
+    } catch (NoSuchElementException e) {
+      reject(partition, payload, e.getMessage());
+    } catch (Exception e) {
+      log.error("Failed to send PDF to user: telegramId={}", job.telegramId(), e);
+      if (partition.fail(payload, e.toString())) {
+        retried.increment();
+      } else {
+        dead.increment();
+      }
+    }
+  }
+
+  private void reject(ReliableQueue partition, String payload, String reason) {
+    partition.reject(payload, reason);
+    dead.increment();
+  }
+
+  /** Moves jobs enqueued before the queue was partitioned into partition 0. */
+  @Override
+  protected void beforeStart() {
+    try {
+      long moved = telegramPdfQueue.partition(0).moveAllFrom(QueueConfig.TELEGRAM_PDF_QUEUE_KEY);
+      if (moved > 0) {
+        log.info("Moved {} Telegram PDF jobs from the unpartitioned queue", moved);
+      }
+    } catch (Exception e) {
+      log.warn("Failed to migrate unpartitioned Telegram PDF jobs: {}", e.getMessage());
+    }
+  }
+
+  private double queueDepth() {
+    try {
+      return telegramPdfQueue.size();
+    } catch (Exception e) {
+      return Double.NaN;
+    }
+  }
+}
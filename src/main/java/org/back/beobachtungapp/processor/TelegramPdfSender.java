@@ -0,0 +1,90 @@
+package org.back.beobachtungapp.processor;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.bot.TgBot;
+import org.back.beobachtungapp.dto.telegram.TelegramPdfJob;
+import org.back.beobachtungapp.service.BlobStore;
+import org.springframework.stereotype.Service;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+
+/**
+ * Sends a single {@link TelegramPdfJob}, whichever transport delivered it.
+ *
+ * <p>Records the timer {@code telegram.pdf.queue.latency} (enqueue to sent) and the counter {@code
+ * telegram.pdf.jobs} with {@code outcome=sent}.
+ */
+@SuppressFBWarnings
+@Slf4j
+@Service
+public class TelegramPdfSender {
+
+  private final TgBot tgBot;
+  private final BlobStore blobStore;
+  private final Timer latency;
+  private final Counter sent;
+
+  public TelegramPdfSender(TgBot tgBot, BlobStore blobStore, MeterRegistry meterRegistry) {
+    this.tgBot = tgBot;
+    this.blobStore = blobStore;
+    this.latency =
+        Timer.builder("telegram.pdf.queue.latency")
+            .description("Time from enqueueing a Telegram PDF job until it was sent")
+            .register(meterRegistry);
+    this.sent = jobCounter(meterRegistry, "sent");
+  }
+
+  /**
+   * Reads the PDF of a job from the {@link BlobStore} and sends it. The payload is kept, so the job
+   * can be retried; call {@link #discardPayload} once the job has been acknowledged.
+   *
+   * @param job the job to send
+   * @throws NoSuchElementException if the job has no payload or its payload has expired, so it can
+   *     never succeed
+   * @throws TelegramApiException if Telegram rejects the document
+   * @throws IOException if the payload cannot be read
+   */
+  public void send(TelegramPdfJob job) throws TelegramApiException, IOException {
+    if (job.blobKey() == null) {
+      throw new NoSuchElementException("Job without payload reference");
+    }
+    Optional<InputStream> pdf = blobStore.open(job.blobKey());
+    if (pdf.isEmpty()) {
+      throw new NoSuchElementException("Payload " + job.blobKey() + " has expired");
+    }
+    try (InputStream in = pdf.get()) {
+      tgBot.sendPdfToUser(job.telegramId(), in, job.fileName());
+    }
+
+    sent.increment();
+    if (job.enqueuedAt() > 0) {
+      latency.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - job.enqueuedAt())));
+    }
+    log.info("Sent PDF to user: telegramId={}", job.telegramId());
+  }
+
+  /**
+   * Deletes the payload of a job that has been sent and acknowledged. Payloads of jobs given up
+   * expire with {@code blob.ttl}.
+   *
+   * @param job the sent job
+   */
+  public void discardPayload(TelegramPdfJob job) {
+    blobStore.delete(job.blobKey());
+  }
+
+  static Counter jobCounter(MeterRegistry meterRegistry, String outcome) {
+    return Counter.builder("telegram.pdf.jobs")
+        .description("Processed Telegram PDF jobs")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+}
@@ -1,8 +1,10 @@
 package org.back.beobachtungapp.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.back.beobachtungapp.entity.child.Child;
+import org.back.beobachtungapp.repository.projection.ChangeStamp;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -14,4 +16,12 @@ public interface ChildRepository extends JpaRepository<Child, Integer> {
   @EntityGraph(attributePaths = {"specialNeeds", "goals", "notes", "entries", "events"})
   @Query("SELECT c FROM Child c WHERE c.id = :id")
   Optional<Child> findByIdCustom(Long id);
+
+  @EntityGraph(attributePaths = {"schoolCompanion"})
+  @Query("SELECT c FROM Child c WHERE c.id IN :ids AND c.schoolCompanion.id = :companionId")
+  List<Child> findAllWithCompanionByIdIn(Collection<Long> ids, Long companionId);
+
+  @Query(
+      "SELECT new org.back.beobachtungapp.repository.projection.ChangeStamp(COUNT(c), MAX(c.updatedAt)) FROM Child c WHERE c.id = :id")
+  ChangeStamp findChangeStampById(Long id);
 }
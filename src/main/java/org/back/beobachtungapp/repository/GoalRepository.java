@@ -4,11 +4,17 @@ import io.micrometer.common.lang.NonNullApi;
 import java.util.List;
 import java.util.Optional;
 import org.back.beobachtungapp.entity.child.Goal;
+import org.back.beobachtungapp.repository.projection.ChangeStamp;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 @NonNullApi
 public interface GoalRepository extends JpaRepository<Goal, Long> {
   Optional<Goal> findById(Long id);
 
   List<Goal> findByChildId(Long childId);
+
+  @Query(
+      "SELECT new org.back.beobachtungapp.repository.projection.ChangeStamp(COUNT(g), MAX(g.updatedAt)) FROM Goal g WHERE g.child.id = :childId")
+  ChangeStamp findChangeStampByChildId(Long childId);
 }
@@ -4,11 +4,26 @@ import io.micrometer.common.lang.NonNullApi;
 import java.util.List;
 import java.util.Optional;
 import org.back.beobachtungapp.entity.monitoring.MonitoringEntry;
+import org.back.beobachtungapp.repository.projection.ChangeStamp;
+import org.back.beobachtungapp.repository.projection.SeriesValue;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 @NonNullApi
 public interface MonitoringEntryRepository extends JpaRepository<MonitoringEntry, Long> {
   Optional<MonitoringEntry> findById(Long id);
 
   List<MonitoringEntry> findByChildId(Long childId);
+
+  @Query(
+      "SELECT new org.back.beobachtungapp.repository.projection.ChangeStamp(COUNT(e), MAX(e.updatedAt)) FROM MonitoringEntry e WHERE e.child.id = :childId")
+  ChangeStamp findChangeStampByChildId(Long childId);
+
+  @Query(
+      "SELECT new org.back.beobachtungapp.repository.projection.ChangeStamp(COUNT(DISTINCT p.id), MAX(p.updatedAt)) FROM MonitoringEntry e JOIN e.monitoringParameter p WHERE e.child.id = :childId")
+  ChangeStamp findParameterChangeStampByChildId(Long childId);
+
+  @Query(
+      "SELECT new org.back.beobachtungapp.repository.projection.SeriesValue(e.createdAt, e.value) FROM MonitoringEntry e WHERE e.child.id = :childId AND e.monitoringParameter.id = :paramId AND e.createdAt IS NOT NULL ORDER BY e.createdAt")
+  List<SeriesValue> findSeriesValues(Long childId, Long paramId);
 }
@@ -4,11 +4,17 @@ import io.micrometer.common.lang.NonNullApi;
 import java.util.List;
 import java.util.Optional;
 import org.back.beobachtungapp.entity.note.Note;
+import org.back.beobachtungapp.repository.projection.ChangeStamp;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 @NonNullApi
 public interface NoteRepository extends JpaRepository<Note, Long> {
   Optional<Note> findById(Long id);
 
   List<Note> findByChildId(Long childId);
+
+  @Query(
+      "SELECT new org.back.beobachtungapp.repository.projection.ChangeStamp(COUNT(n), MAX(n.updatedAt)) FROM Note n WHERE n.child.id = :childId")
+  ChangeStamp findChangeStampByChildId(Long childId);
 }
@@ -0,0 +1,63 @@
+package org.back.beobachtungapp.repository;
+
+import java.time.Instant;
+import java.util.List;
+import org.back.beobachtungapp.entity.outbox.NotificationOutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEntry, Long> {
+
+  /**
+   * Locks the next entries to relay, skipping entries locked by other relays. Only the latest entry
+   * of an event is returned, and none while an older entry of the event is still being relayed, so
+   * the notifications of an event always follow its last change. The latest entry is returned once
+   * it was written before {@code settledBefore}, or once the oldest entry of its event was written
+   * before {@code overdueBefore}, so bursts of changes are relayed as one.
+   */
+  @Query(
+      value =
+          """
+          SELECT o.* FROM notification_outbox o
+          WHERE o.next_attempt_at <= :now
+            AND (o.locked_until IS NULL OR o.locked_until <= :now)
+            AND (o.created_at <= :settledBefore
+                 OR EXISTS (SELECT 1 FROM notification_outbox f
+                            WHERE f.event_id = o.event_id AND f.created_at <= :overdueBefore))
+            AND NOT EXISTS (SELECT 1 FROM notification_outbox n
+                            WHERE n.event_id = o.event_id AND n.id > o.id)
+            AND NOT EXISTS (SELECT 1 FROM notification_outbox p
+                            WHERE p.event_id = o.event_id AND p.id < o.id
+                              AND p.locked_until > :now)
+          ORDER BY o.id
+          LIMIT :limit
+          FOR UPDATE SKIP LOCKED
+          """,
+      nativeQuery = true)
+  List<NotificationOutboxEntry> claim(
+      @Param("now") Instant now,
+      @Param("settledBefore") Instant settledBefore,
+      @Param("overdueBefore") Instant overdueBefore,
+      @Param("limit") int limit);
+
+  /** Deletes a relayed entry together with the older entries of its event it superseded. */
+  @Modifying
+  @Query("DELETE FROM NotificationOutboxEntry o WHERE o.eventId = :eventId AND o.id <= :id")
+  int deleteRelayed(@Param("eventId") long eventId, @Param("id") Long id);
+
+  /** Releases an entry that could not be relayed and schedules its next attempt. */
+  @Modifying
+  @Query(
+      """
+      UPDATE NotificationOutboxEntry o
+      SET o.attempts = o.attempts + 1, o.lastError = :error, o.nextAttemptAt = :nextAttemptAt,
+          o.lockedUntil = NULL
+      WHERE o.id = :id
+      """)
+  int markFailed(
+      @Param("id") Long id,
+      @Param("error") String error,
+      @Param("nextAttemptAt") Instant nextAttemptAt);
+}
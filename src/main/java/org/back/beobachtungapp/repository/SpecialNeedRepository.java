@@ -4,11 +4,17 @@ import io.micrometer.common.lang.NonNullApi;
 import java.util.List;
 import java.util.Optional;
 import org.back.beobachtungapp.entity.child.SpecialNeed;
+import org.back.beobachtungapp.repository.projection.ChangeStamp;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 @NonNullApi
 public interface SpecialNeedRepository extends JpaRepository<SpecialNeed, Long> {
   Optional<SpecialNeed> findById(Long id);
 
   List<SpecialNeed> findByChildId(Long childId);
+
+  @Query(
+      "SELECT new org.back.beobachtungapp.repository.projection.ChangeStamp(COUNT(s), MAX(s.updatedAt)) FROM SpecialNeed s WHERE s.child.id = :childId")
+  ChangeStamp findChangeStampByChildId(Long childId);
 }
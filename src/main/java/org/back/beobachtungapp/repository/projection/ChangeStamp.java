@@ -0,0 +1,6 @@
+package org.back.beobachtungapp.repository.projection;
+
+import java.time.Instant;
+
+/** Number of rows and the latest {@code updatedAt} of a child's attachments of one kind. */
+public record ChangeStamp(Long count, Instant lastUpdated) {}
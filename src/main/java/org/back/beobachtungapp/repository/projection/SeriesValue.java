@@ -0,0 +1,6 @@
+package org.back.beobachtungapp.repository.projection;
+
+import java.time.Instant;
+
+/** Raw value of a monitoring entry together with the time it was recorded. */
+public record SeriesValue(Instant createdAt, String value) {}
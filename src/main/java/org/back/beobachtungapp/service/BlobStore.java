@@ -0,0 +1,40 @@
+package org.back.beobachtungapp.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Out-of-band storage for message payloads, so queues only carry a small key instead of the payload
+ * itself. Payloads expire after {@code blob.ttl} if they are never deleted.
+ *
+ * <p>The implementation is chosen with {@code blob.store}.
+ */
+public interface BlobStore {
+
+  /**
+   * Stores a copy of a file.
+   *
+   * @param source the file to store
+   * @return the key the payload can be read with
+   * @throws IOException if the file cannot be read or stored
+   */
+  String put(Path source) throws IOException;
+
+  /**
+   * Opens a stored payload.
+   *
+   * @param key the key returned by {@link #put}
+   * @return the payload, or empty if it does not exist or has expired
+   * @throws IOException if the payload cannot be read
+   */
+  Optional<InputStream> open(String key) throws IOException;
+
+  /**
+   * Deletes a payload. Deleting a missing payload is not an error.
+   *
+   * @param key the key returned by {@link #put}
+   */
+  void delete(String key);
+}
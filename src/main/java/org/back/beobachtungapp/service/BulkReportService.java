@@ -0,0 +1,217 @@
+package org.back.beobachtungapp.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.config.properties.ReportProperties;
+import org.back.beobachtungapp.dto.response.companion.CompanionDto;
+import org.back.beobachtungapp.entity.child.Child;
+import org.back.beobachtungapp.repository.ChildRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service exporting the reports of all children of a companion as a single ZIP archive.
+ *
+ * <p>Reports are obtained from the {@link ReportCacheService}, so unchanged children are served
+ * from the artefact store and every other child graph is loaded exactly once. At most {@code
+ * report.bulk-parallelism} reports are rendered at a time on the {@code reportExecutor}; if the
+ * executor is saturated the streaming thread renders the report itself. Archive entries are written
+ * in the order of the children while later reports are still being rendered, and each entry is
+ * copied from the stored file, so the archive is never held in memory.
+ */
+@Slf4j
+@Service
+public class BulkReportService {
+
+  private static final String ERRORS_ENTRY = "fehler.txt";
+
+  private final ChildRepository childRepository;
+  private final ReportCacheService reportCacheService;
+  private final PdfGeneratorService pdfGeneratorService;
+  private final ReportProperties reportProperties;
+  private final TaskExecutor reportExecutor;
+
+  public BulkReportService(
+      ChildRepository childRepository,
+      ReportCacheService reportCacheService,
+      PdfGeneratorService pdfGeneratorService,
+      ReportProperties reportProperties,
+      @Qualifier("reportExecutor") TaskExecutor reportExecutor) {
+    this.childRepository = childRepository;
+    this.reportCacheService = reportCacheService;
+    this.pdfGeneratorService = pdfGeneratorService;
+    this.reportProperties = reportProperties;
+    this.reportExecutor = reportExecutor;
+  }
+
+  /**
+   * Returns the children whose reports are part of the companion's export. Called before the
+   * response is committed, so a companion without children gets a proper error status.
+   *
+   * @param companionDto the companion requesting the export
+   * @return the children of the companion
+   * @throws NoSuchElementException if the companion has no children
+   */
+  public List<Child> findChildren(CompanionDto companionDto) {
+    List<Child> children = childRepository.findAllBySchoolCompanionId(companionDto.id());
+    if (children.isEmpty()) {
+      throw new NoSuchElementException("No children found for companion " + companionDto.id());
+    }
+    return children;
+  }
+
+  /**
+   * Writes the reports of the given children as a ZIP archive. Each report is also enqueued for
+   * Telegram delivery if the companion has linked Telegram. Children whose report fails, or whose
+   * stored report disappears and cannot be fetched again, are listed in a {@value #ERRORS_ENTRY}
+   * entry instead of aborting the archive.
+   *
+   * @param children the children to export, see {@link #findChildren}
+   * @param companionDto the companion requesting the export
+   * @param out the stream the archive is written to; it is finished but not closed
+   * @throws IOException if the archive cannot be written
+   */
+  public void writeArchive(List<Child> children, CompanionDto companionDto, OutputStream out)
+      throws IOException {
+    log.info("Exporting {} reports for companion {}", children.size(), companionDto.id());
+
+    ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+    Deque<PendingReport> pending = new ArrayDeque<>();
+    Iterator<Child> remaining = children.iterator();
+    Set<String> entryNames = new HashSet<>();
+    List<String> errors = new ArrayList<>();
+
+    while (remaining.hasNext() || !pending.isEmpty()) {
+      while (remaining.hasNext() && pending.size() < reportProperties.getBulkParallelism()) {
+        pending.add(submit(remaining.next(), companionDto));
+      }
+
+      PendingReport next = pending.poll();
+      Path report;
+      try {
+        report = next.report().join();
+      } catch (CompletionException e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        log.error("Report for child {} failed: {}", next.child().getId(), cause.getMessage());
+        errors.add(displayName(next.child()) + ": " + cause.getMessage());
+        continue;
+      }
+
+      OpenReport open;
+      try {
+        open = open(next.child(), report, companionDto);
+      } catch (Exception e) {
+        log.error("Report for child {} failed: {}", next.child().getId(), e.getMessage());
+        errors.add(displayName(next.child()) + ": " + e.getMessage());
+        continue;
+      }
+
+      String fileName = uniqueFileName(next.child(), entryNames);
+      try (InputStream content = open.content()) {
+        zip.putNextEntry(new ZipEntry(fileName));
+        content.transferTo(zip);
+        zip.closeEntry();
+      }
+
+      try {
+        pdfGeneratorService.deliverToTelegram(companionDto, open.path(), fileName);
+      } catch (Exception e) {
+        log.warn(
+            "Failed to enqueue Telegram delivery for child {}: {}",
+            next.child().getId(),
+            e.getMessage());
+      }
+    }
+
+    if (!errors.isEmpty()) {
+      zip.putNextEntry(new ZipEntry(ERRORS_ENTRY));
+      zip.write(String.join("\n", errors).getBytes(StandardCharsets.UTF_8));
+      zip.closeEntry();
+    }
+    zip.finish();
+    zip.flush();
+
+    log.info(
+        "Exported {} of {} reports for companion {}",
+        children.size() - errors.size(),
+        children.size(),
+        companionDto.id());
+  }
+
+  private PendingReport submit(Child child, CompanionDto companionDto) {
+    CompletableFuture<Path> report = new CompletableFuture<>();
+    Runnable render =
+        () -> {
+          try {
+            report.complete(reportCacheService.getReport(child.getId(), companionDto));
+          } catch (Exception e) {
+            report.completeExceptionally(e);
+          }
+        };
+
+    try {
+      reportExecutor.execute(render);
+    } catch (TaskRejectedException e) {
+      log.debug("Report executor saturated, rendering child {} inline", child.getId());
+      render.run();
+    }
+    return new PendingReport(child, report);
+  }
+
+  /**
+   * Opens a stored report before its archive entry is started. A cache invalidation may have
+   * deleted the file since it was rendered; the report is then fetched once more. An opened file
+   * stays readable even if it is deleted while it is copied.
+   */
+  private OpenReport open(Child child, Path report, CompanionDto companionDto) throws IOException {
+    try {
+      return new OpenReport(report, Files.newInputStream(report));
+    } catch (NoSuchFileException e) {
+      log.warn(
+          "Report for child {} was removed before it was archived, fetching it again",
+          child.getId());
+      Path again = reportCacheService.getReport(child.getId(), companionDto);
+      return new OpenReport(again, Files.newInputStream(again));
+    }
+  }
+
+  private String uniqueFileName(Child child, Set<String> taken) {
+    String base =
+        Normalizer.normalize("begleitbericht-" + displayName(child), Normalizer.Form.NFKC)
+            .replaceAll("[^\\p{L}\\p{N}._-]+", "-");
+    String fileName = base + ".pdf";
+    for (int i = 2; !taken.add(fileName); i++) {
+      fileName = base + "-" + i + ".pdf";
+    }
+    return fileName;
+  }
+
+  private String displayName(Child child) {
+    return child.getName() + " " + child.getSurname() + " (" + child.getId() + ")";
+  }
+
+  private record PendingReport(Child child, CompletableFuture<Path> report) {}
+
+  private record OpenReport(Path path, InputStream content) {}
+}
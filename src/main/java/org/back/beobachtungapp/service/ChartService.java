@@ -2,14 +2,19 @@ package org.back.beobachtungapp.service;
 
 import java.awt.image.BufferedImage;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.config.properties.ReportProperties;
 import org.back.beobachtungapp.dto.response.monitoring.MonitoringEntryResponseDto;
+import org.back.beobachtungapp.utils.DownsamplingUtils;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.axis.DateAxis;
@@ -18,77 +23,191 @@ import org.jfree.data.category.DefaultCategoryDataset;
 import org.jfree.data.time.Millisecond;
 import org.jfree.data.time.TimeSeries;
 import org.jfree.data.time.TimeSeriesCollection;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 /**
  * Service responsible for generating charts based on monitoring entries. Supports different types
  * of charts for binary, quantitative, and scale data.
  *
- * <p>Uses JFreeChart to generate line charts and bar charts as BufferedImage objects.
+ * <p>Uses JFreeChart to build line charts and bar charts. Charts are handed out as {@link
+ * JFreeChart} objects, rasterised to BufferedImage objects at {@code report.raster-dpi}, or drawn
+ * by a function of the caller, e.g. into a PDF. One chart is built and drawn per monitoring
+ * parameter, each on the dedicated {@code chartExecutor}, so the time to draw all charts of a
+ * report follows the slowest chart rather than the sum of all of them.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ChartService {
 
+  /** Logical chart width; layout, fonts and strokes are computed for this size. */
+  public static final int CHART_WIDTH = 800;
+
+  /** Logical chart height; layout, fonts and strokes are computed for this size. */
+  public static final int CHART_HEIGHT = 600;
+
+  /** Resolution the logical chart size corresponds to. */
+  private static final int BASE_DPI = 96;
+
+  private static final Comparator<List<MonitoringEntryResponseDto>> PARAMETER_ORDER =
+      Comparator.comparing(
+              (List<MonitoringEntryResponseDto> group) -> group.get(0).parameterName(),
+              Comparator.nullsLast(Comparator.naturalOrder()))
+          .thenComparing(group -> group.get(0).parameterId());
+
+  private final Executor chartExecutor;
+  private final ReportProperties reportProperties;
+
+  public ChartService(
+      @Qualifier("chartExecutor") Executor chartExecutor, ReportProperties reportProperties) {
+    this.chartExecutor = chartExecutor;
+    this.reportProperties = reportProperties;
+  }
+
   /**
-   * Processes a set of monitoring entries and generates a list of charts (as BufferedImages)
-   * corresponding to the entry types: - Line chart for quantitative data - Bar chart for binary
-   * data - Bar chart for scale data
+   * Groups monitoring entries by parameter and builds one chart per parameter in parallel: - Line
+   * chart for quantitative data - Bar chart for binary data - Bar chart for scale data. Parameters
+   * of other types are skipped.
    *
    * @param entries the set of monitoring entries to process
-   * @return a list of BufferedImages representing the generated charts
+   * @return the charts ordered by parameter name, independent of which one finished first
+   */
+  public List<JFreeChart> buildCharts(Set<MonitoringEntryResponseDto> entries) {
+    return perParameter(entries, this::createChart);
+  }
+
+  /**
+   * Like {@link #buildCharts}, but rasterises every chart at {@code report.raster-dpi}. The
+   * rasterisation runs on the chart threads as well.
+   *
+   * @param entries the set of monitoring entries to process
+   * @return the chart images ordered by parameter name
    */
   public List<BufferedImage> handleCharts(Set<MonitoringEntryResponseDto> entries) {
-    List<MonitoringEntryResponseDto> binaryEntries = new ArrayList<>();
-    List<MonitoringEntryResponseDto> quantitativeEntries = new ArrayList<>();
-    List<MonitoringEntryResponseDto> scaleEntries = new ArrayList<>();
-
-    entries.forEach(
-        e -> {
-          switch (e.type()) {
-            case "BINARY":
-              binaryEntries.add(e);
-              break;
-            case "QUANTITATIVE":
-              quantitativeEntries.add(e);
-              break;
-            case "SCALE":
-              scaleEntries.add(e);
-              break;
-          }
+    return drawCharts(entries, this::rasterize);
+  }
+
+  /**
+   * Like {@link #buildCharts}, but also draws every chart on the chart thread that built it, so
+   * drawing does not add up on the caller's thread either. A chart whose drawing fails is logged
+   * and skipped.
+   *
+   * @param entries the set of monitoring entries to process
+   * @param draw function drawing one chart, e.g. into an image or a PDF
+   * @return the drawn charts ordered by parameter name
+   */
+  public <T> List<T> drawCharts(
+      Set<MonitoringEntryResponseDto> entries, Function<JFreeChart, T> draw) {
+    return perParameter(
+        entries,
+        group -> {
+          JFreeChart chart = createChart(group);
+          return chart == null ? null : draw.apply(chart);
         });
-    List<BufferedImage> charts = new ArrayList<>();
-    if (!quantitativeEntries.isEmpty()) {
-      charts.add(generateLineChart(quantitativeEntries));
-    }
-    if (!binaryEntries.isEmpty()) {
-      charts.add(generateBinaryChart(binaryEntries));
-    }
-    if (!scaleEntries.isEmpty()) {
-      charts.add(generateScaleChart(scaleEntries));
+  }
+
+  /**
+   * Renders a chart into an image. The chart is laid out at {@link #CHART_WIDTH} x {@link
+   * #CHART_HEIGHT} and scaled to the configured DPI, so a higher DPI yields a sharper image with
+   * the same proportions rather than a different layout.
+   *
+   * @param chart the chart to render
+   * @return the rendered image
+   */
+  public BufferedImage rasterize(JFreeChart chart) {
+    double scale = (double) reportProperties.getRasterDpi() / BASE_DPI;
+    return chart.createBufferedImage(
+        (int) Math.round(CHART_WIDTH * scale),
+        (int) Math.round(CHART_HEIGHT * scale),
+        CHART_WIDTH,
+        CHART_HEIGHT,
+        null);
+  }
+
+  /**
+   * Groups entries by parameter and applies the given function to every group on the {@code
+   * chartExecutor}. Failures are logged and the affected chart is skipped.
+   *
+   * @param entries the set of monitoring entries to process
+   * @param render function producing the chart of one parameter, may return null
+   * @return the non-null results ordered by parameter name
+   */
+  private <T> List<T> perParameter(
+      Set<MonitoringEntryResponseDto> entries,
+      Function<List<MonitoringEntryResponseDto>, T> render) {
+    List<CompletableFuture<T>> charts =
+        entries.stream()
+            .filter(e -> e.parameterId() != null)
+            .collect(Collectors.groupingBy(MonitoringEntryResponseDto::parameterId))
+            .values()
+            .stream()
+            .sorted(PARAMETER_ORDER)
+            .map(
+                group ->
+                    CompletableFuture.supplyAsync(() -> render.apply(group), chartExecutor)
+                        .exceptionally(
+                            e -> {
+                              log.error(
+                                  "Failed to render chart for parameter {}: {}",
+                                  group.get(0).parameterId(),
+                                  e.getMessage(),
+                                  e);
+                              return null;
+                            }))
+            .toList();
+
+    return charts.stream().map(CompletableFuture::join).filter(Objects::nonNull).toList();
+  }
+
+  /**
+   * Builds the chart matching the type of a single parameter's entries.
+   *
+   * @param entries entries of one monitoring parameter
+   * @return the chart, or null if the parameter type has no chart
+   */
+  private JFreeChart createChart(List<MonitoringEntryResponseDto> entries) {
+    String type = entries.get(0).type();
+    if (type == null) {
+      return null;
     }
-    return charts;
+    return switch (type) {
+      case "QUANTITATIVE" -> createLineChart(entries);
+      case "BINARY" -> createBinaryChart(entries);
+      case "SCALE" -> createScaleChart(entries);
+      default -> null;
+    };
   }
 
   /**
-   * Generates a time series line chart from quantitative monitoring entries. Each entry's timestamp
-   * and numeric value are plotted. Entries with non-numeric values are logged and skipped.
+   * Builds a time series line chart from quantitative monitoring entries. Each entry's timestamp
+   * and numeric value are plotted. Entries with non-numeric values are logged and skipped. Series
+   * longer than {@code report.chart-max-points} are reduced with Largest-Triangle-Three-Buckets, so
+   * the rendering cost stays flat as the history grows.
    *
    * @param entries list of quantitative monitoring entries
-   * @return a BufferedImage containing the line chart, or null if entries are empty
+   * @return the line chart, or null if entries are empty
    */
-  public BufferedImage generateLineChart(List<MonitoringEntryResponseDto> entries) {
+  public JFreeChart createLineChart(List<MonitoringEntryResponseDto> entries) {
     if (entries.isEmpty()) return null;
     TimeSeries series = new TimeSeries(entries.get(0).parameterName());
 
-    for (MonitoringEntryResponseDto entry : entries) {
-      try {
-        double value = Double.parseDouble(entry.value()); // Ожидается числовое значение
-        series.addOrUpdate(new Millisecond(java.util.Date.from(entry.createdAt())), value);
-      } catch (NumberFormatException ignored) {
-        log.warn("{} is not a number", entry.value());
-      }
+    List<MonitoringEntryResponseDto> numeric =
+        entries.stream()
+            .filter(entry -> entry.createdAt() != null && isNumber(entry.value()))
+            .sorted(Comparator.comparing(MonitoringEntryResponseDto::createdAt))
+            .toList();
+    double[] x = new double[numeric.size()];
+    double[] y = new double[numeric.size()];
+    for (int i = 0; i < numeric.size(); i++) {
+      x[i] = numeric.get(i).createdAt().toEpochMilli();
+      y[i] = Double.parseDouble(numeric.get(i).value());
+    }
+
+    int[] selected =
+        DownsamplingUtils.largestTriangleThreeBuckets(x, y, reportProperties.getChartMaxPoints());
+    for (int index : selected) {
+      series.addOrUpdate(
+          new Millisecond(java.util.Date.from(numeric.get(index).createdAt())), y[index]);
     }
 
     TimeSeriesCollection dataset = new TimeSeriesCollection();
@@ -112,16 +231,29 @@ public class ChartService {
     XYLineAndShapeRenderer renderer = new XYLineAndShapeRenderer(true, false);
     chart.getXYPlot().setRenderer(renderer);
 
-    return chart.createBufferedImage(800, 600);
+    return chart;
+  }
+
+  private boolean isNumber(String value) {
+    if (value == null) {
+      return false;
+    }
+    try {
+      Double.parseDouble(value); // Ожидается числовое значение
+      return true;
+    } catch (NumberFormatException ignored) {
+      log.warn("{} is not a number", value);
+      return false;
+    }
   }
 
   /**
-   * Generates a bar chart representing the count of different states in binary entries.
+   * Builds a bar chart representing the count of different states in binary entries.
    *
    * @param entries list of binary monitoring entries
-   * @return a BufferedImage containing the binary bar chart
+   * @return the binary bar chart
    */
-  public BufferedImage generateBinaryChart(List<MonitoringEntryResponseDto> entries) {
+  public JFreeChart createBinaryChart(List<MonitoringEntryResponseDto> entries) {
     Map<String, Long> counts =
         entries.stream()
             .collect(
@@ -134,16 +266,16 @@ public class ChartService {
         ChartFactory.createBarChart(
             entries.get(0).parameterName() + " (binary)", "State", "Quantity", dataset);
 
-    return chart.createBufferedImage(800, 600);
+    return chart;
   }
 
   /**
-   * Generates a bar chart representing the count of different notes/values in scale entries.
+   * Builds a bar chart representing the count of different notes/values in scale entries.
    *
    * @param entries list of scale monitoring entries
-   * @return a BufferedImage containing the scale bar chart
+   * @return the scale bar chart
    */
-  public BufferedImage generateScaleChart(List<MonitoringEntryResponseDto> entries) {
+  public JFreeChart createScaleChart(List<MonitoringEntryResponseDto> entries) {
     Map<String, Long> counts =
         entries.stream()
             .collect(
@@ -156,6 +288,6 @@ public class ChartService {
         ChartFactory.createBarChart(
             entries.get(0).parameterName() + " (scale)", "Note", "Quantity", dataset);
 
-    return chart.createBufferedImage(800, 600);
+    return chart;
   }
 }
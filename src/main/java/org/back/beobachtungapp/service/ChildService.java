@@ -23,11 +23,16 @@ import org.springframework.transaction.annotation.Transactional;
 public class ChildService {
   private final ChildMapper childMapper;
   private final ChildRepository childRepository;
+  private final ReportArtifactStore reportArtifactStore;
 
   @Autowired
-  public ChildService(ChildMapper childMapper, ChildRepository childRepository) {
+  public ChildService(
+      ChildMapper childMapper,
+      ChildRepository childRepository,
+      ReportArtifactStore reportArtifactStore) {
     this.childMapper = childMapper;
     this.childRepository = childRepository;
+    this.reportArtifactStore = reportArtifactStore;
   }
 
   @Transactional
@@ -60,6 +65,7 @@ public class ChildService {
                 });
 
     childMapper.updateChildFromDto(childUpdateDto, child);
+    reportArtifactStore.invalidate(childId);
     log.info("Child with id: {} successfully updated", childId);
     return childMapper.childToChildResponseDto(child);
   }
@@ -79,6 +85,7 @@ public class ChildService {
                 });
 
     childRepository.delete(child);
+    reportArtifactStore.invalidate(childId);
     log.info("Child with id: {} successfully deleted", childId);
   }
 
@@ -111,6 +118,7 @@ public class ChildService {
     return childMapper.childToChildResponseDto(child);
   }
 
+  @Transactional(readOnly = true)
   public ChildWithAttachments getChildWithAttachments(Long childId) {
     Child child =
         childRepository
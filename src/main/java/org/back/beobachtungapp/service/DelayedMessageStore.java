@@ -0,0 +1,469 @@
+package org.back.beobachtungapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.config.properties.NotificationProperties;
+import org.back.beobachtungapp.config.properties.QueueProperties;
+import org.back.beobachtungapp.dto.message.DelayedTgMessage;
+import org.back.beobachtungapp.dto.message.ScheduledMessage;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+/**
+ * Redis storage of scheduled Telegram messages.
+ *
+ * <p>Every message is stored once:
+ *
+ * <ul>
+ *   <li>{@code delayedMessages:<n>} sorted set of event IDs by due time, one per partition of the
+ *       {@link PartitionLeaseManager}
+ *   <li>{@code delayedMessage:<eventId>} hash holding the serialized message in the field {@code
+ *       payload}; it expires {@code notification.delayed-payload-ttl} after the message was due
+ * </ul>
+ *
+ * <p>Scheduling, rescheduling and cancelling are a single script call each. Due messages are taken
+ * out of both structures by the same script that hands them to the transport.
+ */
+@SuppressFBWarnings
+@Slf4j
+@Service
+public class DelayedMessageStore {
+
+  /** Sorted set of delayed messages scheduled before they were partitioned. */
+  private static final String LEGACY_DELAYED_MESSAGES_KEY = "delayedMessages";
+
+  /** Copy of every message kept by the previous layout, which never expired. */
+  private static final String LEGACY_EVENT_KEY_PREFIX = "event:";
+
+  private static final String PAYLOAD_KEY_PREFIX = "delayedMessage:";
+
+  /** Messages scheduled per script call by {@link #scheduleAll}. */
+  private static final int SCHEDULE_BATCH_SIZE = 100;
+
+  /**
+   * Shared functions of the scripts handing due messages over. {@code take_due} removes up to
+   * {@code limit} due messages and returns their payloads; payloads that expired are skipped.
+   */
+  private static final String DUE_FUNCTIONS =
+      """
+      local function take_due(delayed, prefix, now, limit)
+        local ids = redis.call('ZRANGEBYSCORE', delayed, '-inf', now, 'LIMIT', 0, limit)
+        local payloads = {}
+        for _, id in ipairs(ids) do
+          local payload = redis.call('HGET', prefix .. id, 'payload')
+          if payload then
+            payloads[#payloads + 1] = payload
+          end
+          redis.call('DEL', prefix .. id)
+        end
+        if #ids > 0 then
+          redis.call('ZREM', delayed, unpack(ids))
+        end
+        return payloads
+      end
+      local function next_due(delayed)
+        local next = redis.call('ZRANGE', delayed, 0, 0, 'WITHSCORES')
+        if #next == 0 then
+          return -1
+        end
+        return tonumber(next[2])
+      end
+      """;
+
+  /** KEYS: delayed messages, payload; ARGV: event ID, due time, payload, payload expiry. */
+  private static final RedisScript<Long> SCHEDULE =
+      new DefaultRedisScript<>(
+          """
+          redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+          redis.call('HSET', KEYS[2], 'payload', ARGV[3])
+          redis.call('PEXPIREAT', KEYS[2], ARGV[4])
+          return 1
+          """,
+          Long.class);
+
+  /**
+   * KEYS: pairs of delayed messages and payload; ARGV: event ID, due time, payload and payload
+   * expiry per pair of keys.
+   */
+  private static final RedisScript<Long> SCHEDULE_ALL =
+      new DefaultRedisScript<>(
+          """
+          for i = 1, #KEYS, 2 do
+            local arg = (i - 1) * 2
+            redis.call('ZADD', KEYS[i], ARGV[arg + 2], ARGV[arg + 1])
+            redis.call('HSET', KEYS[i + 1], 'payload', ARGV[arg + 3])
+            redis.call('PEXPIREAT', KEYS[i + 1], ARGV[arg + 4])
+          end
+          return #KEYS / 2
+          """,
+          Long.class);
+
+  /** KEYS: delayed messages, payload; ARGV: event ID. */
+  private static final RedisScript<Long> CANCEL =
+      new DefaultRedisScript<>(
+          """
+          local removed = redis.call('ZREM', KEYS[1], ARGV[1])
+          redis.call('DEL', KEYS[2])
+          return removed
+          """,
+          Long.class);
+
+  /** KEYS: delayed messages, list; ARGV: payload prefix, now, limit. */
+  private static final RedisScript<Long> MOVE_DUE_TO_LIST =
+      new DefaultRedisScript<>(
+          DUE_FUNCTIONS
+              + """
+              local payloads = take_due(KEYS[1], ARGV[1], ARGV[2], ARGV[3])
+              if #payloads > 0 then
+                redis.call('LPUSH', KEYS[2], unpack(payloads))
+              end
+              return next_due(KEYS[1])
+              """,
+          Long.class);
+
+  /** KEYS: delayed messages, stream; ARGV: payload prefix, now, limit, max stream length. */
+  private static final RedisScript<Long> MOVE_DUE_TO_STREAM =
+      new DefaultRedisScript<>(
+          DUE_FUNCTIONS
+              + """
+              local payloads = take_due(KEYS[1], ARGV[1], ARGV[2], ARGV[3])
+              for _, payload in ipairs(payloads) do
+                redis.call('XADD', KEYS[2], 'MAXLEN', '~', ARGV[4], '*', 'payload', payload)
+              end
+              return next_due(KEYS[1])
+              """,
+          Long.class);
+
+  /**
+   * Returns event ID, due time and payload of up to {@code limit} due messages as a flat list; the
+   * payload is empty if it expired.
+   *
+   * <p>KEYS: delayed messages; ARGV: payload prefix, now, limit.
+   */
+  @SuppressWarnings("rawtypes")
+  private static final RedisScript<List> FIND_DUE =
+      new DefaultRedisScript<>(
+          """
+          local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[2], 'WITHSCORES',
+            'LIMIT', 0, ARGV[3])
+          local result = {}
+          for i = 1, #due, 2 do
+            result[#result + 1] = due[i]
+            result[#result + 1] = due[i + 1]
+            result[#result + 1] = redis.call('HGET', ARGV[1] .. due[i], 'payload') or ''
+          end
+          return result
+          """,
+          List.class);
+
+  /**
+   * Removes dispatched messages that have not been rescheduled in the meantime.
+   *
+   * <p>KEYS: delayed messages; ARGV: payload prefix, then pairs of event ID and due time.
+   */
+  private static final RedisScript<Long> REMOVE_DISPATCHED =
+      new DefaultRedisScript<>(
+          """
+          local removed = 0
+          for i = 2, #ARGV, 2 do
+            local score = redis.call('ZSCORE', KEYS[1], ARGV[i])
+            if score and tonumber(score) == tonumber(ARGV[i + 1]) then
+              removed = removed + redis.call('ZREM', KEYS[1], ARGV[i])
+              redis.call('DEL', ARGV[1] .. ARGV[i])
+            end
+          end
+          return removed
+          """,
+          Long.class);
+
+  /**
+   * Moves a message of the previous layout, stored as sorted set member, into the current one.
+   *
+   * <p>KEYS: source sorted set, partition sorted set, payload, legacy event key; ARGV: member,
+   * event ID, payload TTL.
+   */
+  private static final RedisScript<Long> MIGRATE =
+      new DefaultRedisScript<>(
+          """
+          local score = redis.call('ZSCORE', KEYS[1], ARGV[1])
+          if not score then
+            return 0
+          end
+          redis.call('ZREM', KEYS[1], ARGV[1])
+          redis.call('ZADD', KEYS[2], score, ARGV[2])
+          redis.call('HSET', KEYS[3], 'payload', ARGV[1])
+          redis.call('PEXPIREAT', KEYS[3], math.floor(tonumber(score)) + tonumber(ARGV[3]))
+          redis.call('DEL', KEYS[4])
+          return 1
+          """,
+          Long.class);
+
+  private final RedisTemplate<String, String> redisTemplate;
+  private final PartitionLeaseManager partitionLeaseManager;
+  private final NotificationProperties notificationProperties;
+  private final QueueProperties queueProperties;
+  private final ObjectMapper objectMapper;
+
+  public DelayedMessageStore(
+      RedisTemplate<String, String> redisTemplate,
+      PartitionLeaseManager partitionLeaseManager,
+      NotificationProperties notificationProperties,
+      QueueProperties queueProperties,
+      ObjectMapper objectMapper) {
+    this.redisTemplate = redisTemplate;
+    this.partitionLeaseManager = partitionLeaseManager;
+    this.notificationProperties = notificationProperties;
+    this.queueProperties = queueProperties;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Returns the sorted set holding the delayed messages of a partition.
+   *
+   * @param partition the partition, see {@link PartitionLeaseManager#partitionOf(String)}
+   * @return the key of the sorted set
+   */
+  public static String delayedMessagesKey(int partition) {
+    return LEGACY_DELAYED_MESSAGES_KEY + ":" + partition;
+  }
+
+  /**
+   * Schedules the message of an event, replacing a message scheduled for it before.
+   *
+   * @param eventId the ID of the event
+   * @param payload the serialized message
+   * @param dueAt epoch millisecond the message is due at
+   */
+  public void schedule(String eventId, String payload, long dueAt) {
+    long expireAt = dueAt + notificationProperties.getDelayedPayloadTtl().toMillis();
+    redisTemplate.execute(
+        SCHEDULE,
+        List.of(delayedMessagesKey(eventId), PAYLOAD_KEY_PREFIX + eventId),
+        eventId,
+        String.valueOf(dueAt),
+        payload,
+        String.valueOf(expireAt));
+  }
+
+  /**
+   * Schedules the messages of many events with one script call per {@link #SCHEDULE_BATCH_SIZE}
+   * messages, replacing messages scheduled for them before.
+   *
+   * @param messages the messages to schedule
+   */
+  public void scheduleAll(List<ScheduledMessage> messages) {
+    long ttl = notificationProperties.getDelayedPayloadTtl().toMillis();
+    for (int from = 0; from < messages.size(); from += SCHEDULE_BATCH_SIZE) {
+      List<ScheduledMessage> batch =
+          messages.subList(from, Math.min(from + SCHEDULE_BATCH_SIZE, messages.size()));
+      List<String> keys = new ArrayList<>();
+      List<String> args = new ArrayList<>();
+      for (ScheduledMessage message : batch) {
+        keys.add(delayedMessagesKey(message.eventId()));
+        keys.add(PAYLOAD_KEY_PREFIX + message.eventId());
+        args.add(message.eventId());
+        args.add(String.valueOf(message.dueAt()));
+        args.add(message.payload());
+        args.add(String.valueOf(message.dueAt() + ttl));
+      }
+      redisTemplate.execute(SCHEDULE_ALL, keys, args.toArray());
+    }
+  }
+
+  /**
+   * Cancels the message of an event.
+   *
+   * @param eventId the ID of the event
+   * @return {@code true} if a message was scheduled
+   */
+  public boolean cancel(String eventId) {
+    Long removed =
+        redisTemplate.execute(
+            CANCEL, List.of(delayedMessagesKey(eventId), PAYLOAD_KEY_PREFIX + eventId), eventId);
+    return removed != null && removed > 0;
+  }
+
+  /**
+   * Moves up to {@code limit} due messages of a partition into a list.
+   *
+   * @param partition the partition
+   * @param listKey the list the payloads are pushed onto
+   * @param now epoch millisecond up to which messages are due
+   * @param limit the maximum number of messages moved
+   * @return the due time of the earliest remaining message, or -1 if there is none
+   */
+  public long moveDueToList(int partition, String listKey, long now, int limit) {
+    Long next =
+        redisTemplate.execute(
+            MOVE_DUE_TO_LIST,
+            List.of(delayedMessagesKey(partition), listKey),
+            PAYLOAD_KEY_PREFIX,
+            String.valueOf(now),
+            String.valueOf(limit));
+    return next == null ? -1 : next;
+  }
+
+  /**
+   * Moves up to {@code limit} due messages of a partition into a stream, one entry with the field
+   * {@code payload} per message.
+   *
+   * @param partition the partition
+   * @param streamKey the stream the payloads are added to
+   * @param maxLength approximate number of entries the stream is trimmed to
+   * @param now epoch millisecond up to which messages are due
+   * @param limit the maximum number of messages moved
+   * @return the due time of the earliest remaining message, or -1 if there is none
+   */
+  public long moveDueToStream(
+      int partition, String streamKey, long maxLength, long now, int limit) {
+    Long next =
+        redisTemplate.execute(
+            MOVE_DUE_TO_STREAM,
+            List.of(delayedMessagesKey(partition), streamKey),
+            PAYLOAD_KEY_PREFIX,
+            String.valueOf(now),
+            String.valueOf(limit),
+            String.valueOf(maxLength));
+    return next == null ? -1 : next;
+  }
+
+  /**
+   * Reads up to {@code limit} due messages of a partition without removing them, see {@link
+   * #removeDispatched}.
+   *
+   * @param partition the partition
+   * @param now epoch millisecond up to which messages are due
+   * @param limit the maximum number of messages read
+   * @return the due messages; their payload is empty if it expired
+   */
+  public List<ScheduledMessage> findDue(int partition, long now, int limit) {
+    List<?> result =
+        redisTemplate.execute(
+            FIND_DUE,
+            List.of(delayedMessagesKey(partition)),
+            PAYLOAD_KEY_PREFIX,
+            String.valueOf(now),
+            String.valueOf(limit));
+    List<ScheduledMessage> due = new ArrayList<>();
+    if (result == null) {
+      return due;
+    }
+    for (int i = 0; i + 2 < result.size(); i += 3) {
+      due.add(
+          new ScheduledMessage(
+              String.valueOf(result.get(i)),
+              (long) Double.parseDouble(String.valueOf(result.get(i + 1))),
+              String.valueOf(result.get(i + 2))));
+    }
+    return due;
+  }
+
+  /**
+   * Removes messages read with {@link #findDue} once they have been handed over. Messages
+   * rescheduled in the meantime are kept.
+   *
+   * @param partition the partition
+   * @param messages the handed over messages
+   */
+  public void removeDispatched(int partition, List<ScheduledMessage> messages) {
+    if (messages.isEmpty()) {
+      return;
+    }
+    List<String> args = new ArrayList<>();
+    args.add(PAYLOAD_KEY_PREFIX);
+    for (ScheduledMessage message : messages) {
+      args.add(message.eventId());
+      args.add(String.valueOf(message.dueAt()));
+    }
+    redisTemplate.execute(
+        REMOVE_DISPATCHED, List.of(delayedMessagesKey(partition)), args.toArray());
+  }
+
+  /**
+   * Returns the due time of the earliest message of a partition.
+   *
+   * @param partition the partition
+   * @return the due time, or -1 if the partition has no messages
+   */
+  public long nextDue(int partition) {
+    Set<TypedTuple<String>> next =
+        redisTemplate.opsForZSet().rangeWithScores(delayedMessagesKey(partition), 0, 0);
+    if (next == null || next.isEmpty()) {
+      return -1;
+    }
+    return next.iterator().next().getScore().longValue();
+  }
+
+  /**
+   * Moves messages of the previous layouts into the current one: messages scheduled before they
+   * were partitioned, and messages stored as sorted set members next to a copy under {@code
+   * event:<id>}.
+   */
+  public void migrateLegacyMessages() {
+    try {
+      long moved = migrate(LEGACY_DELAYED_MESSAGES_KEY);
+      for (int partition = 0; partition < queueProperties.getPartitions(); partition++) {
+        moved += migrate(delayedMessagesKey(partition));
+      }
+      if (moved > 0) {
+        log.info("Moved {} delayed Telegram messages into the current layout", moved);
+      }
+    } catch (Exception e) {
+      log.warn("Failed to migrate delayed messages of the previous layout: {}", e.getMessage());
+    }
+  }
+
+  private long migrate(String sourceKey) {
+    List<String> members = new ArrayList<>();
+    ScanOptions options = ScanOptions.scanOptions().match("{*").count(500).build();
+    try (Cursor<TypedTuple<String>> cursor = redisTemplate.opsForZSet().scan(sourceKey, options)) {
+      cursor.forEachRemaining(member -> members.add(member.getValue()));
+    }
+
+    long moved = 0;
+    for (String member : members) {
+      String eventId = eventIdOf(member);
+      if (eventId == null) {
+        log.warn("Skipping unreadable delayed message in {}: {}", sourceKey, member);
+        continue;
+      }
+      Long result =
+          redisTemplate.execute(
+              MIGRATE,
+              List.of(
+                  sourceKey,
+                  delayedMessagesKey(eventId),
+                  PAYLOAD_KEY_PREFIX + eventId,
+                  LEGACY_EVENT_KEY_PREFIX + eventId),
+              member,
+              eventId,
+              String.valueOf(notificationProperties.getDelayedPayloadTtl().toMillis()));
+      if (result != null) {
+        moved += result;
+      }
+    }
+    return moved;
+  }
+
+  private String eventIdOf(String member) {
+    try {
+      Long eventId = objectMapper.readValue(member, DelayedTgMessage.class).eventId();
+      return eventId == null ? null : String.valueOf(eventId);
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  private String delayedMessagesKey(String eventId) {
+    return delayedMessagesKey(partitionLeaseManager.partitionOf(eventId));
+  }
+}
@@ -0,0 +1,278 @@
+package org.back.beobachtungapp.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.dto.request.event.EventImportRowDto;
+import org.back.beobachtungapp.dto.response.companion.CompanionDto;
+import org.back.beobachtungapp.dto.response.event.EventImportReportDto;
+import org.back.beobachtungapp.dto.response.event.EventImportRowResultDto;
+import org.back.beobachtungapp.dto.response.event.EventImportStatus;
+import org.back.beobachtungapp.entity.child.Child;
+import org.back.beobachtungapp.entity.event.Event;
+import org.back.beobachtungapp.entity.outbox.NotificationOutboxAction;
+import org.back.beobachtungapp.repository.ChildRepository;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports many events at once, e.g. a school's term calendar.
+ *
+ * <p>Rows are validated with the rules of a single event and their children must belong to the
+ * importing companion; all children are loaded with one query. Valid rows are inserted in a single
+ * JDBC batch inside one transaction, bypassing the {@code EventEntityListener}. Their notification
+ * intents are written to the outbox with a second batch in the same transaction and relayed by the
+ * {@code NotificationOutboxRelay}, which schedules the Telegram reminders in Redis batches. The
+ * result lists the outcome of every row.
+ */
+@SuppressFBWarnings
+@Slf4j
+@Service
+public class EventImportService {
+
+  /** Rows accepted per import. */
+  private static final int MAX_ROWS = 1000;
+
+  private static final String INSERT_EVENT =
+      """
+      INSERT INTO events (title, description, companion_id, child_id, start_date_time,
+                          end_date_time, location, created_at, updated_at)
+      VALUES (:title, :description, :companionId, :childId, :startDateTime,
+              :endDateTime, :location, :now, :now)
+      """;
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ChildRepository childRepository;
+  private final NotificationOutboxService notificationOutboxService;
+  private final Validator validator;
+  private final ObjectMapper objectMapper;
+  private final CsvMapper csvMapper;
+
+  public EventImportService(
+      NamedParameterJdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate,
+      ChildRepository childRepository,
+      NotificationOutboxService notificationOutboxService,
+      Validator validator,
+      ObjectMapper objectMapper) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.childRepository = childRepository;
+    this.notificationOutboxService = notificationOutboxService;
+    this.validator = validator;
+    this.objectMapper = objectMapper;
+    this.csvMapper = CsvMapper.builder().enable(CsvParser.Feature.TRIM_SPACES).build();
+  }
+
+  /**
+   * Imports events given as JSON. {@code null} elements are reported as failed rows.
+   *
+   * @param rows the events to import
+   * @param companionDto the importing companion
+   * @return the outcome of every row
+   * @throws IllegalArgumentException if there are more than {@link #MAX_ROWS} rows
+   */
+  public EventImportReportDto importRows(List<EventImportRowDto> rows, CompanionDto companionDto) {
+    List<Row> parsed = new ArrayList<>();
+    for (int i = 0; i < rows.size(); i++) {
+      EventImportRowDto dto = rows.get(i);
+      parsed.add(new Row(i + 1, dto, dto == null ? "Row is empty (null)" : null));
+    }
+    return importParsed(parsed, companionDto);
+  }
+
+  /**
+   * Imports events given as CSV with a header line naming the fields of {@link EventImportRowDto}.
+   * Rows with values that cannot be read are reported as failed.
+   *
+   * @param csv the CSV document
+   * @param companionDto the importing companion
+   * @return the outcome of every row
+   * @throws IOException if the document cannot be read
+   * @throws IllegalArgumentException if there are more than {@link #MAX_ROWS} rows
+   */
+  public EventImportReportDto importCsv(InputStream csv, CompanionDto companionDto)
+      throws IOException {
+    List<Row> parsed = new ArrayList<>();
+    try (MappingIterator<Map<String, String>> values =
+        csvMapper
+            .readerForMapOf(String.class)
+            .with(CsvSchema.emptySchema().withHeader())
+            .readValues(csv)) {
+      while (values.hasNextValue()) {
+        int number = parsed.size() + 1;
+        if (number > MAX_ROWS) {
+          throw new IllegalArgumentException("At most " + MAX_ROWS + " events per import");
+        }
+        Map<String, String> value = values.nextValue();
+        value.values().removeIf(String::isEmpty);
+        try {
+          EventImportRowDto dto = objectMapper.convertValue(value, EventImportRowDto.class);
+          parsed.add(new Row(number, dto, null));
+        } catch (IllegalArgumentException e) {
+          parsed.add(new Row(number, null, "Unreadable row: " + e.getMessage()));
+        }
+      }
+    }
+    return importParsed(parsed, companionDto);
+  }
+
+  private EventImportReportDto importParsed(List<Row> rows, CompanionDto companionDto) {
+    if (rows.size() > MAX_ROWS) {
+      throw new IllegalArgumentException("At most " + MAX_ROWS + " events per import");
+    }
+    log.info("Importing {} events for companion with id: {}", rows.size(), companionDto.id());
+
+    Map<Long, Child> children = findChildren(rows, companionDto);
+    Map<Integer, List<String>> messages = new LinkedHashMap<>();
+    List<Row> valid = new ArrayList<>();
+    for (Row row : rows) {
+      List<String> errors = validate(row, children);
+      messages.put(row.number(), errors);
+      if (errors.isEmpty()) {
+        valid.add(row);
+      }
+    }
+
+    Map<Integer, Event> created = new LinkedHashMap<>();
+    try {
+      created = insert(valid, children, companionDto);
+    } catch (DataAccessException e) {
+      log.error("Failed to insert imported events", e);
+      valid.forEach(row -> messages.get(row.number()).add("Insert failed: " + e.getMessage()));
+    }
+
+    List<EventImportRowResultDto> results = new ArrayList<>();
+    for (Row row : rows) {
+      Event event = created.get(row.number());
+      results.add(
+          new EventImportRowResultDto(
+              row.number(),
+              event != null ? EventImportStatus.CREATED : EventImportStatus.FAILED,
+              event != null ? event.getId() : null,
+              messages.get(row.number())));
+    }
+    log.info("Imported {} of {} events", created.size(), rows.size());
+    return new EventImportReportDto(
+        rows.size(), created.size(), rows.size() - created.size(), results);
+  }
+
+  private Map<Long, Child> findChildren(List<Row> rows, CompanionDto companionDto) {
+    List<Long> ids =
+        rows.stream()
+            .map(Row::dto)
+            .filter(Objects::nonNull)
+            .map(EventImportRowDto::childId)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+    if (ids.isEmpty()) {
+      return Map.of();
+    }
+    return childRepository.findAllWithCompanionByIdIn(ids, companionDto.id()).stream()
+        .collect(Collectors.toMap(Child::getId, Function.identity()));
+  }
+
+  private List<String> validate(Row row, Map<Long, Child> children) {
+    List<String> errors = new ArrayList<>();
+    if (row.error() != null) {
+      errors.add(row.error());
+      return errors;
+    }
+    for (ConstraintViolation<?> violation : validator.validate(row.dto())) {
+      errors.add(violation.getMessage());
+    }
+    for (ConstraintViolation<?> violation : validator.validate(row.dto().toEventRequestDto())) {
+      errors.add(violation.getMessage());
+    }
+    if (row.dto().childId() != null && !children.containsKey(row.dto().childId())) {
+      errors.add("Child not found with id: " + row.dto().childId());
+    }
+    return errors;
+  }
+
+  /**
+   * Inserts all valid rows in one JDBC batch together with their outbox entries and returns the
+   * created events by row number.
+   */
+  private Map<Integer, Event> insert(
+      List<Row> rows, Map<Long, Child> children, CompanionDto companionDto) {
+    Map<Integer, Event> created = new LinkedHashMap<>();
+    if (rows.isEmpty()) {
+      return created;
+    }
+
+    Timestamp now = Timestamp.from(Instant.now());
+    SqlParameterSource[] params = new SqlParameterSource[rows.size()];
+    for (int i = 0; i < rows.size(); i++) {
+      EventImportRowDto dto = rows.get(i).dto();
+      params[i] =
+          new MapSqlParameterSource()
+              .addValue("title", dto.title())
+              .addValue("description", dto.description())
+              .addValue("companionId", companionDto.id())
+              .addValue("childId", dto.childId())
+              .addValue("startDateTime", Timestamp.from(dto.startDateTime()))
+              .addValue("endDateTime", Timestamp.from(dto.endDateTime()))
+              .addValue("location", dto.location())
+              .addValue("now", now);
+    }
+
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          KeyHolder keyHolder = new GeneratedKeyHolder();
+          jdbcTemplate.batchUpdate(INSERT_EVENT, params, keyHolder, new String[] {"id"});
+          created.putAll(toEvents(rows, children, keyHolder.getKeyList()));
+          notificationOutboxService.recordAll(created.values(), NotificationOutboxAction.CREATED);
+        });
+    return created;
+  }
+
+  private Map<Integer, Event> toEvents(
+      List<Row> rows, Map<Long, Child> children, List<Map<String, Object>> keys) {
+    Map<Integer, Event> events = new LinkedHashMap<>();
+    for (int i = 0; i < rows.size(); i++) {
+      EventImportRowDto dto = rows.get(i).dto();
+      Child child = children.get(dto.childId());
+
+      Event event = new Event();
+      event.setId(((Number) keys.get(i).get("id")).longValue());
+      event.setTitle(dto.title());
+      event.setDescription(dto.description());
+      event.setStartDateTime(dto.startDateTime());
+      event.setEndDateTime(dto.endDateTime());
+      event.setLocation(dto.location());
+      event.setChild(child);
+      event.setCompanion(child.getSchoolCompanion());
+      events.put(rows.get(i).number(), event);
+    }
+    return events;
+  }
+
+  /** Parsed input row; {@code dto} is {@code null} if the row could not be read. */
+  private record Row(int number, EventImportRowDto dto, String error) {}
+}
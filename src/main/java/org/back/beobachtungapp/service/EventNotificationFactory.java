@@ -0,0 +1,128 @@
+package org.back.beobachtungapp.service;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.dto.brevo.BrevoEmailRequest;
+import org.back.beobachtungapp.dto.message.DelayedTgMessage;
+import org.back.beobachtungapp.dto.request.event.EventNotificationDto;
+import org.back.beobachtungapp.entity.event.Event;
+import org.back.beobachtungapp.utils.TgUtils;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the Telegram message and the reminder email of an {@link Event} from the localized message
+ * template {@code telegram.event.message}.
+ *
+ * <p>The event needs its child and the child's companion loaded.
+ */
+@Slf4j
+@SuppressFBWarnings
+@Component
+@RequiredArgsConstructor
+public class EventNotificationFactory {
+
+  /** Delay before event notification, default 24 hours in milliseconds. */
+  private static final long DELAY_IN_MS = 24 * 60 * 60 * 1000;
+
+  /** Minimum default delay (2 minutes) if event start is sooner than 24 hours. */
+  private static final long DEFAULT_DELAY_MS = 120_000;
+
+  private final MessageSource messageSource;
+
+  /**
+   * Builds the delayed Telegram message of an event. The text is escaped for MarkdownV2.
+   *
+   * @param event the event to notify about
+   * @return the message, or {@code null} if the recipient has no Telegram ID
+   */
+  public DelayedTgMessage telegramMessage(Event event) {
+    EventNotificationDto dto = EventNotificationDto.from(event);
+    if (dto.tgId() == null) {
+      log.warn("User {} didn't provide telegram id", dto.companionName());
+      return null;
+    }
+
+    String escapedMsg = TgUtils.escapeMarkdown(messageText(dto));
+    return new DelayedTgMessage(dto.tgId(), escapedMsg, event.getId(), dto.companionId());
+  }
+
+  /**
+   * Calculates the delay in milliseconds before sending a notification message, based on the event
+   * start time and configured delay constants.
+   *
+   * @param event the event for which to calculate delay
+   * @return delay in milliseconds, minimum of {@link #DEFAULT_DELAY_MS}
+   */
+  public long telegramDelay(Event event) {
+    Instant start = event.getStartDateTime();
+    Instant now = Instant.now();
+
+    // TODO: change to meaningfully delay
+    Instant notificationTime = start.minusSeconds(DELAY_IN_MS);
+
+    long delayMillis = Duration.between(now, notificationTime).toMillis();
+
+    // TODO: remove magic number
+    return Math.max(delayMillis, DEFAULT_DELAY_MS);
+  }
+
+  /**
+   * Builds the reminder email of an event, addressed to the companion and the child and scheduled
+   * for the notification time. The event ID is used as Brevo batch ID, so the email can be
+   * cancelled.
+   *
+   * @param event the event to notify about
+   * @return the email, or {@code null} if the companion has no email address
+   */
+  public BrevoEmailRequest email(Event event) {
+    EventNotificationDto dto = EventNotificationDto.from(event);
+    if (dto.companionEmail() == null || dto.companionEmail().isBlank()) {
+      log.warn("User {} didn't provide email", dto.companionName());
+      return null;
+    }
+
+    String subject = "Event reminder: " + dto.title();
+
+    Instant notificationTime = event.getStartDateTime().minusSeconds(DELAY_IN_MS);
+    if (notificationTime.isBefore(Instant.now())) {
+      notificationTime = Instant.now().plusMillis(DEFAULT_DELAY_MS);
+      log.info(
+          "Sending email scheduled in less than {} ms. Sending email notifications now.",
+          DELAY_IN_MS);
+    }
+    String scheduledAt = notificationTime.toString();
+
+    String batchId = String.valueOf(event.getId());
+
+    return new BrevoEmailRequest(
+        new BrevoEmailRequest.Sender("Kinder Compass", "wtypmah48@gmail.com"),
+        List.of(
+            new BrevoEmailRequest.To(dto.companionEmail(), dto.companionName()),
+            new BrevoEmailRequest.To(dto.childEmail(), dto.childName())),
+        subject,
+        messageText(dto),
+        scheduledAt,
+        batchId);
+  }
+
+  private String messageText(EventNotificationDto dto) {
+    return messageSource.getMessage(
+        "telegram.event.message",
+        new Object[] {
+          dto.title(),
+          dto.childName(),
+          dto.companionName(),
+          dto.start(),
+          dto.end(),
+          dto.location(),
+          dto.description()
+        },
+        Locale.getDefault());
+  }
+}
@@ -0,0 +1,106 @@
+package org.back.beobachtungapp.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.config.properties.BlobProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link BlobStore} keeping payloads in a local spool directory. Payloads never pass through Redis,
+ * but producers and consumers have to run on the same host or share the directory.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "blob.store", havingValue = "filesystem")
+public class FileSystemBlobStore implements BlobStore {
+
+  private static final String EXTENSION = ".blob";
+
+  private final BlobProperties blobProperties;
+  private final Path root;
+
+  public FileSystemBlobStore(BlobProperties blobProperties) throws IOException {
+    this.blobProperties = blobProperties;
+    String spoolDir = blobProperties.getSpoolDir();
+    this.root =
+        spoolDir == null || spoolDir.isBlank()
+            ? Path.of(System.getProperty("java.io.tmpdir"), "blob-spool")
+            : Path.of(spoolDir);
+    Files.createDirectories(root);
+  }
+
+  @Override
+  public String put(Path source) throws IOException {
+    String key = UUID.randomUUID().toString();
+    Path partial = Files.createTempFile(root, "put-", ".tmp");
+    try {
+      Files.copy(source, partial, StandardCopyOption.REPLACE_EXISTING);
+      Files.move(partial, resolve(key), StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(partial);
+    }
+    log.debug("Stored blob {} ({} bytes)", key, Files.size(source));
+    return key;
+  }
+
+  @Override
+  public Optional<InputStream> open(String key) throws IOException {
+    try {
+      return Optional.of(Files.newInputStream(resolve(key)));
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public void delete(String key) {
+    try {
+      Files.deleteIfExists(resolve(key));
+    } catch (IOException e) {
+      log.warn("Failed to delete blob {}: {}", key, e.getMessage());
+    }
+  }
+
+  /** Deletes payloads older than {@code blob.ttl}. */
+  @Scheduled(fixedRate = 3600000)
+  public void evictExpired() {
+    FileTime threshold = FileTime.from(Instant.now().minus(blobProperties.getTtl()));
+
+    try (Stream<Path> files = Files.list(root)) {
+      files
+          .filter(path -> path.toString().endsWith(EXTENSION))
+          .filter(path -> isOlderThan(path, threshold))
+          .forEach(path -> delete(path.getFileName().toString().replace(EXTENSION, "")));
+    } catch (IOException e) {
+      log.warn("Failed to evict expired blobs: {}", e.getMessage());
+    }
+  }
+
+  private Path resolve(String key) {
+    Path path = root.resolve(key + EXTENSION).normalize();
+    if (!path.getParent().equals(root.normalize())) {
+      throw new IllegalArgumentException("Invalid blob key: " + key);
+    }
+    return path;
+  }
+
+  private boolean isOlderThan(Path path, FileTime threshold) {
+    try {
+      return Files.getLastModifiedTime(path).compareTo(threshold) < 0;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+}
@@ -22,13 +22,18 @@ public class GoalService {
   private final GoalRepository goalRepository;
   private final GoalMapper goalMapper;
   private final ChildRepository childRepository;
+  private final ReportArtifactStore reportArtifactStore;
 
   @Autowired
   public GoalService(
-      GoalRepository goalRepository, GoalMapper goalMapper, ChildRepository childRepository) {
+      GoalRepository goalRepository,
+      GoalMapper goalMapper,
+      ChildRepository childRepository,
+      ReportArtifactStore reportArtifactStore) {
     this.goalRepository = goalRepository;
     this.goalMapper = goalMapper;
     this.childRepository = childRepository;
+    this.reportArtifactStore = reportArtifactStore;
   }
 
   @Transactional
@@ -43,6 +48,7 @@ public class GoalService {
             .orElseThrow(() -> new EntityNotFoundException("Child not found"));
     child.addGoal(goal);
     Goal savedGoal = goalRepository.save(goal);
+    reportArtifactStore.invalidate(childId);
     log.info(
         "Successfully saved goal with id: {} for child with id: {}", savedGoal.getId(), childId);
     return goalMapper.goalToGoalResponseDto(savedGoal);
@@ -63,6 +69,7 @@ public class GoalService {
                 });
 
     goalMapper.updateGoalFromDto(goalDto, goal);
+    reportArtifactStore.invalidate(goal.getChild().getId());
     log.info("Goal with id: {} successfully updated", goalId);
     return goalMapper.goalToGoalResponseDto(goal);
   }
@@ -82,6 +89,7 @@ public class GoalService {
                 });
 
     goalRepository.delete(goal);
+    reportArtifactStore.invalidate(goal.getChild().getId());
     log.info("Goal with id: {} successfully deleted", goalId);
   }
 
@@ -0,0 +1,134 @@
+package org.back.beobachtungapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.back.beobachtungapp.config.properties.NotificationProperties;
+import org.back.beobachtungapp.dto.message.DelayedTgMessage;
+import org.back.beobachtungapp.dto.message.ScheduledMessage;
+import org.back.beobachtungapp.dto.telegram.TelegramPdfJob;
+import org.back.beobachtungapp.processor.KafkaNotificationListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link NotificationTransport} over Kafka topics, consumed by the {@link
+ * KafkaNotificationListener}.
+ *
+ * <p>Records are keyed by companion ID, so all notifications of a companion land in the same
+ * partition and are sent in order, while different companions are spread over the partitions and
+ * listener threads. Every record carries a {@link #NOTIFICATION_ID_HEADER} the listener
+ * deduplicates on: the producer is idempotent, but a delayed message is only removed from the
+ * {@link DelayedMessageStore} after Kafka acknowledged it, so a crash in between publishes it
+ * again.
+ */
+@SuppressFBWarnings
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "notification.transport", havingValue = "kafka")
+public class KafkaNotificationTransport implements NotificationTransport {
+
+  /** Header holding the ID a notification is deduplicated by. */
+  public static final String NOTIFICATION_ID_HEADER = "notification-id";
+
+  private final KafkaTemplate<String, String> kafkaTemplate;
+  private final DelayedMessageStore delayedMessageStore;
+  private final NotificationProperties properties;
+  private final ObjectMapper objectMapper;
+
+  public KafkaNotificationTransport(
+      KafkaTemplate<String, String> kafkaTemplate,
+      DelayedMessageStore delayedMessageStore,
+      NotificationProperties properties,
+      ObjectMapper objectMapper) {
+    this.kafkaTemplate = kafkaTemplate;
+    this.delayedMessageStore = delayedMessageStore;
+    this.properties = properties;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Publishes the due messages of a partition and removes them from the {@link DelayedMessageStore}
+   * once Kafka acknowledged all of them. If publishing fails, they stay in place and are published
+   * again on the next run.
+   */
+  @Override
+  public long dispatchDue(int partition, long now, int limit) {
+    List<ScheduledMessage> due = delayedMessageStore.findDue(partition, now, limit);
+
+    if (!due.isEmpty()) {
+      List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>();
+      for (ScheduledMessage message : due) {
+        if (message.payload().isEmpty()) {
+          log.warn("Payload of delayed message for event {} has expired", message.eventId());
+          continue;
+        }
+        sends.add(
+            send(
+                properties.getKafka().getMessagesTopic(),
+                recordKey(message.payload()),
+                "message:" + message.eventId() + "@" + message.dueAt(),
+                message.payload()));
+      }
+      await(CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)));
+      delayedMessageStore.removeDispatched(partition, due);
+      log.info("Published {} due Telegram messages of partition {}", sends.size(), partition);
+    }
+
+    return delayedMessageStore.nextDue(partition);
+  }
+
+  @Override
+  public void sendPdf(TelegramPdfJob job) throws JsonProcessingException {
+    String key = job.companionId() != null ? String.valueOf(job.companionId()) : job.telegramId();
+    await(
+        send(
+            properties.getKafka().getPdfTopic(),
+            key,
+            "pdf:" + job.blobKey(),
+            objectMapper.writeValueAsString(job)));
+  }
+
+  private CompletableFuture<SendResult<String, String>> send(
+      String topic, String key, String notificationId, String payload) {
+    ProducerRecord<String, String> record = new ProducerRecord<>(topic, key, payload);
+    record.headers().add(NOTIFICATION_ID_HEADER, notificationId.getBytes(StandardCharsets.UTF_8));
+    return kafkaTemplate.send(record);
+  }
+
+  /**
+   * Partitions a message by companion, falling back to the chat for messages scheduled without one.
+   * Unreadable messages are still published, so they end up in the dead letter topic.
+   */
+  private String recordKey(String message) {
+    try {
+      DelayedTgMessage msg = objectMapper.readValue(message, DelayedTgMessage.class);
+      return msg.companionId() != null ? String.valueOf(msg.companionId()) : msg.chatId();
+    } catch (JsonProcessingException e) {
+      return null;
+    }
+  }
+
+  private void await(CompletableFuture<?> future) {
+    try {
+      future.get(properties.getKafka().getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new KafkaException("Interrupted while publishing notifications", e);
+    } catch (ExecutionException | TimeoutException e) {
+      throw new KafkaException("Failed to publish notifications", e);
+    }
+  }
+}
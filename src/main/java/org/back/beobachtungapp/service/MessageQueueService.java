@@ -4,21 +4,33 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.config.properties.BrevoProperties;
 import org.back.beobachtungapp.dto.brevo.BrevoEmailRequest;
 import org.back.beobachtungapp.dto.message.DelayedTgMessage;
+import org.back.beobachtungapp.dto.message.ScheduledMessage;
 import org.back.beobachtungapp.dto.telegram.TelegramPdfJob;
 import org.back.beobachtungapp.feign.BrevoClient;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.back.beobachtungapp.processor.BrevoEmailBatcher;
+import org.back.beobachtungapp.processor.DelayedMessageScheduler;
 import org.springframework.stereotype.Service;
 
 /**
  * Service responsible for managing messaging queues, including scheduling delayed Telegram
  * messages, enqueuing PDF sending jobs, and handling email scheduling and cancellation via the
- * Brevo email client.
+ * Brevo email client. Emails are sent in batches by the {@link BrevoEmailBatcher}.
  *
- * <p>Uses Redis to store delayed messages and message queues.
+ * <p>Uses Redis to store delayed messages; due messages and PDF jobs travel through the configured
+ * {@link NotificationTransport}.
  */
 @SuppressFBWarnings
 @Slf4j
@@ -26,19 +38,20 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class MessageQueueService {
 
-  private static final String DELAYED_MESSAGES_KEY = "delayedMessages";
-  private static final String EVENT_KEY_PREFIX = "event:";
-  private static final String TELEGRAM_PDF_QUEUE_KEY = "telegram:pdf:queue";
-
-  private final RedisTemplate<String, String> redisTemplate;
-  private final RedisTemplate<String, Object> redisPdfTemplate;
+  private final DelayedMessageStore delayedMessageStore;
+  private final NotificationTransport notificationTransport;
   private final ObjectMapper objectMapper;
   private final BrevoClient brevoClient;
+  private final BrevoEmailBatcher brevoEmailBatcher;
+  private final ScheduledEmailStore scheduledEmailStore;
+  private final BrevoProperties brevoProperties;
+  private final DelayedMessageScheduler delayedMessageScheduler;
 
   /**
    * Schedules a delayed Telegram message to be sent on adding new event after a specified delay.
-   * The message is serialized and stored in a Redis sorted set with a score representing the
-   * scheduled execution time.
+   * The message is serialized and stored in the {@link DelayedMessageStore}, replacing a message
+   * scheduled for the same event before, and the {@link DelayedMessageScheduler} is woken if the
+   * message is due before its next run.
    *
    * @param msg the delayed Telegram message to schedule
    * @param delayMillis the delay in milliseconds before sending the message
@@ -53,8 +66,8 @@ public class MessageQueueService {
 
     try {
       String json = serializeMessage(msg);
-      redisTemplate.opsForZSet().add(DELAYED_MESSAGES_KEY, json, executionTime);
-      redisTemplate.opsForValue().set(EVENT_KEY_PREFIX + msg.eventId(), json);
+      delayedMessageStore.schedule(String.valueOf(msg.eventId()), json, executionTime);
+      delayedMessageScheduler.wakeUp(executionTime);
 
       log.info(
           "Scheduled Telegram message with delay={} ms at time={} for eventId={}",
@@ -66,9 +79,41 @@ public class MessageQueueService {
     }
   }
 
+  /**
+   * Schedules the delayed Telegram messages of many events at once, with one Redis call per batch
+   * instead of one per message. Messages that cannot be serialized are skipped.
+   *
+   * @param messages the messages to schedule with the delay in milliseconds of each
+   */
+  public void scheduleEventTelegramMessages(Map<DelayedTgMessage, Long> messages) {
+    long now = Instant.now().toEpochMilli();
+    long earliest = Long.MAX_VALUE;
+    List<ScheduledMessage> scheduled = new ArrayList<>();
+
+    for (Map.Entry<DelayedTgMessage, Long> entry : messages.entrySet()) {
+      DelayedTgMessage msg = entry.getKey();
+      long executionTime = now + entry.getValue();
+      try {
+        scheduled.add(
+            new ScheduledMessage(
+                String.valueOf(msg.eventId()), executionTime, serializeMessage(msg)));
+        earliest = Math.min(earliest, executionTime);
+      } catch (JsonProcessingException e) {
+        log.error("Failed to serialize delayed Telegram message: {}", msg, e);
+      }
+    }
+    if (scheduled.isEmpty()) {
+      return;
+    }
+
+    delayedMessageStore.scheduleAll(scheduled);
+    delayedMessageScheduler.wakeUp(earliest);
+    log.info("Scheduled {} Telegram messages", scheduled.size());
+  }
+
   /**
    * Cancels a previously scheduled Telegram message identified by its event ID. Removes the message
-   * from Redis sorted set and deletes the associated key.
+   * from the {@link DelayedMessageStore} in a single call.
    *
    * @param eventId the unique event ID of the scheduled Telegram message to cancel
    */
@@ -78,12 +123,7 @@ public class MessageQueueService {
       return;
     }
 
-    String redisKey = EVENT_KEY_PREFIX + eventId;
-    String json = redisTemplate.opsForValue().get(redisKey);
-
-    if (json != null) {
-      redisTemplate.opsForZSet().remove(DELAYED_MESSAGES_KEY, json);
-      redisTemplate.delete(redisKey);
+    if (delayedMessageStore.cancel(eventId)) {
       log.info("Cancelled scheduled Telegram message with eventId={}", eventId);
     } else {
       log.warn("No scheduled Telegram message found in Redis for eventId={}", eventId);
@@ -91,10 +131,10 @@ public class MessageQueueService {
   }
 
   /**
-   * Enqueues a Telegram PDF job into a Redis list queue for asynchronous processing. Ensures the
-   * job and Telegram ID are not null before enqueuing.
+   * Hands a Telegram PDF job over to the {@link NotificationTransport} for asynchronous processing.
+   * Ensures the job and Telegram ID are not null before enqueuing.
    *
-   * @param job the TelegramPdfJob containing PDF data and recipient Telegram ID
+   * @param job the TelegramPdfJob containing the PDF reference and recipient Telegram ID
    */
   public void enqueueTelegramPdfReportJob(TelegramPdfJob job) {
     if (job == null || job.telegramId() == null) {
@@ -102,13 +142,18 @@ public class MessageQueueService {
       return;
     }
 
-    redisPdfTemplate.opsForList().leftPush(TELEGRAM_PDF_QUEUE_KEY, job);
-    log.info("Enqueued Telegram PDF job for telegramId={}", job.telegramId());
+    try {
+      notificationTransport.sendPdf(job);
+      log.info("Enqueued Telegram PDF job for telegramId={}", job.telegramId());
+    } catch (JsonProcessingException e) {
+      log.error("Failed to serialize Telegram PDF job: {}", job, e);
+    }
   }
 
   /**
-   * Schedules an email to be sent on adding new event via the Brevo email client. Logs a warning if
-   * the request is null.
+   * Schedules an email to be sent on adding new event via the {@link BrevoEmailBatcher}, which
+   * sends it together with other emails of the same scheduled minute. Failures are logged. Logs a
+   * warning if the request is null.
    *
    * @param request the BrevoEmailRequest containing email details to send
    */
@@ -117,13 +162,58 @@ public class MessageQueueService {
       log.warn("Attempted to schedule null email request");
       return;
     }
-    brevoClient.sendEmail(request);
-    log.info("Scheduled email via BrevoClient: {}", request);
+    brevoEmailBatcher
+        .submit(request)
+        .whenComplete(
+            (delivery, e) -> {
+              if (e != null) {
+                log.error("Failed to schedule email with batch ID {}", request.batchId(), e);
+              } else {
+                log.info("Scheduled email via BrevoClient: {}", delivery);
+              }
+            });
+  }
+
+  /**
+   * Schedules many emails via the {@link BrevoEmailBatcher} and waits up to {@code
+   * brevo.batch.send-timeout} until they are sent. A failing email does not stop the others. An
+   * email counts as scheduled once it is scheduled for at least one recipient; the failed
+   * recipients are logged by the batcher.
+   *
+   * @param requests the emails to send
+   * @return the failure reason per batch ID of the emails that could not be scheduled
+   */
+  public Map<String, String> scheduleEventEmails(List<BrevoEmailRequest> requests) {
+    Map<String, CompletableFuture<BrevoEmailBatcher.Delivery>> deliveries = new LinkedHashMap<>();
+    for (BrevoEmailRequest request : requests) {
+      deliveries.put(request.batchId(), brevoEmailBatcher.submit(request));
+    }
+
+    long deadline = System.nanoTime() + brevoProperties.getBatch().getSendTimeout().toNanos();
+    Map<String, String> failures = new LinkedHashMap<>();
+    deliveries.forEach(
+        (batchId, delivery) -> {
+          try {
+            delivery.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+          } catch (ExecutionException e) {
+            log.error("Failed to schedule email with batch ID {}", batchId, e.getCause());
+            failures.put(batchId, e.getCause().getMessage());
+          } catch (TimeoutException e) {
+            log.error("Timed out scheduling email with batch ID {}", batchId);
+            failures.put(batchId, "Timed out waiting for Brevo");
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures.put(batchId, "Interrupted while waiting for Brevo");
+          }
+        });
+    log.info("Scheduled {} of {} emails", requests.size() - failures.size(), requests.size());
+    return failures;
   }
 
   /**
    * Attempts to cancel a scheduled email identified by a batch ID or message ID via the Brevo email
-   * client. Logs the result or any errors encountered.
+   * client. Emails sent in a batch are cancelled by the message IDs recorded in the {@link
+   * ScheduledEmailStore}. Logs the result or any errors encountered.
    *
    * @param batchIdOrMessageId the batch ID or message ID of the scheduled email to cancel
    */
@@ -133,11 +223,24 @@ public class MessageQueueService {
       return;
     }
 
+    List<String> identifiers;
     try {
-      brevoClient.cancelEmail(batchIdOrMessageId);
-      log.info("Cancelled scheduled email with ID={}", batchIdOrMessageId);
+      identifiers = scheduledEmailStore.take(batchIdOrMessageId);
     } catch (Exception e) {
-      log.error("Failed to cancel scheduled email with ID: {}", batchIdOrMessageId, e);
+      log.error("Failed to look up message IDs of email {}", batchIdOrMessageId, e);
+      identifiers = List.of();
+    }
+    if (identifiers.isEmpty()) {
+      identifiers = List.of(batchIdOrMessageId);
+    }
+
+    for (String identifier : identifiers) {
+      try {
+        brevoClient.cancelEmail(identifier);
+        log.info("Cancelled scheduled email with ID={}", identifier);
+      } catch (Exception e) {
+        log.error("Failed to cancel scheduled email with ID: {}", identifier, e);
+      }
     }
   }
 
@@ -1,10 +1,15 @@
 package org.back.beobachtungapp.service;
 
 import jakarta.persistence.EntityNotFoundException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.back.beobachtungapp.dto.request.monitoring.MonitoringEntryRequestDto;
 import org.back.beobachtungapp.dto.response.monitoring.MonitoringEntryResponseDto;
+import org.back.beobachtungapp.dto.response.monitoring.TimeSeriesPointDto;
+import org.back.beobachtungapp.dto.response.monitoring.TimeSeriesResponseDto;
 import org.back.beobachtungapp.dto.update.monitoring.MonitoringEntryUpdateDto;
 import org.back.beobachtungapp.entity.child.Child;
 import org.back.beobachtungapp.entity.monitoring.MonitoringEntry;
@@ -12,6 +17,9 @@ import org.back.beobachtungapp.entity.monitoring.MonitoringParameter;
 import org.back.beobachtungapp.mapper.MonitoringEntryMapper;
 import org.back.beobachtungapp.repository.ChildRepository;
 import org.back.beobachtungapp.repository.MonitoringEntryRepository;
+import org.back.beobachtungapp.repository.MonitoringParamRepository;
+import org.back.beobachtungapp.repository.projection.SeriesValue;
+import org.back.beobachtungapp.utils.DownsamplingUtils;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
@@ -20,17 +28,26 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 @Service
 public class MonitoringEntryService {
+  /** Upper bound of the point budget a client may request for a time series. */
+  private static final int MAX_SERIES_POINTS = 5000;
+
   private final MonitoringEntryRepository monitoringEntryRepository;
   private final MonitoringEntryMapper monitoringEntryMapper;
   private final ChildRepository childRepository;
+  private final MonitoringParamRepository monitoringParamRepository;
+  private final ReportArtifactStore reportArtifactStore;
 
   public MonitoringEntryService(
       MonitoringEntryRepository monitoringEntryRepository,
       MonitoringEntryMapper monitoringEntryMapper,
-      ChildRepository childRepository) {
+      ChildRepository childRepository,
+      MonitoringParamRepository monitoringParamRepository,
+      ReportArtifactStore reportArtifactStore) {
     this.monitoringEntryRepository = monitoringEntryRepository;
     this.monitoringEntryMapper = monitoringEntryMapper;
     this.childRepository = childRepository;
+    this.monitoringParamRepository = monitoringParamRepository;
+    this.reportArtifactStore = reportArtifactStore;
   }
 
   @Transactional
@@ -48,6 +65,7 @@ public class MonitoringEntryService {
     child.addMonitoringEntry(entry);
     entry.setMonitoringParameter(param);
     MonitoringEntry savedEntry = monitoringEntryRepository.save(entry);
+    reportArtifactStore.invalidate(childId);
     log.info(
         "Successfully saved monitoring entry with id: {} for child with id: {}",
         savedEntry.getId(),
@@ -71,6 +89,7 @@ public class MonitoringEntryService {
                 });
 
     monitoringEntryMapper.updateMonitoringEntry(updateDto, entry);
+    reportArtifactStore.invalidate(entry.getChild().getId());
     log.info("Monitoring entry with id: {} successfully updated", entryId);
     return monitoringEntryMapper.monitoringEntryToMonitoringEntryResponseDto(entry);
   }
@@ -91,6 +110,7 @@ public class MonitoringEntryService {
                 });
 
     monitoringEntryRepository.delete(entry);
+    reportArtifactStore.invalidate(entry.getChild().getId());
     log.info("Successfully deleted monitoring entry with id: {}", entryId);
   }
 
@@ -106,6 +126,71 @@ public class MonitoringEntryService {
     return entries;
   }
 
+  /**
+   * Returns the numeric values of a child's monitoring parameter as a time series, reduced to at
+   * most {@code points} points with Largest-Triangle-Three-Buckets. Entries whose value is not a
+   * number are skipped.
+   *
+   * @param childId the ID of the child
+   * @param paramId the ID of the monitoring parameter
+   * @param points the point budget, between 3 and {@value #MAX_SERIES_POINTS}
+   * @return the downsampled series ordered by time
+   * @throws IllegalArgumentException if the point budget is out of range
+   * @throws EntityNotFoundException if the monitoring parameter does not exist
+   */
+  public TimeSeriesResponseDto findSeries(Long childId, Long paramId, int points) {
+    if (points < 3 || points > MAX_SERIES_POINTS) {
+      throw new IllegalArgumentException(
+          "Points must be between 3 and " + MAX_SERIES_POINTS + ", got " + points);
+    }
+    log.info("Fetching time series of parameter {} for child with id: {}", paramId, childId);
+
+    MonitoringParameter param =
+        monitoringParamRepository
+            .findById(paramId)
+            .orElseThrow(
+                () -> {
+                  log.error("Monitoring param not found with id: {}", paramId);
+                  return new EntityNotFoundException(
+                      "Monitoring param not found with id: " + paramId);
+                });
+
+    List<SeriesValue> values = monitoringEntryRepository.findSeriesValues(childId, paramId);
+    double[] x = new double[values.size()];
+    double[] y = new double[values.size()];
+    List<Instant> timestamps = new ArrayList<>(values.size());
+    int size = 0;
+    for (SeriesValue value : values) {
+      if (value.value() == null) {
+        continue;
+      }
+      try {
+        y[size] = Double.parseDouble(value.value());
+      } catch (NumberFormatException e) {
+        continue;
+      }
+      x[size] = value.createdAt().toEpochMilli();
+      timestamps.add(value.createdAt());
+      size++;
+    }
+
+    int[] selected =
+        DownsamplingUtils.largestTriangleThreeBuckets(
+            Arrays.copyOf(x, size), Arrays.copyOf(y, size), points);
+    List<TimeSeriesPointDto> series = new ArrayList<>(selected.length);
+    for (int index : selected) {
+      series.add(new TimeSeriesPointDto(timestamps.get(index), y[index]));
+    }
+
+    log.info(
+        "Reduced {} points to {} for parameter {} of child with id: {}",
+        size,
+        series.size(),
+        paramId,
+        childId);
+    return new TimeSeriesResponseDto(childId, paramId, param.getTitle(), size, series);
+  }
+
   @Cacheable(value = "entry", key = "#entryId", unless = "#result == null")
   public MonitoringEntryResponseDto findById(Long entryId) {
     log.info("Fetching monitoring entry with id: {}", entryId);
@@ -23,13 +23,18 @@ public class NoteService {
   private final NoteRepository noteRepository;
   private final NoteMapper noteMapper;
   private final ChildRepository childRepository;
+  private final ReportArtifactStore reportArtifactStore;
 
   @Autowired
   public NoteService(
-      NoteRepository noteRepository, NoteMapper noteMapper, ChildRepository childRepository) {
+      NoteRepository noteRepository,
+      NoteMapper noteMapper,
+      ChildRepository childRepository,
+      ReportArtifactStore reportArtifactStore) {
     this.noteRepository = noteRepository;
     this.noteMapper = noteMapper;
     this.childRepository = childRepository;
+    this.reportArtifactStore = reportArtifactStore;
   }
 
   @Transactional
@@ -50,6 +55,7 @@ public class NoteService {
     child.addNote(note);
 
     Note savedNote = noteRepository.save(note);
+    reportArtifactStore.invalidate(childId);
     log.info(
         "Successfully saved note with id: {} for child with id: {} and companion with id: {}",
         savedNote.getId(),
@@ -73,6 +79,7 @@ public class NoteService {
                 });
 
     noteMapper.updateNote(noteRequestDto, note);
+    reportArtifactStore.invalidate(note.getChild().getId());
     log.info("Successfully updated note with id: {}", noteId);
     return noteMapper.noteToNoteResponseDto(note);
   }
@@ -92,6 +99,7 @@ public class NoteService {
                 });
 
     noteRepository.delete(note);
+    reportArtifactStore.invalidate(note.getChild().getId());
     log.info("Successfully deleted note with id: {}", noteId);
   }
 
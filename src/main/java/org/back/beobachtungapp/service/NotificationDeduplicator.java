@@ -0,0 +1,59 @@
+package org.back.beobachtungapp.service;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.back.beobachtungapp.config.properties.NotificationProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Remembers the IDs of notifications that have been sent, so records Kafka delivers again after a
+ * rebalance or a failed offset commit are skipped instead of being sent twice.
+ *
+ * <p>IDs live under {@code notification:processed:<id>} for {@code
+ * notification.kafka.deduplication-ttl}.
+ */
+@SuppressFBWarnings
+@Service
+@ConditionalOnProperty(name = "notification.transport", havingValue = "kafka")
+public class NotificationDeduplicator {
+
+  private static final String PROCESSED_KEY_PREFIX = "notification:processed:";
+
+  private final RedisTemplate<String, String> redisTemplate;
+  private final NotificationProperties properties;
+
+  public NotificationDeduplicator(
+      RedisTemplate<String, String> redisTemplate, NotificationProperties properties) {
+    this.redisTemplate = redisTemplate;
+    this.properties = properties;
+  }
+
+  /**
+   * Checks whether a notification has been sent already.
+   *
+   * @param notificationId the ID of the notification, {@code null} if it has none
+   * @return {@code true} if it has been sent
+   */
+  public boolean isProcessed(String notificationId) {
+    return notificationId != null
+        && Boolean.TRUE.equals(redisTemplate.hasKey(PROCESSED_KEY_PREFIX + notificationId));
+  }
+
+  /**
+   * Records that a notification has been sent.
+   *
+   * @param notificationId the ID of the notification, ignored if {@code null}
+   */
+  public void markProcessed(String notificationId) {
+    if (notificationId == null) {
+      return;
+    }
+    redisTemplate
+        .opsForValue()
+        .set(
+            PROCESSED_KEY_PREFIX + notificationId,
+            "1",
+            properties.getKafka().getDeduplicationTtl());
+  }
+}
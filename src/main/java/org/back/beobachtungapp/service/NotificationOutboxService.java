@@ -0,0 +1,137 @@
+package org.back.beobachtungapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.dto.brevo.BrevoEmailRequest;
+import org.back.beobachtungapp.dto.message.DelayedTgMessage;
+import org.back.beobachtungapp.entity.event.Event;
+import org.back.beobachtungapp.entity.outbox.NotificationOutboxAction;
+import org.back.beobachtungapp.entity.outbox.NotificationOutboxEntry;
+import org.back.beobachtungapp.processor.NotificationOutboxRelay;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Writes the notification intents of changed events into the {@link NotificationOutboxEntry
+ * outbox}, in the transaction that changed them. Nothing is sent here: the {@link
+ * NotificationOutboxRelay} picks the entries up once the transaction has committed, so saving an
+ * event never waits for Redis or Brevo and a rolled back change never notifies anybody.
+ *
+ * <p>Entries are inserted with plain JDBC on the connection of the current transaction, because the
+ * JPA callbacks calling this run while Hibernate flushes and must not persist entities.
+ */
+@SuppressFBWarnings
+@Slf4j
+@Service
+public class NotificationOutboxService {
+
+  private static final String INSERT_ENTRY =
+      """
+      INSERT INTO notification_outbox (event_id, action, telegram_message, telegram_due_at, email,
+                                       attempts, created_at, next_attempt_at)
+      VALUES (:eventId, :action, :telegramMessage, :telegramDueAt, :email, 0, :now, :now)
+      """;
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final EventNotificationFactory eventNotificationFactory;
+  private final ObjectMapper objectMapper;
+  private final NotificationOutboxRelay notificationOutboxRelay;
+
+  public NotificationOutboxService(
+      NamedParameterJdbcTemplate jdbcTemplate,
+      EventNotificationFactory eventNotificationFactory,
+      ObjectMapper objectMapper,
+      NotificationOutboxRelay notificationOutboxRelay) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.eventNotificationFactory = eventNotificationFactory;
+    this.objectMapper = objectMapper;
+    this.notificationOutboxRelay = notificationOutboxRelay;
+  }
+
+  /**
+   * Records a change of an event. For created and updated events the Telegram message and the email
+   * are built right away, the event needs its child and the child's companion loaded.
+   *
+   * @param event the changed event
+   * @param action what happened to the event
+   */
+  public void record(Event event, NotificationOutboxAction action) {
+    jdbcTemplate.update(INSERT_ENTRY, entryParams(event, action, Instant.now()));
+    wakeRelayAfterCommit();
+    log.info("Recorded {} notification intent for event {}", action, event.getId());
+  }
+
+  /**
+   * Records the changes of many events with one JDBC batch.
+   *
+   * @param events the changed events
+   * @param action what happened to the events
+   */
+  public void recordAll(Collection<Event> events, NotificationOutboxAction action) {
+    if (events.isEmpty()) {
+      return;
+    }
+    Instant now = Instant.now();
+    List<SqlParameterSource> params =
+        events.stream().map(event -> entryParams(event, action, now)).toList();
+    jdbcTemplate.batchUpdate(INSERT_ENTRY, params.toArray(SqlParameterSource[]::new));
+    wakeRelayAfterCommit();
+    log.info("Recorded {} notification intents for {} events", action, events.size());
+  }
+
+  private SqlParameterSource entryParams(
+      Event event, NotificationOutboxAction action, Instant now) {
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("eventId", event.getId())
+            .addValue("action", action.name())
+            .addValue("telegramMessage", null)
+            .addValue("telegramDueAt", null)
+            .addValue("email", null)
+            .addValue("now", Timestamp.from(now));
+    if (action == NotificationOutboxAction.DELETED) {
+      return params;
+    }
+
+    try {
+      DelayedTgMessage message = eventNotificationFactory.telegramMessage(event);
+      if (message != null) {
+        long dueAt = now.toEpochMilli() + eventNotificationFactory.telegramDelay(event);
+        params
+            .addValue("telegramMessage", objectMapper.writeValueAsString(message))
+            .addValue("telegramDueAt", dueAt);
+      }
+      BrevoEmailRequest email = eventNotificationFactory.email(event);
+      if (email != null) {
+        params.addValue("email", objectMapper.writeValueAsString(email));
+      }
+    } catch (JsonProcessingException | RuntimeException e) {
+      log.warn("Failed to build notifications of event {}: {}", event.getId(), e.getMessage(), e);
+    }
+    return params;
+  }
+
+  private void wakeRelayAfterCommit() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      notificationOutboxRelay.wakeUp();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            notificationOutboxRelay.wakeUp();
+          }
+        });
+  }
+}
@@ -0,0 +1,32 @@
+package org.back.beobachtungapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.back.beobachtungapp.dto.telegram.TelegramPdfJob;
+
+/**
+ * Carries event notifications and report deliveries from the instance producing them to the
+ * instance sending them through Telegram, selected with {@code notification.transport}.
+ *
+ * <p>Delayed messages always wait in the Redis sorted sets {@code delayedMessages:<n>}; the
+ * transport only takes over once they are due.
+ */
+public interface NotificationTransport {
+
+  /**
+   * Hands the due delayed messages of a partition over for sending.
+   *
+   * @param partition the partition, see {@link PartitionLeaseManager#partitionOf(String)}
+   * @param now epoch millisecond up to which messages are due
+   * @param limit the maximum number of messages handed over
+   * @return the epoch millisecond the earliest remaining message is due at, or -1 if there is none
+   */
+  long dispatchDue(int partition, long now, int limit);
+
+  /**
+   * Hands a PDF report over for sending.
+   *
+   * @param job the job referencing the stored PDF
+   * @throws JsonProcessingException if the job cannot be serialized
+   */
+  void sendPdf(TelegramPdfJob job) throws JsonProcessingException;
+}
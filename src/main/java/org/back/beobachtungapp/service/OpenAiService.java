@@ -3,15 +3,16 @@ package org.back.beobachtungapp.service;
 import static org.back.beobachtungapp.utils.PersonUtils.calculateAge;
 import static org.back.beobachtungapp.utils.TexTemplatesUtil.loadTemplate;
 
+import java.time.Duration;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.back.beobachtungapp.config.properties.OpenAiProperties;
 import org.back.beobachtungapp.dto.openai.*;
 import org.back.beobachtungapp.dto.response.child.ChildWithAttachments;
 import org.back.beobachtungapp.dto.response.companion.CompanionDto;
+import org.back.beobachtungapp.exception.IntegrationUnavailableException;
 import org.back.beobachtungapp.feign.OpenAiClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -25,6 +26,10 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class OpenAiService {
 
+  /** Run states other than {@code completed} in which a run no longer makes progress on its own. */
+  private static final Set<String> TERMINAL_STATUSES =
+      Set.of("failed", "cancelled", "cancelling", "expired", "incomplete", "requires_action");
+
   private final OpenAiProperties openAiProperties;
   private final OpenAiClient openAiClient;
   private final CompanionService companionService;
@@ -96,7 +101,7 @@ public class OpenAiService {
     RunResponse run = openAiClient.startRun(threadId, new RunRequest(openAiProperties.getId()));
     log.info("Started run: {}", run);
 
-    RunResponse completedRun = checkRunStatusAsync(threadId, run.id()).join();
+    RunResponse completedRun = awaitRun(threadId, run.id());
     log.info("Completed run: {}", completedRun);
 
     List<RootDTO.Message> messages = openAiClient.listMessages(threadId).data();
@@ -130,31 +135,55 @@ public class OpenAiService {
   }
 
   /**
-   * Asynchronously checks the status of a running assistant task until it is completed.
+   * Polls a run until it completes. Runs that end in any other state fail the prompt; runs still
+   * active after {@code openai.run-timeout} are cancelled.
    *
    * @param threadId ID of the thread
    * @param runId ID of the current run
    * @return completed RunResponse object
+   * @throws IntegrationUnavailableException if the run did not complete
    */
-  private CompletableFuture<RunResponse> checkRunStatusAsync(String threadId, String runId) {
-    return CompletableFuture.supplyAsync(
-        () -> {
-          while (true) {
-            RunResponse status = openAiClient.getRunStatus(threadId, runId);
-            if ("completed".equals(status.status())) {
-              return status;
-            }
-            try {
-              CompletableFuture<Void> delay =
-                  CompletableFuture.runAsync(
-                      () -> {}, CompletableFuture.delayedExecutor(1, TimeUnit.SECONDS));
-              delay.join();
-            } catch (Exception e) {
-              Thread.currentThread().interrupt();
-              throw new RuntimeException("Interrupted during waiting for run status", e);
-            }
-          }
-        });
+  private RunResponse awaitRun(String threadId, String runId) {
+    long deadline = System.nanoTime() + openAiProperties.getRunTimeout().toNanos();
+    while (true) {
+      RunResponse run = openAiClient.getRunStatus(threadId, runId);
+      if ("completed".equals(run.status())) {
+        return run;
+      }
+      if (TERMINAL_STATUSES.contains(run.status())) {
+        String reason = run.last_error() != null ? run.last_error().message() : run.status();
+        log.warn("Run {} of thread {} ended as {}: {}", runId, threadId, run.status(), reason);
+        if ("requires_action".equals(run.status())) {
+          // no tools are configured, the run would otherwise block the thread until it expires
+          cancelRun(threadId, runId);
+        }
+        throw new IntegrationUnavailableException(
+            "openai", "Run " + run.status() + ": " + reason, Duration.ofSeconds(5));
+      }
+      if (System.nanoTime() >= deadline) {
+        cancelRun(threadId, runId);
+        throw new IntegrationUnavailableException(
+            "openai",
+            "Run did not complete within " + openAiProperties.getRunTimeout(),
+            openAiProperties.getRunTimeout());
+      }
+      try {
+        Thread.sleep(openAiProperties.getRunPollInterval().toMillis());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        cancelRun(threadId, runId);
+        throw new IllegalStateException("Interrupted during waiting for run status", e);
+      }
+    }
+  }
+
+  private void cancelRun(String threadId, String runId) {
+    try {
+      openAiClient.cancelRun(threadId, runId);
+      log.warn("Cancelled run {} of thread {}", runId, threadId);
+    } catch (RuntimeException e) {
+      log.warn("Failed to cancel run {} of thread {}: {}", runId, threadId, e.getMessage());
+    }
   }
 
   /**
@@ -0,0 +1,357 @@
+package org.back.beobachtungapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.config.properties.ResilienceProperties;
+import org.back.beobachtungapp.exception.IntegrationUnavailableException;
+
+/**
+ * Admission control and failure handling for the calls to one external API, configured under {@code
+ * resilience.<integration>}.
+ *
+ * <ul>
+ *   <li>A bulkhead of {@code max-concurrent-calls} slots; a call waits for at most {@code max-wait}
+ *       for a free one.
+ *   <li>A count based circuit breaker over the last {@code sliding-window-size} calls. Once at
+ *       least {@code failure-rate-threshold} percent of them failed, calls are rejected for {@code
+ *       open-duration}, after which a single probe call decides whether the circuit closes again.
+ *   <li>A retry budget: every call earns {@code retry-budget-ratio} retries, at most {@code
+ *       retry-budget-burst} are saved up. Retries therefore stay a fraction of the traffic when the
+ *       API is down instead of multiplying it.
+ *   <li>A deadline per call covering waiting, all attempts and the delays between them.
+ * </ul>
+ *
+ * <p>Rejections surface as {@link IntegrationUnavailableException} (HTTP 503). Exposes the gauges
+ * {@code outbound.calls.active} and {@code outbound.circuit.state} (0 closed, 1 open, 2 half open)
+ * and the counters {@code outbound.calls.rejected}, {@code outbound.calls.retried} and {@code
+ * outbound.retry.budget.exhausted}, all tagged with {@code integration}.
+ */
+@Slf4j
+public class OutboundGuard {
+
+  private enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private final String name;
+  private final ResilienceProperties.Integration properties;
+  private final MeterRegistry meterRegistry;
+  private final LongSupplier nanoTime;
+  private final Semaphore bulkhead;
+  private final AtomicInteger active = new AtomicInteger();
+  private final Counter retried;
+  private final Counter budgetExhausted;
+
+  // circuit breaker and retry budget, guarded by this
+  private final boolean[] outcomes;
+  private int recorded;
+  private int next;
+  private int failures;
+  private State state = State.CLOSED;
+  private long openedAt;
+  private boolean probeInFlight;
+  private double retryTokens;
+
+  public OutboundGuard(
+      String name, ResilienceProperties.Integration properties, MeterRegistry meterRegistry) {
+    this(name, properties, meterRegistry, System::nanoTime);
+  }
+
+  /**
+   * Creates a guard reading the time from {@code nanoTime}.
+   *
+   * @param nanoTime source of the time in nanoseconds, {@link System#nanoTime()} in production
+   */
+  OutboundGuard(
+      String name,
+      ResilienceProperties.Integration properties,
+      MeterRegistry meterRegistry,
+      LongSupplier nanoTime) {
+    this.name = name;
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+    this.nanoTime = nanoTime;
+    this.bulkhead = new Semaphore(properties.getMaxConcurrentCalls(), true);
+    this.outcomes = new boolean[properties.getSlidingWindowSize()];
+    this.retryTokens = properties.getRetryBudgetBurst();
+
+    Gauge.builder("outbound.calls.active", active, AtomicInteger::get)
+        .description("Calls to the external API in flight")
+        .tag("integration", name)
+        .register(meterRegistry);
+    Gauge.builder("outbound.circuit.state", this, guard -> guard.currentState().ordinal())
+        .description("Circuit breaker state: 0 closed, 1 open, 2 half open")
+        .tag("integration", name)
+        .register(meterRegistry);
+    this.retried =
+        Counter.builder("outbound.calls.retried")
+            .description("Calls to the external API retried")
+            .tag("integration", name)
+            .register(meterRegistry);
+    this.budgetExhausted =
+        Counter.builder("outbound.retry.budget.exhausted")
+            .description("Retries skipped because the retry budget was used up")
+            .tag("integration", name)
+            .register(meterRegistry);
+  }
+
+  /**
+   * Starts a call: fixes its deadline and earns the share of the retry budget.
+   *
+   * @return the call, used for each of its attempts
+   */
+  public Call newCall() {
+    synchronized (this) {
+      retryTokens =
+          Math.min(
+              retryTokens + properties.getRetryBudgetRatio(), properties.getRetryBudgetBurst());
+    }
+    return new Call(nanoTime.getAsLong() + properties.getDeadline().toNanos());
+  }
+
+  /**
+   * Returns the name of the integration, e.g. {@code openai}.
+   *
+   * @return the integration name
+   */
+  public String getName() {
+    return name;
+  }
+
+  private synchronized State currentState() {
+    return state;
+  }
+
+  /**
+   * Lets a call pass the circuit breaker.
+   *
+   * @return {@code true} if the call is the half open probe
+   */
+  private synchronized boolean admit() {
+    if (state == State.OPEN) {
+      long remaining = openedAt + properties.getOpenDuration().toNanos() - nanoTime.getAsLong();
+      if (remaining > 0) {
+        throw reject("circuit_open", "circuit is open", Duration.ofNanos(remaining));
+      }
+      state = State.HALF_OPEN;
+      log.info("Circuit of {} half open, letting a probe call through", name);
+    }
+    if (state == State.HALF_OPEN) {
+      if (probeInFlight) {
+        throw reject("circuit_open", "circuit is half open", properties.getOpenDuration());
+      }
+      probeInFlight = true;
+      return true;
+    }
+    return false;
+  }
+
+  private synchronized void record(boolean probe, boolean failure) {
+    if (state == State.HALF_OPEN) {
+      if (!probe) {
+        return;
+      }
+      probeInFlight = false;
+      if (failure) {
+        open();
+      } else {
+        state = State.CLOSED;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+        log.info("Circuit of {} closed", name);
+      }
+      return;
+    }
+    if (state == State.OPEN) {
+      return;
+    }
+
+    if (recorded == outcomes.length) {
+      if (outcomes[next]) {
+        failures--;
+      }
+    } else {
+      recorded++;
+    }
+    outcomes[next] = failure;
+    next = (next + 1) % outcomes.length;
+    if (failure) {
+      failures++;
+    }
+
+    if (recorded >= Math.min(properties.getMinimumCalls(), outcomes.length)
+        && failures * 100 >= properties.getFailureRateThreshold() * recorded) {
+      open();
+    }
+  }
+
+  private void open() {
+    log.warn("Circuit of {} opened for {}", name, properties.getOpenDuration());
+    state = State.OPEN;
+    openedAt = nanoTime.getAsLong();
+  }
+
+  private synchronized boolean withdrawRetryToken() {
+    if (retryTokens < 1) {
+      return false;
+    }
+    retryTokens--;
+    return true;
+  }
+
+  private IntegrationUnavailableException reject(
+      String reason, String message, Duration retryAfter) {
+    Counter.builder("outbound.calls.rejected")
+        .description("Calls to the external API rejected before they were made")
+        .tag("integration", name)
+        .tag("reason", reason)
+        .register(meterRegistry)
+        .increment();
+    log.warn("Rejected call to {}: {}", name, message);
+    Duration atLeastOneSecond =
+        retryAfter.compareTo(Duration.ofSeconds(1)) < 0 ? Duration.ofSeconds(1) : retryAfter;
+    return new IntegrationUnavailableException(name, message, atLeastOneSecond);
+  }
+
+  /** A call to the external API, possibly made in several attempts. */
+  public final class Call {
+    private final long deadline;
+    private int attempt = 1;
+
+    private Call(long deadline) {
+      this.deadline = deadline;
+    }
+
+    /**
+     * Returns the time left until the deadline of the call.
+     *
+     * @return remaining time, negative once the deadline has passed
+     */
+    public Duration remaining() {
+      return Duration.ofNanos(deadline - nanoTime.getAsLong());
+    }
+
+    /**
+     * Admits the next attempt through the circuit breaker and the bulkhead.
+     *
+     * @return the permit, to be closed once the attempt has finished
+     * @throws IntegrationUnavailableException if the deadline passed, the circuit is open or no
+     *     slot became available in time
+     */
+    public Permit enter() {
+      long remaining = deadline - nanoTime.getAsLong();
+      if (remaining <= 0) {
+        throw reject("deadline", "deadline exceeded", properties.getMaxWait());
+      }
+
+      boolean probe = admit();
+      long wait = Math.min(properties.getMaxWait().toNanos(), remaining);
+      try {
+        if (!bulkhead.tryAcquire(wait, TimeUnit.NANOSECONDS)) {
+          releaseProbe(probe);
+          throw reject("bulkhead_full", "too many calls in flight", properties.getMaxWait());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        releaseProbe(probe);
+        throw reject("interrupted", "interrupted waiting for a slot", properties.getMaxWait());
+      }
+
+      active.incrementAndGet();
+      return new Permit(probe);
+    }
+
+    private void releaseProbe(boolean probe) {
+      if (probe) {
+        synchronized (OutboundGuard.this) {
+          probeInFlight = false;
+        }
+      }
+    }
+
+    /**
+     * Decides whether a failed attempt is retried and waits before the next one. Must be called
+     * after the permit of the failed attempt has been closed.
+     *
+     * @param retryAfter delay requested by the API, or {@code null} for exponential backoff
+     * @return {@code true} once it is time for the next attempt, {@code false} if the call gives up
+     *     because it is out of attempts, time or retry budget
+     */
+    public boolean retry(Duration retryAfter) {
+      if (attempt >= properties.getMaxAttempts()) {
+        return false;
+      }
+      if (retryAfter != null && retryAfter.compareTo(properties.getMaxRetryAfter()) > 0) {
+        log.debug("{} asked to retry after {}, giving up", name, retryAfter);
+        return false;
+      }
+
+      long delay = retryAfter != null ? retryAfter.toNanos() : backoff();
+      if (nanoTime.getAsLong() + delay >= deadline) {
+        return false;
+      }
+      if (!withdrawRetryToken()) {
+        budgetExhausted.increment();
+        log.warn("Retry budget of {} exhausted", name);
+        return false;
+      }
+
+      retried.increment();
+      attempt++;
+      try {
+        TimeUnit.NANOSECONDS.sleep(delay);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+      return true;
+    }
+
+    /** Exponential backoff with jitter between half and the full delay. */
+    private long backoff() {
+      long base = properties.getInitialBackoff().toNanos() << Math.min(attempt - 1, 16);
+      return base / 2 + ThreadLocalRandom.current().nextLong(base / 2 + 1);
+    }
+  }
+
+  /**
+   * Admission of a single attempt; closing it frees the bulkhead slot and records the outcome with
+   * the circuit breaker.
+   */
+  public final class Permit implements AutoCloseable {
+    private final boolean probe;
+    private boolean failed;
+    private boolean released;
+
+    private Permit(boolean probe) {
+      this.probe = probe;
+    }
+
+    /** Marks the attempt as failed: the API could not be reached or answered with a 5xx. */
+    public void failure() {
+      failed = true;
+    }
+
+    @Override
+    public void close() {
+      if (released) {
+        return;
+      }
+      released = true;
+      active.decrementAndGet();
+      bulkhead.release();
+      record(probe, failed);
+    }
+  }
+}
@@ -0,0 +1,224 @@
+package org.back.beobachtungapp.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.config.properties.QueueProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Assigns the {@code queue.partitions} Redis partitions of all queues to the running instances.
+ *
+ * <p>An instance owns a partition while it holds the lease key {@code partition:lease:<n>}, which
+ * expires after {@code queue.partition-lease-ttl}. A heartbeat thread renews the leases three times
+ * per TTL and rebalances: every instance aims for {@code ceil(partitions / live instances)}
+ * partitions, releases surplus leases and acquires free ones. Partitions of an instance that dies
+ * are taken over once their leases expire; a stopping instance releases its leases right away.
+ *
+ * <p>Only the owner of a partition schedules, claims and recovers its messages and jobs, so
+ * instances do not compete for the same keys. All claims stay atomic, so a partition changing
+ * owners never causes duplicate sends.
+ */
+@Slf4j
+public class PartitionLeaseManager implements SmartLifecycle {
+
+  private static final String LEASE_KEY_PREFIX = "partition:lease:";
+  private static final String INSTANCES_KEY = "partition:instances";
+
+  /** KEYS: lease; ARGV: instance, ttl in milliseconds. */
+  private static final RedisScript<Long> RENEW =
+      new DefaultRedisScript<>(
+          """
+          if redis.call('GET', KEYS[1]) == ARGV[1] then
+            return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+          end
+          return 0
+          """,
+          Long.class);
+
+  /** KEYS: lease; ARGV: instance. */
+  private static final RedisScript<Long> RELEASE =
+      new DefaultRedisScript<>(
+          """
+          if redis.call('GET', KEYS[1]) == ARGV[1] then
+            return redis.call('DEL', KEYS[1])
+          end
+          return 0
+          """,
+          Long.class);
+
+  private final String instanceId;
+  private final RedisTemplate<String, String> redisTemplate;
+  private final QueueProperties properties;
+
+  private volatile Set<Integer> owned = Collections.emptySet();
+  private long renewedAt;
+  private volatile boolean running;
+  private Thread heartbeat;
+
+  /**
+   * Creates the manager.
+   *
+   * @param instanceId ID of this application instance, unique across running instances
+   * @param redisTemplate template with string keys and values
+   * @param properties partition settings
+   */
+  public PartitionLeaseManager(
+      String instanceId, RedisTemplate<String, String> redisTemplate, QueueProperties properties) {
+    this.instanceId = instanceId;
+    this.redisTemplate = redisTemplate;
+    this.properties = properties;
+  }
+
+  /**
+   * Returns the partition a message or job belongs to.
+   *
+   * @param shardKey the event or chat ID the message or job is sharded by
+   * @return the partition, between 0 and {@code queue.partitions - 1}
+   */
+  public int partitionOf(String shardKey) {
+    return Math.floorMod(String.valueOf(shardKey).hashCode(), properties.getPartitions());
+  }
+
+  /**
+   * Returns the ID of this application instance.
+   *
+   * @return the instance ID, random per start
+   */
+  public String getInstanceId() {
+    return instanceId;
+  }
+
+  /**
+   * Returns the partitions currently owned by this instance.
+   *
+   * @return the owned partitions in ascending order
+   */
+  public Set<Integer> ownedPartitions() {
+    return owned;
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    rebalance();
+    heartbeat = new Thread(this::heartbeat, "partition-heartbeat");
+    heartbeat.setDaemon(true);
+    heartbeat.start();
+  }
+
+  @Override
+  public void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    heartbeat.interrupt();
+    try {
+      for (int partition : owned) {
+        redisTemplate.execute(RELEASE, List.of(leaseKey(partition)), instanceId);
+      }
+      redisTemplate.opsForZSet().remove(INSTANCES_KEY, instanceId);
+      log.info("Released partitions {}", owned);
+    } catch (Exception e) {
+      log.warn("Failed to release partitions {}: {}", owned, e.getMessage());
+    }
+    owned = Collections.emptySet();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /** Starts before and stops after the consumers relying on the owned partitions. */
+  @Override
+  public int getPhase() {
+    return DEFAULT_PHASE - 1;
+  }
+
+  private void heartbeat() {
+    long interval = properties.getPartitionLeaseTtl().toMillis() / 3;
+    while (running) {
+      try {
+        Thread.sleep(interval);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      rebalance();
+    }
+  }
+
+  /** Renews owned leases, then releases surplus ones or acquires free ones up to the fair share. */
+  private void rebalance() {
+    Duration ttl = properties.getPartitionLeaseTtl();
+    int partitions = properties.getPartitions();
+    long now = System.currentTimeMillis();
+
+    try {
+      redisTemplate.opsForZSet().add(INSTANCES_KEY, instanceId, now);
+      redisTemplate.opsForZSet().removeRangeByScore(INSTANCES_KEY, 0, now - ttl.toMillis());
+      Long live = redisTemplate.opsForZSet().zCard(INSTANCES_KEY);
+      int instances = live == null ? 1 : (int) Math.max(1, live);
+      int target = (partitions + instances - 1) / instances;
+
+      TreeSet<Integer> renewed = new TreeSet<>();
+      for (int partition : owned) {
+        Long ok =
+            redisTemplate.execute(
+                RENEW, List.of(leaseKey(partition)), instanceId, String.valueOf(ttl.toMillis()));
+        if (ok != null && ok == 1) {
+          renewed.add(partition);
+        } else {
+          log.warn("Lost lease of partition {}", partition);
+        }
+      }
+
+      while (renewed.size() > target) {
+        int partition = renewed.pollLast();
+        redisTemplate.execute(RELEASE, List.of(leaseKey(partition)), instanceId);
+        log.info("Released partition {} to rebalance", partition);
+      }
+
+      List<Integer> candidates = new ArrayList<>();
+      for (int partition = 0; partition < partitions; partition++) {
+        if (!renewed.contains(partition)) {
+          candidates.add(partition);
+        }
+      }
+      Collections.shuffle(candidates);
+      for (int partition : candidates) {
+        if (renewed.size() >= target) {
+          break;
+        }
+        Boolean acquired =
+            redisTemplate.opsForValue().setIfAbsent(leaseKey(partition), instanceId, ttl);
+        if (Boolean.TRUE.equals(acquired)) {
+          renewed.add(partition);
+          log.info("Acquired partition {}", partition);
+        }
+      }
+
+      owned = Collections.unmodifiableSet(renewed);
+      renewedAt = now;
+    } catch (Exception e) {
+      log.warn("Failed to renew partition leases: {}", e.getMessage());
+      if (now - renewedAt >= ttl.toMillis() && !owned.isEmpty()) {
+        log.warn("Giving up partitions {} after their leases expired", owned);
+        owned = Collections.emptySet();
+      }
+    }
+  }
+
+  private static String leaseKey(int partition) {
+    return LEASE_KEY_PREFIX + partition;
+  }
+}
@@ -0,0 +1,176 @@
+package org.back.beobachtungapp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.back.beobachtungapp.dto.queue.DeadLetter;
+import org.back.beobachtungapp.dto.queue.QueueStats;
+
+/**
+ * {@link ReliableQueue} sharded into the partitions of the {@link PartitionLeaseManager}.
+ *
+ * <p>Partition {@code n} lives under {@code <key>:<n>}. Jobs are assigned to a partition by their
+ * shard key, so all jobs of the same chat or event are processed by the same instance.
+ */
+public class PartitionedQueue {
+
+  private final String name;
+  private final PartitionLeaseManager partitionLeaseManager;
+  private final List<ReliableQueue> partitions;
+
+  /**
+   * Creates the queue.
+   *
+   * @param name logical name used by operators and in metrics
+   * @param partitionLeaseManager assigns jobs to partitions and partitions to instances
+   * @param partitions one queue per partition, in partition order
+   */
+  public PartitionedQueue(
+      String name, PartitionLeaseManager partitionLeaseManager, List<ReliableQueue> partitions) {
+    this.name = name;
+    this.partitionLeaseManager = partitionLeaseManager;
+    this.partitions = List.copyOf(partitions);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Appends a job to the partition of its shard key.
+   *
+   * @param shardKey the chat or event ID the job is sharded by
+   * @param payload the serialized job
+   */
+  public void enqueue(String shardKey, String payload) {
+    partition(partitionLeaseManager.partitionOf(shardKey)).enqueue(payload);
+  }
+
+  /**
+   * Returns a single partition.
+   *
+   * @param partition the partition number
+   * @return the queue of the partition
+   */
+  public ReliableQueue partition(int partition) {
+    return partitions.get(partition);
+  }
+
+  /**
+   * Returns the partitions currently owned by this instance. Only these may be consumed and
+   * recovered here.
+   *
+   * @return the owned partitions in ascending order
+   */
+  public List<ReliableQueue> ownedPartitions() {
+    Set<Integer> owned = partitionLeaseManager.ownedPartitions();
+    List<ReliableQueue> queues = new ArrayList<>(owned.size());
+    for (int partition : owned) {
+      if (partition < partitions.size()) {
+        queues.add(partitions.get(partition));
+      }
+    }
+    return queues;
+  }
+
+  /**
+   * Returns the number of jobs in each state, summed over all partitions.
+   *
+   * @return the queue statistics
+   */
+  public QueueStats stats() {
+    long ready = 0;
+    long processing = 0;
+    long retrying = 0;
+    long deadLetters = 0;
+    for (ReliableQueue queue : partitions) {
+      QueueStats stats = queue.stats();
+      ready += stats.ready();
+      processing += stats.processing();
+      retrying += stats.retrying();
+      deadLetters += stats.deadLetters();
+    }
+    return new QueueStats(ready, processing, retrying, deadLetters);
+  }
+
+  /**
+   * Returns the number of jobs waiting to be claimed in all partitions.
+   *
+   * @return the summed length of the ready lists
+   */
+  public long size() {
+    long size = 0;
+    for (ReliableQueue queue : partitions) {
+      size += queue.size();
+    }
+    return size;
+  }
+
+  /**
+   * Lists dead letters partition by partition, each newest first.
+   *
+   * @param offset number of dead letters to skip
+   * @param limit maximum number of dead letters to return
+   * @return the dead letters
+   */
+  public List<DeadLetter> deadLetters(int offset, int limit) {
+    List<DeadLetter> deadLetters = new ArrayList<>();
+    int skip = offset;
+    for (ReliableQueue queue : partitions) {
+      if (deadLetters.size() >= limit) {
+        break;
+      }
+      long count = queue.deadLetterCount();
+      if (skip >= count) {
+        skip -= (int) count;
+        continue;
+      }
+      deadLetters.addAll(queue.deadLetters(skip, limit - deadLetters.size()));
+      skip = 0;
+    }
+    return deadLetters;
+  }
+
+  /**
+   * Returns the number of dead letters in all partitions.
+   *
+   * @return the summed length of the dead-letter lists
+   */
+  public long deadLetterCount() {
+    long count = 0;
+    for (ReliableQueue queue : partitions) {
+      count += queue.deadLetterCount();
+    }
+    return count;
+  }
+
+  /**
+   * Moves the oldest dead letters of each partition back to their partition.
+   *
+   * @param count maximum number of dead letters to replay in total
+   * @return the number of replayed jobs
+   */
+  public long replay(int count) {
+    long replayed = 0;
+    for (ReliableQueue queue : partitions) {
+      if (replayed >= count) {
+        break;
+      }
+      replayed += queue.replay((int) (count - replayed));
+    }
+    return replayed;
+  }
+
+  /**
+   * Deletes the dead letters of all partitions.
+   *
+   * @return the number of deleted dead letters
+   */
+  public long purgeDeadLetters() {
+    long purged = 0;
+    for (ReliableQueue queue : partitions) {
+      purged += queue.purgeDeadLetters();
+    }
+    return purged;
+  }
+}
@@ -1,213 +1,289 @@
 package org.back.beobachtungapp.service;
 
+import de.rototor.pdfbox.graphics2d.PdfBoxGraphics2D;
+import de.rototor.pdfbox.graphics2d.PdfBoxGraphics2DFontTextDrawerDefaultFonts;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.multipdf.LayerUtility;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
-import org.apache.pdfbox.pdmodel.font.PDFont;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
 import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.back.beobachtungapp.config.properties.ReportProperties;
 import org.back.beobachtungapp.dto.response.child.ChildWithAttachments;
 import org.back.beobachtungapp.dto.response.companion.CompanionDto;
 import org.back.beobachtungapp.dto.telegram.TelegramPdfJob;
+import org.back.beobachtungapp.pdf.Block;
+import org.back.beobachtungapp.pdf.ChartBlock;
+import org.back.beobachtungapp.pdf.ReportLayout;
+import org.back.beobachtungapp.pdf.SpacerBlock;
+import org.back.beobachtungapp.pdf.TextBlock;
+import org.back.beobachtungapp.pdf.TextStyle;
+import org.jfree.chart.JFreeChart;
 import org.springframework.stereotype.Service;
 
 /**
  * Service for generating PDF reports for children, including title pages, companion information,
  * child information, and charts. The generated PDF can also be enqueued for sending via Telegram.
  *
- * <p>This service depends on {@link ChartService} to generate chart images, {@link ChildService} to
- * fetch child data with attachments, and {@link MessageQueueService} to enqueue Telegram PDF
- * sending jobs.
+ * <p>This service depends on {@link ChartService} to generate charts and {@link
+ * MessageQueueService} to enqueue Telegram PDF sending jobs, whose payload is kept in the {@link
+ * BlobStore}. Reports are written to a caller supplied stream, using a PDFBox stream cache that
+ * spills to temp files once {@code report.max-main-memory-bytes} is exceeded, so they never have to
+ * be materialised as byte arrays and the heap used per report stays bounded.
+ *
+ * <p>Sections are composed of {@link Block}s rendered by a {@link ReportLayout}, which wraps long
+ * text and continues it on further pages.
+ *
+ * <p>Charts are drawn as vector graphics by default; {@code report.chart-mode=raster} embeds them
+ * as lossless images at {@code report.raster-dpi} instead. Either way every chart is drawn on the
+ * chart threads of the {@link ChartService}; the rendering thread only places the results.
+ * Documents are saved with compressed object streams.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PdfGeneratorService {
 
+  private static final String REPORT_FILE_NAME = "begleitbericht.pdf";
+
+  /** Box on the page a chart is scaled into, keeping its aspect ratio. */
+  private static final float CHART_BOX_WIDTH = 500;
+
+  private static final float CHART_BOX_HEIGHT = 400;
+
+  private static final TextStyle TITLE = new TextStyle(true, 32, 60);
+  private static final TextStyle SUBTITLE = new TextStyle(false, 18, 30);
+  private static final TextStyle PAGE_HEADING = new TextStyle(true, 20, 30);
+  private static final TextStyle SECTION_HEADING = new TextStyle(true, 16, 20);
+  private static final TextStyle BODY = new TextStyle(false, 14, 20);
+
   private final ChartService chartService;
-  private final ChildService childService;
   private final MessageQueueService messageService;
+  private final BlobStore blobStore;
+  private final ReportProperties reportProperties;
 
   /**
-   * Generates a PDF report for the given child ID and companion data. The PDF includes a title
-   * page, companion and child information page, and one or more pages with charts derived from the
-   * child's entries. The generated PDF is also enqueued for sending via Telegram.
+   * Enqueues an already rendered report for sending via Telegram. Does nothing if the companion has
+   * not linked Telegram.
    *
-   * @param childId the ID of the child for whom the report is generated
-   * @param companionDto the data transfer object containing companion information
-   * @return a byte array representing the generated PDF document
-   * @throws IOException if there is an error while creating or saving the PDF
+   * @param companionDto the companion the report belongs to
+   * @param pdf path to the rendered report
+   * @throws IOException if the report file cannot be read or stored
    */
-  public byte[] generatePdf(Long childId, CompanionDto companionDto) throws IOException {
-    try (PDDocument document = new PDDocument()) {
-      ChildWithAttachments child = childService.getChildWithAttachments(childId);
-      List<BufferedImage> images = chartService.handleCharts(child.entries());
-
-      // 1. Title page
-      PDPage titlePage = new PDPage(PDRectangle.A4);
-      document.addPage(titlePage);
-
-      try (PDPageContentStream titleStream = new PDPageContentStream(document, titlePage)) {
-        PDFont boldFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
-        PDFont regularFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
-
-        // Params
-        float pageWidth = PDRectangle.A4.getWidth();
-        float titleFontSize = 32;
-        float subtitleFontSize = 18;
-        float lineSpacing = 30;
-
-        // Headings
-        String titleText = "Begleitbericht für das Kind";
-        float titleWidth = boldFont.getStringWidth(titleText) / 1000 * titleFontSize;
-        float titleX = (pageWidth - titleWidth) / 2;
-        float titleY = 600;
-
-        titleStream.beginText();
-        titleStream.setFont(boldFont, titleFontSize);
-        titleStream.newLineAtOffset(titleX, titleY);
-        titleStream.showText(titleText);
-        titleStream.endText();
-
-        // Subheadings
-        String[] lines = {
-          "Erstellt am: " + LocalDate.now(),
-          "Schulbegleiter: " + companionDto.name() + " " + companionDto.surname(),
-          "Kind: " + child.name() + " " + child.surname()
-        };
+  public void deliverToTelegram(CompanionDto companionDto, Path pdf) throws IOException {
+    deliverToTelegram(companionDto, pdf, REPORT_FILE_NAME);
+  }
 
-        float currentY = titleY - lineSpacing * 2;
-        for (String line : lines) {
-          float textWidth = regularFont.getStringWidth(line) / 1000 * subtitleFontSize;
-          float x = (pageWidth - textWidth) / 2;
+  /**
+   * Enqueues an already rendered report for sending via Telegram under the given file name. Does
+   * nothing if the companion has not linked Telegram.
+   *
+   * @param companionDto the companion the report belongs to
+   * @param pdf path to the rendered report
+   * @param fileName the file name shown in Telegram
+   * @throws IOException if the report file cannot be read or stored
+   */
+  public void deliverToTelegram(CompanionDto companionDto, Path pdf, String fileName)
+      throws IOException {
+    if (companionDto.tgId() == null) {
+      return;
+    }
+    String blobKey = blobStore.put(pdf);
+    messageService.enqueueTelegramPdfReportJob(
+        new TelegramPdfJob(
+            companionDto.tgId(), blobKey, fileName, System.currentTimeMillis(), companionDto.id()));
+  }
 
-          titleStream.beginText();
-          titleStream.setFont(regularFont, subtitleFontSize);
-          titleStream.newLineAtOffset(x, currentY);
-          titleStream.showText(line);
-          titleStream.endText();
+  /**
+   * Builds the PDF report and saves it to the given stream. The PDF includes a title page,
+   * companion and child information page, and one or more pages with charts derived from the
+   * child's entries. Nothing is sent via Telegram.
+   *
+   * @param child the child with all attachments the report is built from
+   * @param companionDto the data transfer object containing companion information
+   * @param out the stream the PDF is saved to; it is flushed but not closed
+   * @throws IOException if there is an error while creating or saving the PDF
+   */
+  public void renderPdf(ChildWithAttachments child, CompanionDto companionDto, OutputStream out)
+      throws IOException {
+    renderPdf(child, companionDto, LocalDate.now(), out);
+  }
 
-          currentY -= lineSpacing;
+  /**
+   * Like {@link #renderPdf(ChildWithAttachments, CompanionDto, OutputStream)}, but prints the given
+   * creation date, so a caller keying the report by date prints the same date it keyed.
+   *
+   * @param child the child with all attachments the report is built from
+   * @param companionDto the data transfer object containing companion information
+   * @param createdOn the creation date printed on the title page
+   * @param out the stream the PDF is saved to; it is flushed but not closed
+   * @throws IOException if there is an error while creating or saving the PDF
+   */
+  public void renderPdf(
+      ChildWithAttachments child, CompanionDto companionDto, LocalDate createdOn, OutputStream out)
+      throws IOException {
+    try (PDDocument document = new PDDocument(memoryUsageSetting().streamCache)) {
+      try (ReportLayout layout = new ReportLayout(document)) {
+        // 1. Title page
+        String subtitle =
+            String.join(
+                "\n",
+                "Erstellt am: " + createdOn,
+                "Schulbegleiter: " + companionDto.name() + " " + companionDto.surname(),
+                "Kind: " + child.name() + " " + child.surname());
+        layout.add(
+            List.of(
+                new SpacerBlock(170),
+                new TextBlock("Begleitbericht für das Kind", TITLE, TextBlock.Alignment.CENTER),
+                new TextBlock(subtitle, SUBTITLE, TextBlock.Alignment.CENTER),
+                Block.pageBreak()));
+
+        // 2. School companion and child sections, continued on further pages if needed
+        layout.add(
+            List.of(
+                new TextBlock("Zusätzliche Informationen", PAGE_HEADING),
+                new TextBlock("Informationen über den Schulbegleiter", SECTION_HEADING),
+                new SpacerBlock(BODY.leading()),
+                new TextBlock(formatCompanionInfo(companionDto), BODY),
+                new SpacerBlock(BODY.leading()),
+                new TextBlock("Informationen über das Kind", SECTION_HEADING),
+                new SpacerBlock(BODY.leading()),
+                new TextBlock(formatChildInfo(child), BODY)));
+
+        // 3. Charts
+        if (reportProperties.getChartMode() == ReportProperties.ChartMode.RASTER) {
+          for (BufferedImage image : chartService.handleCharts(child.entries())) {
+            rasterChart(document, image).render(layout);
+          }
+        } else {
+          List<PDDocument> charts = chartService.drawCharts(child.entries(), this::drawChart);
+          try {
+            LayerUtility layerUtility = new LayerUtility(document);
+            for (PDDocument chart : charts) {
+              vectorChart(layerUtility.importPageAsForm(chart, 0)).render(layout);
+            }
+          } finally {
+            for (PDDocument chart : charts) {
+              chart.close();
+            }
+          }
         }
       }
 
-      // 2. School companion section
-      PDPage infoPage = new PDPage(PDRectangle.A4);
-      document.addPage(infoPage);
-
-      // One page for two sections
-      String companionInfo = formatCompanionInfo(companionDto);
-      String childInfo = formatChildInfo(child);
-
-      String combinedInfo =
-          "Informationen über den Schulbegleiter\n\n"
-              + companionInfo
-              + "\n\nInformationen über das Kind\n\n"
-              + childInfo;
-
-      addInfoPage(document, infoPage, "Zusätzliche Informationen", combinedInfo);
-
-      // 4. Charts
-      for (BufferedImage bufferedImage : images) {
-        PDPage page = new PDPage(PDRectangle.A4);
-        document.addPage(page);
-
-        PDImageXObject pdImage = LosslessFactory.createFromImage(document, bufferedImage);
-
-        try (PDPageContentStream imageStream = new PDPageContentStream(document, page)) {
-          float maxWidth = 500;
-          float maxHeight = 400;
-          float scale = Math.min(maxWidth / pdImage.getWidth(), maxHeight / pdImage.getHeight());
-          float imageWidth = pdImage.getWidth() * scale;
-          float imageHeight = pdImage.getHeight() * scale;
-          float centerX = (PDRectangle.A4.getWidth() - imageWidth) / 2;
-          float centerY = (PDRectangle.A4.getHeight() - imageHeight) / 2;
+      BufferedOutputStream bufferedOut = new BufferedOutputStream(out);
+      document.save(bufferedOut, CompressParameters.DEFAULT_COMPRESSION);
+      bufferedOut.flush();
+    }
+  }
 
-          imageStream.drawImage(pdImage, centerX, centerY, imageWidth, imageHeight);
-        }
+  /**
+   * Draws a chart as PDF vector graphics into a scratch document of its own, so charts can be drawn
+   * on the chart threads in parallel while the report document is only touched by the rendering
+   * thread. The chart is laid out at its logical size onto a single page, so it stays sharp at any
+   * zoom level and costs a few kilobytes of drawing operators instead of a full image. Text is
+   * mapped onto the standard PDF fonts where possible.
+   *
+   * @param chart the chart to draw
+   * @return the scratch document holding the chart; the caller closes it
+   * @throws UncheckedIOException if the chart cannot be drawn
+   */
+  private PDDocument drawChart(JFreeChart chart) {
+    PDDocument scratch = new PDDocument(memoryUsageSetting().streamCache);
+    try {
+      PdfBoxGraphics2D graphics =
+          new PdfBoxGraphics2D(scratch, ChartService.CHART_WIDTH, ChartService.CHART_HEIGHT);
+      graphics.setFontTextDrawer(new PdfBoxGraphics2DFontTextDrawerDefaultFonts());
+      try {
+        chart.draw(
+            graphics,
+            new Rectangle2D.Double(0, 0, ChartService.CHART_WIDTH, ChartService.CHART_HEIGHT));
+      } finally {
+        graphics.dispose();
       }
 
-      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-      document.save(outputStream);
-
-      messageService.enqueueTelegramPdfReportJob(
-          new TelegramPdfJob(
-              companionDto.tgId(), outputStream.toByteArray(), "begleitbericht.pdf"));
-      return outputStream.toByteArray();
+      PDPage page =
+          new PDPage(new PDRectangle(ChartService.CHART_WIDTH, ChartService.CHART_HEIGHT));
+      scratch.addPage(page);
+      try (PDPageContentStream stream = new PDPageContentStream(scratch, page)) {
+        stream.drawForm(graphics.getXFormObject());
+      }
+      return scratch;
+    } catch (IOException e) {
+      closeQuietly(scratch);
+      throw new UncheckedIOException(e);
+    } catch (RuntimeException e) {
+      closeQuietly(scratch);
+      throw e;
     }
   }
 
   /**
-   * Adds an information page to the PDF document. This page includes a title and multi-line content
-   * text.
+   * Places a chart drawn by {@link #drawChart} and imported into the report document.
    *
-   * @param document the PDF document to add the page to
-   * @param page the page to add information to
-   * @param title the title text displayed at the top of the page
-   * @param content the multi-line content text to display under the title
-   * @throws IOException if there is an error while writing to the PDF content stream
+   * @param form the chart page imported as a form XObject
+   * @return a block placing the chart at the cursor
    */
-  private void addInfoPage(PDDocument document, PDPage page, String title, String content)
-      throws IOException {
-    try (PDPageContentStream stream = new PDPageContentStream(document, page)) {
-      // Main page title
-      stream.beginText();
-      stream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 20);
-      stream.newLineAtOffset(70, 770);
-      stream.showText(title);
-      stream.endText();
-
-      // Handling content with subheadings
-      addFormattedMultilineText(stream, content, 70, 740);
-    }
+  private ChartBlock vectorChart(PDFormXObject form) {
+    return new ChartBlock(
+        form,
+        ChartService.CHART_WIDTH,
+        ChartService.CHART_HEIGHT,
+        CHART_BOX_WIDTH,
+        CHART_BOX_HEIGHT);
   }
 
   /**
-   * Writes formatted multiline text to a PDF content stream. Lines matching certain section titles
-   * are rendered in bold font; all other lines use the regular font.
+   * Embeds a rasterised chart as a lossless image.
    *
-   * @param stream the PDF content stream to write to
-   * @param text the multi-line string to write (lines separated by '\n')
-   * @param x the x coordinate to start the text
-   * @param y the y coordinate to start the text
-   * @throws IOException if an error occurs writing to the content stream
+   * @param document the PDF document the image is added to
+   * @param bufferedImage the rendered chart
+   * @return a block placing the chart at the cursor
+   * @throws IOException if the image cannot be encoded
    */
-  private void addFormattedMultilineText(PDPageContentStream stream, String text, float x, float y)
+  private ChartBlock rasterChart(PDDocument document, BufferedImage bufferedImage)
       throws IOException {
+    PDImageXObject pdImage = LosslessFactory.createFromImage(document, bufferedImage);
+    return new ChartBlock(
+        pdImage, pdImage.getWidth(), pdImage.getHeight(), CHART_BOX_WIDTH, CHART_BOX_HEIGHT);
+  }
 
-    final float regularFontSize = 14;
-    final float boldFontSize = 16;
-    final float leading = regularFontSize + 6;
-    final PDFont regularFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
-    final PDFont boldFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
-
-    String[] lines = text.split("\n");
-    float currentY = y;
-
-    for (String line : lines) {
-      boolean isSectionTitle =
-          line.trim().equals("Informationen über den Schulbegleiter")
-              || line.trim().equals("Informationen über das Kind");
-
-      stream.beginText();
-      stream.setFont(
-          isSectionTitle ? boldFont : regularFont, isSectionTitle ? boldFontSize : regularFontSize);
-      stream.newLineAtOffset(x, currentY);
-      stream.showText(line);
-      stream.endText();
+  /**
+   * Builds the PDFBox memory setting for a single document: main memory up to {@code
+   * report.max-main-memory-bytes}, temp files beyond that.
+   *
+   * @return the memory usage setting for a new report document
+   */
+  private MemoryUsageSetting memoryUsageSetting() {
+    MemoryUsageSetting setting =
+        MemoryUsageSetting.setupMixed(reportProperties.getMaxMainMemoryBytes());
+    if (reportProperties.getTempDir() != null && !reportProperties.getTempDir().isBlank()) {
+      setting.setTempDir(new File(reportProperties.getTempDir()));
+    }
+    return setting;
+  }
 
-      currentY -= leading;
+  private void closeQuietly(PDDocument document) {
+    try {
+      document.close();
+    } catch (IOException e) {
+      log.debug("Failed to close scratch chart document: {}", e.getMessage());
     }
   }
 
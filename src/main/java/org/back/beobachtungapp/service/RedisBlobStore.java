@@ -0,0 +1,54 @@
+package org.back.beobachtungapp.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.config.properties.BlobProperties;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link BlobStore} keeping payloads as raw bytes in Redis keys with a TTL. Unlike JSON values, the
+ * bytes are neither base64 encoded nor parsed on the way in or out.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "blob.store", havingValue = "redis", matchIfMissing = true)
+public class RedisBlobStore implements BlobStore {
+
+  private final RedisTemplate<String, byte[]> redisBlobTemplate;
+  private final BlobProperties blobProperties;
+
+  public RedisBlobStore(
+      @Qualifier("redisBlobTemplate") RedisTemplate<String, byte[]> redisBlobTemplate,
+      BlobProperties blobProperties) {
+    this.redisBlobTemplate = redisBlobTemplate;
+    this.blobProperties = blobProperties;
+  }
+
+  @Override
+  public String put(Path source) throws IOException {
+    String key = blobProperties.getRedisKeyPrefix() + UUID.randomUUID();
+    redisBlobTemplate.opsForValue().set(key, Files.readAllBytes(source), blobProperties.getTtl());
+    log.debug("Stored blob {} ({} bytes)", key, Files.size(source));
+    return key;
+  }
+
+  @Override
+  public Optional<InputStream> open(String key) {
+    byte[] data = redisBlobTemplate.opsForValue().get(key);
+    return Optional.ofNullable(data).map(ByteArrayInputStream::new);
+  }
+
+  @Override
+  public void delete(String key) {
+    redisBlobTemplate.delete(key);
+  }
+}
@@ -0,0 +1,55 @@
+package org.back.beobachtungapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.back.beobachtungapp.dto.telegram.TelegramPdfJob;
+import org.back.beobachtungapp.processor.TelegramMessageQueueConsumer;
+import org.back.beobachtungapp.processor.TelegramPdfQueueConsumer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link NotificationTransport} over the reliable Redis queues.
+ *
+ * <p>Due messages are moved into the {@code telegramMessageQueue} partition of the same number and
+ * sent from there by the {@link TelegramMessageQueueConsumer}; {@link #dispatchDue} itself sends
+ * nothing. PDF jobs are enqueued into the {@code telegramPdfQueue} and sent by the {@link
+ * TelegramPdfQueueConsumer}.
+ */
+@SuppressFBWarnings
+@Service
+@ConditionalOnProperty(
+    name = "notification.transport",
+    havingValue = "redis",
+    matchIfMissing = true)
+public class RedisNotificationTransport implements NotificationTransport {
+
+  private final DelayedMessageStore delayedMessageStore;
+  private final PartitionedQueue telegramMessageQueue;
+  private final PartitionedQueue telegramPdfQueue;
+  private final ObjectMapper objectMapper;
+
+  public RedisNotificationTransport(
+      DelayedMessageStore delayedMessageStore,
+      @Qualifier("telegramMessageQueue") PartitionedQueue telegramMessageQueue,
+      @Qualifier("telegramPdfQueue") PartitionedQueue telegramPdfQueue,
+      ObjectMapper objectMapper) {
+    this.delayedMessageStore = delayedMessageStore;
+    this.telegramMessageQueue = telegramMessageQueue;
+    this.telegramPdfQueue = telegramPdfQueue;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public long dispatchDue(int partition, long now, int limit) {
+    ReliableQueue queue = telegramMessageQueue.partition(partition);
+    return delayedMessageStore.moveDueToList(partition, queue.getKey(), now, limit);
+  }
+
+  @Override
+  public void sendPdf(TelegramPdfJob job) throws JsonProcessingException {
+    telegramPdfQueue.enqueue(job.telegramId(), objectMapper.writeValueAsString(job));
+  }
+}
@@ -0,0 +1,543 @@
+package org.back.beobachtungapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.config.properties.QueueProperties;
+import org.back.beobachtungapp.dto.queue.DeadLetter;
+import org.back.beobachtungapp.dto.queue.QueueStats;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * At-least-once job queue on top of a Redis list.
+ *
+ * <p>Producers push to the list under {@code key}. A claimed job is moved atomically into the
+ * processing list of the claiming consumer and leased for {@code queue.visibility-timeout}. It
+ * stays there until it is {@link #ack acknowledged} or {@link #fail failed}. A failed job, or one
+ * whose lease expired because its consumer died, is retried after an exponential backoff. After
+ * {@code queue.max-attempts} failed deliveries it is moved to the dead-letter list, from where it
+ * can be {@link #replay replayed}.
+ *
+ * <p>All state transitions run as Lua scripts and are atomic. Keys used besides {@code key}:
+ *
+ * <ul>
+ *   <li>{@code <key>:processing:<consumer>} claimed jobs per consumer
+ *   <li>{@code <key>:consumers} consumers by last claim time
+ *   <li>{@code <key>:leases} claimed jobs by lease deadline
+ *   <li>{@code <key>:owners} consumer holding each claimed job
+ *   <li>{@code <key>:attempts} failed deliveries per job
+ *   <li>{@code <key>:retry} failed jobs by time of their next attempt
+ *   <li>{@code <key>:dead} dead letters, newest first
+ * </ul>
+ *
+ * <p>Jobs are identified by their payload, so payloads should be unique, e.g. by carrying an ID.
+ * Recovery is driven by {@link #recover()}, which has to be called periodically.
+ */
+@Slf4j
+public class ReliableQueue {
+
+  /**
+   * Shared failure handling: counts the attempt and either schedules a retry or moves the job to
+   * the dead-letter list. Returns the retry delay in milliseconds, or -1 if the job is dead.
+   */
+  private static final String FAIL_FUNCTION =
+      """
+      local function fail(attempts, retry, dead, payload, maxAttempts, now, initial, max, err)
+        local n = redis.call('HINCRBY', attempts, payload, 1)
+        if n >= tonumber(maxAttempts) then
+          redis.call('HDEL', attempts, payload)
+          redis.call('LPUSH', dead, cjson.encode(
+            {payload = payload, attempts = n, failedAt = tonumber(now), error = err}))
+          return -1
+        end
+        local delay = math.floor(math.min(tonumber(initial) * 2 ^ (n - 1), tonumber(max)))
+        redis.call('ZADD', retry, tonumber(now) + delay, payload)
+        return delay
+      end
+      """;
+
+  /** KEYS: ready, processing, leases, owners, consumers; ARGV: deadline, consumer, now. */
+  private static final RedisScript<String> CLAIM =
+      new DefaultRedisScript<>(
+          """
+          local payload = redis.call('RPOPLPUSH', KEYS[1], KEYS[2])
+          redis.call('ZADD', KEYS[5], ARGV[3], ARGV[2])
+          if not payload then
+            return false
+          end
+          redis.call('ZADD', KEYS[3], ARGV[1], payload)
+          redis.call('HSET', KEYS[4], payload, ARGV[2])
+          return payload
+          """,
+          String.class);
+
+  /** KEYS: leases, owners; ARGV: payload, deadline, consumer. */
+  private static final RedisScript<Long> LEASE =
+      new DefaultRedisScript<>(
+          """
+          redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+          redis.call('HSET', KEYS[2], ARGV[1], ARGV[3])
+          return 1
+          """,
+          Long.class);
+
+  /** KEYS: processing, leases, owners, attempts, retry; ARGV: payload. */
+  private static final RedisScript<Long> ACK =
+      new DefaultRedisScript<>(
+          """
+          local removed = redis.call('LREM', KEYS[1], 1, ARGV[1])
+          redis.call('ZREM', KEYS[2], ARGV[1])
+          redis.call('HDEL', KEYS[3], ARGV[1])
+          redis.call('HDEL', KEYS[4], ARGV[1])
+          redis.call('ZREM', KEYS[5], ARGV[1])
+          return removed
+          """,
+          Long.class);
+
+  /**
+   * KEYS: processing, leases, owners, attempts, retry, dead; ARGV: payload, max attempts, now,
+   * initial backoff, max backoff, error.
+   */
+  private static final RedisScript<Long> FAIL =
+      new DefaultRedisScript<>(
+          FAIL_FUNCTION
+              + """
+              redis.call('LREM', KEYS[1], 1, ARGV[1])
+              redis.call('ZREM', KEYS[2], ARGV[1])
+              redis.call('HDEL', KEYS[3], ARGV[1])
+              return fail(KEYS[4], KEYS[5], KEYS[6], ARGV[1], ARGV[2], ARGV[3], ARGV[4], ARGV[5],
+                ARGV[6])
+              """,
+          Long.class);
+
+  /**
+   * KEYS: leases, owners, attempts, retry, dead; ARGV: now, max attempts, initial backoff, max
+   * backoff, processing key prefix, limit.
+   */
+  private static final RedisScript<Long> REAP =
+      new DefaultRedisScript<>(
+          FAIL_FUNCTION
+              + """
+              local expired = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1],
+                'LIMIT', 0, ARGV[6])
+              for _, payload in ipairs(expired) do
+                local owner = redis.call('HGET', KEYS[2], payload)
+                if owner then
+                  redis.call('LREM', ARGV[5] .. owner, 1, payload)
+                end
+                redis.call('ZREM', KEYS[1], payload)
+                redis.call('HDEL', KEYS[2], payload)
+                fail(KEYS[3], KEYS[4], KEYS[5], payload, ARGV[2], ARGV[1], ARGV[3], ARGV[4],
+                  'visibility timeout expired')
+              end
+              return #expired
+              """,
+          Long.class);
+
+  /**
+   * Leases jobs a consumer moved into its processing list but died before leasing them, and forgets
+   * consumers that have been idle for longer than the visibility timeout.
+   *
+   * <p>KEYS: processing, leases, owners, consumers; ARGV: deadline, consumer, stale before.
+   */
+  private static final RedisScript<Long> ADOPT =
+      new DefaultRedisScript<>(
+          """
+          local items = redis.call('LRANGE', KEYS[1], 0, -1)
+          local adopted = 0
+          for _, payload in ipairs(items) do
+            if redis.call('ZADD', KEYS[2], 'NX', ARGV[1], payload) == 1 then
+              redis.call('HSET', KEYS[3], payload, ARGV[2])
+              adopted = adopted + 1
+            end
+          end
+          if #items == 0 then
+            local seen = redis.call('ZSCORE', KEYS[4], ARGV[2])
+            if seen and tonumber(seen) < tonumber(ARGV[3]) then
+              redis.call('ZREM', KEYS[4], ARGV[2])
+            end
+          end
+          return adopted
+          """,
+          Long.class);
+
+  /** KEYS: retry, ready; ARGV: now, limit. */
+  private static final RedisScript<Long> PROMOTE =
+      new DefaultRedisScript<>(
+          """
+          local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+          for _, payload in ipairs(due) do
+            redis.call('ZREM', KEYS[1], payload)
+            redis.call('LPUSH', KEYS[2], payload)
+          end
+          return #due
+          """,
+          Long.class);
+
+  /** KEYS: dead, ready, attempts; ARGV: count. */
+  private static final RedisScript<Long> REPLAY =
+      new DefaultRedisScript<>(
+          """
+          local replayed = 0
+          for i = 1, tonumber(ARGV[1]) do
+            local entry = redis.call('RPOP', KEYS[1])
+            if not entry then
+              break
+            end
+            local payload = cjson.decode(entry).payload
+            redis.call('HDEL', KEYS[3], payload)
+            redis.call('LPUSH', KEYS[2], payload)
+            replayed = replayed + 1
+          end
+          return replayed
+          """,
+          Long.class);
+
+  /** KEYS: source list, ready. */
+  private static final RedisScript<Long> MOVE_ALL =
+      new DefaultRedisScript<>(
+          """
+          local moved = 0
+          while redis.call('RPOPLPUSH', KEYS[1], KEYS[2]) do
+            moved = moved + 1
+          end
+          return moved
+          """,
+          Long.class);
+
+  private final String name;
+  private final String key;
+  private final String consumerId;
+  private final RedisTemplate<String, String> redisTemplate;
+  private final QueueProperties properties;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Creates a queue handle. Handles are cheap; all state lives in Redis.
+   *
+   * @param name logical name used by operators and in metrics
+   * @param key Redis key of the list producers push to
+   * @param consumerId ID of this application instance, unique across running instances
+   * @param redisTemplate template with string keys and values
+   * @param properties retry and visibility settings
+   * @param objectMapper mapper used to read dead letters
+   */
+  public ReliableQueue(
+      String name,
+      String key,
+      String consumerId,
+      RedisTemplate<String, String> redisTemplate,
+      QueueProperties properties,
+      ObjectMapper objectMapper) {
+    this.name = name;
+    this.key = key;
+    this.consumerId = consumerId;
+    this.redisTemplate = redisTemplate;
+    this.properties = properties;
+    this.objectMapper = objectMapper;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  /**
+   * Appends a job to the queue.
+   *
+   * @param payload the serialized job
+   */
+  public void enqueue(String payload) {
+    redisTemplate.opsForList().leftPush(key, payload);
+  }
+
+  /**
+   * Atomically moves all entries of a plain Redis list into this queue, e.g. jobs enqueued before
+   * the queue was introduced.
+   *
+   * @param listKey key of the list to drain
+   * @return the number of moved jobs
+   */
+  public long moveAllFrom(String listKey) {
+    return orZero(redisTemplate.execute(MOVE_ALL, List.of(listKey, key)));
+  }
+
+  /**
+   * Claims the oldest ready job without waiting.
+   *
+   * @return the claimed job, or {@code null} if the queue is empty
+   */
+  public String claim() {
+    long now = System.currentTimeMillis();
+    return redisTemplate.execute(
+        CLAIM,
+        List.of(key, processingKey(), leasesKey(), ownersKey(), consumersKey()),
+        String.valueOf(deadline(now)),
+        consumerId,
+        String.valueOf(now));
+  }
+
+  /**
+   * Claims the oldest ready job, waiting for one to arrive if the queue is empty. A job is moved
+   * into the processing list by the blocking pop itself, so it is never lost; should this instance
+   * die before leasing it, {@link #recover()} leases it on its behalf.
+   *
+   * @param timeout how long to wait for a job
+   * @return the claimed job, or {@code null} if none arrived in time
+   */
+  public String claim(Duration timeout) {
+    redisTemplate.opsForZSet().add(consumersKey(), consumerId, System.currentTimeMillis());
+    String payload = redisTemplate.opsForList().rightPopAndLeftPush(key, processingKey(), timeout);
+    if (payload != null) {
+      redisTemplate.execute(
+          LEASE,
+          List.of(leasesKey(), ownersKey()),
+          payload,
+          String.valueOf(deadline(System.currentTimeMillis())),
+          consumerId);
+    }
+    return payload;
+  }
+
+  /**
+   * Acknowledges a claimed job after it has been processed successfully and removes it for good.
+   *
+   * @param payload the claimed job
+   */
+  public void ack(String payload) {
+    redisTemplate.execute(
+        ACK,
+        List.of(processingKey(), leasesKey(), ownersKey(), attemptsKey(), retryKey()),
+        payload);
+  }
+
+  /**
+   * Reports a failed delivery of a claimed job. The job is retried after an exponential backoff, or
+   * moved to the dead-letter list once {@code queue.max-attempts} is reached.
+   *
+   * @param payload the claimed job
+   * @param error reason of the failure, kept with the dead letter
+   * @return {@code true} if the job will be retried, {@code false} if it was dead-lettered
+   */
+  public boolean fail(String payload, String error) {
+    Long delay =
+        redisTemplate.execute(
+            FAIL,
+            List.of(
+                processingKey(), leasesKey(), ownersKey(), attemptsKey(), retryKey(), deadKey()),
+            payload,
+            String.valueOf(properties.getMaxAttempts()),
+            String.valueOf(System.currentTimeMillis()),
+            String.valueOf(properties.getInitialBackoff().toMillis()),
+            String.valueOf(properties.getMaxBackoff().toMillis()),
+            String.valueOf(error));
+    if (delay == null || delay < 0) {
+      log.warn("Job of queue {} dead-lettered: {}", name, error);
+      return false;
+    }
+    log.info("Job of queue {} failed, retrying in {} ms: {}", name, delay, error);
+    return true;
+  }
+
+  /**
+   * Moves a claimed job straight to the dead-letter list, for jobs that can never succeed.
+   *
+   * @param payload the claimed job
+   * @param error reason the job is given up
+   */
+  public void reject(String payload, String error) {
+    redisTemplate.execute(
+        FAIL,
+        List.of(processingKey(), leasesKey(), ownersKey(), attemptsKey(), retryKey(), deadKey()),
+        payload,
+        "1",
+        String.valueOf(System.currentTimeMillis()),
+        "0",
+        "0",
+        String.valueOf(error));
+    log.warn("Job of queue {} rejected: {}", name, error);
+  }
+
+  /**
+   * Recovers jobs of dead consumers, retries jobs whose lease has expired and moves jobs whose
+   * backoff has elapsed back to the queue. Safe to run concurrently on several instances.
+   */
+  public void recover() {
+    long now = System.currentTimeMillis();
+    String limit = String.valueOf(properties.getMaintenanceBatchSize());
+
+    Set<String> consumers = redisTemplate.opsForZSet().range(consumersKey(), 0, -1);
+    if (consumers != null) {
+      long staleBefore = now - properties.getVisibilityTimeout().toMillis();
+      for (String consumer : consumers) {
+        Long adopted =
+            redisTemplate.execute(
+                ADOPT,
+                List.of(processingKey(consumer), leasesKey(), ownersKey(), consumersKey()),
+                String.valueOf(deadline(now)),
+                consumer,
+                String.valueOf(staleBefore));
+        if (adopted != null && adopted > 0) {
+          log.warn("Leased {} orphaned jobs of consumer {} in queue {}", adopted, consumer, name);
+        }
+      }
+    }
+
+    Long expired =
+        redisTemplate.execute(
+            REAP,
+            List.of(leasesKey(), ownersKey(), attemptsKey(), retryKey(), deadKey()),
+            String.valueOf(now),
+            String.valueOf(properties.getMaxAttempts()),
+            String.valueOf(properties.getInitialBackoff().toMillis()),
+            String.valueOf(properties.getMaxBackoff().toMillis()),
+            key + ":processing:",
+            limit);
+    if (expired != null && expired > 0) {
+      log.warn("{} jobs of queue {} exceeded the visibility timeout", expired, name);
+    }
+
+    Long promoted =
+        redisTemplate.execute(PROMOTE, List.of(retryKey(), key), String.valueOf(now), limit);
+    if (promoted != null && promoted > 0) {
+      log.info("Requeued {} jobs of queue {} for retry", promoted, name);
+    }
+  }
+
+  /**
+   * Returns the number of jobs in each state.
+   *
+   * @return the queue statistics
+   */
+  public QueueStats stats() {
+    return new QueueStats(
+        size(),
+        orZero(redisTemplate.opsForZSet().zCard(leasesKey())),
+        orZero(redisTemplate.opsForZSet().zCard(retryKey())),
+        deadLetterCount());
+  }
+
+  /**
+   * Returns the number of jobs waiting to be claimed.
+   *
+   * @return length of the ready list
+   */
+  public long size() {
+    return orZero(redisTemplate.opsForList().size(key));
+  }
+
+  /**
+   * Returns the number of dead letters.
+   *
+   * @return length of the dead-letter list
+   */
+  public long deadLetterCount() {
+    return orZero(redisTemplate.opsForList().size(deadKey()));
+  }
+
+  /**
+   * Lists dead letters, newest first.
+   *
+   * @param offset number of dead letters to skip
+   * @param limit maximum number of dead letters to return
+   * @return the dead letters
+   */
+  public List<DeadLetter> deadLetters(int offset, int limit) {
+    List<String> entries = redisTemplate.opsForList().range(deadKey(), offset, offset + limit - 1);
+    List<DeadLetter> deadLetters = new ArrayList<>();
+    if (entries == null) {
+      return deadLetters;
+    }
+    for (String entry : entries) {
+      try {
+        JsonNode node = objectMapper.readTree(entry);
+        deadLetters.add(
+            new DeadLetter(
+                node.path("payload").asText(),
+                node.path("attempts").asInt(),
+                Instant.ofEpochMilli(node.path("failedAt").asLong()),
+                node.path("error").asText(null)));
+      } catch (JsonProcessingException e) {
+        log.warn("Unreadable dead letter in queue {}: {}", name, entry);
+      }
+    }
+    return deadLetters;
+  }
+
+  /**
+   * Moves the oldest dead letters back to the queue with a fresh attempt count.
+   *
+   * @param count maximum number of dead letters to replay
+   * @return the number of replayed jobs
+   */
+  public long replay(int count) {
+    Long replayed =
+        redisTemplate.execute(
+            REPLAY, List.of(deadKey(), key, attemptsKey()), String.valueOf(count));
+    log.info("Replayed {} dead letters of queue {}", replayed, name);
+    return orZero(replayed);
+  }
+
+  /**
+   * Deletes all dead letters.
+   *
+   * @return the number of deleted dead letters
+   */
+  public long purgeDeadLetters() {
+    long count = deadLetterCount();
+    redisTemplate.delete(deadKey());
+    log.info("Purged {} dead letters of queue {}", count, name);
+    return count;
+  }
+
+  private long deadline(long now) {
+    return now + properties.getVisibilityTimeout().toMillis();
+  }
+
+  private String processingKey() {
+    return processingKey(consumerId);
+  }
+
+  private String processingKey(String consumer) {
+    return key + ":processing:" + consumer;
+  }
+
+  private String consumersKey() {
+    return key + ":consumers";
+  }
+
+  private String leasesKey() {
+    return key + ":leases";
+  }
+
+  private String ownersKey() {
+    return key + ":owners";
+  }
+
+  private String attemptsKey() {
+    return key + ":attempts";
+  }
+
+  private String retryKey() {
+    return key + ":retry";
+  }
+
+  private String deadKey() {
+    return key + ":dead";
+  }
+
+  private static long orZero(Long value) {
+    return value == null ? 0 : value;
+  }
+}
@@ -0,0 +1,168 @@
+package org.back.beobachtungapp.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.config.properties.ReportProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Local directory store for rendered PDF reports.
+ *
+ * <p>Artefacts live under {@code <report.cache-dir>/<childId>/<key>.pdf}, where the key already
+ * encodes every input of the report (see {@link ReportCacheService}). An artefact is therefore
+ * never overwritten with different content, and a stale one can never be served: once the child's
+ * data changes, the key changes with it. {@link #invalidate(Long)} only reclaims disk space early.
+ */
+@Slf4j
+@Service
+public class ReportArtifactStore {
+
+  private static final String EXTENSION = ".pdf";
+
+  private final ReportProperties reportProperties;
+  private final Path root;
+
+  public ReportArtifactStore(ReportProperties reportProperties) throws IOException {
+    this.reportProperties = reportProperties;
+    String cacheDir = reportProperties.getCacheDir();
+    this.root =
+        cacheDir == null || cacheDir.isBlank()
+            ? Path.of(System.getProperty("java.io.tmpdir"), "report-cache")
+            : Path.of(cacheDir);
+    Files.createDirectories(root);
+  }
+
+  /**
+   * Looks up a stored artefact.
+   *
+   * @param childId the ID of the child the report belongs to
+   * @param key the content key of the report
+   * @return path to the artefact, or empty if it is not stored
+   */
+  public Optional<Path> find(Long childId, String key) {
+    Path artifact = resolve(childId, key);
+    if (!Files.isRegularFile(artifact)) {
+      return Optional.empty();
+    }
+    touch(artifact);
+    return Optional.of(artifact);
+  }
+
+  /**
+   * Moves a freshly rendered report into the store. The move is atomic, so concurrent readers
+   * either see the complete artefact or none at all.
+   *
+   * @param childId the ID of the child the report belongs to
+   * @param key the content key of the report
+   * @param rendered the rendered report; it is moved, not copied
+   * @return path to the stored artefact
+   * @throws IOException if the artefact cannot be moved into the store
+   */
+  public Path store(Long childId, String key, Path rendered) throws IOException {
+    Path artifact = resolve(childId, key);
+    Files.createDirectories(artifact.getParent());
+    Files.move(
+        rendered, artifact, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    log.info("Stored report artefact {} for child {}", key, childId);
+    return artifact;
+  }
+
+  /**
+   * Deletes all stored artefacts of a child. Called by services writing data that is part of the
+   * report.
+   *
+   * @param childId the ID of the child whose artefacts are deleted
+   */
+  public void invalidate(Long childId) {
+    if (childId == null) {
+      return;
+    }
+    Path dir = root.resolve(String.valueOf(childId));
+    if (!Files.isDirectory(dir)) {
+      return;
+    }
+    deleteTree(dir);
+    log.info("Invalidated report artefacts for child {}", childId);
+  }
+
+  /** Deletes artefacts that have not been served for {@code report.cache-ttl}. */
+  @Scheduled(fixedRate = 3600000)
+  public void evictExpired() {
+    FileTime threshold = FileTime.from(Instant.now().minus(reportProperties.getCacheTtl()));
+
+    try (Stream<Path> files = Files.walk(root)) {
+      files
+          .filter(path -> path.toString().endsWith(EXTENSION))
+          .filter(path -> isOlderThan(path, threshold))
+          .forEach(this::deleteQuietly);
+    } catch (IOException e) {
+      log.warn("Failed to evict expired report artefacts: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Returns the key an artefact is stored under.
+   *
+   * @param artifact path to an artefact returned by this store
+   * @return the content key of the report
+   */
+  public String keyOf(Path artifact) {
+    String fileName = artifact.getFileName().toString();
+    return fileName.substring(0, fileName.length() - EXTENSION.length());
+  }
+
+  /**
+   * Returns the directory fresh reports should be rendered into before {@link #store}, so the final
+   * move stays on the same file system.
+   *
+   * @return the store root directory
+   */
+  public Path getRoot() {
+    return root;
+  }
+
+  private Path resolve(Long childId, String key) {
+    return root.resolve(String.valueOf(childId)).resolve(key + EXTENSION);
+  }
+
+  private void touch(Path artifact) {
+    try {
+      Files.setLastModifiedTime(artifact, FileTime.from(Instant.now()));
+    } catch (IOException e) {
+      log.debug("Failed to touch report artefact {}: {}", artifact, e.getMessage());
+    }
+  }
+
+  private boolean isOlderThan(Path path, FileTime threshold) {
+    try {
+      return Files.getLastModifiedTime(path).compareTo(threshold) < 0;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private void deleteTree(Path dir) {
+    try (Stream<Path> paths = Files.walk(dir)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(this::deleteQuietly);
+    } catch (IOException e) {
+      log.warn("Failed to delete report artefacts in {}: {}", dir, e.getMessage());
+    }
+  }
+
+  private void deleteQuietly(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      log.warn("Failed to delete {}: {}", path, e.getMessage());
+    }
+  }
+}
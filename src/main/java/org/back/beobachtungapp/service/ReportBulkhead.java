@@ -0,0 +1,166 @@
+package org.back.beobachtungapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.config.properties.ReportProperties;
+import org.back.beobachtungapp.exception.ReportCapacityExceededException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Admission control for report rendering.
+ *
+ * <p>A render needs two kinds of permits: one of {@code report.max-concurrent-renders} render
+ * slots, and a share of {@code report.memory-budget} matching its estimated heap usage (see {@link
+ * #estimate}). Requests that cannot get both wait for at most {@code report.admission-timeout}; at
+ * most {@code report.max-queued-renders} requests wait at a time, further ones are rejected right
+ * away. Rejections surface as {@link ReportCapacityExceededException} (HTTP 429).
+ *
+ * <p>Exposes the gauges {@code report.renders.active}, {@code report.renders.queued} and {@code
+ * report.renders.reserved.bytes} and the counter {@code report.renders.rejected}.
+ */
+@Slf4j
+@Service
+public class ReportBulkhead {
+
+  /** Heap used by a report independent of its content: fonts, layout and the PDF object tree. */
+  private static final long BASE_BYTES = 4L * 1024 * 1024;
+
+  /** Heap used by a vector chart; the dataset is capped by {@code report.chart-max-points}. */
+  private static final long VECTOR_CHART_BYTES = 512L * 1024;
+
+  /** Memory permits are counted in KiB to stay within the int range of a semaphore. */
+  private static final int PERMIT_BYTES = 1024;
+
+  private final ReportProperties reportProperties;
+  private final Semaphore renders;
+  private final Semaphore memory;
+  private final int memoryPermits;
+  private final AtomicInteger active = new AtomicInteger();
+  private final AtomicInteger queued = new AtomicInteger();
+  private final AtomicLong reservedBytes = new AtomicLong();
+  private final Counter rejected;
+
+  public ReportBulkhead(ReportProperties reportProperties, MeterRegistry meterRegistry) {
+    this.reportProperties = reportProperties;
+    this.renders = new Semaphore(reportProperties.getMaxConcurrentRenders(), true);
+    this.memoryPermits =
+        (int)
+            Math.min(
+                reportProperties.getMemoryBudget().toBytes() / PERMIT_BYTES, Integer.MAX_VALUE);
+    this.memory = new Semaphore(memoryPermits, true);
+
+    Gauge.builder("report.renders.active", active, AtomicInteger::get)
+        .description("Reports currently rendering")
+        .register(meterRegistry);
+    Gauge.builder("report.renders.queued", queued, AtomicInteger::get)
+        .description("Reports waiting for admission")
+        .register(meterRegistry);
+    Gauge.builder("report.renders.reserved.bytes", reservedBytes, AtomicLong::get)
+        .description("Estimated heap reserved by rendering reports")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    this.rejected =
+        Counter.builder("report.renders.rejected")
+            .description("Reports rejected because rendering was saturated")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Estimates the heap a report render needs before anything is loaded.
+   *
+   * @param entryCount number of monitoring entries of the child
+   * @param chartCount number of charts, i.e. distinct monitoring parameters of the child
+   * @return the estimated heap usage in bytes
+   */
+  public long estimate(long entryCount, long chartCount) {
+    double scale = (double) reportProperties.getRasterDpi() / 96;
+    long chartBytes =
+        reportProperties.getChartMode() == ReportProperties.ChartMode.RASTER
+            // ARGB image plus the encoder's working copy
+            ? (long) (ChartService.CHART_WIDTH * ChartService.CHART_HEIGHT * 4 * scale * scale) * 2
+            : VECTOR_CHART_BYTES;
+
+    return BASE_BYTES
+        + reportProperties.getMaxMainMemoryBytes()
+        + entryCount * reportProperties.getEstimatedBytesPerEntry()
+        + chartCount * chartBytes;
+  }
+
+  /**
+   * Waits for a render slot and the estimated memory. A render estimated above the whole budget is
+   * admitted once it can run alone.
+   *
+   * @param estimatedBytes the estimated heap usage, see {@link #estimate}
+   * @return the permit, to be closed once rendering has finished
+   * @throws ReportCapacityExceededException if too many requests are waiting or the permits could
+   *     not be acquired within {@code report.admission-timeout}
+   */
+  public Permit acquire(long estimatedBytes) {
+    long requested = (estimatedBytes + PERMIT_BYTES - 1) / PERMIT_BYTES;
+    int permits = (int) Math.max(1, Math.min(requested, memoryPermits));
+
+    if (queued.incrementAndGet() > reportProperties.getMaxQueuedRenders()) {
+      queued.decrementAndGet();
+      throw reject("Too many reports waiting for admission");
+    }
+
+    long timeout = reportProperties.getAdmissionTimeout().toNanos();
+    long deadline = System.nanoTime() + timeout;
+    try {
+      if (!renders.tryAcquire(timeout, TimeUnit.NANOSECONDS)) {
+        throw reject("No render slot became available");
+      }
+      if (!memory.tryAcquire(permits, deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+        renders.release();
+        throw reject("Not enough memory for a report of ~" + estimatedBytes / 1024 + " KiB");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw reject("Interrupted while waiting for admission");
+    } finally {
+      queued.decrementAndGet();
+    }
+
+    active.incrementAndGet();
+    reservedBytes.addAndGet((long) permits * PERMIT_BYTES);
+    return new Permit(permits);
+  }
+
+  private ReportCapacityExceededException reject(String reason) {
+    rejected.increment();
+    log.warn("Rejected report render: {}", reason);
+    Duration retryAfter = reportProperties.getAdmissionTimeout();
+    return new ReportCapacityExceededException(
+        "Report generation is saturated, please retry later (" + reason + ")",
+        retryAfter.isZero() ? Duration.ofSeconds(1) : retryAfter);
+  }
+
+  /** Admission of a single render; closing it releases the render slot and the memory. */
+  public final class Permit implements AutoCloseable {
+    private final int permits;
+    private boolean released;
+
+    private Permit(int permits) {
+      this.permits = permits;
+    }
+
+    @Override
+    public void close() {
+      if (released) {
+        return;
+      }
+      released = true;
+      reservedBytes.addAndGet(-(long) permits * PERMIT_BYTES);
+      active.decrementAndGet();
+      memory.release(permits);
+      renders.release();
+    }
+  }
+}
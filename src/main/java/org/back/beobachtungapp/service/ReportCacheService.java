@@ -0,0 +1,197 @@
+package org.back.beobachtungapp.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.config.properties.ReportProperties;
+import org.back.beobachtungapp.dto.response.child.ChildWithAttachments;
+import org.back.beobachtungapp.dto.response.companion.CompanionDto;
+import org.back.beobachtungapp.exception.ReportCapacityExceededException;
+import org.back.beobachtungapp.repository.ChildRepository;
+import org.back.beobachtungapp.repository.GoalRepository;
+import org.back.beobachtungapp.repository.MonitoringEntryRepository;
+import org.back.beobachtungapp.repository.NoteRepository;
+import org.back.beobachtungapp.repository.SpecialNeedRepository;
+import org.back.beobachtungapp.repository.projection.ChangeStamp;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serves PDF reports from the {@link ReportArtifactStore} and renders them only when the child's
+ * data has changed since the last render.
+ *
+ * <p>The store key is a SHA-256 over the child ID, the report options (companion details printed on
+ * the report, the layout revision and the chart settings), the date printed on the report and a
+ * data version built from the row counts and latest {@code updatedAt} of the child, its entries,
+ * the monitoring parameters they refer to (whose names are the chart titles), notes, goals and
+ * special needs. Computing the version costs six aggregate queries instead of loading the full
+ * child graph and rendering the charts. Since the date is part of the key, a report is rendered at
+ * most once a day even if nothing changed.
+ *
+ * <p>Renders are admitted through the {@link ReportBulkhead}, which is given a memory estimate
+ * based on the number of entries and charts before the child graph is loaded.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportCacheService {
+
+  /** Bump whenever the report layout changes so previously stored artefacts are not reused. */
+  private static final int LAYOUT_REVISION = 4;
+
+  private final ReportArtifactStore artifactStore;
+  private final PdfGeneratorService pdfGeneratorService;
+  private final ChildService childService;
+  private final ChildRepository childRepository;
+  private final MonitoringEntryRepository monitoringEntryRepository;
+  private final NoteRepository noteRepository;
+  private final GoalRepository goalRepository;
+  private final SpecialNeedRepository specialNeedRepository;
+  private final ReportProperties reportProperties;
+  private final ReportBulkhead reportBulkhead;
+
+  /**
+   * Returns the current PDF report of a child, rendering and storing it first if the stored one is
+   * missing or outdated.
+   *
+   * @param childId the ID of the child the report is generated for
+   * @param companionDto the companion requesting the report
+   * @return path to the stored report
+   * @throws EntityNotFoundException if the child does not exist
+   * @throws ReportCapacityExceededException if report rendering is saturated
+   * @throws IOException if the report cannot be rendered or stored
+   */
+  public Path getReport(Long childId, CompanionDto companionDto) throws IOException {
+    LocalDate createdOn = LocalDate.now();
+    DataVersion version = readDataVersion(childId);
+    String key = reportKey(childId, companionDto, createdOn, version);
+    return findOrRender(childId, companionDto, createdOn, version, key);
+  }
+
+  /**
+   * Returns the PDF report of a child stored under the given key, rendering it into this instance's
+   * store first if the key is still current but the report is stored elsewhere.
+   *
+   * @param childId the ID of the child the report is generated for
+   * @param companionDto the companion requesting the report
+   * @param key the store key of the report, see {@link ReportArtifactStore#keyOf(Path)}
+   * @return path to the stored report, or empty if the child's data changed since the key was
+   *     computed
+   * @throws EntityNotFoundException if the child does not exist
+   * @throws ReportCapacityExceededException if report rendering is saturated
+   * @throws IOException if the report cannot be rendered or stored
+   */
+  public Optional<Path> getReport(Long childId, CompanionDto companionDto, String key)
+      throws IOException {
+    Optional<Path> stored = artifactStore.find(childId, key);
+    if (stored.isPresent()) {
+      return stored;
+    }
+
+    LocalDate createdOn = LocalDate.now();
+    DataVersion version = readDataVersion(childId);
+    if (!key.equals(reportKey(childId, companionDto, createdOn, version))) {
+      return Optional.empty();
+    }
+    return Optional.of(findOrRender(childId, companionDto, createdOn, version, key));
+  }
+
+  /**
+   * Builds the version of everything a child's report is rendered from.
+   *
+   * @param childId the ID of the child
+   * @return a string that changes whenever report relevant data of the child changes
+   * @throws EntityNotFoundException if the child does not exist
+   */
+  public String dataVersion(Long childId) {
+    return readDataVersion(childId).value();
+  }
+
+  private Path findOrRender(
+      Long childId, CompanionDto companionDto, LocalDate createdOn, DataVersion version, String key)
+      throws IOException {
+    Optional<Path> stored = artifactStore.find(childId, key);
+    if (stored.isPresent()) {
+      log.info("Serving stored report {} for child {}", key, childId);
+      return stored.get();
+    }
+
+    long estimate = reportBulkhead.estimate(version.entryCount(), version.parameterCount());
+    try (ReportBulkhead.Permit ignored = reportBulkhead.acquire(estimate)) {
+      ChildWithAttachments child = childService.getChildWithAttachments(childId);
+      Path rendered = Files.createTempFile(artifactStore.getRoot(), "render-", ".tmp");
+      try {
+        try (OutputStream out = Files.newOutputStream(rendered)) {
+          pdfGeneratorService.renderPdf(child, companionDto, createdOn, out);
+        }
+        return artifactStore.store(childId, key, rendered);
+      } finally {
+        Files.deleteIfExists(rendered);
+      }
+    }
+  }
+
+  private DataVersion readDataVersion(Long childId) {
+    ChangeStamp child = childRepository.findChangeStampById(childId);
+    if (child.count() == 0) {
+      log.error("Child not found with id: {}", childId);
+      throw new EntityNotFoundException("Child not found with id: " + childId);
+    }
+
+    ChangeStamp entries = monitoringEntryRepository.findChangeStampByChildId(childId);
+    ChangeStamp parameters = monitoringEntryRepository.findParameterChangeStampByChildId(childId);
+    String value =
+        String.join(
+            ";",
+            format(child),
+            format(entries),
+            format(parameters),
+            format(noteRepository.findChangeStampByChildId(childId)),
+            format(goalRepository.findChangeStampByChildId(childId)),
+            format(specialNeedRepository.findChangeStampByChildId(childId)));
+    return new DataVersion(value, entries.count(), parameters.count());
+  }
+
+  private String reportKey(
+      Long childId, CompanionDto companionDto, LocalDate createdOn, DataVersion version) {
+    String source =
+        String.join(
+            "|",
+            String.valueOf(childId),
+            String.valueOf(companionDto.id()),
+            String.valueOf(companionDto.name()),
+            String.valueOf(companionDto.surname()),
+            String.valueOf(companionDto.email()),
+            String.valueOf(LAYOUT_REVISION),
+            String.valueOf(reportProperties.getChartMode()),
+            String.valueOf(reportProperties.getRasterDpi()),
+            String.valueOf(reportProperties.getChartMaxPoints()),
+            createdOn.toString(),
+            version.value());
+    return sha256(source);
+  }
+
+  private String format(ChangeStamp stamp) {
+    return stamp.count() + "@" + stamp.lastUpdated();
+  }
+
+  private String sha256(String source) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  private record DataVersion(String value, long entryCount, long parameterCount) {}
+}
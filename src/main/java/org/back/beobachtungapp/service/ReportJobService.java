@@ -0,0 +1,219 @@
+package org.back.beobachtungapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.back.beobachtungapp.config.properties.ReportProperties;
+import org.back.beobachtungapp.dto.response.companion.CompanionDto;
+import org.back.beobachtungapp.dto.response.report.ReportJobResponseDto;
+import org.back.beobachtungapp.dto.response.report.ReportJobStatus;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service running PDF report generation as asynchronous jobs on the dedicated {@code
+ * reportExecutor}, so request threads only submit work and return immediately.
+ *
+ * <p>Job state lives in Redis under {@code report:job:<jobId>} together with the store key of the
+ * rendered artefact, so any instance can answer polls and downloads. Every state change resets the
+ * entry's TTL to {@code report.job-retention}; a job whose instance died while running therefore
+ * disappears after that time instead of staying {@code RUNNING} forever. Artefacts stay in the
+ * local {@link ReportArtifactStore}: an instance that does not have the artefact renders it again
+ * under the same key, as long as the child's data did not change since the job completed. Telegram
+ * delivery is triggered on job completion through {@link PdfGeneratorService#deliverToTelegram}.
+ */
+@Slf4j
+@Service
+public class ReportJobService {
+
+  private static final String KEY_PREFIX = "report:job:";
+
+  private final PdfGeneratorService pdfGeneratorService;
+  private final ReportCacheService reportCacheService;
+  private final ReportArtifactStore artifactStore;
+  private final RedisTemplate<String, String> redisTemplate;
+  private final ObjectMapper objectMapper;
+  private final ReportProperties reportProperties;
+  private final TaskExecutor reportExecutor;
+
+  public ReportJobService(
+      PdfGeneratorService pdfGeneratorService,
+      ReportCacheService reportCacheService,
+      ReportArtifactStore artifactStore,
+      RedisTemplate<String, String> redisTemplate,
+      ObjectMapper objectMapper,
+      ReportProperties reportProperties,
+      @Qualifier("reportExecutor") TaskExecutor reportExecutor) {
+    this.pdfGeneratorService = pdfGeneratorService;
+    this.reportCacheService = reportCacheService;
+    this.artifactStore = artifactStore;
+    this.redisTemplate = redisTemplate;
+    this.objectMapper = objectMapper;
+    this.reportProperties = reportProperties;
+    this.reportExecutor = reportExecutor;
+  }
+
+  /**
+   * Submits a report job for the given child. Returns as soon as the job is queued.
+   *
+   * @param childId the ID of the child the report is generated for
+   * @param companionDto the companion requesting the report
+   * @return the state of the newly queued job
+   * @throws TaskRejectedException if the report executor is saturated
+   */
+  public ReportJobResponseDto submit(Long childId, CompanionDto companionDto) {
+    ReportJob job = ReportJob.queued(UUID.randomUUID().toString(), childId, companionDto.id());
+    save(job);
+
+    try {
+      reportExecutor.execute(() -> run(job, companionDto));
+    } catch (TaskRejectedException e) {
+      redisTemplate.delete(KEY_PREFIX + job.id());
+      log.warn("Report executor saturated, rejected job for child {}", childId);
+      throw e;
+    }
+
+    log.info("Queued report job {} for child {}", job.id(), childId);
+    return job.toDto();
+  }
+
+  /**
+   * Returns the current state of a job.
+   *
+   * @param jobId the ID of the job
+   * @param companionDto the companion polling the job
+   * @return the job state
+   * @throws NoSuchElementException if the job does not exist or belongs to another companion
+   */
+  public ReportJobResponseDto getJob(String jobId, CompanionDto companionDto) {
+    return findJob(jobId, companionDto).toDto();
+  }
+
+  /**
+   * Returns the rendered report of a completed job, rendering it again under the job's key if it is
+   * not stored on this instance.
+   *
+   * @param jobId the ID of the job
+   * @param companionDto the companion fetching the report
+   * @return path to the rendered PDF, or {@code null} if the job has not completed
+   * @throws NoSuchElementException if the job does not exist, belongs to another companion or its
+   *     report has been outdated in the meantime
+   * @throws IOException if the report has to be rendered again and that fails
+   */
+  public Path getArtifact(String jobId, CompanionDto companionDto) throws IOException {
+    ReportJob job = findJob(jobId, companionDto);
+    if (job.status() != ReportJobStatus.COMPLETED) {
+      return null;
+    }
+    return reportCacheService
+        .getReport(job.childId(), companionDto, job.artifactKey())
+        .orElseThrow(
+            () ->
+                new NoSuchElementException(
+                    "Report of job " + jobId + " is outdated, submit a new job"));
+  }
+
+  private void run(ReportJob job, CompanionDto companionDto) {
+    save(job.running());
+    Path artifact;
+
+    try {
+      artifact = reportCacheService.getReport(job.childId(), companionDto);
+      save(job.completed(artifactStore.keyOf(artifact)));
+      log.info("Report job {} completed", job.id());
+    } catch (Exception e) {
+      log.error("Report job {} failed: {}", job.id(), e.getMessage(), e);
+      save(job.failed(e.getMessage()));
+      return;
+    }
+
+    try {
+      pdfGeneratorService.deliverToTelegram(companionDto, artifact);
+    } catch (Exception e) {
+      log.warn("Failed to enqueue Telegram delivery for job {}: {}", job.id(), e.getMessage(), e);
+    }
+  }
+
+  private void save(ReportJob job) {
+    try {
+      redisTemplate
+          .opsForValue()
+          .set(
+              KEY_PREFIX + job.id(),
+              objectMapper.writeValueAsString(job),
+              reportProperties.getJobRetention());
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize report job " + job.id(), e);
+    }
+  }
+
+  private ReportJob findJob(String jobId, CompanionDto companionDto) {
+    String json = redisTemplate.opsForValue().get(KEY_PREFIX + jobId);
+    ReportJob job;
+    try {
+      job = json == null ? null : objectMapper.readValue(json, ReportJob.class);
+    } catch (JsonProcessingException e) {
+      log.warn("Dropping unreadable report job {}: {}", jobId, e.getMessage());
+      job = null;
+    }
+    if (job == null || !job.companionId().equals(companionDto.id())) {
+      throw new NoSuchElementException("Report job not found: " + jobId);
+    }
+    return job;
+  }
+
+  /**
+   * Job state as stored in Redis; every state change writes a new copy.
+   *
+   * @param artifactKey store key of the rendered report once the job completed
+   */
+  record ReportJob(
+      String id,
+      Long childId,
+      Long companionId,
+      ReportJobStatus status,
+      Instant createdAt,
+      Instant finishedAt,
+      String error,
+      String artifactKey) {
+
+    static ReportJob queued(String id, Long childId, Long companionId) {
+      return new ReportJob(
+          id, childId, companionId, ReportJobStatus.QUEUED, Instant.now(), null, null, null);
+    }
+
+    ReportJob running() {
+      return new ReportJob(
+          id, childId, companionId, ReportJobStatus.RUNNING, createdAt, null, null, null);
+    }
+
+    ReportJob completed(String artifactKey) {
+      return new ReportJob(
+          id,
+          childId,
+          companionId,
+          ReportJobStatus.COMPLETED,
+          createdAt,
+          Instant.now(),
+          null,
+          artifactKey);
+    }
+
+    ReportJob failed(String error) {
+      return new ReportJob(
+          id, childId, companionId, ReportJobStatus.FAILED, createdAt, Instant.now(), error, null);
+    }
+
+    ReportJobResponseDto toDto() {
+      return new ReportJobResponseDto(id, childId, status, createdAt, finishedAt, error);
+    }
+  }
+}
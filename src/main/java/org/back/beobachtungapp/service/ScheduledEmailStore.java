@@ -0,0 +1,66 @@
+package org.back.beobachtungapp.service;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import org.back.beobachtungapp.config.properties.BrevoProperties;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Remembers the Brevo message IDs of scheduled emails by their batch ID, i.e. their event ID.
+ * Emails sent as message versions of a batch share the request's batch ID in Brevo, so each of them
+ * can only be cancelled by its own message ID.
+ *
+ * <p>IDs live under {@code brevo:email:<batchId>} until {@code brevo.batch.message-id-retention}
+ * after the email's scheduled time.
+ */
+@SuppressFBWarnings
+@Service
+public class ScheduledEmailStore {
+
+  private static final String KEY_PREFIX = "brevo:email:";
+
+  private final RedisTemplate<String, String> redisTemplate;
+  private final BrevoProperties properties;
+
+  public ScheduledEmailStore(
+      RedisTemplate<String, String> redisTemplate, BrevoProperties properties) {
+    this.redisTemplate = redisTemplate;
+    this.properties = properties;
+  }
+
+  /**
+   * Records the message IDs of an email.
+   *
+   * @param batchId the batch ID of the email
+   * @param messageIds the IDs of the messages Brevo created for its recipients
+   * @param scheduledAt the time the email is sent, {@code null} if it is sent right away
+   */
+  public void save(String batchId, List<String> messageIds, Instant scheduledAt) {
+    if (batchId == null || messageIds.isEmpty()) {
+      return;
+    }
+    Duration untilSent =
+        scheduledAt == null ? Duration.ZERO : Duration.between(Instant.now(), scheduledAt);
+    Duration ttl =
+        properties
+            .getBatch()
+            .getMessageIdRetention()
+            .plus(untilSent.isNegative() ? Duration.ZERO : untilSent);
+    redisTemplate.opsForValue().set(KEY_PREFIX + batchId, String.join(",", messageIds), ttl);
+  }
+
+  /**
+   * Removes and returns the message IDs of an email.
+   *
+   * @param batchId the batch ID of the email
+   * @return the message IDs, empty if none are recorded
+   */
+  public List<String> take(String batchId) {
+    String ids = redisTemplate.opsForValue().getAndDelete(KEY_PREFIX + batchId);
+    return ids == null || ids.isEmpty() ? List.of() : Arrays.asList(ids.split(","));
+  }
+}
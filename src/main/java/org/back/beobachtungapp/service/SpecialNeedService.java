@@ -23,15 +23,18 @@ public class SpecialNeedService {
   private final SpecialNeedRepository specialNeedRepo;
   private final SpecialNeedMapper specialNeedMapper;
   private final ChildRepository childRepository;
+  private final ReportArtifactStore reportArtifactStore;
 
   @Autowired
   public SpecialNeedService(
       SpecialNeedRepository specialNeedRepo,
       SpecialNeedMapper specialNeedMapper,
-      ChildRepository childRepository) {
+      ChildRepository childRepository,
+      ReportArtifactStore reportArtifactStore) {
     this.specialNeedRepo = specialNeedRepo;
     this.specialNeedMapper = specialNeedMapper;
     this.childRepository = childRepository;
+    this.reportArtifactStore = reportArtifactStore;
   }
 
   @Transactional
@@ -45,6 +48,7 @@ public class SpecialNeedService {
             .orElseThrow(() -> new EntityNotFoundException("Child not found"));
     child.addSpecialNeed(need);
     SpecialNeed savedNeed = specialNeedRepo.save(need);
+    reportArtifactStore.invalidate(childId);
     log.info(
         "Successfully saved special need with id: {} for child with id: {}",
         savedNeed.getId(),
@@ -67,6 +71,7 @@ public class SpecialNeedService {
                 });
 
     specialNeedMapper.updateSpecialNeedFromDto(needUpdateDto, need);
+    reportArtifactStore.invalidate(need.getChild().getId());
     log.info("Successfully updated special need with id: {}", needId);
     return specialNeedMapper.specialNeedToSpecialNeedResponseDto(need);
   }
@@ -86,6 +91,7 @@ public class SpecialNeedService {
                 });
 
     specialNeedRepo.delete(need);
+    reportArtifactStore.invalidate(need.getChild().getId());
     log.info("Successfully deleted special need with id: {}", needId);
   }
 
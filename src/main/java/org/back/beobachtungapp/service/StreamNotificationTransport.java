@@ -0,0 +1,74 @@
+package org.back.beobachtungapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.List;
+import org.back.beobachtungapp.config.properties.NotificationProperties;
+import org.back.beobachtungapp.dto.telegram.TelegramPdfJob;
+import org.back.beobachtungapp.processor.StreamNotificationConsumer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link NotificationTransport} over Redis Streams, consumed by the consumer group of the {@link
+ * StreamNotificationConsumer}.
+ *
+ * <p>Due messages are moved from their sorted set into {@link #MESSAGE_STREAM_KEY} and PDF jobs are
+ * added to {@link #PDF_STREAM_KEY}, each as an entry with a single {@link #PAYLOAD_FIELD}. Every
+ * add trims its stream to roughly {@code notification.streams.max-length} entries.
+ */
+@SuppressFBWarnings
+@Service
+@ConditionalOnProperty(name = "notification.transport", havingValue = "streams")
+public class StreamNotificationTransport implements NotificationTransport {
+
+  /** Stream of due Telegram messages. */
+  public static final String MESSAGE_STREAM_KEY = "telegram:message:stream";
+
+  /** Stream of Telegram PDF jobs. */
+  public static final String PDF_STREAM_KEY = "telegram:pdf:stream";
+
+  /** Field of a stream entry holding the message or job. */
+  public static final String PAYLOAD_FIELD = "payload";
+
+  /** KEYS: stream; ARGV: max stream length, payload. */
+  private static final RedisScript<String> ADD =
+      new DefaultRedisScript<>(
+          "return redis.call('XADD', KEYS[1], 'MAXLEN', '~', ARGV[1], '*', 'payload', ARGV[2])",
+          String.class);
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final DelayedMessageStore delayedMessageStore;
+  private final NotificationProperties properties;
+  private final ObjectMapper objectMapper;
+
+  public StreamNotificationTransport(
+      StringRedisTemplate stringRedisTemplate,
+      DelayedMessageStore delayedMessageStore,
+      NotificationProperties properties,
+      ObjectMapper objectMapper) {
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.delayedMessageStore = delayedMessageStore;
+    this.properties = properties;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public long dispatchDue(int partition, long now, int limit) {
+    return delayedMessageStore.moveDueToStream(
+        partition, MESSAGE_STREAM_KEY, properties.getStreams().getMaxLength(), now, limit);
+  }
+
+  @Override
+  public void sendPdf(TelegramPdfJob job) throws JsonProcessingException {
+    stringRedisTemplate.execute(
+        ADD,
+        List.of(PDF_STREAM_KEY),
+        String.valueOf(properties.getStreams().getMaxLength()),
+        objectMapper.writeValueAsString(job));
+  }
+}
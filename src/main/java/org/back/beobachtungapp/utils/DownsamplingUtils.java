@@ -0,0 +1,83 @@
+package org.back.beobachtungapp.utils;
+
+/**
+ * Shape preserving reduction of time series using Largest-Triangle-Three-Buckets (Steinarsson,
+ * 2013).
+ *
+ * <p>The first and last point are always kept. The points in between are split into equally sized
+ * buckets, and from every bucket the point forming the largest triangle with the previously
+ * selected point and the average of the next bucket is kept. Peaks and dips therefore survive the
+ * reduction, unlike with averaging or taking every n-th point.
+ */
+public class DownsamplingUtils {
+
+  private DownsamplingUtils() {}
+
+  /**
+   * Selects at most {@code threshold} points of a series.
+   *
+   * @param x the x values, sorted ascending (e.g. epoch milliseconds)
+   * @param y the y values, same length as {@code x}
+   * @param threshold the maximum number of points to keep, at least 3
+   * @return indices of the selected points in ascending order; all indices if the series has no
+   *     more than {@code threshold} points
+   */
+  public static int[] largestTriangleThreeBuckets(double[] x, double[] y, int threshold) {
+    if (x.length != y.length) {
+      throw new IllegalArgumentException("x and y must have the same length");
+    }
+    if (threshold < 3) {
+      throw new IllegalArgumentException("Threshold must be at least 3");
+    }
+
+    int size = x.length;
+    if (size <= threshold) {
+      int[] all = new int[size];
+      for (int i = 0; i < size; i++) {
+        all[i] = i;
+      }
+      return all;
+    }
+
+    int[] sampled = new int[threshold];
+    double bucketSize = (double) (size - 2) / (threshold - 2);
+    int selected = 0;
+    sampled[0] = 0;
+
+    for (int bucket = 0; bucket < threshold - 2; bucket++) {
+      // Average of the next bucket, the third corner of the triangle
+      int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+      int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, size);
+      double avgX = 0;
+      double avgY = 0;
+      for (int i = nextStart; i < nextEnd; i++) {
+        avgX += x[i];
+        avgY += y[i];
+      }
+      avgX /= nextEnd - nextStart;
+      avgY /= nextEnd - nextStart;
+
+      // Point of the current bucket spanning the largest triangle
+      int start = (int) (bucket * bucketSize) + 1;
+      int end = (int) ((bucket + 1) * bucketSize) + 1;
+      double maxArea = -1;
+      int maxIndex = start;
+      for (int i = start; i < end; i++) {
+        double area =
+            Math.abs(
+                (x[selected] - avgX) * (y[i] - y[selected])
+                    - (x[selected] - x[i]) * (avgY - y[selected]));
+        if (area > maxArea) {
+          maxArea = area;
+          maxIndex = i;
+        }
+      }
+
+      sampled[bucket + 1] = maxIndex;
+      selected = maxIndex;
+    }
+
+    sampled[threshold - 1] = size - 1;
+    return sampled;
+  }
+}
@@ -0,0 +1,176 @@
+package org.back.beobachtungapp.bot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.back.beobachtungapp.bot.TelegramRateLimiter.Bucket;
+import org.back.beobachtungapp.config.properties.TelegramRateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TelegramRateLimiterTest {
+
+  private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final AtomicLong clock = new AtomicLong(SECOND);
+  private SimpleMeterRegistry meterRegistry;
+  private TelegramRateLimiter rateLimiter;
+
+  @BeforeEach
+  void setUp() {
+    TelegramRateLimitProperties properties = new TelegramRateLimitProperties();
+    properties.setGlobalPerSecond(10);
+    properties.setGlobalBurst(2);
+    properties.setChatPerSecond(1);
+    properties.setChatBurst(1);
+    meterRegistry = new SimpleMeterRegistry();
+    rateLimiter = new TelegramRateLimiter(properties, meterRegistry, clock::get);
+  }
+
+  @Test
+  void bucketAllowsBurstWithoutWaiting() {
+    Bucket bucket = new Bucket(10, 3, 0);
+
+    assertThat(bucket.reserve(0)).isZero();
+    assertThat(bucket.reserve(0)).isZero();
+    assertThat(bucket.reserve(0)).isZero();
+    assertThat(bucket.reserve(0)).isEqualTo(INTERVAL);
+  }
+
+  @Test
+  void bucketSpacesCallsByIntervalOnceBurstIsUsed() {
+    Bucket bucket = new Bucket(10, 2, 0);
+    bucket.reserve(0);
+    bucket.reserve(0);
+
+    assertThat(bucket.reserve(0)).isEqualTo(INTERVAL);
+    assertThat(bucket.reserve(0)).isEqualTo(2 * INTERVAL);
+    assertThat(bucket.reserve(0)).isEqualTo(3 * INTERVAL);
+  }
+
+  @Test
+  void bucketRefillsOverTime() {
+    Bucket bucket = new Bucket(10, 2, 0);
+    bucket.reserve(0);
+    bucket.reserve(0);
+
+    assertThat(bucket.isFull(INTERVAL)).isFalse();
+    assertThat(bucket.reserve(INTERVAL)).isEqualTo(INTERVAL);
+    assertThat(bucket.isFull(4 * INTERVAL)).isTrue();
+    assertThat(bucket.reserve(4 * INTERVAL)).isEqualTo(4 * INTERVAL);
+    assertThat(bucket.reserve(4 * INTERVAL)).isEqualTo(4 * INTERVAL);
+    assertThat(bucket.reserve(4 * INTERVAL)).isEqualTo(5 * INTERVAL);
+  }
+
+  @Test
+  void bucketPausedUntilAllowsNoBurstAfterwards() {
+    Bucket bucket = new Bucket(10, 3, 0);
+
+    bucket.pauseUntil(SECOND);
+
+    assertThat(bucket.reserve(0)).isEqualTo(SECOND);
+    assertThat(bucket.reserve(0)).isEqualTo(SECOND + INTERVAL);
+    assertThat(bucket.reserve(SECOND)).isEqualTo(SECOND + 2 * INTERVAL);
+  }
+
+  @Test
+  void bucketIgnoresPauseEndingBeforeNextSlot() {
+    Bucket bucket = new Bucket(10, 1, 0);
+    bucket.reserve(0);
+    bucket.reserve(0);
+
+    bucket.pauseUntil(0);
+
+    assertThat(bucket.reserve(0)).isEqualTo(2 * INTERVAL);
+  }
+
+  @Test
+  void acquireDoesNotWaitWithinLimits() throws InterruptedException {
+    rateLimiter.acquire("1");
+    rateLimiter.acquire("2");
+
+    assertThat(waited()).isZero();
+  }
+
+  @Test
+  void acquireWaitsForChatLimit() throws InterruptedException {
+    rateLimiter.acquire("1");
+    clock.addAndGet(SECOND - TimeUnit.MILLISECONDS.toNanos(10));
+
+    rateLimiter.acquire("1");
+
+    assertThat(waited()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+  }
+
+  @Test
+  void busyChatDoesNotHoldUpOtherChats() throws InterruptedException {
+    rateLimiter.acquire("1");
+    Thread busy =
+        new Thread(
+            () -> {
+              try {
+                rateLimiter.acquire("1");
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+    busy.start();
+    while (busy.getState() != Thread.State.TIMED_WAITING) {
+      Thread.onSpinWait();
+    }
+
+    rateLimiter.acquire("2");
+
+    assertThat(waited()).as("global token is taken only once the chat slot is due").isZero();
+    busy.interrupt();
+    busy.join();
+  }
+
+  @Test
+  void backOffPausesOnlyTheRejectedChat() throws InterruptedException {
+    rateLimiter.backOff("1", Duration.ofSeconds(5));
+    assertThat(meterRegistry.counter("telegram.ratelimit.rejected").count()).isEqualTo(1);
+
+    rateLimiter.acquire("2");
+    assertThat(waited()).as("other chats keep going").isZero();
+
+    clock.addAndGet(5 * SECOND - TimeUnit.MILLISECONDS.toNanos(10));
+    rateLimiter.acquire("1");
+    assertThat(waited())
+        .as("chat resumes after retry_after")
+        .isEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+  }
+
+  @Test
+  void backOffPausesAllChatsForShortDelay() throws InterruptedException {
+    rateLimiter.backOff("1", Duration.ofMillis(10));
+
+    rateLimiter.acquire("2");
+
+    assertThat(waited()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+  }
+
+  @Test
+  void backOffPausesAllChatsWhenSeveralChatsAreRejectedAtOnce() throws InterruptedException {
+    rateLimiter.backOff("1", Duration.ofSeconds(5));
+    clock.addAndGet(2 * SECOND);
+    rateLimiter.backOff("2", Duration.ofSeconds(5));
+    rateLimiter.backOff("3", Duration.ofSeconds(5));
+    rateLimiter.acquire("4");
+    assertThat(waited()).as("chat 1 was rejected outside the window").isZero();
+
+    rateLimiter.backOff("5", Duration.ofSeconds(5));
+    clock.addAndGet(5 * SECOND - TimeUnit.MILLISECONDS.toNanos(10));
+    rateLimiter.acquire("6");
+
+    assertThat(waited()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+  }
+
+  private long waited() {
+    return (long) meterRegistry.timer("telegram.ratelimit.wait").totalTime(TimeUnit.NANOSECONDS);
+  }
+}
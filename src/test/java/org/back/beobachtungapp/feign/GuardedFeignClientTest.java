@@ -0,0 +1,101 @@
+package org.back.beobachtungapp.feign;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import org.back.beobachtungapp.config.properties.ResilienceProperties;
+import org.back.beobachtungapp.service.OutboundGuard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/** Checks how the {@code Retry-After} header of 429 responses decides about retries. */
+class GuardedFeignClientTest {
+
+  private static final Request REQUEST =
+      Request.create(
+          Request.HttpMethod.POST,
+          "https://api.example.com/send",
+          Map.of(),
+          null,
+          StandardCharsets.UTF_8,
+          null);
+
+  private Client delegate;
+  private GuardedFeignClient client;
+
+  @BeforeEach
+  void setUp() {
+    ResilienceProperties.Integration properties = new ResilienceProperties.Integration();
+    properties.setMaxConcurrentCalls(1);
+    properties.setDeadline(Duration.ofSeconds(10));
+    properties.setInitialBackoff(Duration.ofMillis(1));
+    properties.setMaxRetryAfter(Duration.ofSeconds(10));
+    delegate = mock(Client.class);
+    client =
+        new GuardedFeignClient(
+            delegate, new OutboundGuard("test", properties, new SimpleMeterRegistry()));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"0", " 0 ", "Wed, 21 Oct 2015 07:28:00 GMT", "soon", ""})
+  void retriesTooManyRequests(String retryAfter) throws IOException {
+    when(delegate.execute(any(), any()))
+        .thenReturn(response(429, retryAfter))
+        .thenReturn(response(200, null));
+
+    assertThat(client.execute(REQUEST, new Request.Options()).status()).isEqualTo(200);
+    verify(delegate, times(2)).execute(any(), any());
+  }
+
+  @Test
+  void givesUpWhenRetryAfterSecondsExceedMaximum() throws IOException {
+    when(delegate.execute(any(), any())).thenReturn(response(429, "11"));
+
+    assertThat(client.execute(REQUEST, new Request.Options()).status()).isEqualTo(429);
+    verify(delegate).execute(any(), any());
+  }
+
+  @Test
+  void givesUpWhenRetryAfterDateIsTooFarAhead() throws IOException {
+    String inOneHour =
+        ZonedDateTime.now(ZoneOffset.UTC).plusHours(1).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+    when(delegate.execute(any(), any())).thenReturn(response(429, inOneHour));
+
+    assertThat(client.execute(REQUEST, new Request.Options()).status()).isEqualTo(429);
+    verify(delegate).execute(any(), any());
+  }
+
+  @Test
+  void doesNotRetryClientErrors() throws IOException {
+    when(delegate.execute(any(), any())).thenReturn(response(400, "0"));
+
+    assertThat(client.execute(REQUEST, new Request.Options()).status()).isEqualTo(400);
+    verify(delegate).execute(any(), any());
+  }
+
+  private static Response response(int status, String retryAfter) {
+    return Response.builder()
+        .status(status)
+        .request(REQUEST)
+        .headers(retryAfter == null ? Map.of() : Map.of("Retry-After", List.of(retryAfter)))
+        .build();
+  }
+}
@@ -0,0 +1,70 @@
+package org.back.beobachtungapp.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.List;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.junit.jupiter.api.Test;
+
+/** Line wrapping and sanitizing of {@link ReportFonts}. */
+class ReportFontsTest {
+
+  private static final float SIZE = 12;
+
+  private final ReportFonts fonts = new ReportFonts();
+  private final PDFont font = fonts.regular();
+
+  @Test
+  void keepsTextFittingOnOneLine() throws IOException {
+    assertThat(fonts.wrap("kurzer Text", font, SIZE, 200)).containsExactly("kurzer Text");
+  }
+
+  @Test
+  void keepsEmptyLine() throws IOException {
+    assertThat(fonts.wrap("", font, SIZE, 200)).containsExactly("");
+  }
+
+  @Test
+  void wrapsAtSpaces() throws IOException {
+    String text = "eins zwei drei vier fünf sechs sieben acht neun zehn elf zwölf";
+    float maxWidth = fonts.width(font, SIZE, "eins zwei drei vier");
+
+    List<String> lines = fonts.wrap(text, font, SIZE, maxWidth);
+
+    assertThat(lines).hasSizeGreaterThan(1);
+    assertThat(String.join(" ", lines)).isEqualTo(text);
+    for (String line : lines) {
+      assertThat(line).doesNotStartWith(" ").doesNotEndWith(" ");
+      assertThat(fonts.width(font, SIZE, line)).isLessThanOrEqualTo(maxWidth);
+    }
+  }
+
+  @Test
+  void breaksWordsWiderThanLine() throws IOException {
+    String word = "Donaudampfschifffahrtsgesellschaftskapitän".repeat(3);
+    float maxWidth = fonts.width(font, SIZE, "Donaudampf");
+
+    List<String> lines = fonts.wrap("vor " + word + " nach", font, SIZE, maxWidth);
+
+    assertThat(lines.get(0)).isEqualTo("vor");
+    assertThat(lines.get(lines.size() - 1)).endsWith("nach");
+    assertThat(String.join("", lines.subList(1, lines.size())).replace(" ", ""))
+        .isEqualTo(word + "nach");
+    for (String line : lines) {
+      assertThat(line).isNotEmpty();
+      assertThat(fonts.width(font, SIZE, line)).isLessThanOrEqualTo(maxWidth);
+    }
+  }
+
+  @Test
+  void keepsSingleCharacterWiderThanLine() throws IOException {
+    assertThat(fonts.wrap("WW", font, SIZE, 1)).containsExactly("W", "W");
+  }
+
+  @Test
+  void replacesCharactersTheFontCannotEncode() throws IOException {
+    assertThat(fonts.sanitize(font, "a\tb\r\nc ✓")).isEqualTo("a b\nc ?");
+    assertThat(fonts.sanitize(font, null)).isEmpty();
+  }
+}
@@ -0,0 +1,114 @@
+package org.back.beobachtungapp.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Cursor movement and page breaks of {@link ReportLayout} and its blocks. */
+class ReportLayoutTest {
+
+  /** 200 x 200 page with 20pt margins: 160pt of content height. */
+  private static final PDRectangle PAGE = new PDRectangle(200, 200);
+
+  private static final float MARGIN = 20;
+  private static final float TOP = 180;
+  private static final TextStyle STYLE = new TextStyle(false, 10, 20);
+
+  private PDDocument document;
+  private ReportLayout layout;
+
+  @BeforeEach
+  void setUp() {
+    document = new PDDocument();
+    layout = new ReportLayout(document, PAGE, MARGIN);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    document.close();
+  }
+
+  @Test
+  void writesLinesTopToBottom() throws IOException {
+    render(new TextBlock("eins\nzwei\n\nvier", STYLE));
+
+    assertThat(document.getNumberOfPages()).isEqualTo(1);
+    assertThat(layout.cursor()).isEqualTo(TOP - 4 * STYLE.leading());
+  }
+
+  @Test
+  void wrapsParagraphsWiderThanContentArea() throws IOException {
+    String paragraph = "Wort ".repeat(40).trim();
+    int lines =
+        layout.fonts().wrap(paragraph, layout.fonts().regular(), 10, layout.contentWidth()).size();
+
+    render(new TextBlock(paragraph + "\n" + paragraph, STYLE));
+
+    assertThat(lines).isGreaterThan(1);
+    // 9 lines of 20pt fit on a page
+    assertThat(document.getNumberOfPages()).isEqualTo((2 * lines + 8) / 9);
+  }
+
+  @Test
+  void continuesTextOnNewPageAtBottomMargin() throws IOException {
+    // 9 lines fit between 180 and the bottom margin at 20 (180, 160, ..., 20)
+    render(new TextBlock("x\n".repeat(9) + "y", STYLE));
+
+    assertThat(document.getNumberOfPages()).isEqualTo(2);
+    assertThat(layout.cursor()).isEqualTo(TOP - STYLE.leading());
+  }
+
+  @Test
+  void spacePastBottomMarginStartsNewPage() throws IOException {
+    render(new SpacerBlock(100), new SpacerBlock(100));
+
+    assertThat(document.getNumberOfPages()).isEqualTo(2);
+    assertThat(layout.cursor()).isEqualTo(TOP);
+  }
+
+  @Test
+  void movesCursorBelowChart() throws IOException {
+    render(new TextBlock("Titel", STYLE), chart(100), new TextBlock("Text", STYLE));
+
+    assertThat(document.getNumberOfPages()).isEqualTo(1);
+    assertThat(layout.cursor()).isEqualTo(TOP - STYLE.leading() - 100 - STYLE.leading());
+  }
+
+  @Test
+  void startsChartNotFittingOnPageOnNewPage() throws IOException {
+    render(new TextBlock("x\n".repeat(4), STYLE), chart(100));
+
+    assertThat(document.getNumberOfPages()).isEqualTo(2);
+    assertThat(layout.cursor()).isEqualTo(TOP - 100);
+  }
+
+  @Test
+  void placesChartTallerThanPageAtTopOfCurrentPage() throws IOException {
+    render(chart(300));
+
+    assertThat(document.getNumberOfPages()).isEqualTo(1);
+    assertThat(layout.cursor()).isEqualTo(TOP - 300);
+  }
+
+  private void render(Block... blocks) throws IOException {
+    layout.add(List.of(blocks));
+    layout.close();
+  }
+
+  /** Square chart scaled to {@code size} points. */
+  private ChartBlock chart(float size) throws IOException {
+    PDImageXObject image =
+        LosslessFactory.createFromImage(
+            document, new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB));
+    return new ChartBlock(image, 10, 10, size, size);
+  }
+}
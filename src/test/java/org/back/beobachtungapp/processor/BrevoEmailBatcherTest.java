@@ -0,0 +1,198 @@
+package org.back.beobachtungapp.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.back.beobachtungapp.config.properties.BrevoProperties;
+import org.back.beobachtungapp.dto.brevo.BrevoBatchEmailRequest;
+import org.back.beobachtungapp.dto.brevo.BrevoEmailRequest;
+import org.back.beobachtungapp.dto.brevo.BrevoEmailResponse;
+import org.back.beobachtungapp.feign.BrevoClient;
+import org.back.beobachtungapp.service.ScheduledEmailStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Sends batches to a mocked {@link BrevoClient} that rejects every request with a recipient whose
+ * address starts with {@code bad}, as Brevo does for an invalid recipient.
+ */
+class BrevoEmailBatcherTest {
+
+  private static final int MAX_VERSIONS = 4;
+  private static final BrevoEmailRequest.Sender SENDER =
+      new BrevoEmailRequest.Sender("Beobachtung", "noreply@example.com");
+  private static final Request REQUEST =
+      Request.create(
+          Request.HttpMethod.POST,
+          "https://api.brevo.com/v3/smtp/email",
+          Map.of(),
+          null,
+          StandardCharsets.UTF_8,
+          null);
+
+  private final List<Integer> requestSizes = Collections.synchronizedList(new ArrayList<>());
+  private BrevoClient brevoClient;
+  private ScheduledEmailStore scheduledEmailStore;
+  private SimpleMeterRegistry meterRegistry;
+  private BrevoEmailBatcher batcher;
+
+  @BeforeEach
+  void setUp() {
+    brevoClient = mock(BrevoClient.class);
+    when(brevoClient.sendBatch(any())).thenAnswer(invocation -> answer(invocation.getArgument(0)));
+    scheduledEmailStore = mock(ScheduledEmailStore.class);
+    meterRegistry = new SimpleMeterRegistry();
+
+    BrevoProperties properties = new BrevoProperties();
+    properties.getBatch().setMaxVersions(MAX_VERSIONS);
+    properties.getBatch().setMaxDelay(Duration.ofMinutes(1));
+    batcher = new BrevoEmailBatcher(brevoClient, scheduledEmailStore, properties, meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    batcher.stop();
+  }
+
+  @Test
+  void sendsFullGroupAsOneRequest() throws Exception {
+    batcher.start();
+
+    List<CompletableFuture<BrevoEmailBatcher.Delivery>> results = new ArrayList<>();
+    for (int i = 1; i <= MAX_VERSIONS; i++) {
+      results.add(batcher.submit(email("email-" + i, "child" + i + "@example.com")));
+    }
+
+    for (int i = 0; i < MAX_VERSIONS; i++) {
+      assertThat(get(results.get(i)).messageIds()).containsExactly("id-child" + (i + 1));
+    }
+    assertThat(requestSizes).containsExactly(MAX_VERSIONS);
+  }
+
+  @Test
+  void splitsRejectedBatchInHalves() throws Exception {
+    batcher.start();
+
+    CompletableFuture<BrevoEmailBatcher.Delivery> first =
+        batcher.submit(email("email-1", "a@example.com"));
+    CompletableFuture<BrevoEmailBatcher.Delivery> second =
+        batcher.submit(email("email-2", "b@example.com"));
+    CompletableFuture<BrevoEmailBatcher.Delivery> rejected =
+        batcher.submit(email("email-3", "bad@example.com"));
+    CompletableFuture<BrevoEmailBatcher.Delivery> fourth =
+        batcher.submit(email("email-4", "d@example.com"));
+
+    assertThat(get(first).messageIds()).containsExactly("id-a");
+    assertThat(get(second).messageIds()).containsExactly("id-b");
+    assertThat(get(fourth).messageIds()).containsExactly("id-d");
+    assertThatThrownBy(() -> get(rejected))
+        .hasCauseInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("bad@example.com");
+    assertThat(requestSizes).containsExactly(4, 2, 2, 1, 1);
+    verify(scheduledEmailStore, times(0)).save(eq("email-3"), anyList(), any());
+  }
+
+  @Test
+  void isolatesSingleBadRecipient() throws Exception {
+    BrevoEmailBatcher.Delivery delivery =
+        get(batcher.submit(email("email-1", "a@example.com", "bad@example.com", "c@example.com")));
+
+    assertThat(delivery.messageIds()).containsExactly("id-a", "id-c");
+    assertThat(delivery.failedRecipients()).containsOnlyKeys("bad@example.com");
+    assertThat(requestSizes)
+        .as("whole email, per recipient, halves")
+        .containsExactly(1, 3, 1, 2, 1, 1);
+    assertThat(recipients("scheduled")).isEqualTo(2);
+    assertThat(recipients("failed")).isEqualTo(1);
+  }
+
+  @Test
+  void resolvesEveryEmailOnceAfterAllItsVersionsWereAnswered() throws Exception {
+    batcher.start();
+
+    List<CompletableFuture<BrevoEmailBatcher.Delivery>> results =
+        List.of(
+            batcher.submit(email("email-1", "a@example.com", "bad-1@example.com")),
+            batcher.submit(email("email-2", "b@example.com")),
+            batcher.submit(email("email-3", "bad-2@example.com", "c@example.com", "d@example.com")),
+            batcher.submit(email("email-4", "bad-3@example.com")));
+
+    assertThat(get(results.get(0)).messageIds()).containsExactly("id-a");
+    assertThat(get(results.get(1)).messageIds()).containsExactly("id-b");
+    assertThat(get(results.get(2)).messageIds()).containsExactly("id-c", "id-d");
+    assertThatThrownBy(() -> get(results.get(3))).hasCauseInstanceOf(IllegalStateException.class);
+
+    verify(scheduledEmailStore).save(eq("email-1"), eq(List.of("id-a")), any());
+    verify(scheduledEmailStore).save(eq("email-2"), eq(List.of("id-b")), any());
+    verify(scheduledEmailStore).save(eq("email-3"), eq(List.of("id-c", "id-d")), any());
+    verify(scheduledEmailStore, times(3)).save(any(), anyList(), any());
+    assertThat(recipients("scheduled")).isEqualTo(4);
+    assertThat(recipients("failed")).isEqualTo(3);
+  }
+
+  @Test
+  void dropsInvalidAddressesBeforeSending() throws Exception {
+    BrevoEmailBatcher.Delivery delivery =
+        get(batcher.submit(email("email-1", "a@example.com", "not an address")));
+
+    assertThat(delivery.messageIds()).containsExactly("id-a");
+    assertThat(delivery.failedRecipients()).containsEntry("not an address", "invalid address");
+    assertThat(requestSizes).containsExactly(1);
+    assertThat(recipients("invalid")).isEqualTo(1);
+  }
+
+  private BrevoEmailResponse answer(BrevoBatchEmailRequest request) {
+    requestSizes.add(request.messageVersions().size());
+    List<String> ids = new ArrayList<>();
+    for (BrevoBatchEmailRequest.MessageVersion version : request.messageVersions()) {
+      for (BrevoEmailRequest.To to : version.to()) {
+        if (to.email().startsWith("bad")) {
+          throw new FeignException.BadRequest("invalid email " + to.email(), REQUEST, null, null);
+        }
+      }
+      ids.add(
+          "id-"
+              + String.join(
+                  "+", version.to().stream().map(to -> to.email().split("@")[0]).toList()));
+    }
+    return new BrevoEmailResponse(null, ids);
+  }
+
+  private double recipients(String outcome) {
+    return meterRegistry.counter("notification.email.recipients", "outcome", outcome).count();
+  }
+
+  private static BrevoEmailRequest email(String batchId, String... recipients) {
+    return new BrevoEmailRequest(
+        SENDER,
+        Arrays.stream(recipients).map(address -> new BrevoEmailRequest.To(address, null)).toList(),
+        "Neue Beobachtung",
+        "<p>Hallo</p>",
+        null,
+        batchId);
+  }
+
+  private static <T> T get(CompletableFuture<T> future) throws Exception {
+    return future.get(10, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,96 @@
+package org.back.beobachtungapp.processor;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.back.beobachtungapp.config.JacksonConfig;
+import org.back.beobachtungapp.config.KafkaNotificationConfig;
+import org.back.beobachtungapp.config.properties.NotificationProperties;
+import org.back.beobachtungapp.dto.telegram.TelegramPdfJob;
+import org.back.beobachtungapp.service.DelayedMessageStore;
+import org.back.beobachtungapp.service.KafkaNotificationTransport;
+import org.back.beobachtungapp.service.NotificationDeduplicator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+/**
+ * Publishes PDF deliveries through the {@link KafkaNotificationTransport} to an embedded broker and
+ * checks that the {@link KafkaNotificationListener} sends each of them exactly once.
+ */
+@SpringBootTest(
+    classes = {
+      KafkaAutoConfiguration.class,
+      JacksonConfig.class,
+      KafkaNotificationConfig.class,
+      KafkaNotificationTransport.class,
+      KafkaNotificationListener.class,
+      KafkaNotificationPipelineTest.Properties.class
+    },
+    properties = {"notification.transport=kafka", "notification.kafka.partitions=3"})
+@EmbeddedKafka(bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class KafkaNotificationPipelineTest {
+
+  private static final long TIMEOUT_MS = 30000;
+
+  @Autowired private KafkaNotificationTransport transport;
+
+  @MockitoBean private MessageProcessor messageProcessor;
+  @MockitoBean private TelegramPdfSender telegramPdfSender;
+  @MockitoBean private NotificationDeduplicator notificationDeduplicator;
+  @MockitoBean private DelayedMessageStore delayedMessageStore;
+
+  private final Set<String> processed = ConcurrentHashMap.newKeySet();
+
+  @BeforeEach
+  void setUp() {
+    when(notificationDeduplicator.isProcessed(anyString()))
+        .thenAnswer(invocation -> processed.contains(invocation.<String>getArgument(0)));
+    doAnswer(invocation -> processed.add(invocation.getArgument(0)))
+        .when(notificationDeduplicator)
+        .markProcessed(anyString());
+  }
+
+  @Test
+  void sendsEveryPublishedJob() throws Exception {
+    int jobs = 30;
+    for (int i = 0; i < jobs; i++) {
+      transport.sendPdf(job("blob-" + i, (long) i % 4));
+    }
+
+    verify(telegramPdfSender, timeout(TIMEOUT_MS).times(jobs)).send(any());
+  }
+
+  @Test
+  void skipsRedeliveredJob() throws Exception {
+    TelegramPdfJob job = job("blob-duplicate", 7L);
+    transport.sendPdf(job);
+    transport.sendPdf(job);
+
+    verify(notificationDeduplicator, timeout(TIMEOUT_MS).times(2))
+        .isProcessed("pdf:blob-duplicate");
+    verify(telegramPdfSender, after(1000).times(1)).send(job);
+  }
+
+  private static TelegramPdfJob job(String blobKey, Long companionId) {
+    return new TelegramPdfJob(
+        "chat-" + companionId, blobKey, "report.pdf", System.currentTimeMillis(), companionId);
+  }
+
+  @TestConfiguration
+  @EnableConfigurationProperties(NotificationProperties.class)
+  static class Properties {}
+}
@@ -0,0 +1,72 @@
+package org.back.beobachtungapp.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.back.beobachtungapp.config.properties.TelegramMessageQueueProperties;
+import org.back.beobachtungapp.service.PartitionedQueue;
+import org.back.beobachtungapp.service.ReliableQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Claims from a mocked partition holding three messages, sent by a mocked processor. */
+class TelegramMessageQueueConsumerTest {
+
+  private ReliableQueue partition;
+  private MessageProcessor messageProcessor;
+  private TelegramMessageQueueConsumer consumer;
+
+  @BeforeEach
+  void setUp() {
+    partition = mock(ReliableQueue.class);
+    when(partition.claim()).thenReturn("m1", "m2", "m3", null);
+    when(partition.claim(any(Duration.class))).thenReturn(null);
+    PartitionedQueue queue = mock(PartitionedQueue.class);
+    when(queue.ownedPartitions()).thenReturn(List.of(partition));
+    messageProcessor = mock(MessageProcessor.class);
+
+    TelegramMessageQueueProperties properties = new TelegramMessageQueueProperties();
+    properties.setWorkers(2);
+    properties.setPollTimeout(Duration.ofMillis(10));
+    consumer =
+        new TelegramMessageQueueConsumer(
+            queue, messageProcessor, properties, new SimpleMeterRegistry());
+  }
+
+  @AfterEach
+  void tearDown() {
+    consumer.stop();
+  }
+
+  @Test
+  void sendsMessagesOnWorkerPool() throws InterruptedException {
+    CountDownLatch bothSending = new CountDownLatch(2);
+    CountDownLatch allSent = new CountDownLatch(3);
+    doAnswer(
+            invocation -> {
+              bothSending.countDown();
+              bothSending.await(5, TimeUnit.SECONDS);
+              allSent.countDown();
+              return null;
+            })
+        .when(messageProcessor)
+        .process(any(), anyString());
+
+    consumer.start();
+
+    assertThat(bothSending.await(5, TimeUnit.SECONDS))
+        .as("two messages are sent at the same time")
+        .isTrue();
+    assertThat(allSent.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+}
@@ -0,0 +1,101 @@
+package org.back.beobachtungapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.back.beobachtungapp.config.properties.ReportProperties;
+import org.back.beobachtungapp.dto.response.companion.CompanionDto;
+import org.back.beobachtungapp.entity.child.Child;
+import org.back.beobachtungapp.repository.ChildRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.SyncTaskExecutor;
+
+/**
+ * Archives reports whose stored files are deleted by a cache invalidation before they are copied.
+ */
+class BulkReportServiceTest {
+
+  private static final CompanionDto COMPANION =
+      new CompanionDto(1L, "Anna", "Muster", "Schule", "anna@example.com", null, null);
+
+  @TempDir Path root;
+
+  private ReportCacheService reportCacheService;
+  private BulkReportService service;
+
+  @BeforeEach
+  void setUp() {
+    reportCacheService = mock(ReportCacheService.class);
+    service =
+        new BulkReportService(
+            mock(ChildRepository.class),
+            reportCacheService,
+            mock(PdfGeneratorService.class),
+            new ReportProperties(),
+            new SyncTaskExecutor());
+  }
+
+  @Test
+  void fetchesReportAgainWhenItWasRemovedBeforeArchiving() throws IOException {
+    when(reportCacheService.getReport(eq(1L), any()))
+        .thenReturn(root.resolve("invalidated.pdf"), report("fresh.pdf", "Max"));
+
+    Map<String, String> entries = archive(child(1L, "Max"));
+
+    assertThat(entries).containsExactly(Map.entry("begleitbericht-Max-Muster-1-.pdf", "Max"));
+  }
+
+  @Test
+  void listsChildWhoseReportCannotBeFetchedAgain() throws IOException {
+    when(reportCacheService.getReport(eq(1L), any())).thenReturn(root.resolve("invalidated.pdf"));
+    when(reportCacheService.getReport(eq(2L), any())).thenReturn(report("lea.pdf", "Lea"));
+
+    Map<String, String> entries = archive(child(1L, "Max"), child(2L, "Lea"));
+
+    assertThat(entries).containsOnlyKeys("begleitbericht-Lea-Muster-2-.pdf", "fehler.txt");
+    assertThat(entries.get("fehler.txt"))
+        .startsWith("Max Muster (1): ")
+        .contains("invalidated.pdf");
+  }
+
+  private Map<String, String> archive(Child... children) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    service.writeArchive(List.of(children), COMPANION, out);
+
+    Map<String, String> entries = new LinkedHashMap<>();
+    try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+        entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+      }
+    }
+    return entries;
+  }
+
+  private Path report(String fileName, String content) throws IOException {
+    return Files.writeString(root.resolve(fileName), content);
+  }
+
+  private static Child child(long id, String name) {
+    Child child = new Child();
+    child.setId(id);
+    child.setName(name);
+    child.setSurname("Muster");
+    return child;
+  }
+}
@@ -0,0 +1,111 @@
+package org.back.beobachtungapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.back.beobachtungapp.config.properties.ReportProperties;
+import org.back.beobachtungapp.config.properties.ReportProperties.ChartMode;
+import org.back.beobachtungapp.dto.response.child.ChildWithAttachments;
+import org.back.beobachtungapp.dto.response.companion.CompanionDto;
+import org.back.beobachtungapp.dto.response.monitoring.MonitoringEntryResponseDto;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that a report with vector charts is smaller than the same report with raster charts
+ * (lossless 800x600 images), and that vector charts drawn in parallel reach the report. Timings of
+ * both modes are measured by {@code ReportBenchmark}.
+ */
+class ChartModeReportSizeTest {
+
+  private static final CompanionDto COMPANION =
+      new CompanionDto(1L, "Anna", "Muster", "Schule", "anna@example.com", null, null);
+
+  private static ChildWithAttachments child;
+
+  @BeforeAll
+  static void setUp() {
+    Set<MonitoringEntryResponseDto> entries = new HashSet<>();
+    Instant start = Instant.parse("2025-01-01T08:00:00Z");
+    long id = 0;
+    for (int i = 0; i < 20; i++) {
+      Instant at = start.plus(i, ChronoUnit.HOURS);
+      entries.add(entry(++id, String.valueOf(i % 37), 1L, "Konzentration", "QUANTITATIVE", at));
+      entries.add(entry(++id, i % 3 == 0 ? "Nein" : "Ja", 2L, "Pause", "BINARY", at));
+      entries.add(entry(++id, String.valueOf(i % 5 + 1), 3L, "Stimmung", "SCALE", at));
+    }
+
+    child =
+        new ChildWithAttachments(
+            1L,
+            "Max",
+            "Muster",
+            null,
+            null,
+            LocalDate.of(2015, 5, 1),
+            true,
+            Set.of(),
+            Set.of(),
+            Set.of(),
+            Set.of(),
+            entries);
+  }
+
+  @Test
+  void vectorChartsProduceSmallerReports() throws IOException {
+    assertThat(reportSize(ChartMode.VECTOR)).isLessThan(reportSize(ChartMode.RASTER));
+  }
+
+  @Test
+  void vectorChartsDrawnOnChartThreadsAreImportedIntoReport() throws IOException {
+    ExecutorService chartExecutor = Executors.newFixedThreadPool(3);
+    try {
+      byte[] report = render(ChartMode.VECTOR, chartExecutor);
+
+      try (PDDocument document = Loader.loadPDF(report)) {
+        assertThat(new PDFTextStripper().getText(document))
+            .contains("Konzentration (quant.)", "Pause (binary)", "Stimmung (scale)");
+      }
+    } finally {
+      chartExecutor.shutdown();
+    }
+  }
+
+  private long reportSize(ChartMode mode) throws IOException {
+    return render(mode, Runnable::run).length;
+  }
+
+  private byte[] render(ChartMode mode, Executor chartExecutor) throws IOException {
+    ReportProperties properties = new ReportProperties();
+    properties.setChartMode(mode);
+    PdfGeneratorService service =
+        new PdfGeneratorService(
+            new ChartService(chartExecutor, properties),
+            mock(MessageQueueService.class),
+            mock(BlobStore.class),
+            properties);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    service.renderPdf(child, COMPANION, out);
+    return out.toByteArray();
+  }
+
+  private static MonitoringEntryResponseDto entry(
+      long id, String value, long parameterId, String parameterName, String type, Instant at) {
+    return new MonitoringEntryResponseDto(
+        id, value, null, parameterId, parameterName, type, 1L, at);
+  }
+}
@@ -0,0 +1,169 @@
+package org.back.beobachtungapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.back.beobachtungapp.config.JacksonConfig;
+import org.back.beobachtungapp.dto.request.event.EventImportRowDto;
+import org.back.beobachtungapp.dto.response.companion.CompanionDto;
+import org.back.beobachtungapp.dto.response.event.EventImportReportDto;
+import org.back.beobachtungapp.dto.response.event.EventImportRowResultDto;
+import org.back.beobachtungapp.dto.response.event.EventImportStatus;
+import org.back.beobachtungapp.entity.child.Child;
+import org.back.beobachtungapp.entity.companion.Companion;
+import org.back.beobachtungapp.repository.ChildRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** Parses imports against mocked persistence; inserted rows get IDs counting up from 1. */
+class EventImportServiceTest {
+
+  private static final CompanionDto COMPANION =
+      new CompanionDto(1L, "Anna", "Muster", "Schule", "anna@example.com", null, null);
+  private static final String HEADER =
+      "childId,title,description,startDateTime,endDateTime,location\n";
+  private static final String ROW =
+      "5,Elternabend,Halbjahresgespräch,2099-09-15T16:00:00Z,2099-09-15T18:00:00Z,Aula\n";
+
+  private NamedParameterJdbcTemplate jdbcTemplate;
+  private EventImportService service;
+  private SqlParameterSource[] inserted;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    doAnswer(
+            invocation -> {
+              inserted = invocation.getArgument(1);
+              KeyHolder keyHolder = invocation.getArgument(2);
+              for (int i = 0; i < inserted.length; i++) {
+                keyHolder.getKeyList().add(Map.of("id", (long) i + 1));
+              }
+              return new int[inserted.length];
+            })
+        .when(jdbcTemplate)
+        .batchUpdate(anyString(), any(SqlParameterSource[].class), any(), any());
+
+    Child child = new Child();
+    child.setId(5L);
+    child.setSchoolCompanion(new Companion());
+    ChildRepository childRepository = mock(ChildRepository.class);
+    when(childRepository.findAllWithCompanionByIdIn(anyCollection(), eq(COMPANION.id())))
+        .thenReturn(List.of(child));
+
+    service =
+        new EventImportService(
+            jdbcTemplate,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            childRepository,
+            mock(NotificationOutboxService.class),
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            new JacksonConfig().objectMapper());
+  }
+
+  @Test
+  void importsCsvRows() throws IOException {
+    String padded =
+        " 5 , Sportfest , Sport und Spiel , 2099-07-01T08:00:00Z , 2099-07-01T14:00:00Z , Platz \n";
+
+    EventImportReportDto report = service.importCsv(csv(HEADER + ROW + padded), COMPANION);
+
+    assertThat(report.total()).isEqualTo(2);
+    assertThat(report.created()).isEqualTo(2);
+    assertThat(report.rows())
+        .extracting(EventImportRowResultDto::status, EventImportRowResultDto::eventId)
+        .containsExactly(
+            tuple(EventImportStatus.CREATED, 1L), tuple(EventImportStatus.CREATED, 2L));
+    assertThat(inserted[1].getValue("title")).as("spaces trimmed").isEqualTo("Sportfest");
+    assertThat(inserted[1].getValue("childId")).isEqualTo(5L);
+  }
+
+  @Test
+  void reportsUnreadableCsvValues() throws IOException {
+    EventImportReportDto report =
+        service.importCsv(
+            csv(HEADER + ROW + "5,Elternabend,Gespräch,morgen,2099-09-15T18:00:00Z,Aula\n"),
+            COMPANION);
+
+    assertThat(report.created()).isEqualTo(1);
+    EventImportRowResultDto failed = report.rows().get(1);
+    assertThat(failed.row()).isEqualTo(2);
+    assertThat(failed.status()).isEqualTo(EventImportStatus.FAILED);
+    assertThat(failed.messages()).singleElement().asString().startsWith("Unreadable row");
+  }
+
+  @Test
+  void treatsEmptyCsvCellsAsMissing() throws IOException {
+    EventImportReportDto report =
+        service.importCsv(
+            csv(HEADER + ",Elternabend,,2099-09-15T16:00:00Z,2099-09-15T18:00:00Z,Aula\n"),
+            COMPANION);
+
+    assertThat(report.failed()).isEqualTo(1);
+    assertThat(report.rows().get(0).messages())
+        .containsExactlyInAnyOrder("Child ID is required", "Description cannot be blank");
+  }
+
+  @Test
+  void reportsChildOfOtherCompanion() throws IOException {
+    EventImportReportDto report =
+        service.importCsv(csv(HEADER + "6" + ROW.substring(1)), COMPANION);
+
+    assertThat(report.rows().get(0).status()).isEqualTo(EventImportStatus.FAILED);
+    assertThat(report.rows().get(0).messages()).containsExactly("Child not found with id: 6");
+  }
+
+  @Test
+  void rejectsCsvWithTooManyRows() {
+    InputStream csv = csv(HEADER + ROW.repeat(1001));
+
+    assertThatThrownBy(() -> service.importCsv(csv, COMPANION))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void reportsNullJsonRowAsFailed() {
+    EventImportRowDto row =
+        new EventImportRowDto(
+            5L,
+            "Elternabend",
+            "Halbjahresgespräch",
+            Instant.parse("2099-09-15T16:00:00Z"),
+            Instant.parse("2099-09-15T18:00:00Z"),
+            "Aula");
+
+    EventImportReportDto report = service.importRows(Arrays.asList(row, null), COMPANION);
+
+    assertThat(report.created()).isEqualTo(1);
+    assertThat(report.failed()).isEqualTo(1);
+    EventImportRowResultDto failed = report.rows().get(1);
+    assertThat(failed.status()).isEqualTo(EventImportStatus.FAILED);
+    assertThat(failed.messages()).containsExactly("Row is empty (null)");
+  }
+
+  private static InputStream csv(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
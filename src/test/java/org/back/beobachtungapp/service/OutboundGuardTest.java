@@ -0,0 +1,185 @@
+package org.back.beobachtungapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.back.beobachtungapp.config.properties.ResilienceProperties;
+import org.back.beobachtungapp.exception.IntegrationUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OutboundGuardTest {
+
+  private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+  private final AtomicLong clock = new AtomicLong();
+  private ResilienceProperties.Integration properties;
+  private SimpleMeterRegistry meterRegistry;
+  private OutboundGuard guard;
+
+  @BeforeEach
+  void setUp() {
+    properties = new ResilienceProperties.Integration();
+    properties.setMaxConcurrentCalls(2);
+    properties.setDeadline(Duration.ofSeconds(10));
+    properties.setSlidingWindowSize(4);
+    properties.setMinimumCalls(4);
+    properties.setFailureRateThreshold(50);
+    properties.setOpenDuration(OPEN_DURATION);
+    properties.setMaxAttempts(3);
+    properties.setRetryBudgetRatio(0.5);
+    properties.setRetryBudgetBurst(1);
+    meterRegistry = new SimpleMeterRegistry();
+    guard = new OutboundGuard("test", properties, meterRegistry, clock::get);
+  }
+
+  @Test
+  void staysClosedBelowMinimumCalls() {
+    call(true);
+    call(true);
+    call(true);
+
+    assertThat(circuitState()).isZero();
+    guard.newCall().enter().close();
+  }
+
+  @Test
+  void opensOnceFailureRateIsReached() {
+    open();
+
+    assertThat(circuitState()).isEqualTo(1);
+    assertThatThrownBy(() -> guard.newCall().enter())
+        .isInstanceOfSatisfying(
+            IntegrationUnavailableException.class,
+            e -> assertThat(e.getRetryAfter()).isEqualTo(OPEN_DURATION));
+    assertThat(rejected("circuit_open")).isEqualTo(1);
+  }
+
+  @Test
+  void forgetsFailuresLeavingSlidingWindow() {
+    call(true);
+    call(false);
+    call(false);
+    call(false);
+    call(false);
+
+    call(true);
+    assertThat(circuitState()).as("one failure in the last four calls").isZero();
+  }
+
+  @Test
+  void halfOpensAfterOpenDurationAndClosesOnSuccessfulProbe() {
+    open();
+    clock.addAndGet(OPEN_DURATION.toNanos() - 1);
+    assertThatThrownBy(() -> guard.newCall().enter())
+        .isInstanceOf(IntegrationUnavailableException.class);
+
+    clock.addAndGet(1);
+    OutboundGuard.Permit probe = guard.newCall().enter();
+    assertThat(circuitState()).isEqualTo(2);
+    assertThatThrownBy(() -> guard.newCall().enter())
+        .as("only one probe at a time")
+        .isInstanceOf(IntegrationUnavailableException.class);
+
+    probe.close();
+    assertThat(circuitState()).isZero();
+    call(true);
+    call(true);
+    call(true);
+    assertThat(circuitState()).as("window was reset").isZero();
+  }
+
+  @Test
+  void reopensWhenProbeFails() {
+    open();
+    clock.addAndGet(OPEN_DURATION.toNanos());
+
+    call(true);
+
+    assertThat(circuitState()).isEqualTo(1);
+    clock.addAndGet(OPEN_DURATION.toNanos() - 1);
+    assertThatThrownBy(() -> guard.newCall().enter())
+        .isInstanceOf(IntegrationUnavailableException.class);
+  }
+
+  @Test
+  void retriesWithinRetryBudget() {
+    assertThat(guard.newCall().retry(Duration.ZERO)).as("saved up burst").isTrue();
+
+    assertThat(guard.newCall().retry(Duration.ZERO)).as("half a token earned").isFalse();
+    assertThat(
+            meterRegistry.counter("outbound.retry.budget.exhausted", "integration", "test").count())
+        .isEqualTo(1);
+
+    assertThat(guard.newCall().retry(Duration.ZERO)).as("a whole token earned").isTrue();
+    assertThat(meterRegistry.counter("outbound.calls.retried", "integration", "test").count())
+        .isEqualTo(2);
+  }
+
+  @Test
+  void retryBudgetIsCappedAtBurst() {
+    for (int i = 0; i < 10; i++) {
+      guard.newCall();
+    }
+
+    assertThat(guard.newCall().retry(Duration.ZERO)).isTrue();
+    assertThat(guard.newCall().retry(Duration.ZERO)).isFalse();
+  }
+
+  @Test
+  void givesUpAfterMaxAttempts() {
+    properties.setRetryBudgetBurst(10);
+    guard = new OutboundGuard("test", properties, meterRegistry, clock::get);
+    OutboundGuard.Call call = guard.newCall();
+
+    assertThat(call.retry(Duration.ZERO)).isTrue();
+    assertThat(call.retry(Duration.ZERO)).isTrue();
+    assertThat(call.retry(Duration.ZERO)).isFalse();
+  }
+
+  @Test
+  void givesUpWhenRetryAfterExceedsMaximum() {
+    OutboundGuard.Call call = guard.newCall();
+
+    assertThat(call.retry(properties.getMaxRetryAfter().plusSeconds(1))).isFalse();
+  }
+
+  @Test
+  void rejectsAttemptsAfterDeadline() {
+    OutboundGuard.Call call = guard.newCall();
+    clock.addAndGet(properties.getDeadline().toNanos());
+
+    assertThat(call.remaining()).isZero();
+    assertThat(call.retry(Duration.ZERO)).isFalse();
+    assertThatThrownBy(call::enter).isInstanceOf(IntegrationUnavailableException.class);
+    assertThat(rejected("deadline")).isEqualTo(1);
+  }
+
+  private void open() {
+    call(false);
+    call(false);
+    call(true);
+    call(true);
+  }
+
+  private void call(boolean fail) {
+    try (OutboundGuard.Permit permit = guard.newCall().enter()) {
+      if (fail) {
+        permit.failure();
+      }
+    }
+  }
+
+  private double circuitState() {
+    return meterRegistry.get("outbound.circuit.state").gauge().value();
+  }
+
+  private double rejected(String reason) {
+    return meterRegistry
+        .counter("outbound.calls.rejected", "integration", "test", "reason", reason)
+        .count();
+  }
+}
@@ -0,0 +1,185 @@
+package org.back.beobachtungapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import org.back.beobachtungapp.config.properties.QueueProperties;
+import org.back.beobachtungapp.dto.queue.DeadLetter;
+import org.back.beobachtungapp.dto.queue.QueueStats;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+/**
+ * Runs the Lua scripts of {@link ReliableQueue} against a real Redis server started for the test.
+ * Backoffs are not waited for: a retry is made due by moving its score in {@code <key>:retry} into
+ * the past, as the passing of time would.
+ */
+class ReliableQueueIntegrationTest {
+
+  private static final String KEY = "jobs";
+  private static final int MAX_ATTEMPTS = 3;
+  private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(10);
+  private static final Duration MAX_BACKOFF = Duration.ofSeconds(15);
+
+  private static RedisServer server;
+  private static LettuceConnectionFactory connectionFactory;
+  private static StringRedisTemplate redisTemplate;
+
+  private ReliableQueue queue;
+
+  @BeforeAll
+  static void startRedis() throws IOException {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    server = RedisServer.newRedisServer().bind("127.0.0.1").port(port).build();
+    server.start();
+
+    connectionFactory =
+        new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port));
+    connectionFactory.afterPropertiesSet();
+    connectionFactory.start();
+    redisTemplate = new StringRedisTemplate(connectionFactory);
+  }
+
+  @AfterAll
+  static void stopRedis() throws IOException {
+    connectionFactory.destroy();
+    server.stop();
+  }
+
+  @BeforeEach
+  void setUp() {
+    try (RedisConnection connection = connectionFactory.getConnection()) {
+      connection.serverCommands().flushAll();
+    }
+    QueueProperties properties = new QueueProperties();
+    properties.setMaxAttempts(MAX_ATTEMPTS);
+    properties.setInitialBackoff(INITIAL_BACKOFF);
+    properties.setMaxBackoff(MAX_BACKOFF);
+    queue =
+        new ReliableQueue("jobs", KEY, "consumer-1", redisTemplate, properties, new ObjectMapper());
+  }
+
+  @Test
+  void ackRemovesJobForGood() {
+    queue.enqueue("job");
+
+    assertThat(queue.claim()).isEqualTo("job");
+    assertThat(queue.stats()).isEqualTo(new QueueStats(0, 1, 0, 0));
+
+    queue.ack("job");
+
+    assertThat(queue.stats()).isEqualTo(new QueueStats(0, 0, 0, 0));
+    assertThat(redisTemplate.opsForList().size(KEY + ":processing:consumer-1")).isZero();
+    assertThat(redisTemplate.opsForHash().size(KEY + ":owners")).isZero();
+    assertThat(queue.claim()).isNull();
+  }
+
+  @Test
+  void retriesFailedJobAfterExponentialBackoff() {
+    queue.enqueue("job");
+    queue.claim();
+
+    long before = System.currentTimeMillis();
+    assertThat(queue.fail("job", "boom")).isTrue();
+    assertThat(retryAt("job")).isBetween(before + 10000, System.currentTimeMillis() + 10000);
+    assertThat(queue.stats()).isEqualTo(new QueueStats(0, 0, 1, 0));
+
+    queue.recover();
+    assertThat(queue.size()).as("not due before the backoff elapsed").isZero();
+
+    makeDue("job");
+    queue.recover();
+    assertThat(queue.stats()).isEqualTo(new QueueStats(1, 0, 0, 0));
+
+    assertThat(queue.claim()).isEqualTo("job");
+    before = System.currentTimeMillis();
+    assertThat(queue.fail("job", "boom")).isTrue();
+    assertThat(retryAt("job"))
+        .as("backoff doubled, capped at the max backoff")
+        .isBetween(before + 15000, System.currentTimeMillis() + 15000);
+  }
+
+  @Test
+  void deadLettersJobAfterMaxAttempts() {
+    queue.enqueue("job");
+
+    for (int attempt = 1; attempt < MAX_ATTEMPTS; attempt++) {
+      assertThat(queue.claim()).isEqualTo("job");
+      assertThat(queue.fail("job", "boom " + attempt)).isTrue();
+      makeDue("job");
+      queue.recover();
+    }
+    assertThat(queue.claim()).isEqualTo("job");
+    long before = System.currentTimeMillis();
+    assertThat(queue.fail("job", "boom " + MAX_ATTEMPTS)).isFalse();
+
+    assertThat(queue.stats()).isEqualTo(new QueueStats(0, 0, 0, 1));
+    List<DeadLetter> deadLetters = queue.deadLetters(0, 10);
+    assertThat(deadLetters).hasSize(1);
+    DeadLetter deadLetter = deadLetters.get(0);
+    assertThat(deadLetter.payload()).isEqualTo("job");
+    assertThat(deadLetter.attempts()).isEqualTo(MAX_ATTEMPTS);
+    assertThat(deadLetter.error()).isEqualTo("boom " + MAX_ATTEMPTS);
+    assertThat(deadLetter.failedAt().toEpochMilli()).isGreaterThanOrEqualTo(before);
+  }
+
+  @Test
+  void replaysDeadLettersWithFreshAttemptCount() {
+    for (String job : List.of("first", "second")) {
+      queue.enqueue(job);
+      queue.claim();
+      queue.reject(job, "invalid");
+    }
+    assertThat(queue.deadLetterCount()).isEqualTo(2);
+
+    assertThat(queue.replay(1)).isEqualTo(1);
+    assertThat(queue.stats()).isEqualTo(new QueueStats(1, 0, 0, 1));
+    assertThat(queue.claim()).as("oldest dead letter first").isEqualTo("first");
+
+    long before = System.currentTimeMillis();
+    assertThat(queue.fail("first", "boom")).isTrue();
+    assertThat(retryAt("first"))
+        .as("first attempt after the replay")
+        .isBetween(before + 10000, System.currentTimeMillis() + 10000);
+
+    assertThat(queue.replay(10)).isEqualTo(1);
+    assertThat(queue.deadLetterCount()).isZero();
+    assertThat(queue.claim()).isEqualTo("second");
+  }
+
+  @Test
+  void retriesJobWhoseLeaseExpired() {
+    queue.enqueue("job");
+    queue.claim();
+    redisTemplate.opsForZSet().add(KEY + ":leases", "job", 0);
+
+    queue.recover();
+
+    assertThat(queue.stats()).isEqualTo(new QueueStats(0, 0, 1, 0));
+    assertThat(redisTemplate.opsForList().size(KEY + ":processing:consumer-1")).isZero();
+  }
+
+  private long retryAt(String payload) {
+    Double score = redisTemplate.opsForZSet().score(KEY + ":retry", payload);
+    assertThat(score).as("scheduled for retry").isNotNull();
+    return score.longValue();
+  }
+
+  private void makeDue(String payload) {
+    redisTemplate.opsForZSet().add(KEY + ":retry", payload, 0);
+  }
+}
@@ -0,0 +1,121 @@
+package org.back.beobachtungapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import org.back.beobachtungapp.config.properties.ReportProperties;
+import org.back.beobachtungapp.dto.response.companion.CompanionDto;
+import org.back.beobachtungapp.repository.ChildRepository;
+import org.back.beobachtungapp.repository.GoalRepository;
+import org.back.beobachtungapp.repository.MonitoringEntryRepository;
+import org.back.beobachtungapp.repository.NoteRepository;
+import org.back.beobachtungapp.repository.SpecialNeedRepository;
+import org.back.beobachtungapp.repository.projection.ChangeStamp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Serves reports of child 1 from a temporary store, rendered by a mocked generator. */
+class ReportCacheServiceTest {
+
+  private static final CompanionDto COMPANION =
+      new CompanionDto(1L, "Anna", "Muster", "Schule", "anna@example.com", null, null);
+  private static final ChangeStamp STAMP =
+      new ChangeStamp(1L, Instant.parse("2025-01-01T00:00:00Z"));
+
+  @TempDir Path root;
+
+  private PdfGeneratorService pdfGeneratorService;
+  private MonitoringEntryRepository monitoringEntryRepository;
+  private ReportCacheService service;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    pdfGeneratorService = mock(PdfGeneratorService.class);
+    doAnswer(
+            invocation -> {
+              OutputStream out = invocation.getArgument(3);
+              out.write("%PDF".getBytes(StandardCharsets.US_ASCII));
+              return null;
+            })
+        .when(pdfGeneratorService)
+        .renderPdf(any(), any(), any(LocalDate.class), any());
+
+    ChildRepository childRepository = mock(ChildRepository.class);
+    when(childRepository.findChangeStampById(1L)).thenReturn(STAMP);
+    monitoringEntryRepository = mock(MonitoringEntryRepository.class);
+    when(monitoringEntryRepository.findChangeStampByChildId(1L)).thenReturn(STAMP);
+    when(monitoringEntryRepository.findParameterChangeStampByChildId(1L)).thenReturn(STAMP);
+    NoteRepository noteRepository = mock(NoteRepository.class);
+    when(noteRepository.findChangeStampByChildId(1L)).thenReturn(STAMP);
+    GoalRepository goalRepository = mock(GoalRepository.class);
+    when(goalRepository.findChangeStampByChildId(1L)).thenReturn(STAMP);
+    SpecialNeedRepository specialNeedRepository = mock(SpecialNeedRepository.class);
+    when(specialNeedRepository.findChangeStampByChildId(1L)).thenReturn(STAMP);
+
+    ReportProperties properties = new ReportProperties();
+    properties.setCacheDir(root.toString());
+    service =
+        new ReportCacheService(
+            new ReportArtifactStore(properties),
+            pdfGeneratorService,
+            mock(ChildService.class),
+            childRepository,
+            monitoringEntryRepository,
+            noteRepository,
+            goalRepository,
+            specialNeedRepository,
+            properties,
+            new ReportBulkhead(properties, new SimpleMeterRegistry()));
+  }
+
+  @Test
+  void servesStoredReportWhileNothingChanged() throws IOException {
+    Path first = service.getReport(1L, COMPANION);
+    Path second = service.getReport(1L, COMPANION);
+
+    assertThat(second).isEqualTo(first);
+    verify(pdfGeneratorService, times(1)).renderPdf(any(), any(), eq(LocalDate.now()), any());
+  }
+
+  @Test
+  void rendersAgainAfterParameterWasRenamed() throws IOException {
+    Path first = service.getReport(1L, COMPANION);
+    when(monitoringEntryRepository.findParameterChangeStampByChildId(1L))
+        .thenReturn(new ChangeStamp(1L, Instant.parse("2025-02-01T00:00:00Z")));
+
+    Path second = service.getReport(1L, COMPANION);
+
+    assertThat(second).isNotEqualTo(first);
+    verify(pdfGeneratorService, times(2)).renderPdf(any(), any(), any(LocalDate.class), any());
+  }
+
+  @Test
+  void rendersReportOfOtherInstanceOnlyWhileItsKeyIsCurrent() throws IOException {
+    Path stored = service.getReport(1L, COMPANION);
+    String key = stored.getFileName().toString().replace(".pdf", "");
+    Files.delete(stored);
+
+    assertThat(service.getReport(1L, COMPANION, key)).contains(stored);
+
+    Files.delete(stored);
+    when(monitoringEntryRepository.findChangeStampByChildId(1L))
+        .thenReturn(new ChangeStamp(2L, Instant.parse("2025-02-01T00:00:00Z")));
+
+    assertThat(service.getReport(1L, COMPANION, key)).isEmpty();
+  }
+}
@@ -0,0 +1,139 @@
+package org.back.beobachtungapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import org.back.beobachtungapp.config.JacksonConfig;
+import org.back.beobachtungapp.config.properties.ReportProperties;
+import org.back.beobachtungapp.dto.response.companion.CompanionDto;
+import org.back.beobachtungapp.dto.response.report.ReportJobResponseDto;
+import org.back.beobachtungapp.dto.response.report.ReportJobStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+/**
+ * Submits a job on one instance and polls it on another, both sharing a real Redis server started
+ * for the test but each with its own artefact store and mocked report cache.
+ */
+class ReportJobServiceTest {
+
+  private static final CompanionDto COMPANION =
+      new CompanionDto(1L, "Anna", "Muster", "Schule", "anna@example.com", null, null);
+  private static final CompanionDto OTHER_COMPANION =
+      new CompanionDto(2L, "Ben", "Muster", "Schule", "ben@example.com", null, null);
+  private static final String KEY = "abc123";
+
+  private static RedisServer server;
+  private static LettuceConnectionFactory connectionFactory;
+  private static StringRedisTemplate redisTemplate;
+
+  @TempDir Path firstRoot;
+  @TempDir Path secondRoot;
+
+  private ReportCacheService secondCache;
+  private ReportJobService first;
+  private ReportJobService second;
+
+  @BeforeAll
+  static void startRedis() throws IOException {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    server = RedisServer.newRedisServer().bind("127.0.0.1").port(port).build();
+    server.start();
+
+    connectionFactory =
+        new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port));
+    connectionFactory.afterPropertiesSet();
+    connectionFactory.start();
+    redisTemplate = new StringRedisTemplate(connectionFactory);
+  }
+
+  @AfterAll
+  static void stopRedis() throws IOException {
+    connectionFactory.destroy();
+    server.stop();
+  }
+
+  @BeforeEach
+  void setUp() throws IOException {
+    try (RedisConnection connection = connectionFactory.getConnection()) {
+      connection.serverCommands().flushAll();
+    }
+
+    ReportCacheService firstCache = mock(ReportCacheService.class);
+    Path rendered = Files.createDirectories(firstRoot.resolve("1")).resolve(KEY + ".pdf");
+    when(firstCache.getReport(1L, COMPANION)).thenReturn(Files.writeString(rendered, "%PDF"));
+    first = service(firstCache, firstRoot);
+
+    secondCache = mock(ReportCacheService.class);
+    second = service(secondCache, secondRoot);
+  }
+
+  @Test
+  void otherInstanceReportsStateAndServesReportUnderJobKey() throws IOException {
+    String jobId = first.submit(1L, COMPANION).id();
+    Path copy = Files.writeString(secondRoot.resolve(KEY + ".pdf"), "%PDF");
+    when(secondCache.getReport(eq(1L), any(), eq(KEY))).thenReturn(Optional.of(copy));
+
+    ReportJobResponseDto job = second.getJob(jobId, COMPANION);
+
+    assertThat(job.status()).isEqualTo(ReportJobStatus.COMPLETED);
+    assertThat(job.finishedAt()).isNotNull();
+    assertThat(second.getArtifact(jobId, COMPANION)).isEqualTo(copy);
+    assertThat(redisTemplate.getExpire("report:job:" + jobId)).isPositive();
+  }
+
+  @Test
+  void rejectsJobWhoseReportIsOutdated() throws IOException {
+    String jobId = first.submit(1L, COMPANION).id();
+    when(secondCache.getReport(eq(1L), any(), eq(KEY))).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> second.getArtifact(jobId, COMPANION))
+        .isInstanceOf(NoSuchElementException.class)
+        .hasMessageContaining("outdated");
+  }
+
+  @Test
+  void hidesJobFromOtherCompanion() {
+    String jobId = first.submit(1L, COMPANION).id();
+
+    assertThatThrownBy(() -> second.getJob(jobId, OTHER_COMPANION))
+        .isInstanceOf(NoSuchElementException.class);
+  }
+
+  private static ReportJobService service(ReportCacheService cache, Path root) throws IOException {
+    ReportProperties properties = new ReportProperties();
+    properties.setCacheDir(root.toString());
+    properties.setJobRetention(Duration.ofMinutes(5));
+    return new ReportJobService(
+        mock(PdfGeneratorService.class),
+        cache,
+        new ReportArtifactStore(properties),
+        redisTemplate,
+        new JacksonConfig().objectMapper(),
+        properties,
+        new SyncTaskExecutor());
+  }
+}
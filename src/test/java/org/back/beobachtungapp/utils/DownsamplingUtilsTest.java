@@ -0,0 +1,68 @@
+package org.back.beobachtungapp.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class DownsamplingUtilsTest {
+
+  @ParameterizedTest
+  @ValueSource(ints = {5, 6, 100})
+  void returnsAllIndicesWhenBudgetCoversSeries(int threshold) {
+    double[] x = {1, 2, 3, 4, 5};
+    double[] y = {3, 1, 4, 1, 5};
+
+    assertThat(DownsamplingUtils.largestTriangleThreeBuckets(x, y, threshold))
+        .containsExactly(0, 1, 2, 3, 4);
+  }
+
+  @Test
+  void keepsFirstAndLastPoint() {
+    double[] x = new double[100];
+    double[] y = new double[100];
+    for (int i = 0; i < x.length; i++) {
+      x[i] = i;
+      y[i] = Math.sin(i / 5.0);
+    }
+
+    int[] selected = DownsamplingUtils.largestTriangleThreeBuckets(x, y, 10);
+
+    assertThat(selected).hasSize(10).startsWith(0).endsWith(99).isSorted().doesNotHaveDuplicates();
+  }
+
+  @Test
+  void keepsPeaksAndTroughs() {
+    double[] x = new double[1000];
+    double[] y = new double[1000];
+    for (int i = 0; i < x.length; i++) {
+      x[i] = i * 60_000.0;
+    }
+    y[317] = 100;
+    y[642] = -100;
+
+    int[] selected = DownsamplingUtils.largestTriangleThreeBuckets(x, y, 20);
+
+    assertThat(selected).hasSize(20).contains(317, 642);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 2})
+  void rejectsBudgetsBelowThree(int threshold) {
+    double[] x = {1, 2, 3, 4, 5};
+    double[] y = {3, 1, 4, 1, 5};
+
+    assertThatThrownBy(() -> DownsamplingUtils.largestTriangleThreeBuckets(x, y, threshold))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("at least 3");
+  }
+
+  @Test
+  void rejectsSeriesOfDifferentLength() {
+    assertThatThrownBy(
+            () -> DownsamplingUtils.largestTriangleThreeBuckets(new double[3], new double[2], 3))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}